@@ -26,15 +26,9 @@
 
     var _selfCitationController = this
     var doiTable
-    var doiTableSource =[]
-
-    var rowTemplate = {
-      'doi_name' : '',
-      'status' : '',
-      'title' : '',
-      'data_dir' : '',
-      'landing_page' : ''
-    }
+
+    // sort keys supported by the search service, by table column
+    var sortKeys = ['suffix', 'status', 'title']
 
     var page = new cadc.web.citation.CitationPage(inputs)
 
@@ -50,8 +44,10 @@
       // should be able to have the doi list function in this table
       // may want a refresh button however, to re-load the table if the page is stale?
 
+      // the search service sorts and pages the DOI list, the table requests one page at a time
       doiTable = $("#doi_table").DataTable({
-        data: doiTableSource,
+        serverSide: true,
+        ajax: loadDoiPage,
         columns: [
           {'data' : 'doi_name'},
           {'data' : 'status'},
@@ -61,24 +57,21 @@
         ],
         columnDefs: [
           { 'width': 20, 'targets': 0 },
-          { 'width': 100, 'targets': 1 }
+          { 'width': 100, 'targets': 1 },
+          { 'orderable': false, 'targets': [3, 4] }
         ],
-        ordering: false,
-        paging: false,
-        searching: true
+        order: [[0, 'desc']],
+        ordering: true,
+        paging: true,
+        pageLength: 25,
+        searching: false
       })
-
-      // Do the initial ajax call to get the DOI list
-      loadDoiList()
     }
 
     function attachListeners() {
       $('.doi_refresh').click(loadDoiList)
       $('#doi_request').click(handleDOIRequest)
 
-      page.subscribe(_selfCitationController, cadc.web.citation.events.onDoiListLoaded, function(e, data) {
-        setTableContent(data.doiList)
-      })
 
       page.subscribe(page, cadc.web.citation.events.onAuthenticated, function (e, data) {
         initializeDoiTable()
@@ -88,24 +81,15 @@
 
     // ------------ Page state management functions ------------
 
-    function setTableContent(jsonData) {
+    function getTableContent(jsonData) {
       // payload from ajax call to /doi/instances is an array of
       // of status objects the calling user has permission to view
       var doiStatusList = jsonData.doiStatuses['$']
-
-      // Table load
-      if (doiStatusList.length == 0) {
-        setTableStatus('No data found')
+      var rows = []
+      for (var j = 0; j < doiStatusList.length; j++) {
+        rows.push(mkDoiStatusRow(doiStatusList[j].doistatus))
       }
-      else {
-        for (var j = doiStatusList.length - 1; j >= 0; j--) {
-          var doiEntry = doiStatusList[j]
-          displayDoiStatus(doiEntry.doistatus)
-        }
-      }
-
-      page.setProgressBar('okay')
-      hideInfoModal()
+      return rows
     }
 
     function setTableStatus(displayText) {
@@ -126,12 +110,22 @@
       window.open('/citation/request?doi=' + doiSuffix, '_blank');
     }
 
-    // POST
+    // Refresh button click handler
     function loadDoiList() {
-      clearTable()
+      doiTable.ajax.reload()
+      return false
+    }
+
+    // POST, DataTables server-side data source
+    function loadDoiPage(data, callback, settings) {
       page.setProgressBar('busy')
       setTableStatus('Loading...')
-      page.setInfoModal('Please wait ', 'Fetching current DOI list... (may take up to 10 seconds)', false, true)
+
+      var search = {role: 'owner', offset: data.start, limit: data.length}
+      if (data.order.length > 0 && sortKeys[data.order[0].column]) {
+        search.sort = sortKeys[data.order[0].column]
+        search.order = data.order[0].dir
+      }
 
       page.prepareSearchCall().then(function(serviceURL) {
         $.ajax({
@@ -139,32 +133,46 @@
           url: serviceURL,
           method: 'POST',
           dataType: 'json',
-          data: JSON.stringify({role:'owner'}),
+          data: JSON.stringify(search),
           contentType: 'application/json'
         })
-            .success(function(stringdata) {
-              setTableStatus('Loading......')
+            .success(function(stringdata, textStatus, jqXHR) {
+              var rows = getTableContent(stringdata)
+              var total = parseInt(jqXHR.getResponseHeader('X-Total-Count'), 10)
+              if (isNaN(total)) {
+                total = data.start + rows.length
+              }
+              callback({
+                draw: data.draw,
+                recordsTotal: total,
+                recordsFiltered: total,
+                data: rows
+              })
+              if (total == 0) {
+                setTableStatus('No data found')
+              }
+              page.setProgressBar('okay')
               page.trigger(_selfCitationController, cadc.web.citation.events.onDoiListLoaded, {
                 doiList: stringdata,
               })
             })
             .fail(function(message) {
+              callback({draw: data.draw, recordsTotal: 0, recordsFiltered: 0, data: []})
               hideInfoModal()
               setTableStatus('No data')
               page.setProgressBar('error')
               page.setAjaxFail(message)
             })
       })
-      return false
     }
 
-    // Used on return from GET
-    function displayDoiStatus(doi) {
+    // Used on return from POST
+    function mkDoiStatusRow(doi) {
       // The JSON output from /doi/instances uses Badgerfish,
       // which is why pulling the values out of it probably looks
       // strange here...
       // Assuming this is a 'doistatus' object
-      var newStatus = rowTemplate
+      var newStatus = {}
       var doiName = doi.identifier['$']
       newStatus.doi_name = mkNameLink(doiName)
       newStatus.status = page.setStatusText(doi.status['$'])
@@ -172,7 +180,7 @@
       newStatus.landing_page = page.mkLandingPageLink(doi.identifier['$'].split("/")[1])
       newStatus.title = mkTitleLink(doi.title['$'], doiName)
 
-      addRow(newStatus)
+      return newStatus
     }
 
     // New DOI button click handler
@@ -188,22 +196,6 @@
     }
 
 
-    // ------------ Table update functions ------------
-    function clearTable() {
-      // Invalidate and redraw
-      doiTable
-          .clear()
-          .draw()
-    }
-
-    function addRow(newRowData) {
-      // Add and redraw
-      doiTable
-          .row
-          .add(newRowData)
-          .draw()
-    }
-
     // ------------ Display/rendering functions ------------
 
     function parseDoiSuffix(doiName) {
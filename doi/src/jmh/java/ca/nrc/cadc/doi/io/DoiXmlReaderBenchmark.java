@@ -0,0 +1,164 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.xml.XmlUtil;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parse throughput of DoiXmlReader on the DataCite 4.5 example documents, comparing
+ * building a JDOM document with a new builder (XmlUtil.buildDocument) and walking it
+ * with the JdomResourceReader test fixture, with the single pass stream reader.
+ * Each operation parses one document, so the score is in parses per second.
+ *
+ * <p>DoiXmlReader no longer uses a SAXBuilder, so pooled and new builders are not
+ * compared: the JDOM path is the reference the stream reader replaced.</p>
+ *
+ * <p>Run from the doi directory with: gradle jmh</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DoiXmlReaderBenchmark {
+
+    static final String FIXTURES_DIR = "src/test/resources/xml-4.5";
+
+    @Param({"true", "false"})
+    public boolean validate;
+
+    private final List<String> documents = new ArrayList<>();
+    private DoiXmlReader reader;
+    private JdomResourceReader jdomReader;
+    private Map<String, String> schemaMap;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        File[] files = new File(FIXTURES_DIR).listFiles((dir, name) -> name.endsWith(".xml"));
+        if (files == null || files.length == 0) {
+            throw new IllegalStateException("no test documents found in " + FIXTURES_DIR);
+        }
+        Arrays.sort(files);
+        for (File f : files) {
+            documents.add(new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8));
+        }
+        reader = new DoiXmlReader(validate);
+        jdomReader = new JdomResourceReader();
+        if (validate) {
+            schemaMap = new HashMap<>();
+            schemaMap.put(DoiXmlReader.DATACITE_NAMESPACE,
+                    XmlUtil.getResourceUrlString(DoiXmlReader.DATACITE_SCHEMA, DoiXmlReader.class));
+        }
+    }
+
+    private String nextDocument(Cursor cursor) {
+        String xml = documents.get(cursor.next);
+        cursor.next = (cursor.next + 1) % documents.size();
+        return xml;
+    }
+
+    @Benchmark
+    public void jdomDocument(Cursor cursor, Blackhole bh) throws Exception {
+        bh.consume(jdomReader.buildResource(XmlUtil.buildDocument(new StringReader(nextDocument(cursor)), schemaMap)));
+    }
+
+    @Benchmark
+    public void streamReader(Cursor cursor, Blackhole bh) throws Exception {
+        bh.consume(reader.read(nextDocument(cursor)));
+    }
+}
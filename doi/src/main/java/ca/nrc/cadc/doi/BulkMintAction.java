@@ -0,0 +1,286 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.mint.MintJob;
+import ca.nrc.cadc.doi.mint.MintQueue;
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.rest.InlineContentHandler;
+import java.io.OutputStream;
+import java.security.AccessControlException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+import org.opencadc.vospace.ContainerNode;
+
+/**
+ * Mint a list of DOIs in one request: <code>POST /mint</code> with the document
+ * <code>{"dois": ["25.0001", "25.0002", ...]}</code>.
+ *
+ * <p>The caller is authenticated and its publisher group membership checked once for
+ * the request, and the DOIs are then minted as by <code>POST /instances/{doi}/mint</code>
+ * on the mint executor of the DoiTaskExecutor, so that at most mintThreads DOIs are
+ * worked on at the same time and the lookups are not held up. The mint is done in two
+ * stages: the data directory locking job of every DOI is started first, then each DOI is
+ * registered with DataCite once the DoiJobReconciler has seen its job finish. No thread
+ * waits for a locking job. When the mint job queue is configured the DOIs are queued
+ * instead.</p>
+ *
+ * <p>The response is streamed as one JSON object per line and per DOI, in the order the
+ * DOIs are done: <code>{"doi": ..., "code": ..., "status": ...}</code>. The code is 200 for
+ * a minted DOI, 202 for a DOI that is queued, or still locking its data or still minting
+ * at the deadline (with a <code>message</code>), 504 for a DOI whose mint had not started
+ * at the deadline, and the code of the error otherwise, with an <code>error</code> message.
+ * A DOI still minting at the deadline is not interrupted, its mint completes after the
+ * response.</p>
+ */
+public class BulkMintAction extends DoiAction {
+    private static final Logger log = Logger.getLogger(BulkMintAction.class);
+
+    // time left at the deadline to register a DOI after its data are locked, see
+    // DoiConfig.MIN_BULK_MINT_TIMEOUT_SECONDS
+    static final long REGISTER_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    public BulkMintAction() {
+        super();
+    }
+
+    @Override
+    protected InlineContentHandler getInlineContentHandler() {
+        return new SearchInlineContentHandler();
+    }
+
+    @Override
+    public void doAction() throws Exception {
+        super.init();
+        authorize();
+        if (doiSuffix != null) {
+            throw new IllegalArgumentException("Bad request: " + syncInput.getPath());
+        }
+
+        JSONObject document = (JSONObject) syncInput.getContent(SearchInlineContentHandler.CONTENT_KEY);
+        List<String> suffixes = DoiBatch.getSuffixes(document);
+
+        // authorize the caller once for all the DOIs
+        final boolean callerIsAdmin = isCallingUserDOIAdmin();
+        final boolean callerIsPublisher = isCallingUserPublisher();
+        final Subject adminSubject = getAdminSubject();
+        final long deadline = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(doiConfig.getBulkMintTimeout());
+        log.debug("bulk mint of " + suffixes.size() + " DOIs");
+
+        syncOutput.setCode(200);
+        syncOutput.setHeader("Content-Type", "application/x-ndjson");
+        final OutputStream out = syncOutput.getOutputStream();
+        DoiTaskExecutor executor = DoiTaskExecutor.getMintInstance(doiConfig);
+        final Map<String, Status> locked = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try {
+            // start locking the data of every DOI, the DOIs that are done are written at once
+            DoiBatch.run(executor, adminSubject, suffixes,
+                suffix -> lockData(suffix, callerIsAdmin, callerIsPublisher), deadline,
+                (suffix, result, error) -> {
+                    Status status = error == null ? Status.toValue(result.getString("status")) : null;
+                    if (status == Status.LOCKING_DATA || status == Status.LOCKED_DATA
+                            || status == Status.ERROR_REGISTERING) {
+                        locked.put(suffix, status);
+                    } else {
+                        writeBatchLine(out, getLine(suffix, result, error));
+                    }
+                });
+
+            // register each DOI when the job reconciler has seen its locking job finish
+            DoiBatch.run(executor, adminSubject, new ArrayList<>(locked.keySet()),
+                suffix -> locked.get(suffix) == Status.LOCKING_DATA
+                    ? DoiJobReconciler.whenUntracked(suffix) : CompletableFuture.completedFuture(null),
+                suffix -> register(suffix, deadline - REGISTER_MILLIS), deadline,
+                (suffix, result, error) -> {
+                    JSONObject line;
+                    if (error instanceof TimeoutException && !(error instanceof DoiBatch.InProgressException)) {
+                        // the data are locked, or being locked, and the DOI is registered by a later mint
+                        log.debug("not registered " + suffix + " before the deadline");
+                        line = getResult(suffix, locked.get(suffix));
+                        line.put("message", "not registered before the deadline");
+                    } else {
+                        line = getLine(suffix, result, error);
+                    }
+                    writeBatchLine(out, line);
+                });
+        } finally {
+            recordPhase(DoiMetrics.EXECUTE, start);
+        }
+    }
+
+    // the line of a DOI in the response
+    private JSONObject getLine(String suffix, JSONObject result, Exception error) {
+        if (error == null) {
+            return result;
+        }
+        JSONObject line = new JSONObject();
+        line.put("doi", accountPrefix + "/" + suffix);
+        if (error instanceof DoiBatch.InProgressException) {
+            log.debug("still minting " + suffix + " at the deadline");
+            line.put("code", 202);
+            line.put("message", "minting in progress at the deadline");
+        } else {
+            log.debug("failed to mint " + suffix + ": " + error);
+            line.put("code", getBatchErrorCode(error));
+            line.put("error", String.valueOf(error.getMessage()));
+        }
+        return line;
+    }
+
+    // first stage: check one DOI and start its data locking job, run as the doi admin
+    private JSONObject lockData(String suffix, boolean callerIsAdmin, boolean callerIsPublisher)
+            throws Exception {
+        DoiMinter minter = new DoiMinter(doiConfig, vospaceDoiClient, suffix);
+        minter.acquire();
+        try {
+            // the node is read by the owner of the DOI, no other step writes it meanwhile
+            ContainerNode doiContainerNode = minter.getContainerNode();
+            if (!canMint(doiContainerNode, callerIsAdmin, callerIsPublisher)) {
+                throw new AccessControlException("Not authorized to Mint this resource: " + suffix);
+            }
+            Status status = getStatus(doiContainerNode);
+            DoiMinter.checkMintable(status, isAlternativeConfiguration());
+
+            MintQueue mintQueue = MintQueue.getInstance();
+            if (mintQueue != null) {
+                if (status != Status.MINTED && status != Status.COMPLETED) {
+                    MintJob job = mintQueue.submit(suffix);
+                    JSONObject result = getResult(suffix, status);
+                    result.put("job", job.getID());
+                    return result;
+                }
+            } else if (isDataUnlocked(status)) {
+                minter.lockData(doiContainerNode);
+                status = getStatus(doiContainerNode);
+            }
+            return getResult(suffix, status);
+        } finally {
+            minter.release();
+        }
+    }
+
+    // second stage: register one DOI once its data are locked, run as the doi admin
+    private JSONObject register(String suffix, long registerDeadline) throws Exception {
+        DoiMinter minter = new DoiMinter(doiConfig, vospaceDoiClient, suffix);
+        minter.acquire();
+        try {
+            ContainerNode doiContainerNode = minter.getContainerNode();
+            Status status = getStatus(doiContainerNode);
+            if (status == Status.LOCKING_DATA && hasPendingJob(doiContainerNode)) {
+                // the job tracker is not started, or stopped tracking the job
+                status = Status.toValue(minter.updateJobStatus(doiContainerNode, status.getValue(), 0));
+            }
+            if ((status == Status.LOCKED_DATA || status == Status.ERROR_REGISTERING)
+                    && System.currentTimeMillis() < registerDeadline) {
+                minter.register(doiContainerNode);
+                status = getStatus(doiContainerNode);
+            }
+            return getResult(suffix, status);
+        } finally {
+            minter.release();
+        }
+    }
+
+    private JSONObject getResult(String suffix, Status status) {
+        JSONObject result = new JSONObject();
+        result.put("doi", accountPrefix + "/" + suffix);
+        boolean minted = status == Status.MINTED || status == Status.COMPLETED;
+        result.put("code", minted ? 200 : 202);
+        result.put("status", status.getValue());
+        return result;
+    }
+
+    // true if minting a DOI with this status starts by locking its data directory
+    private static boolean isDataUnlocked(Status status) {
+        switch (status) {
+            case DRAFT:
+            case IN_REVIEW:
+            case APPROVED:
+            case ERROR_LOCKING_DATA:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Status getStatus(ContainerNode doiContainerNode) {
+        return Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
+    }
+}
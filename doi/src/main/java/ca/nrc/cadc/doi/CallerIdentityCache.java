@@ -0,0 +1,133 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.ac.ACIdentityManager;
+import ca.nrc.cadc.doi.cache.ExpiringCache;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+
+/**
+ * Process-wide cache of the numeric user IDs of callers, keyed by the identity of the
+ * caller. Numeric IDs do not change, the expiry only bounds how long an entry for an
+ * inactive caller is kept.
+ */
+public class CallerIdentityCache {
+    private static final Logger log = Logger.getLogger(CallerIdentityCache.class);
+
+    static final long TTL_MINUTES = 30;
+    static final int MAX_SIZE = 10000;
+
+    private static final ExpiringCache<String, Long> CACHE =
+            new ExpiringCache<>("CallerIdentityCache", TTL_MINUTES, TimeUnit.MINUTES, MAX_SIZE);
+
+    private CallerIdentityCache() {
+    }
+
+    /**
+     * Get the numeric ID of the caller.
+     *
+     * @param caller the calling subject
+     * @return the numeric ID of the caller, null for an anonymous caller
+     */
+    public static Long getNumericId(Subject caller) {
+        return getNumericId(caller, subject -> (Long) new ACIdentityManager().toOwner(subject));
+    }
+
+    static Long getNumericId(Subject caller, Function<Subject, Long> toOwner) {
+        if (caller == null || caller.getPrincipals().isEmpty()) {
+            return null;
+        }
+        String identity = GroupMembershipCache.getIdentity(caller);
+        try {
+            return CACHE.get(identity, () -> {
+                log.debug("toOwner: " + identity);
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    Long owner = toOwner.apply(caller);
+                    success = true;
+                    return owner;
+                } finally {
+                    DoiMetrics.recordCall(DoiMetrics.AC, "toOwner", System.nanoTime() - start, success);
+                }
+            });
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException("failed to resolve numeric ID: " + identity, ex);
+        }
+    }
+
+    public static ExpiringCache<?, ?> getCache() {
+        return CACHE;
+    }
+}
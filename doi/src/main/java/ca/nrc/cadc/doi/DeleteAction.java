@@ -67,6 +67,7 @@
 
 package ca.nrc.cadc.doi;
 
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
 import ca.nrc.cadc.doi.status.Status;
 import java.security.AccessControlException;
 import java.security.PrivilegedExceptionAction;
@@ -91,10 +92,15 @@ public class DeleteAction extends DoiAction {
         authorizeResourceAccess();
 
         // Do all subsequent work as doi admin
-        Subject.doAs(getAdminSubject(), (PrivilegedExceptionAction<Object>) () -> {
-            doActionImpl();
-            return null;
-        });
+        long start = System.nanoTime();
+        try {
+            Subject.doAs(getAdminSubject(), (PrivilegedExceptionAction<Object>) () -> {
+                doActionImpl();
+                return null;
+            });
+        } finally {
+            recordPhase(DoiMetrics.EXECUTE, start);
+        }
     }
 
     private void authorizeResourceAccess() throws NodeNotFoundException {
@@ -131,10 +137,12 @@ public class DeleteAction extends DoiAction {
         // Delete the DOI group. Will be format DOI-<DOINumInputStr>
         String groupToDelete = doiGroupPrefix + doiSuffix;
         log.debug("deleting group: " + groupToDelete);
-        getGMSClient().deleteGroup(groupToDelete);
+        deleteGroup(groupToDelete);
 
         log.debug("deleting node: " + parentPath + "/" + doiSuffix);
         vospaceDoiClient.deleteNode(doiSuffix);
+        removeFromIndex(doiSuffix);
+        DoiDocumentCache.invalidate(doiSuffix);
     }
 
 }
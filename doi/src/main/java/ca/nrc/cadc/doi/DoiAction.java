@@ -67,14 +67,19 @@
 
 package ca.nrc.cadc.doi;
 
-import ca.nrc.cadc.ac.ACIdentityManager;
+import ca.nrc.cadc.ac.Group;
 import ca.nrc.cadc.ac.client.GMSClient;
 import ca.nrc.cadc.auth.AuthenticationUtil;
-import ca.nrc.cadc.auth.SSLUtil;
 import ca.nrc.cadc.cred.client.CredUtil;
+import ca.nrc.cadc.date.DateUtil;
 import ca.nrc.cadc.doi.datacite.Identifier;
 import ca.nrc.cadc.doi.datacite.Resource;
 import ca.nrc.cadc.doi.datacite.Title;
+import ca.nrc.cadc.doi.index.DoiIndex;
+import ca.nrc.cadc.doi.index.DoiIndexEntry;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.search.DoiPage;
+import ca.nrc.cadc.doi.search.SortKey;
 import ca.nrc.cadc.doi.io.DoiXmlWriter;
 import ca.nrc.cadc.doi.status.DoiStatus;
 import ca.nrc.cadc.doi.status.DoiStatusListJsonWriter;
@@ -82,41 +87,52 @@ import ca.nrc.cadc.doi.status.DoiStatusListXmlWriter;
 import ca.nrc.cadc.doi.status.Status;
 import ca.nrc.cadc.net.OutputStreamWrapper;
 import ca.nrc.cadc.net.ResourceNotFoundException;
-import ca.nrc.cadc.reg.Standards;
-import ca.nrc.cadc.reg.client.LocalAuthority;
 import ca.nrc.cadc.rest.InlineContentHandler;
 import ca.nrc.cadc.rest.RestAction;
-import ca.nrc.cadc.util.MultiValuedProperties;
 import ca.nrc.cadc.util.StringUtil;
-import ca.nrc.cadc.uws.ExecutionPhase;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.security.AccessControlException;
 import java.security.Principal;
-import java.security.PrivilegedActionException;
-import java.security.PrivilegedExceptionAction;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntSupplier;
 import javax.security.auth.Subject;
 
 import org.apache.log4j.Logger;
+import org.json.JSONObject;
 import org.opencadc.gms.GroupURI;
 import org.opencadc.vospace.ContainerNode;
 import org.opencadc.vospace.Node;
+import org.opencadc.vospace.NodeNotFoundException;
 import org.opencadc.vospace.NodeProperty;
 import org.opencadc.vospace.VOS;
 import org.opencadc.vospace.VOSURI;
 import org.opencadc.vospace.client.ClientTransfer;
-import org.opencadc.vospace.client.async.RecursiveSetNode;
 import org.opencadc.vospace.transfer.Direction;
 import org.opencadc.vospace.transfer.Protocol;
 import org.opencadc.vospace.transfer.Transfer;
@@ -124,6 +140,8 @@ import org.opencadc.vospace.transfer.Transfer;
 public abstract class DoiAction extends RestAction {
     private static final Logger log = Logger.getLogger(DoiAction.class);
 
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
     public static final String STATUS_ACTION = "status";
     public static final String MINT_ACTION = "mint";
     public static final String SEARCH_ACTION = "search";
@@ -136,7 +154,7 @@ public abstract class DoiAction extends RestAction {
     protected Boolean includePublic = false;
 
     protected VospaceDoiClient vospaceDoiClient;
-    protected MultiValuedProperties config;
+    protected DoiConfig doiConfig;
     protected URI vaultResourceID;
     protected URI gmsResourceID;
     protected String accountPrefix;
@@ -155,44 +173,38 @@ public abstract class DoiAction extends RestAction {
      */
     @Override
     protected InlineContentHandler getInlineContentHandler() {
-        return new DoiInlineContentHandler();
+        return new DoiInlineContentHandler(DoiConfig.getInstance().getMaxJsonSize());
     }
     
     protected void init()
             throws URISyntaxException, UnknownHostException {
-        // load doi properties
-        this.config = DoiInitAction.getConfig();
-        VOSURI parentVOSURI = DoiInitAction.getParentVOSURI(config);
-        this.vaultResourceID = parentVOSURI.getServiceURI();
-        this.parentPath = parentVOSURI.getPath();
-        this.accountPrefix = config.getFirstPropertyValue(DoiInitAction.DATACITE_ACCOUNT_PREFIX_KEY);
-        this.publisherGroupURI = DoiInitAction.getPublisherGroupURI(config);
-        this.doiGroupPrefix = config.getFirstPropertyValue(DoiInitAction.DOI_GROUP_PREFIX_KEY);
-
-        LocalAuthority localAuthority = new LocalAuthority();
-        Set<URI> gmsServices = localAuthority.getResourceIDs(Standards.GMS_SEARCH_10);
-        if (gmsServices.isEmpty()) {
-            throw new IllegalStateException("GMS service not found");
-        } else if (gmsServices.size() > 1) {
-            throw new IllegalStateException("multiple GMS services found");
+        long start = System.nanoTime();
+        try {
+            // load doi properties
+            this.doiConfig = DoiConfig.getInstance();
+            this.vaultResourceID = doiConfig.getVaultResourceID();
+            this.parentPath = doiConfig.getParentPath();
+            this.accountPrefix = doiConfig.getAccountPrefix();
+            this.publisherGroupURI = doiConfig.getPublisherGroupURI();
+            this.doiGroupPrefix = doiConfig.getGroupPrefix();
+
+            this.gmsResourceID = DoiInitAction.getGmsResourceID();
+
+            // get calling subject
+            callingSubject = AuthenticationUtil.getCurrentSubject();
+            logInfo.setSubject(callingSubject);
+
+            parsePath();
+
+            this.callersNumericId = CallerIdentityCache.getNumericId(callingSubject);
+            this.vospaceDoiClient = VospaceDoiClient.getInstance(doiConfig, gmsResourceID);
+        } finally {
+            recordPhase(DoiMetrics.INIT, start);
         }
-        this.gmsResourceID = gmsServices.iterator().next();
-
-        // get calling subject
-        callingSubject = AuthenticationUtil.getCurrentSubject();
-        logInfo.setSubject(callingSubject);
-
-        parsePath();
-
-        ACIdentityManager acIdentMgr = new ACIdentityManager();
-        this.callersNumericId = (Long) acIdentMgr.toOwner(callingSubject);
-        this.vospaceDoiClient = new VospaceDoiClient(vaultResourceID, parentPath,
-                callingSubject, includePublic, publisherGroupURI, gmsResourceID);
     }
 
     protected String getDoiFilename(String suffix) {
-        return String.format("%s%s.xml",
-                config.getFirstPropertyValue(DoiInitAction.METADATA_PREFIX_KEY), suffix);
+        return String.format("%s%s.xml", doiConfig.getMetadataPrefix(), suffix);
     }
 
     protected VOSURI getVOSURI(String path) {
@@ -203,19 +215,52 @@ public abstract class DoiAction extends RestAction {
         return new GMSClient(gmsResourceID);
     }
 
+    protected void createGroup(Group group) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            getGMSClient().createGroup(group);
+            success = true;
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.GMS, "createGroup", System.nanoTime() - start, success);
+        }
+    }
+
+    protected void deleteGroup(String groupName) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            getGMSClient().deleteGroup(groupName);
+            success = true;
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.GMS, "deleteGroup", System.nanoTime() - start, success);
+        }
+    }
+
+    // record the time spent in a phase of this action
+    protected void recordPhase(String phase, long start) {
+        DoiMetrics.recordPhase(getClass().getSimpleName(), phase, System.nanoTime() - start);
+    }
+
+    // shared, already augmented doiadmin subject: do not modify it
     protected Subject getAdminSubject() {
-        return SSLUtil.createSubject(new File("/config/doiadmin.pem"));
+        return DoiAdminCredentials.getSubject();
     }
 
     protected void authorize() {
+        long start = System.nanoTime();
         try {
-            CredUtil.checkCredentials(callingSubject);
-        } catch (CertificateExpiredException | CertificateNotYetValidException e) {
-            throw new RuntimeException("Failed to check credentials: ", e);
-        }
-        // authorization, for now, is defined as having a set of principals
-        if (callingSubject == null || callingSubject.getPrincipals().isEmpty()) {
-            throw new AccessControlException("Unauthorized");
+            try {
+                CredUtil.checkCredentials(callingSubject);
+            } catch (CertificateExpiredException | CertificateNotYetValidException e) {
+                throw new RuntimeException("Failed to check credentials: ", e);
+            }
+            // authorization, for now, is defined as having a set of principals
+            if (callingSubject == null || callingSubject.getPrincipals().isEmpty()) {
+                throw new AccessControlException("Unauthorized");
+            }
+        } finally {
+            recordPhase(DoiMetrics.AUTHORIZE, start);
         }
     }
 
@@ -259,8 +304,10 @@ public abstract class DoiAction extends RestAction {
     protected boolean isCallingUserPublisher() {
         if (publisherGroupURI != null) {
             try {
-                return Subject.doAs(callingSubject, (PrivilegedExceptionAction<Boolean>) () -> getGMSClient().isMember(publisherGroupURI));
-            } catch (PrivilegedActionException e) {
+                return GroupMembershipCache.isMember(callingSubject, gmsResourceID, publisherGroupURI);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
                 log.error(e.getMessage());
             }
         }
@@ -279,179 +326,400 @@ public abstract class DoiAction extends RestAction {
     }
 
     protected List<Node> getAccessibleDOIs() throws Exception {
+        long start = System.nanoTime();
+        try {
+            return listAccessibleDOIs();
+        } finally {
+            recordPhase(DoiMetrics.LIST, start);
+        }
+    }
+
+    private List<Node> listAccessibleDOIs() throws Exception {
         Set<Status> readStatus = Set.of(Status.REVIEW_READY, Status.IN_REVIEW, Status.APPROVED, Status.REJECTED);
 
         List<Node> ownedNodes = new ArrayList<>();
-        ContainerNode doiRootNode = vospaceDoiClient.getContainerNode("");
-        if (doiRootNode != null) {
-            for (Node childNode : doiRootNode.getNodes()) {
-                NodeProperty requester = childNode.getProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY);
+        for (Node childNode : getAccessibleDOICandidates(readStatus)) {
+            NodeProperty requester = childNode.getProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY);
 
-                if (requester != null && requester.getValue() != null) {
-                    try {
-                        if (childNode.isPublic != null && childNode.isPublic) {
-                            ownedNodes.add(childNode);
-                            continue;
-                        }
+            if (requester != null && requester.getValue() != null) {
+                try {
+                    if (childNode.isPublic != null && childNode.isPublic) {
+                        ownedNodes.add(childNode);
+                        continue;
+                    }
 
-                        if (callersNumericId == null) {
-                            continue;
-                        }
+                    if (callersNumericId == null) {
+                        continue;
+                    }
 
-                        Long requesterUserId = Long.parseLong(requester.getValue());
-                        if (callersNumericId.equals(requesterUserId) || isCallingUserDOIAdmin()) {
-                            ownedNodes.add(childNode);
-                            continue;
-                        }
+                    Long requesterUserId = Long.parseLong(requester.getValue());
+                    if (callersNumericId.equals(requesterUserId) || isCallingUserDOIAdmin()) {
+                        ownedNodes.add(childNode);
+                        continue;
+                    }
 
-                        // if the caller is a publisher and the node status is readable for a publisher
-                        NodeProperty statusProperty = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
-                        if (statusProperty != null && statusProperty.getValue() != null) {
-                            Status status = Status.toValue(statusProperty.getValue());
-                            if (isCallingUserPublisher() && readStatus.contains(status)) {
-                                ownedNodes.add(childNode);
-                            }
+                    // if the caller is a publisher and the node status is readable for a publisher
+                    NodeProperty statusProperty = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+                    if (statusProperty != null && statusProperty.getValue() != null) {
+                        Status status = Status.toValue(statusProperty.getValue());
+                        if (isCallingUserPublisher() && readStatus.contains(status)) {
+                            ownedNodes.add(childNode);
                         }
-                    } catch (NumberFormatException e) {
-                        log.error(String.format("Unable to parse requester uid[%s] for doi: %s",
-                                requester.getValue(), childNode.getName()), e);
                     }
+                } catch (NumberFormatException e) {
+                    log.error(String.format("Unable to parse requester uid[%s] for doi: %s",
+                            requester.getValue(), childNode.getName()), e);
                 }
             }
         }
         return ownedNodes;
     }
 
-    protected void getStatusList(List<Node> nodes) throws Exception {
-        List<DoiStatus> doiStatusList = new ArrayList<>();
+    // the DOIs that may be accessible to the caller: from the index when it is ready,
+    // otherwise all DOIs in VOSpace
+    private List<Node> getAccessibleDOICandidates(Set<Status> readStatus) throws Exception {
+        DoiIndex index = DoiIndex.getInstance();
+        if (index == null || !index.isReady()) {
+            return listDOINodes();
+        }
+        if (callersNumericId != null && isCallingUserDOIAdmin()) {
+            return toNodes(index.getAll());
+        }
+
+        Map<String, DoiIndexEntry> candidates = new TreeMap<>();
+        addEntries(candidates, index.getPublic());
+        if (callersNumericId != null) {
+            addEntries(candidates, index.getByRequester(callersNumericId.toString()));
+            if (isCallingUserPublisher()) {
+                List<String> statuses = new ArrayList<>();
+                for (Status status : readStatus) {
+                    statuses.add(status.getValue());
+                }
+                addEntries(candidates, index.getByStatus(statuses));
+            }
+        }
+        return toNodes(candidates.values());
+    }
+
+    /**
+     * @return all child nodes of the DOI parent node
+     */
+    protected List<Node> listDOINodes() throws Exception {
+        ContainerNode doiRootNode = vospaceDoiClient.getContainerNode("");
+        if (doiRootNode == null) {
+            return new ArrayList<>();
+        }
+        return doiRootNode.getNodes();
+    }
+
+    protected static void addEntries(Map<String, DoiIndexEntry> entries, List<DoiIndexEntry> toAdd) {
+        for (DoiIndexEntry entry : toAdd) {
+            entries.put(entry.getSuffix(), entry);
+        }
+    }
+
+    protected static List<Node> toNodes(Collection<DoiIndexEntry> entries) {
+        List<Node> nodes = new ArrayList<>();
+        for (DoiIndexEntry entry : entries) {
+            nodes.add(DoiIndexReconciler.toNode(entry));
+        }
+        return nodes;
+    }
+
+    /**
+     * Update a DOI container node in VOSpace and in the DOI index.
+     *
+     * @param vosuri URI of the DOI container node
+     * @param doiContainerNode the updated node
+     */
+    protected void setDoiContainerNode(VOSURI vosuri, ContainerNode doiContainerNode) throws Exception {
+        vospaceDoiClient.setDoiContainerNode(vosuri, doiContainerNode);
+    }
+
+    protected void updateIndex(ContainerNode doiContainerNode) {
+        vospaceDoiClient.updateIndex(doiContainerNode);
+    }
+
+    protected void removeFromIndex(String doiSuffixString) {
+        vospaceDoiClient.removeFromIndex(doiSuffixString);
+    }
+
+    /**
+     * @return the page of a DOI list requested with the query parameters
+     */
+    protected DoiPage getPage() {
+        return DoiPage.parse(syncInput.getParameter(DoiPage.LIMIT_PARAM),
+                syncInput.getParameter(DoiPage.OFFSET_PARAM),
+                syncInput.getParameter(DoiPage.SORT_PARAM),
+                syncInput.getParameter(DoiPage.ORDER_PARAM));
+    }
+
+    /**
+     * Set the ETag header and check it against the If-None-Match header of the request.
+     * The response code is set to 304 when the client already has this representation.
+     *
+     * @param eTag quoted entity tag of the current representation
+     * @return true if the response is 304 Not Modified and no content must be written
+     */
+    protected boolean isNotModified(String eTag) {
+        return isNotModified(eTag, null);
+    }
+
+    /**
+     * Whether the response is validated with ETag and conditional request headers. This is
+     * only true for GET requests: a matching If-None-Match header of any other request must
+     * fail with 412 rather than 304, so other requests are not conditional.
+     *
+     * @return true if the response may be answered with 304 Not Modified
+     */
+    protected boolean isConditional() {
+        return true;
+    }
+
+    /**
+     * Set the ETag and Last-Modified headers and check them against the If-None-Match
+     * header of the request, or the If-Modified-Since header when there is no If-None-Match
+     * header. The response code is set to 304 when the client already has this representation.
+     *
+     * @param eTag quoted entity tag of the current representation, may be null
+     * @param lastModified last modified date of the current representation, may be null
+     * @return true if the response is 304 Not Modified and no content must be written
+     */
+    protected boolean isNotModified(String eTag, Date lastModified) {
+        if (eTag != null) {
+            syncOutput.setHeader("ETag", eTag);
+        }
+        if (lastModified != null) {
+            syncOutput.setHeader("Last-Modified", HTTP_DATE.format(lastModified.toInstant()));
+        }
+
+        String ifNoneMatch = syncInput.getHeader("If-None-Match");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = eTag != null && matchesETag(ifNoneMatch, eTag);
+        } else {
+            notModified = lastModified != null
+                    && !isModifiedSince(syncInput.getHeader("If-Modified-Since"), lastModified);
+        }
+        if (notModified) {
+            log.debug(String.format("not modified: %s %s", eTag, lastModified));
+            syncOutput.setCode(304);
+        }
+        return notModified;
+    }
+
+    static boolean isModifiedSince(String ifModifiedSince, Date lastModified) {
+        if (ifModifiedSince == null) {
+            return true;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince, HTTP_DATE).toInstant();
+            // HTTP dates have a resolution of one second
+            return lastModified.toInstant().getEpochSecond() > since.getEpochSecond();
+        } catch (DateTimeParseException ex) {
+            log.debug("invalid If-Modified-Since: " + ifModifiedSince);
+            return true;
+        }
+    }
+
+    /**
+     * @param node a node
+     * @return the last modified date of the node, or null if it is not set or invalid
+     */
+    protected static Date getLastModified(Node node) {
+        String date = node.getPropertyValue(VOS.PROPERTY_URI_DATE);
+        if (date != null) {
+            try {
+                DateFormat df = DateUtil.getDateFormat(DateUtil.IVOA_DATE_FORMAT, DateUtil.UTC);
+                return df.parse(date);
+            } catch (ParseException ex) {
+                log.debug(String.format("invalid date for %s: %s", node.getName(), date));
+            }
+        }
+        return null;
+    }
+
+    static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                // weak comparison
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static Comparator<Node> getComparator(SortKey sortKey) {
+        Comparator<Node> bySuffix = Comparator.comparing(Node::getName);
+        switch (sortKey) {
+            case STATUS:
+                return Comparator.comparing((Node node) -> node.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY),
+                        Comparator.nullsLast(Comparator.<String>naturalOrder())).thenComparing(bySuffix);
+            case TITLE:
+                return Comparator.comparing((Node node) -> node.getPropertyValue(DOI.VOSPACE_DOI_TITLE_PROPERTY),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(bySuffix);
+            default:
+                return bySuffix;
+        }
+    }
+
+    protected void getStatusList(List<Node> nodes, DoiPage page) throws Exception {
+        // sort all DOIs and set the total count, the status is only resolved for
+        // the DOIs in the requested page
+        List<ContainerNode> allNodes = new ArrayList<>();
         for (Node node : nodes) {
-            log.debug("StatusList node: " + node.getName());
             // Verify this is a container node before continuing
             if (node instanceof ContainerNode) {
-                try {
-                    ContainerNode doiContainerNode = vospaceDoiClient.getContainerNode(node.getName());
-                    DoiStatus doiStatus = getDoiStatus(node.getName(), doiContainerNode, false);
-                    doiStatusList.add(doiStatus);
-                    log.debug("added doiStatus: " + doiStatus);
-                } catch (Exception ex) {
-                    // skip
-                    log.debug(String.format("skipping %s because %s", node.getName(), ex.getMessage()));
-                }
+                allNodes.add((ContainerNode) node);
             } else {
                 log.warn("Non-container node found in DOI base directory. Skipping... ");
             }
         }
-        log.debug("doiStatusList size: " + doiStatusList.size());
+        if (page.getSortKey() != null) {
+            allNodes.sort(getComparator(page.getSortKey()));
+        }
+        if (page.isDescending()) {
+            Collections.reverse(allNodes);
+        }
+        syncOutput.setHeader(DoiPage.TOTAL_COUNT_HEADER, allNodes.size());
+        syncOutput.setHeader("Access-Control-Expose-Headers",
+                DoiPage.TOTAL_COUNT_HEADER + (isConditional() ? ", ETag" : ""));
 
         String docFormat = this.syncInput.getHeader("Accept");
         log.debug("'Accept' value in header is " + docFormat);
-        if (docFormat != null && docFormat.contains("application/json")) {
-            // json document
-            syncOutput.setHeader("Content-Type", "application/json");
-            DoiStatusListJsonWriter writer = new DoiStatusListJsonWriter();
-            writer.write(doiStatusList, syncOutput.getOutputStream());
-        } else {
-            // xml document
-            syncOutput.setHeader("Content-Type", "text/xml");
-            DoiStatusListXmlWriter writer = new DoiStatusListXmlWriter();
-            writer.write(doiStatusList, syncOutput.getOutputStream());
+        boolean json = docFormat != null && docFormat.contains("application/json");
+
+        // the list is generated from the listed nodes only, so a client with the
+        // current list is answered before any status is written
+        List<ContainerNode> pageNodes = page.apply(allNodes);
+        if (isConditional()) {
+            DoiETag eTag = new DoiETag()
+                    .add(json ? "json" : "xml")
+                    .add(accountPrefix)
+                    .add(parentPath)
+                    .add(String.valueOf(allNodes.size()));
+            for (ContainerNode doiContainerNode : pageNodes) {
+                eTag.addStatus(doiContainerNode);
+            }
+            if (isNotModified(eTag.getValue())) {
+                return;
+            }
         }
+
+        // statuses are generated lazily, in order, and each one is written to the
+        // output as soon as it is available
+        Iterator<DoiStatus> doiStatuses = pageNodes.stream()
+                .map(this::resolveDoiStatus)
+                .filter(Objects::nonNull)
+                .iterator();
+        writeStatusList(doiStatuses, json);
     }
 
-    protected DoiStatus getDoiStatus(String doiSuffixString, ContainerNode doiContainerNode, boolean authorize)
-            throws Exception {
-        DoiStatus doiStatus;
-        if (!authorize || vospaceDoiClient.hasCallerReadDOIAccess(doiContainerNode, getAdminSubject())) {
-            // get status
-            String status = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY);
-            if (StringUtil.hasText(status)
-                    && !status.equals(Status.ERROR_REGISTERING.getValue())
-                    && !status.equals(Status.ERROR_LOCKING_DATA.getValue())) {
-                // update status based on the result of the minting service
-                status = updateMintingStatus(doiContainerNode, status);
+    // write the status list document, each status is flushed to the client when written;
+    // the write phase includes resolving the statuses that are generated lazily
+    protected void writeStatusList(Iterator<DoiStatus> doiStatuses, boolean json) throws IOException {
+        writeStatusList(doiStatuses, null, json);
+    }
+
+    // as above, followed by the number of DOIs left out of the list when omitted is not null
+    protected void writeStatusList(Iterator<DoiStatus> doiStatuses, IntSupplier omitted, boolean json)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (json) {
+                // json document
+                syncOutput.setHeader("Content-Type", "application/json");
+                DoiStatusListJsonWriter writer = new DoiStatusListJsonWriter();
+                writer.write(doiStatuses, omitted, syncOutput.getOutputStream());
+            } else {
+                // xml document
+                syncOutput.setHeader("Content-Type", "text/xml");
+                DoiStatusListXmlWriter writer = new DoiStatusListXmlWriter();
+                writer.write(doiStatuses, omitted, syncOutput.getOutputStream());
             }
+        } finally {
+            recordPhase(DoiMetrics.WRITE, start);
+        }
+    }
 
-            // get the data directory
-            // TODO why do this when the data directory path is known???
-            String dataDirectory = String.format("%s/%s/data", parentPath, doiSuffixString);
+    // returns null if the status of the DOI cannot be resolved
+    private DoiStatus resolveDoiStatus(ContainerNode doiContainerNode) {
+        String name = doiContainerNode.getName();
+        try {
+            DoiStatus doiStatus = getDoiStatus(name, doiContainerNode, false);
+            log.debug("resolved doiStatus: " + doiStatus);
+            return doiStatus;
+        } catch (Exception ex) {
+            // skip
+            log.debug(String.format("skipping %s because %s", name, ex.getMessage()));
+            return null;
+        }
+    }
 
-            // get title and construct DoiStatus instance
-            Title title = null;
-            try {
-                title = new Title(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_TITLE_PROPERTY));
-                Identifier identifier = new Identifier(accountPrefix + "/" + doiSuffixString, "DOI");
-                doiStatus = new DoiStatus(identifier, title, dataDirectory, Status.toValue(status));
-            } catch (Exception ex) {
-                Identifier id = new Identifier(accountPrefix + "/" + doiSuffixString, "DOI");
-                title = new Title("title");
-                doiStatus = new DoiStatus(id, title, dataDirectory, Status.toValue(status));
+    protected boolean hasPendingJob(Node node) {
+        return StringUtil.hasText(node.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
+    }
+
+    protected DoiStatus getDoiStatus(String doiSuffixString, ContainerNode doiContainerNode, boolean authorize)
+            throws Exception {
+        long start = System.nanoTime();
+        try {
+            if (authorize) {
+                checkReadAccess(doiSuffixString, doiContainerNode);
             }
 
-            // set journalRef
-            doiStatus.journalRef = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOURNAL_PROPERTY);
+            // the status of a DOI with a pending minting job is updated in the background
+            // when the job finishes
+            String status = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+            if (hasPendingJob(doiContainerNode)) {
+                DoiJobReconciler.track(doiSuffixString);
+            }
+            return toDoiStatus(doiSuffixString, doiContainerNode, status);
+        } finally {
+            recordPhase(DoiMetrics.RESOLVE, start);
+        }
+    }
 
-            // set reviewer
-            doiStatus.reviewer = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_REVIEWER_PROPERTY);
-        } else {
+    protected void checkReadAccess(String doiSuffixString, ContainerNode doiContainerNode) {
+        if (!vospaceDoiClient.hasCallerReadDOIAccess(doiContainerNode, callersNumericId,
+                Boolean.TRUE.equals(includePublic), getAdminSubject())) {
             String msg = "Access Denied to " + doiSuffixString + ".";
             throw new AccessControlException(msg);
         }
-        return doiStatus;
     }
 
-    protected String updateMintingStatus(final ContainerNode doiContainerNode, final String status)
-            throws Exception {
-        return (String) Subject.doAs(getAdminSubject(), (PrivilegedExceptionAction<Object>) () -> {
-            // update status based on the result of the minting service
-            String localStatus = status;
-            String jobURLString = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
-            if (jobURLString != null) {
-                URL jobURL = new URL(jobURLString);
-                VOSURI vosuri = new VOSURI(vaultResourceID, String.format("%s/%s", parentPath, doiContainerNode.getName()));
-                RecursiveSetNode recursiveSetNode = new RecursiveSetNode(jobURL, doiContainerNode);
-                recursiveSetNode.setSchemaValidation(false);
-                ExecutionPhase phase = recursiveSetNode.getPhase(20); // seconds
-                switch (phase) {
-                    case COMPLETED:
-                    case ARCHIVED:
-                        // job finished, set corresponding status
-                        if (status.equals(Status.LOCKING_DATA.getValue())) {
-                            localStatus = Status.LOCKED_DATA.getValue();
-                        } else if (status.equals(Status.REGISTERING.getValue())) {
-                            localStatus = Status.MINTED.getValue();
-                        }
-                        // delete jobURL property
-                        doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
-                        doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(localStatus);
-                        vospaceDoiClient.getVOSpaceClient().setNode(vosuri, doiContainerNode);
-                        break;
-                    case ERROR:
-                    case ABORTED:
-                    case UNKNOWN:
-                    case SUSPENDED:
-                    case HELD:
-                        // assume job resulted in error, set corresponding status
-                        if (status.equals(Status.LOCKING_DATA.getValue())) {
-                            localStatus = Status.ERROR_LOCKING_DATA.getValue();
-                        } else if (status.equals(Status.REGISTERING.getValue())) {
-                            localStatus = Status.ERROR_REGISTERING.getValue();
-                        }
-                        // delete jobURL property
-                        doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
-                        doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(localStatus);
-                        vospaceDoiClient.getVOSpaceClient().setNode(vosuri, doiContainerNode);
-                        break;
-                    case PENDING:
-                    case QUEUED:
-                    case EXECUTING:
-                        // job is in progress, do nothing
-                        break;
-                    default:
-                        // do nothing
-                }
-            }
-            return localStatus;
-        });
+    protected DoiStatus toDoiStatus(String doiSuffixString, ContainerNode doiContainerNode, String status) {
+        DoiStatus doiStatus;
+
+        // get the data directory
+        // TODO why do this when the data directory path is known???
+        String dataDirectory = String.format("%s/%s/data", parentPath, doiSuffixString);
+
+        // get title and construct DoiStatus instance
+        Title title = null;
+        try {
+            title = new Title(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_TITLE_PROPERTY));
+            Identifier identifier = new Identifier(accountPrefix + "/" + doiSuffixString, "DOI");
+            doiStatus = new DoiStatus(identifier, title, dataDirectory, Status.toValue(status));
+        } catch (Exception ex) {
+            Identifier id = new Identifier(accountPrefix + "/" + doiSuffixString, "DOI");
+            title = new Title("title");
+            doiStatus = new DoiStatus(id, title, dataDirectory, Status.toValue(status));
+        }
+
+        // set journalRef
+        doiStatus.journalRef = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOURNAL_PROPERTY);
+
+        // set reviewer
+        doiStatus.reviewer = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_REVIEWER_PROPERTY);
+        return doiStatus;
     }
 
     protected GroupURI createGroupURI(String groupName) {
@@ -463,15 +731,61 @@ public abstract class DoiAction extends RestAction {
         return publisherGroupURI != null;
     }
 
+    /**
+     * Check whether the caller can mint a DOI. The DOI admin can mint all DOIs. In the
+     * alternative configuration only a member of the publisher group that does not own
+     * the DOI can mint it, otherwise only the owner of the DOI.
+     *
+     * @param doiNode DOI container node
+     * @param callerIsAdmin true if the caller is the DOI admin
+     * @param callerIsPublisher true if the caller is a member of the publisher group
+     * @return true if the caller can mint the DOI
+     */
+    protected boolean canMint(Node doiNode, boolean callerIsAdmin, boolean callerIsPublisher) {
+        if (callerIsAdmin) {
+            return true;
+        }
+        boolean isRequester = isCallingUserRequester(doiNode);
+        if (isAlternativeConfiguration()) {
+            return callerIsPublisher && !isRequester;
+        }
+        return isRequester;
+    }
+
+    // the response code of a failed DOI in a batch response, as the code RestAction
+    // maps the exception to
+    protected static int getBatchErrorCode(Exception ex) {
+        if (ex instanceof IllegalArgumentException) {
+            return 400;
+        } else if (ex instanceof AccessControlException) {
+            return 403;
+        } else if (ex instanceof NodeNotFoundException || ex instanceof ResourceNotFoundException) {
+            return 404;
+        } else if (ex instanceof TimeoutException) {
+            return 504;
+        }
+        return 500;
+    }
+
+    // write one line of a streamed batch response, the line is flushed to the client
+    protected static void writeBatchLine(OutputStream out, JSONObject line) throws IOException {
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        out.flush();
+    }
+
     protected void uploadDOIDocument(Resource resource, VOSURI docVOSUIRI) throws ResourceNotFoundException {
         Transfer transfer = new Transfer(docVOSUIRI.getURI(), Direction.pushToVoSpace);
         Protocol put = new Protocol(VOS.PROTOCOL_HTTPS_PUT);
         transfer.getProtocols().add(put);
 
+        long start = System.nanoTime();
         ClientTransfer clientTransfer = vospaceDoiClient.getVOSpaceClient().createTransfer(transfer);
         DoiAction.DoiOutputStream outStream = new DoiAction.DoiOutputStream(resource);
         clientTransfer.setOutputStreamWrapper(outStream);
         clientTransfer.run();
+        DoiMetrics.recordCall(DoiMetrics.VOSPACE, "putDocument", System.nanoTime() - start,
+                clientTransfer.getThrowable() == null);
 
         if (clientTransfer.getThrowable() != null) {
             log.debug(clientTransfer.getThrowable().getMessage());
@@ -0,0 +1,201 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.auth.AuthenticationUtil;
+import ca.nrc.cadc.auth.SSLUtil;
+import ca.nrc.cadc.auth.X509CertificateChain;
+import java.io.File;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+
+/**
+ * Process-wide holder of the doiadmin credentials. The PEM file is read and the subject
+ * augmented once, then shared by all requests. The file is checked periodically and the
+ * subject is reloaded when the file is modified or the certificate is about to expire.
+ * Reads between checks only read a volatile field.
+ *
+ * <p>Callers get the same Subject instance until the credentials are reloaded, where before
+ * each call read the PEM file into a new Subject. The shared Subject is already augmented
+ * (see AuthenticationUtil.augmentSubject) so it carries the doiadmin principals and must
+ * not be modified by callers.
+ */
+public class DoiAdminCredentials {
+    private static final Logger log = Logger.getLogger(DoiAdminCredentials.class);
+
+    static final File DOIADMIN_PEM_FILE = new File("/config/doiadmin.pem");
+
+    // how often the PEM file is checked for changes
+    static final long CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    // reload the PEM file when the certificate expires within this time
+    static final long EXPIRY_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final DoiAdminCredentials INSTANCE = new DoiAdminCredentials(DOIADMIN_PEM_FILE);
+
+    private final File pemFile;
+    private final long checkIntervalMillis;
+    private volatile Credential current;
+
+    DoiAdminCredentials(File pemFile) {
+        this(pemFile, CHECK_INTERVAL_MILLIS);
+    }
+
+    DoiAdminCredentials(File pemFile, long checkIntervalMillis) {
+        this.pemFile = pemFile;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Get the doiadmin subject. The returned Subject is shared by all callers and
+     * must not be modified.
+     *
+     * @return augmented doiadmin subject
+     */
+    public static Subject getSubject() {
+        return INSTANCE.get();
+    }
+
+    Subject get() {
+        Credential credential = current;
+        if (credential != null && System.currentTimeMillis() < credential.nextCheck) {
+            return credential.subject;
+        }
+        return refresh();
+    }
+
+    private synchronized Subject refresh() {
+        long now = System.currentTimeMillis();
+        Credential credential = current;
+        if (credential != null && now < credential.nextCheck) {
+            // refreshed by another thread
+            return credential.subject;
+        }
+
+        long lastModified = pemFile.lastModified();
+        if (credential != null && credential.lastModified == lastModified
+                && (credential.expiry == null || credential.expiry.getTime() - now > EXPIRY_MARGIN_MILLIS)) {
+            // unchanged
+            current = new Credential(credential.subject, lastModified, credential.expiry, now + checkIntervalMillis);
+            return credential.subject;
+        }
+
+        try {
+            log.debug("loading doiadmin credentials: " + pemFile);
+            Subject subject = load(pemFile);
+            Date expiry = getExpiry(subject);
+            current = new Credential(subject, lastModified, expiry, now + checkIntervalMillis);
+            log.info(String.format("loaded doiadmin credentials: %s expires: %s", pemFile, expiry));
+            return subject;
+        } catch (RuntimeException ex) {
+            if (credential == null) {
+                throw ex;
+            }
+            // keep using the credentials that were loaded before
+            log.error("failed to reload doiadmin credentials from " + pemFile, ex);
+            current = new Credential(credential.subject, credential.lastModified, credential.expiry,
+                    now + checkIntervalMillis);
+            return credential.subject;
+        }
+    }
+
+    // read the PEM file into an augmented subject
+    Subject load(File file) {
+        Subject subject = SSLUtil.createSubject(file);
+        return AuthenticationUtil.augmentSubject(subject);
+    }
+
+    private static Date getExpiry(Subject subject) {
+        Date expiry = null;
+        Set<X509CertificateChain> chains = subject.getPublicCredentials(X509CertificateChain.class);
+        for (X509CertificateChain chain : chains) {
+            Date date = chain.getExpiryDate();
+            if (date != null && (expiry == null || date.before(expiry))) {
+                expiry = date;
+            }
+        }
+        return expiry;
+    }
+
+    private static class Credential {
+        private final Subject subject;
+        private final long lastModified;
+        private final Date expiry;
+        private final long nextCheck;
+
+        Credential(Subject subject, long lastModified, Date expiry, long nextCheck) {
+            this.subject = subject;
+            this.lastModified = lastModified;
+            this.expiry = expiry;
+            this.nextCheck = nextCheck;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Runs a task for each DOI of a batch request on a DoiTaskExecutor and returns the
+ * results in the order the tasks complete, so the response can be streamed while the
+ * other DOIs are still processed. The number of tasks running at the same time is
+ * bounded by the executor. A DOI whose task has not started by the deadline is
+ * cancelled and returned with a TimeoutException. A task that has started is never
+ * interrupted: if it has not completed by the deadline it is returned with an
+ * InProgressException and runs to completion in the background.
+ *
+ * @param <T> result type
+ */
+public class DoiBatch<T> implements Iterator<DoiBatch.Result<T>>, AutoCloseable {
+    private static final Logger log = Logger.getLogger(DoiBatch.class);
+
+    /**
+     * Key of the array of DOI suffixes in a batch request document.
+     */
+    public static final String DOIS_KEY = "dois";
+
+    /**
+     * Maximum number of DOIs in a batch request.
+     */
+    public static final int MAX_DOIS = 1000;
+
+    /**
+     * Work done for one DOI.
+     *
+     * @param <T> result type
+     */
+    public interface Task<T> {
+        T run(String doiSuffix) throws Exception;
+    }
+
+    /**
+     * Receives the result of each DOI, in the calling thread.
+     *
+     * @param <T> result type
+     */
+    public interface ResultHandler<T> {
+        /**
+         * @param doiSuffix DOI suffix
+         * @param result result of the task, null if it failed
+         * @param error exception thrown by the task, or TimeoutException, null if it succeeded
+         * @throws IOException if the result cannot be written, the remaining tasks are then cancelled
+         */
+        void handle(String doiSuffix, T result, Exception error) throws IOException;
+    }
+
+    /**
+     * The task of a DOI had started and was still running at the deadline. The task is
+     * not interrupted and completes in the background.
+     */
+    public static class InProgressException extends TimeoutException {
+        InProgressException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The outcome of the task of one DOI.
+     *
+     * @param <T> result type
+     */
+    public static class Result<T> {
+        private final String doiSuffix;
+        private final T value;
+        private final Exception error;
+
+        Result(String doiSuffix, T value, Exception error) {
+            this.doiSuffix = doiSuffix;
+            this.value = value;
+            this.error = error;
+        }
+
+        public String getDoiSuffix() {
+            return doiSuffix;
+        }
+
+        /**
+         * @return the result of the task, null if it failed
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return the exception thrown by the task, or TimeoutException, null if it succeeded
+         */
+        public Exception getError() {
+            return error;
+        }
+    }
+
+    // the submitted task of one DOI, claimed either by the task when it starts or by
+    // the batch when it cancels the task before it starts
+    // the task is submitted to the executor when the DOI is ready, until then future is null
+    private static class Pending {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile Future<Object> future;
+        private volatile boolean done;
+
+        boolean start() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        boolean isClaimed() {
+            return claimed.get();
+        }
+
+        // true if the task has not started and will not run
+        boolean cancel() {
+            if (claimed.compareAndSet(false, true)) {
+                Future<Object> submitted = future;
+                if (submitted != null) {
+                    submitted.cancel(false);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final BlockingQueue<Result<T>> completed = new LinkedBlockingQueue<>();
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private final long deadline;
+    private boolean expired = false;
+
+    private DoiBatch(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Get the DOI suffixes of a batch request document: <code>{"dois": ["25.0001", ...]}</code>.
+     * Duplicates are removed and the order is kept.
+     *
+     * @param document batch request document
+     * @return list of DOI suffixes
+     * @throws IllegalArgumentException if the document has no DOIs, too many DOIs or an invalid suffix
+     */
+    public static List<String> getSuffixes(JSONObject document) {
+        if (document == null || !document.has(DOIS_KEY) || !(document.get(DOIS_KEY) instanceof JSONArray)) {
+            throw new IllegalArgumentException("Missing array of DOIs: " + DOIS_KEY);
+        }
+        JSONArray dois = document.getJSONArray(DOIS_KEY);
+        Set<String> suffixes = new LinkedHashSet<>();
+        for (int i = 0; i < dois.length(); i++) {
+            Object value = dois.get(i);
+            String suffix = value instanceof String ? ((String) value).trim() : null;
+            if (suffix == null || suffix.isEmpty() || suffix.contains("/")) {
+                throw new IllegalArgumentException("Invalid DOI: " + value);
+            }
+            suffixes.add(suffix);
+        }
+        if (suffixes.isEmpty()) {
+            throw new IllegalArgumentException("No DOIs");
+        }
+        if (suffixes.size() > MAX_DOIS) {
+            throw new IllegalArgumentException(String.format("Too many DOIs: %d, maximum: %d",
+                    suffixes.size(), MAX_DOIS));
+        }
+        return new ArrayList<>(suffixes);
+    }
+
+    /**
+     * Submit the task of each DOI. The results are taken from the returned batch, which
+     * must be closed to cancel the tasks that have not started.
+     *
+     * @param executor executor running the tasks
+     * @param subject the subject to run the tasks as
+     * @param suffixes DOI suffixes
+     * @param task work done for one DOI
+     * @param deadline deadline in milliseconds since the epoch
+     * @param <T> result type
+     * @return the batch
+     */
+    public static <T> DoiBatch<T> submit(DoiTaskExecutor executor, Subject subject, List<String> suffixes,
+                                         Task<T> task, long deadline) {
+        return submit(executor, subject, suffixes, suffix -> CompletableFuture.completedFuture(null), task, deadline);
+    }
+
+    /**
+     * Submit the task of each DOI once the DOI is ready, so that the executor threads do
+     * not wait for the DOIs. A DOI that is not ready by the deadline is returned with a
+     * TimeoutException, as a task that has not started. The results are taken from the
+     * returned batch, which must be closed to cancel the tasks that have not started.
+     *
+     * @param executor executor running the tasks
+     * @param subject the subject to run the tasks as
+     * @param suffixes DOI suffixes
+     * @param ready completes when the task of a DOI can be run, whether normally or not
+     * @param task work done for one DOI
+     * @param deadline deadline in milliseconds since the epoch
+     * @param <T> result type
+     * @return the batch
+     */
+    public static <T> DoiBatch<T> submit(DoiTaskExecutor executor, Subject subject, List<String> suffixes,
+                                         Function<String, CompletionStage<?>> ready, final Task<T> task,
+                                         long deadline) {
+        final DoiBatch<T> batch = new DoiBatch<>(deadline);
+        for (final String suffix : suffixes) {
+            final Pending submitted = new Pending();
+            batch.pending.put(suffix, submitted);
+            ready.apply(suffix).whenComplete((value, ex) -> {
+                if (submitted.isClaimed()) {
+                    // cancelled before it was ready
+                    return;
+                }
+                submitted.future = executor.submit(subject, () -> {
+                    if (!submitted.start()) {
+                        // cancelled before it started
+                        return null;
+                    }
+                    try {
+                        batch.completed.add(new Result<>(suffix, task.run(suffix), null));
+                    } catch (Exception e) {
+                        batch.completed.add(new Result<>(suffix, null, e));
+                    } finally {
+                        submitted.done = true;
+                    }
+                    return null;
+                });
+            });
+        }
+        return batch;
+    }
+
+    /**
+     * Run the task for each DOI and hand the results to the handler as they complete.
+     * Returns when all the results have been handled.
+     *
+     * @param executor executor running the tasks
+     * @param subject the subject to run the tasks as
+     * @param suffixes DOI suffixes
+     * @param task work done for one DOI
+     * @param deadline deadline in milliseconds since the epoch
+     * @param handler handler of the results
+     * @param <T> result type
+     * @throws IOException if the handler failed
+     */
+    public static <T> void run(DoiTaskExecutor executor, Subject subject, List<String> suffixes,
+                               Task<T> task, long deadline, ResultHandler<T> handler) throws IOException {
+        run(executor, subject, suffixes, suffix -> CompletableFuture.completedFuture(null), task, deadline, handler);
+    }
+
+    /**
+     * Run the task for each DOI once the DOI is ready and hand the results to the handler
+     * as they complete. Returns when all the results have been handled.
+     *
+     * @param executor executor running the tasks
+     * @param subject the subject to run the tasks as
+     * @param suffixes DOI suffixes
+     * @param ready completes when the task of a DOI can be run, whether normally or not
+     * @param task work done for one DOI
+     * @param deadline deadline in milliseconds since the epoch
+     * @param handler handler of the results
+     * @param <T> result type
+     * @throws IOException if the handler failed
+     */
+    public static <T> void run(DoiTaskExecutor executor, Subject subject, List<String> suffixes,
+                               Function<String, CompletionStage<?>> ready, Task<T> task, long deadline,
+                               ResultHandler<T> handler) throws IOException {
+        try (DoiBatch<T> batch = submit(executor, subject, suffixes, ready, task, deadline)) {
+            while (batch.hasNext()) {
+                Result<T> result = batch.next();
+                handler.handle(result.getDoiSuffix(), result.getValue(), result.getError());
+            }
+        }
+    }
+
+    /**
+     * @return true if the result of a DOI has not been taken
+     */
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Take the next completed result, waiting until the deadline. After the deadline,
+     * or if the calling thread is interrupted, the results that are completed are taken
+     * first, then the tasks that have not started are cancelled and returned with a
+     * TimeoutException and the tasks that are running are returned with an
+     * InProgressException.
+     *
+     * @return the next result
+     */
+    @Override
+    public Result<T> next() {
+        if (pending.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        while (true) {
+            Result<T> result = null;
+            long remaining = deadline - System.currentTimeMillis();
+            if (expired || remaining <= 0) {
+                result = completed.poll();
+            } else {
+                try {
+                    result = completed.poll(remaining, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    expired = true;
+                }
+            }
+
+            if (result == null && (expired || deadline <= System.currentTimeMillis())) {
+                // task not completed by the deadline
+                Map.Entry<String, Pending> next = pending.entrySet().iterator().next();
+                String suffix = next.getKey();
+                if (next.getValue().cancel()) {
+                    pending.remove(suffix);
+                    log.debug("batch task not started before the deadline: " + suffix);
+                    return new Result<>(suffix, null, new TimeoutException("not started before the deadline"));
+                }
+                if (next.getValue().done) {
+                    // completed since the poll, its result is queued
+                    continue;
+                }
+                pending.remove(suffix);
+                log.debug("batch task not completed before the deadline: " + suffix);
+                return new Result<>(suffix, null, new InProgressException("not completed before the deadline"));
+            }
+            if (result != null && pending.remove(result.getDoiSuffix()) != null) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Cancel the tasks that have not started. The tasks that are running are not
+     * interrupted and complete in the background.
+     */
+    @Override
+    public void close() {
+        for (Pending task : pending.values()) {
+            task.cancel();
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,445 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.io.DoiJsonReader;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import ca.nrc.cadc.util.StringUtil;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+import org.opencadc.gms.GroupURI;
+import org.opencadc.vospace.VOSURI;
+
+/**
+ * Immutable snapshot of the doi.properties configuration, with the values that are used
+ * on every request already parsed. The process-wide snapshot is loaded once and replaced
+ * as a whole by a background watcher when the file is modified, so request threads only
+ * read a volatile field. The services that are built from the configuration are
+ * reconfigured when a modified snapshot replaces the current one.
+ */
+public class DoiConfig {
+    private static final Logger log = Logger.getLogger(DoiConfig.class);
+
+    static final String CONFIG_FILENAME = "doi.properties";
+
+    // values of the datacite.api property
+    public static final String DATACITE_API_MDS = "mds";
+    public static final String DATACITE_API_REST = "rest";
+
+    // how often the config file is checked for changes
+    static final long CHECK_INTERVAL_SECONDS = 30;
+    static final long DEFAULT_BULK_MINT_TIMEOUT_SECONDS = 600;
+    // a bulk mint stops registering DOIs BulkMintAction.REGISTER_MILLIS before its deadline
+    static final long MIN_BULK_MINT_TIMEOUT_SECONDS = 60;
+
+    private static volatile DoiConfig current;
+    private static ScheduledExecutorService watcher;
+
+    private final MultiValuedProperties properties;
+    private final VOSURI parentVOSURI;
+    private final String metadataPrefix;
+    private final String groupPrefix;
+    private final String doiIdentifierPrefix;
+    private final String accountPrefix;
+    private final URL landingURL;
+    private final URL dataCiteMdsURL;
+    private final String dataCiteApi;
+    private final URL dataCiteRestURL;
+    private final String dataCiteUsername;
+    private final String dataCitePassword;
+    private final boolean randomTestID;
+    private final GroupURI publisherGroupURI;
+    private final long maxJsonSize;
+    private final long bulkMintTimeout;
+    private final int taskThreads;
+    private final long taskTimeout;
+    private final boolean useVirtualThreads;
+    private final int mintThreads;
+
+    DoiConfig(MultiValuedProperties properties) {
+        this.properties = copy(properties);
+        this.parentVOSURI = DoiInitAction.getParentVOSURI(properties);
+        this.metadataPrefix = properties.getFirstPropertyValue(DoiInitAction.METADATA_PREFIX_KEY);
+        this.groupPrefix = properties.getFirstPropertyValue(DoiInitAction.DOI_GROUP_PREFIX_KEY);
+        this.doiIdentifierPrefix = DoiInitAction.getDoiIdentifierPrefix(properties);
+        this.accountPrefix = properties.getFirstPropertyValue(DoiInitAction.DATACITE_ACCOUNT_PREFIX_KEY);
+        this.landingURL = getURL(properties, DoiInitAction.LANDING_URL_KEY);
+        this.dataCiteMdsURL = getURL(properties, DoiInitAction.DATACITE_MDS_URL_KEY);
+        this.dataCiteApi = getDataCiteApi(properties);
+        this.dataCiteRestURL = getURL(properties, DoiInitAction.DATACITE_REST_URL_KEY);
+        if (DATACITE_API_REST.equals(dataCiteApi) && dataCiteRestURL == null) {
+            throw new IllegalStateException(String.format("%s is required with %s=%s",
+                    DoiInitAction.DATACITE_REST_URL_KEY, DoiInitAction.DATACITE_API_KEY, dataCiteApi));
+        }
+        this.dataCiteUsername = properties.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_USERNAME_KEY);
+        this.dataCitePassword = properties.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_PASSWORD_KEY);
+        this.randomTestID = Boolean.parseBoolean(properties.getFirstPropertyValue(DoiInitAction.RANDOM_TEST_ID_KEY));
+        this.publisherGroupURI = DoiInitAction.getPublisherGroupURI(properties);
+        this.maxJsonSize = getSize(properties, DoiInitAction.MAX_JSON_SIZE_KEY, DoiJsonReader.DEFAULT_MAX_SIZE);
+        this.bulkMintTimeout = getSize(properties, DoiInitAction.BULK_MINT_TIMEOUT_KEY,
+                DEFAULT_BULK_MINT_TIMEOUT_SECONDS);
+        if (bulkMintTimeout < MIN_BULK_MINT_TIMEOUT_SECONDS) {
+            throw new IllegalStateException(String.format("invalid %s: %d, minimum: %d",
+                    DoiInitAction.BULK_MINT_TIMEOUT_KEY, bulkMintTimeout, MIN_BULK_MINT_TIMEOUT_SECONDS));
+        }
+        this.taskThreads = getIntValue(properties, DoiInitAction.TASK_THREADS_KEY, DoiTaskExecutor.DEFAULT_THREADS);
+        this.taskTimeout = getIntValue(properties, DoiInitAction.TASK_TIMEOUT_KEY,
+                (int) DoiTaskExecutor.DEFAULT_TIMEOUT_SECONDS);
+        String virtual = properties.getFirstPropertyValue(DoiInitAction.TASK_VIRTUAL_THREADS_KEY);
+        this.useVirtualThreads = virtual == null || Boolean.parseBoolean(virtual);
+        this.mintThreads = getIntValue(properties, DoiInitAction.MINT_THREADS_KEY, DoiMintService.DEFAULT_THREADS);
+    }
+
+    /**
+     * Get the current configuration, loading it on first use.
+     *
+     * @return the current configuration snapshot
+     */
+    public static DoiConfig getInstance() {
+        DoiConfig config = current;
+        if (config == null) {
+            config = load(false);
+        }
+        return config;
+    }
+
+    /**
+     * Load and verify the configuration, and start watching the config file for changes.
+     */
+    static synchronized void init() {
+        current = null;
+        load(true);
+        if (watcher == null) {
+            watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "doi-config-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(DoiConfig::reload,
+                    CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop watching the config file.
+     */
+    static synchronized void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    private static synchronized DoiConfig load(boolean verify) {
+        if (current == null) {
+            current = new DoiConfig(DoiInitAction.readConfig(verify));
+        }
+        return current;
+    }
+
+    // replace the current snapshot if the config file has been modified
+    private static void reload() {
+        DoiConfig previous = current;
+        DoiConfig updated;
+        try {
+            updated = reload(DoiInitAction.readConfig(true));
+        } catch (RuntimeException ex) {
+            // keep using the configuration that was loaded before
+            log.error("failed to reload " + CONFIG_FILENAME, ex);
+            return;
+        }
+        if (updated != null) {
+            log.info("reloaded " + CONFIG_FILENAME);
+            DoiInitAction.reconfigure(previous, updated);
+        }
+    }
+
+    /**
+     * Replace the current snapshot if the properties differ from it.
+     *
+     * @param properties properties read from the config file
+     * @return the new snapshot, null if the properties are unchanged
+     */
+    static DoiConfig reload(MultiValuedProperties properties) {
+        DoiConfig config = current;
+        if (config != null && isSame(config.properties, properties)) {
+            return null;
+        }
+        DoiConfig updated = new DoiConfig(properties);
+        synchronized (DoiConfig.class) {
+            current = updated;
+        }
+        return updated;
+    }
+
+    static boolean isSame(MultiValuedProperties props1, MultiValuedProperties props2) {
+        if (!props1.keySet().equals(props2.keySet())) {
+            return false;
+        }
+        for (String key : props1.keySet()) {
+            if (!Objects.equals(props1.getProperty(key), props2.getProperty(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MultiValuedProperties copy(MultiValuedProperties properties) {
+        MultiValuedProperties ret = new MultiValuedProperties();
+        for (String key : properties.keySet()) {
+            List<String> values = properties.getProperty(key);
+            if (values != null) {
+                for (String value : values) {
+                    ret.addProperty(key, value);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static URL getURL(MultiValuedProperties properties, String key) {
+        String value = properties.getFirstPropertyValue(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new URL(value);
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(String.format("invalid %s: %s", key, value));
+        }
+    }
+
+    private static String getDataCiteApi(MultiValuedProperties properties) {
+        String value = properties.getFirstPropertyValue(DoiInitAction.DATACITE_API_KEY);
+        if (value == null) {
+            return DATACITE_API_MDS;
+        }
+        value = value.trim().toLowerCase();
+        if (!DATACITE_API_MDS.equals(value) && !DATACITE_API_REST.equals(value)) {
+            throw new IllegalStateException(String.format("invalid %s: %s", DoiInitAction.DATACITE_API_KEY, value));
+        }
+        return value;
+    }
+
+    /**
+     * Get the value of an optional positive integer property. An invalid value is
+     * logged and the default is used.
+     *
+     * @param properties the configuration properties
+     * @param key the property key
+     * @param defaultValue value if the property is not set or not valid
+     * @return the value of the property
+     */
+    public static int getIntValue(MultiValuedProperties properties, String key, int defaultValue) {
+        String value = properties.getFirstPropertyValue(key);
+        if (StringUtil.hasText(value)) {
+            try {
+                int ret = Integer.parseInt(value.trim());
+                if (ret > 0) {
+                    return ret;
+                }
+            } catch (NumberFormatException ex) {
+                // use the default
+            }
+            log.warn(String.format("invalid %s: %s, using %d", key, value, defaultValue));
+        }
+        return defaultValue;
+    }
+
+    private static long getSize(MultiValuedProperties properties, String key, long defaultValue) {
+        String value = properties.getFirstPropertyValue(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long size = Long.parseLong(value.trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException ignore) {
+            // fall through
+        }
+        throw new IllegalStateException(String.format("invalid %s: %s", key, value));
+    }
+
+    /**
+     * Get the configuration properties. The snapshot is shared by all requests, so a copy
+     * is returned.
+     *
+     * @return copy of the configuration properties
+     */
+    public MultiValuedProperties getProperties() {
+        return copy(properties);
+    }
+
+    public VOSURI getParentVOSURI() {
+        return parentVOSURI;
+    }
+
+    public URI getVaultResourceID() {
+        return parentVOSURI.getServiceURI();
+    }
+
+    public String getParentPath() {
+        return parentVOSURI.getPath();
+    }
+
+    public String getMetadataPrefix() {
+        return metadataPrefix;
+    }
+
+    public String getGroupPrefix() {
+        return groupPrefix;
+    }
+
+    public String getDoiIdentifierPrefix() {
+        return doiIdentifierPrefix;
+    }
+
+    public String getAccountPrefix() {
+        return accountPrefix;
+    }
+
+    public URL getLandingURL() {
+        return landingURL;
+    }
+
+    public URL getDataCiteMdsURL() {
+        return dataCiteMdsURL;
+    }
+
+    /**
+     * @return the DataCite API used to register DOIs, DATACITE_API_MDS or DATACITE_API_REST
+     */
+    public String getDataCiteApi() {
+        return dataCiteApi;
+    }
+
+    public URL getDataCiteRestURL() {
+        return dataCiteRestURL;
+    }
+
+    public String getDataCiteUsername() {
+        return dataCiteUsername;
+    }
+
+    public String getDataCitePassword() {
+        return dataCitePassword;
+    }
+
+    public boolean isRandomTestID() {
+        return randomTestID;
+    }
+
+    public GroupURI getPublisherGroupURI() {
+        return publisherGroupURI;
+    }
+
+    public long getMaxJsonSize() {
+        return maxJsonSize;
+    }
+
+    public long getBulkMintTimeout() {
+        return bulkMintTimeout;
+    }
+
+    /**
+     * @return maximum number of DOI lookups run at the same time
+     */
+    public int getTaskThreads() {
+        return taskThreads;
+    }
+
+    /**
+     * @return time in seconds a request waits for its DOI lookups
+     */
+    public long getTaskTimeout() {
+        return taskTimeout;
+    }
+
+    /**
+     * @return true if the tasks are run on virtual threads when the runtime supports them
+     */
+    public boolean useVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * @return maximum number of DOIs minted at the same time
+     */
+    public int getMintThreads() {
+        return mintThreads;
+    }
+}
@@ -0,0 +1,284 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.cache.ExpiringCache;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+import org.opencadc.vospace.Node;
+import org.opencadc.vospace.VOS;
+
+/**
+ * Process-wide cache of the rendered DOI metadata documents returned for a DOI, keyed
+ * by the DOI suffix and the document format. A cached document is only used for the
+ * version of the VOSpace metadata file it was rendered from. The metadata file of a
+ * minted DOI is public and no longer changes, so its documents are kept longer and
+ * are served without reading the metadata file node.
+ */
+public class DoiDocumentCache {
+    private static final Logger log = Logger.getLogger(DoiDocumentCache.class);
+
+    static final long TTL_MINUTES = 10;
+    static final long MINTED_TTL_HOURS = 24;
+    static final int MAX_SIZE = 2000;
+
+    private static final ExpiringCache<DocumentKey, Document> CACHE =
+            new ExpiringCache<>("DoiDocumentCache", TTL_MINUTES, TimeUnit.MINUTES, MAX_SIZE);
+
+    private DoiDocumentCache() {
+    }
+
+    /**
+     * Get the cached document of a minted DOI.
+     *
+     * @param suffix DOI suffix
+     * @param format document format
+     * @return the document, or null if it is not cached or the DOI was not minted
+     */
+    public static Document getMinted(String suffix, String format) {
+        Document document = CACHE.getIfPresent(new DocumentKey(suffix, format));
+        if (document != null && document.isMinted()) {
+            return document;
+        }
+        return null;
+    }
+
+    /**
+     * Get the cached document rendered from a version of the metadata file.
+     *
+     * @param suffix DOI suffix
+     * @param format document format
+     * @param version version of the metadata file, see {@link #getVersion(Node)}
+     * @return the document, or null if it is not cached for this version
+     */
+    public static Document get(String suffix, String format, String version) {
+        if (version == null) {
+            return null;
+        }
+        Document document = CACHE.getIfPresent(new DocumentKey(suffix, format));
+        if (document != null && version.equals(document.getVersion())) {
+            return document;
+        }
+        return null;
+    }
+
+    /**
+     * Cache a document. A document without a version is not cached.
+     *
+     * @param suffix DOI suffix
+     * @param format document format
+     * @param document the rendered document
+     */
+    public static void put(String suffix, String format, Document document) {
+        if (document.getVersion() == null) {
+            return;
+        }
+        DocumentKey key = new DocumentKey(suffix, format);
+        if (document.isMinted()) {
+            CACHE.put(key, document, MINTED_TTL_HOURS, TimeUnit.HOURS);
+        } else {
+            CACHE.put(key, document);
+        }
+        log.debug("cached document: " + key);
+    }
+
+    /**
+     * Remove the cached documents of a DOI.
+     *
+     * @param suffix DOI suffix
+     */
+    public static void invalidate(String suffix) {
+        CACHE.invalidateIf(key -> key.suffix.equals(suffix));
+    }
+
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    public static ExpiringCache<?, ?> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Get the version of a metadata file node: the content MD5 if it is set, otherwise
+     * the last modified date.
+     *
+     * @param node the metadata file node
+     * @return the version, or null if the node has neither property
+     */
+    public static String getVersion(Node node) {
+        String version = node.getPropertyValue(VOS.PROPERTY_URI_CONTENTMD5);
+        if (version == null) {
+            version = node.getPropertyValue(VOS.PROPERTY_URI_DATE);
+        }
+        return version;
+    }
+
+    /**
+     * Get the entity tag of a document in a format rendered from a version of the
+     * metadata file.
+     *
+     * @param version version of the metadata file
+     * @param format document format
+     * @return quoted entity tag
+     */
+    public static String getETag(String version, String format) {
+        return new DoiETag().add(version).add(format).getValue();
+    }
+
+    /**
+     * A rendered DOI metadata document.
+     */
+    public static class Document {
+        private final String version;
+        private final String eTag;
+        private final Date lastModified;
+        private final String contentType;
+        private final byte[] content;
+        private final boolean minted;
+
+        /**
+         * Constructor.
+         *
+         * @param version version of the metadata file the document was rendered from, may be null
+         * @param eTag entity tag of the document, may be null
+         * @param lastModified last modified date of the metadata file, may be null
+         * @param contentType content type of the document
+         * @param content the document
+         * @param minted true if the DOI was minted
+         */
+        public Document(String version, String eTag, Date lastModified, String contentType, byte[] content,
+                        boolean minted) {
+            this.version = version;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.content = content;
+            this.minted = minted;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public Date getLastModified() {
+            return lastModified;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public boolean isMinted() {
+            return minted;
+        }
+    }
+
+    private static class DocumentKey {
+        private final String suffix;
+        private final String format;
+
+        DocumentKey(String suffix, String format) {
+            this.suffix = suffix;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DocumentKey)) {
+                return false;
+            }
+            DocumentKey that = (DocumentKey) o;
+            return suffix.equals(that.suffix) && format.equals(that.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(suffix, format);
+        }
+
+        @Override
+        public String toString() {
+            return suffix + " as " + format;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import org.opencadc.vospace.Node;
+
+/**
+ * Builds the entity tag of a response from the values the response is generated from,
+ * so the tag can be checked against a conditional request before the response is
+ * generated. Equal values in the same order give the same tag.
+ */
+public class DoiETag {
+
+    // the DOI container node properties a DOI status is generated from
+    static final List<URI> STATUS_PROPERTIES = List.of(
+            DOI.VOSPACE_DOI_STATUS_PROPERTY,
+            DOI.VOSPACE_DOI_TITLE_PROPERTY,
+            DOI.VOSPACE_DOI_JOURNAL_PROPERTY,
+            DOI.VOSPACE_DOI_REVIEWER_PROPERTY,
+            DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
+
+    private final MessageDigest digest;
+
+    public DoiETag() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("BUG: SHA-256 not supported", ex);
+        }
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value the value, may be null
+     * @return this
+     */
+    public DoiETag add(String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        // separator, so that ("ab", "c") and ("a", "bc") differ
+        digest.update((byte) '\n');
+        return this;
+    }
+
+    /**
+     * Add the name, the public flag and the status properties of a DOI container node.
+     *
+     * @param node DOI container node
+     * @return this
+     */
+    public DoiETag addStatus(Node node) {
+        add(node.getName());
+        add(String.valueOf(node.isPublic != null && node.isPublic));
+        for (URI key : STATUS_PROPERTIES) {
+            add(node.getPropertyValue(key));
+        }
+        return this;
+    }
+
+    /**
+     * Get the entity tag. The tag is computed once, no values can be added afterwards.
+     *
+     * @return quoted entity tag
+     */
+    public String getValue() {
+        byte[] hash = digest.digest();
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < 16; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return sb.append("\"").toString();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.date.DateUtil;
+import ca.nrc.cadc.doi.index.DoiIndex;
+import ca.nrc.cadc.doi.index.DoiIndexEntry;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import ca.nrc.cadc.util.StringUtil;
+import java.io.File;
+import java.net.URI;
+import java.security.PrivilegedExceptionAction;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.Node;
+import org.opencadc.vospace.NodeProperty;
+import org.opencadc.vospace.VOS;
+
+/**
+ * Maintains the process-wide DoiIndex: loads it from the configured directory at startup
+ * and periodically reconciles it with a listing of the DOI parent node in VOSpace, so
+ * changes made outside this service instance are picked up.
+ */
+public class DoiIndexReconciler {
+    private static final Logger log = Logger.getLogger(DoiIndexReconciler.class);
+
+    static final int DEFAULT_INTERVAL_SECONDS = 300;
+
+    private static ScheduledExecutorService scheduler;
+
+    // configuration of the running reconciler
+    private static String indexDirValue;
+    private static int intervalSeconds;
+
+    private DoiIndexReconciler() {
+    }
+
+    /**
+     * Create the index, load it from file if one is configured, and start the reconciler.
+     * The first reconciliation is started immediately.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void init(DoiConfig config) {
+        if (scheduler != null) {
+            return;
+        }
+        MultiValuedProperties props = config.getProperties();
+        String dir = props.getFirstPropertyValue(DoiInitAction.INDEX_DIR_KEY);
+        File indexDir = null;
+        if (StringUtil.hasText(dir)) {
+            indexDir = new File(dir);
+            if (!indexDir.isDirectory() && !indexDir.mkdirs()) {
+                log.error("cannot create index directory, index is not saved: " + indexDir);
+                indexDir = null;
+            }
+        }
+        DoiIndex index = new DoiIndex(indexDir);
+        index.load();
+        DoiIndex.setInstance(index);
+
+        int interval = DoiConfig.getIntValue(props, DoiInitAction.INDEX_RECONCILE_INTERVAL_KEY,
+                DEFAULT_INTERVAL_SECONDS);
+        indexDirValue = dir;
+        intervalSeconds = interval;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "doi-index-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(DoiIndexReconciler::reconcile, 0, interval, TimeUnit.SECONDS);
+        log.info(String.format("DoiIndex: dir=%s reconcile interval=%ds", indexDir, interval));
+    }
+
+    /**
+     * Apply a modified configuration. The index and the reconciler are rebuilt when the
+     * index directory or the reconcile interval changed.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void reconfigure(DoiConfig config) {
+        MultiValuedProperties props = config.getProperties();
+        String dir = props.getFirstPropertyValue(DoiInitAction.INDEX_DIR_KEY);
+        int interval = DoiConfig.getIntValue(props, DoiInitAction.INDEX_RECONCILE_INTERVAL_KEY,
+                DEFAULT_INTERVAL_SECONDS);
+        if (scheduler != null && Objects.equals(dir, indexDirValue) && interval == intervalSeconds) {
+            return;
+        }
+        shutdown();
+        init(config);
+    }
+
+    /**
+     * Stop the reconciler and close the index.
+     */
+    static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        DoiIndex index = DoiIndex.getInstance();
+        if (index != null) {
+            index.close();
+            DoiIndex.setInstance(null);
+        }
+    }
+
+    // list the DOI parent node as doiadmin and update the index
+    static void reconcile() {
+        DoiIndex index = DoiIndex.getInstance();
+        if (index == null) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            VospaceDoiClient client = VospaceDoiClient.getInstance(DoiConfig.getInstance(),
+                    DoiInitAction.getGmsResourceID());
+            ContainerNode doiRootNode = Subject.doAs(DoiAdminCredentials.getSubject(),
+                    (PrivilegedExceptionAction<ContainerNode>) () -> client.getContainerNode(""));
+            List<DoiIndexEntry> listed = new ArrayList<>();
+            for (Node childNode : doiRootNode.getNodes()) {
+                if (childNode instanceof ContainerNode) {
+                    listed.add(toEntry(childNode));
+                }
+            }
+            int changes = index.reconcile(listed, start);
+            DoiJobReconciler.trackAll(listed);
+            log.info(String.format("DoiIndex reconciled: %d entries, %d changes, %d ms",
+                    index.size(), changes, System.currentTimeMillis() - start));
+        } catch (Throwable t) {
+            // try again at the next interval
+            log.error("DoiIndex reconcile failed", t);
+        }
+    }
+
+    /**
+     * Create an index entry from the properties of a DOI container node.
+     *
+     * @param node DOI container node
+     * @return index entry
+     */
+    public static DoiIndexEntry toEntry(Node node) {
+        long lastModified = 0L;
+        String date = node.getPropertyValue(VOS.PROPERTY_URI_DATE);
+        if (date != null) {
+            try {
+                DateFormat df = DateUtil.getDateFormat(DateUtil.IVOA_DATE_FORMAT, DateUtil.UTC);
+                lastModified = df.parse(date).getTime();
+            } catch (ParseException ex) {
+                log.debug(String.format("invalid date for %s: %s", node.getName(), date));
+            }
+        } else {
+            lastModified = System.currentTimeMillis();
+        }
+        return new DoiIndexEntry(node.getName(),
+                node.getPropertyValue(DOI.VOSPACE_DOI_REQUESTER_PROPERTY),
+                node.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY),
+                node.getPropertyValue(DOI.VOSPACE_DOI_TITLE_PROPERTY),
+                node.getPropertyValue(DOI.VOSPACE_DOI_JOURNAL_PROPERTY),
+                node.getPropertyValue(DOI.VOSPACE_DOI_REVIEWER_PROPERTY),
+                node.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY),
+                node.isPublic != null && node.isPublic,
+                lastModified);
+    }
+
+    /**
+     * Create a DOI container node with the properties of an index entry. The node has
+     * the properties used to list and search DOIs, but no permissions or child nodes.
+     *
+     * @param entry index entry
+     * @return DOI container node
+     */
+    public static ContainerNode toNode(DoiIndexEntry entry) {
+        ContainerNode node = new ContainerNode(entry.getSuffix());
+        addProperty(node, DOI.VOSPACE_DOI_REQUESTER_PROPERTY, entry.getRequester());
+        addProperty(node, DOI.VOSPACE_DOI_STATUS_PROPERTY, entry.getStatus());
+        addProperty(node, DOI.VOSPACE_DOI_TITLE_PROPERTY, entry.getTitle());
+        addProperty(node, DOI.VOSPACE_DOI_JOURNAL_PROPERTY, entry.getJournalRef());
+        addProperty(node, DOI.VOSPACE_DOI_REVIEWER_PROPERTY, entry.getReviewer());
+        addProperty(node, DOI.VOSPACE_DOI_JOB_URL_PROPERTY, entry.getJobURL());
+        node.isPublic = entry.isPublic();
+        return node;
+    }
+
+    private static void addProperty(Node node, URI key, String value) {
+        if (value != null) {
+            node.getProperties().add(new NodeProperty(key, value));
+        }
+    }
+}
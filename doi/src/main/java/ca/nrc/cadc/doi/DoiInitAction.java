@@ -69,13 +69,13 @@
 
 package ca.nrc.cadc.doi;
 
-import ca.nrc.cadc.auth.AuthenticationUtil;
 import ca.nrc.cadc.auth.HttpPrincipal;
-import ca.nrc.cadc.auth.SSLUtil;
 import ca.nrc.cadc.net.ResourceNotFoundException;
+import ca.nrc.cadc.reg.Standards;
 import ca.nrc.cadc.rest.InitAction;
 import ca.nrc.cadc.util.MultiValuedProperties;
 import ca.nrc.cadc.util.PropertiesReader;
+import ca.nrc.cadc.util.StringUtil;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -108,18 +108,73 @@ public class DoiInitAction extends InitAction {
 
     // optional properties
     public static final String RANDOM_TEST_ID_KEY = DOI_KEY + ".randomTestID";
+    public static final String TASK_THREADS_KEY = DOI_KEY + ".taskThreads";
+    public static final String TASK_TIMEOUT_KEY = DOI_KEY + ".taskTimeout";
+    public static final String TASK_VIRTUAL_THREADS_KEY = DOI_KEY + ".virtualThreads";
+    public static final String INDEX_DIR_KEY = DOI_KEY + ".indexDir";
+    public static final String INDEX_RECONCILE_INTERVAL_KEY = DOI_KEY + ".indexReconcileInterval";
+    public static final String MAX_JSON_SIZE_KEY = DOI_KEY + ".maxJsonSize";
+    public static final String MINT_JOB_DIR_KEY = DOI_KEY + ".mintJobDir";
+    public static final String MINT_THREADS_KEY = DOI_KEY + ".mintThreads";
+    public static final String MINT_MAX_ATTEMPTS_KEY = DOI_KEY + ".mintMaxAttempts";
+    public static final String JOB_CHECK_INTERVAL_KEY = DOI_KEY + ".jobCheckInterval";
+    public static final String JOB_CHECK_MAX_INTERVAL_KEY = DOI_KEY + ".jobCheckMaxInterval";
+    public static final String DATACITE_API_KEY = DOI_KEY + ".datacite.api";
+    public static final String DATACITE_REST_URL_KEY = DOI_KEY + ".datacite.restUrl";
+    public static final String BULK_MINT_TIMEOUT_KEY = DOI_KEY + ".bulkMintTimeout";
 
     //Alternative DOI settings properties
     public static final String PUBLISHER_GROUP_URI_KEY = DOI_KEY + ".publisherGroupURI";
 
     @Override
     public void doInit() {
-        getConfig(true);
+        DoiConfig.init();
+        VospaceDoiClient.getInstance(DoiConfig.getInstance(), getGmsResourceID());
         checkParentFolders();
+        DoiJobReconciler.init(DoiConfig.getInstance());
+        DoiIndexReconciler.init(DoiConfig.getInstance());
+        initSuffixAllocator(DoiConfig.getInstance());
+        DoiMintService.init(DoiConfig.getInstance());
+        DoiTaskExecutor.reconfigure(DoiConfig.getInstance());
     }
 
+    @Override
+    public void doShutdown() {
+        DoiMintService.shutdown();
+        DoiIndexReconciler.shutdown();
+        DoiJobReconciler.shutdown();
+        DoiTaskExecutor.shutdown();
+        DoiConfig.shutdown();
+    }
+
+    /**
+     * Apply a reloaded configuration to the services that were built from the previous one.
+     *
+     * @param previous configuration before the reload, may be null
+     * @param config reloaded configuration
+     */
+    static void reconfigure(DoiConfig previous, DoiConfig config) {
+        try {
+            DoiIndexReconciler.reconfigure(config);
+            String dir = config.getProperties().getFirstPropertyValue(INDEX_DIR_KEY);
+            if (previous == null
+                    || !Objects.equals(dir, previous.getProperties().getFirstPropertyValue(INDEX_DIR_KEY))) {
+                initSuffixAllocator(config);
+            }
+            DoiMintService.reconfigure(config);
+            DoiTaskExecutor.reconfigure(config);
+        } catch (RuntimeException ex) {
+            log.error("failed to apply the reloaded " + DoiConfig.CONFIG_FILENAME, ex);
+        }
+    }
+
+    /**
+     * Get the cached doi.properties configuration.
+     *
+     * @return doi configuration properties
+     */
     public static MultiValuedProperties getConfig() {
-        return getConfig(false);
+        return DoiConfig.getInstance().getProperties();
     }
 
     public static VOSURI getParentVOSURI(MultiValuedProperties props) {
@@ -138,13 +193,24 @@ public class DoiInitAction extends InitAction {
         return Objects.requireNonNullElse(doiIdentifierPrefix, "");
     }
 
+    public static URI getGmsResourceID() {
+        Set<URI> gmsServices = ServiceLookupCache.getResourceIDs(Standards.GMS_SEARCH_10);
+        if (gmsServices.isEmpty()) {
+            throw new IllegalStateException("GMS service not found");
+        } else if (gmsServices.size() > 1) {
+            throw new IllegalStateException("multiple GMS services found");
+        }
+        return gmsServices.iterator().next();
+    }
+
     public static GroupURI getPublisherGroupURI(MultiValuedProperties props) {
         String publisherGroupURI = props.getFirstPropertyValue(PUBLISHER_GROUP_URI_KEY);
         return publisherGroupURI == null ? null : new GroupURI(URI.create(publisherGroupURI));
     }
 
-    private static MultiValuedProperties getConfig(boolean verify) {
-        PropertiesReader reader = new PropertiesReader("doi.properties");
+    // read and check the doi.properties file, use getConfig() for the cached configuration
+    static MultiValuedProperties readConfig(boolean verify) {
+        PropertiesReader reader = new PropertiesReader(DoiConfig.CONFIG_FILENAME);
         MultiValuedProperties props = reader.getAllProperties();
         StringBuilder sb = new StringBuilder();
         Boolean ok = true;
@@ -162,6 +228,20 @@ public class DoiInitAction extends InitAction {
 
         // optional properties
         checkStringKey(props, sb, ok, false, RANDOM_TEST_ID_KEY);
+        checkStringKey(props, sb, ok, false, TASK_THREADS_KEY);
+        checkStringKey(props, sb, ok, false, TASK_TIMEOUT_KEY);
+        checkStringKey(props, sb, ok, false, TASK_VIRTUAL_THREADS_KEY);
+        checkStringKey(props, sb, ok, false, INDEX_DIR_KEY);
+        checkStringKey(props, sb, ok, false, INDEX_RECONCILE_INTERVAL_KEY);
+        checkStringKey(props, sb, ok, false, MAX_JSON_SIZE_KEY);
+        checkStringKey(props, sb, ok, false, MINT_JOB_DIR_KEY);
+        checkStringKey(props, sb, ok, false, MINT_THREADS_KEY);
+        checkStringKey(props, sb, ok, false, MINT_MAX_ATTEMPTS_KEY);
+        checkStringKey(props, sb, ok, false, JOB_CHECK_INTERVAL_KEY);
+        checkStringKey(props, sb, ok, false, JOB_CHECK_MAX_INTERVAL_KEY);
+        checkStringKey(props, sb, ok, false, DATACITE_API_KEY);
+        checkStringKey(props, sb, ok, false, DATACITE_REST_URL_KEY);
+        checkStringKey(props, sb, ok, false, BULK_MINT_TIMEOUT_KEY);
 
         // alternative properties
         checkStringKey(props, sb, ok, false, PUBLISHER_GROUP_URI_KEY);
@@ -227,15 +307,12 @@ public class DoiInitAction extends InitAction {
     // exists and has the expected properties.
     private static void checkParentFolders() {
 
-        Subject adminSubject = SSLUtil.createSubject(new File("/config/doiadmin.pem"));
-        adminSubject = AuthenticationUtil.augmentSubject(adminSubject);
+        Subject adminSubject = DoiAdminCredentials.getSubject();
         String adminUsername = getUsername(adminSubject);
 
-        MultiValuedProperties config = getConfig();
-        VOSURI parentVOSURI = getParentVOSURI(config);
-        URI vospaceResourceID = parentVOSURI.getServiceURI();
-        String parentPath = parentVOSURI.getPath();
-        VOSpaceClient vosClient = new VOSpaceClient(vospaceResourceID);
+        DoiConfig config = DoiConfig.getInstance();
+        String parentPath = config.getParentPath();
+        VOSpaceClient vosClient = VospaceDoiClient.getInstance(config, getGmsResourceID()).getVOSpaceClient();
 
         Node node;
         try {
@@ -270,6 +347,16 @@ public class DoiInitAction extends InitAction {
         }
     }
 
+    // the allocator state is saved with the index
+    private static void initSuffixAllocator(DoiConfig config) {
+        String dir = config.getProperties().getFirstPropertyValue(INDEX_DIR_KEY);
+        File stateDir = null;
+        if (StringUtil.hasText(dir) && new File(dir.trim()).isDirectory()) {
+            stateDir = new File(dir.trim());
+        }
+        DoiSuffixAllocator.setInstance(new DoiSuffixAllocator(stateDir));
+    }
+
     private static String getUsername(Subject subject) {
         Set<Principal> principals = subject.getPrincipals();
         for (Principal principal : principals) {
@@ -88,7 +88,19 @@ public class DoiInlineContentHandler implements InlineContentHandler {
     public static final String XML_CONTENT_TYPE = "text/xml";
     public static final String JSON_CONTENT_TYPE = "application/json";
 
+    private final long maxJsonSize;
+
     public DoiInlineContentHandler() {
+        this(DoiJsonReader.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxJsonSize maximum size, in characters, of a JSON metadata document
+     */
+    public DoiInlineContentHandler(long maxJsonSize) {
+        this.maxJsonSize = maxJsonSize;
     }
 
     /**
@@ -120,7 +132,7 @@ public class DoiInlineContentHandler implements InlineContentHandler {
                 log.info("content type: " + JSON_CONTENT_TYPE);
                 try {
                     // read json file
-                    DoiJsonReader reader = new DoiJsonReader();
+                    DoiJsonReader reader = new DoiJsonReader(maxJsonSize);
                     content.value = reader.read(inputStream);
                     log.info("content value: " + content.value);
                 } catch (DoiParsingException dpe) {
@@ -0,0 +1,212 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.index.DoiIndexEntry;
+import ca.nrc.cadc.doi.mint.PendingJobTracker;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import ca.nrc.cadc.util.StringUtil;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.NodeNotFoundException;
+
+/**
+ * Moves DOIs with a pending data locking job to the next status when the job finishes.
+ * The jobs are checked in the background by a PendingJobTracker, so reading the status
+ * of a DOI only reads the status stored in its node.
+ *
+ * <p>A DOI is tracked when this service starts its job, when a request or the index
+ * reconciler sees a node with a job URL, which also picks up jobs started by other
+ * instances of the service or before a restart.</p>
+ */
+public class DoiJobReconciler {
+    private static final Logger log = Logger.getLogger(DoiJobReconciler.class);
+
+    static final int DEFAULT_INTERVAL_SECONDS = 5;
+    static final int DEFAULT_MAX_INTERVAL_SECONDS = 300;
+
+    private static volatile PendingJobTracker tracker;
+
+    private DoiJobReconciler() {
+    }
+
+    /**
+     * Start the job tracker.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void init(DoiConfig config) {
+        if (tracker != null) {
+            return;
+        }
+        MultiValuedProperties props = config.getProperties();
+        int interval = DoiConfig.getIntValue(props, DoiInitAction.JOB_CHECK_INTERVAL_KEY, DEFAULT_INTERVAL_SECONDS);
+        int maxInterval = DoiConfig.getIntValue(props, DoiInitAction.JOB_CHECK_MAX_INTERVAL_KEY,
+                DEFAULT_MAX_INTERVAL_SECONDS);
+        if (maxInterval < interval) {
+            log.warn(String.format("%s is less than %s, using %d",
+                    DoiInitAction.JOB_CHECK_MAX_INTERVAL_KEY, DoiInitAction.JOB_CHECK_INTERVAL_KEY, interval));
+            maxInterval = interval;
+        }
+        tracker = new PendingJobTracker(DoiJobReconciler::checkJob,
+                TimeUnit.SECONDS.toMillis(interval), TimeUnit.SECONDS.toMillis(maxInterval));
+        log.info(String.format("DoiJobReconciler: check interval=%ds max interval=%ds", interval, maxInterval));
+    }
+
+    /**
+     * Stop the job tracker.
+     */
+    static synchronized void shutdown() {
+        if (tracker != null) {
+            tracker.shutdown();
+            tracker = null;
+        }
+    }
+
+    /**
+     * Track the pending job of a DOI until it is finished.
+     *
+     * @param doiSuffix suffix of the DOI
+     */
+    public static void track(String doiSuffix) {
+        PendingJobTracker current = tracker;
+        if (current != null) {
+            current.track(doiSuffix);
+        }
+    }
+
+    /**
+     * Track the pending job of a DOI and get notified when it is no longer tracked,
+     * usually because the job is finished and the status of the DOI updated.
+     *
+     * @param doiSuffix suffix of the DOI
+     * @return completed when the DOI is no longer tracked, at once if the tracker is not started
+     */
+    public static CompletableFuture<Void> whenUntracked(String doiSuffix) {
+        PendingJobTracker current = tracker;
+        if (current == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return current.whenUntracked(doiSuffix);
+    }
+
+    /**
+     * Track the pending jobs of the listed DOIs.
+     *
+     * @param entries index entries of the DOIs
+     */
+    static void trackAll(Collection<DoiIndexEntry> entries) {
+        for (DoiIndexEntry entry : entries) {
+            if (StringUtil.hasText(entry.getJobURL())) {
+                track(entry.getSuffix());
+            }
+        }
+    }
+
+    // read the node as doiadmin and update its status from the phase of the job
+    static boolean checkJob(String doiSuffix) throws Exception {
+        try {
+            return Subject.doAs(DoiAdminCredentials.getSubject(), (PrivilegedExceptionAction<Boolean>) () -> {
+                DoiConfig config = DoiConfig.getInstance();
+                VospaceDoiClient client = VospaceDoiClient.getInstance(config, DoiInitAction.getGmsResourceID());
+                DoiMinter minter = new DoiMinter(config, client, doiSuffix);
+                if (!minter.tryAcquire()) {
+                    // a mint of the DOI is in progress and updates the node, check again later
+                    log.debug("doi " + doiSuffix + " is being minted");
+                    return false;
+                }
+                try {
+                    ContainerNode doiContainerNode;
+                    try {
+                        doiContainerNode = minter.getContainerNode();
+                    } catch (NodeNotFoundException ex) {
+                        // deleted
+                        return true;
+                    }
+                    String status = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+                    if (StringUtil.hasText(status)) {
+                        status = minter.updateJobStatus(doiContainerNode, status, 0);
+                        log.debug("doi " + doiSuffix + " status: " + status);
+                    }
+                    return !StringUtil.hasText(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
+                } finally {
+                    minter.release();
+                }
+            });
+        } catch (PrivilegedActionException ex) {
+            throw ex.getException();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.mint.MintHandler;
+import ca.nrc.cadc.doi.mint.MintJobStore;
+import ca.nrc.cadc.doi.mint.MintQueue;
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import ca.nrc.cadc.util.StringUtil;
+import java.io.File;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.opencadc.vospace.ContainerNode;
+
+/**
+ * Mints DOIs in the background. When a mint job directory is configured, the process-wide
+ * MintQueue is started with this handler and a mint request only submits a job; otherwise
+ * minting is done in the request.
+ */
+public class DoiMintService implements MintHandler {
+    private static final Logger log = Logger.getLogger(DoiMintService.class);
+
+    static final int DEFAULT_THREADS = 2;
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    DoiMintService() {
+    }
+
+    /**
+     * Start the mint queue if a mint job directory is configured.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void init(DoiConfig config) {
+        if (MintQueue.getInstance() != null) {
+            return;
+        }
+        MultiValuedProperties props = config.getProperties();
+        String dir = props.getFirstPropertyValue(DoiInitAction.MINT_JOB_DIR_KEY);
+        if (!StringUtil.hasText(dir)) {
+            log.info("DoiMintService: no mint job directory, DOIs are minted in the request");
+            return;
+        }
+        int threads = DoiConfig.getIntValue(props, DoiInitAction.MINT_THREADS_KEY, DEFAULT_THREADS);
+        int maxAttempts = DoiConfig.getIntValue(props, DoiInitAction.MINT_MAX_ATTEMPTS_KEY, DEFAULT_MAX_ATTEMPTS);
+        MintQueue queue = new MintQueue(new MintJobStore(new File(dir.trim())), new DoiMintService(),
+                threads, maxAttempts);
+        queue.start();
+        MintQueue.setInstance(queue);
+        log.info(String.format("DoiMintService: threads=%d", threads));
+    }
+
+    /**
+     * Apply a modified configuration. The thread and attempt limits of the running queue
+     * are changed in place; when the mint job directory changes, the queue is drained and
+     * a queue on the new directory is started.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void reconfigure(DoiConfig config) {
+        MintQueue queue = MintQueue.getInstance();
+        MultiValuedProperties props = config.getProperties();
+        String dir = props.getFirstPropertyValue(DoiInitAction.MINT_JOB_DIR_KEY);
+        File jobDir = StringUtil.hasText(dir) ? new File(dir.trim()) : null;
+        if (queue != null && queue.getStore().getDir().equals(jobDir)) {
+            int threads = DoiConfig.getIntValue(props, DoiInitAction.MINT_THREADS_KEY, DEFAULT_THREADS);
+            int maxAttempts = DoiConfig.getIntValue(props, DoiInitAction.MINT_MAX_ATTEMPTS_KEY, DEFAULT_MAX_ATTEMPTS);
+            if (threads != queue.getThreads() || maxAttempts != queue.getMaxAttempts()) {
+                queue.configure(threads, maxAttempts);
+                log.info(String.format("DoiMintService: threads=%d max attempts=%d", threads, maxAttempts));
+            }
+            return;
+        }
+        if (queue != null) {
+            MintQueue.setInstance(null);
+            queue.drain();
+            log.info("DoiMintService: stopped the mint queue on " + queue.getStore().getDir());
+        }
+        init(config);
+    }
+
+    /**
+     * Stop the mint queue.
+     */
+    static synchronized void shutdown() {
+        MintQueue queue = MintQueue.getInstance();
+        if (queue != null) {
+            queue.shutdown();
+            MintQueue.setInstance(null);
+        }
+    }
+
+    @Override
+    public boolean mint(String doiSuffix) throws Exception {
+        try {
+            return Subject.doAs(DoiAdminCredentials.getSubject(),
+                    (PrivilegedExceptionAction<Boolean>) () -> mintAsAdmin(doiSuffix));
+        } catch (PrivilegedActionException ex) {
+            throw ex.getException();
+        }
+    }
+
+    private boolean mintAsAdmin(String doiSuffix) throws Exception {
+        DoiConfig config = DoiConfig.getInstance();
+        VospaceDoiClient client = VospaceDoiClient.getInstance(config, DoiInitAction.getGmsResourceID());
+        return mintAsAdmin(new DoiMinter(config, client, doiSuffix), config.getPublisherGroupURI() != null);
+    }
+
+    /**
+     * One attempt of a mint job: continue minting the DOI from its current status.
+     *
+     * @param minter minter of the DOI
+     * @param alternativeConfiguration true if the service uses the alternative (publisher) configuration
+     * @return true if the DOI is minted, false if a step is still in progress
+     * @throws Exception if a step failed, the job is then retried
+     */
+    static boolean mintAsAdmin(DoiMinter minter, boolean alternativeConfiguration) throws Exception {
+        minter.acquire();
+        try {
+            return mintAsOwner(minter, alternativeConfiguration);
+        } finally {
+            minter.release();
+        }
+    }
+
+    // the node is read by the owner of the DOI, no other step writes it meanwhile
+    private static boolean mintAsOwner(DoiMinter minter, boolean alternativeConfiguration) throws Exception {
+        String doiSuffix = minter.getDoiSuffix();
+        ContainerNode doiContainerNode = minter.getContainerNode();
+
+        Status status = getStatus(doiContainerNode);
+        if (status == Status.LOCKING_DATA) {
+            status = Status.toValue(minter.updateJobStatus(doiContainerNode, status.getValue(), 0));
+            if (status == Status.LOCKING_DATA) {
+                // data locking job still running
+                return false;
+            }
+            if (status == Status.ERROR_LOCKING_DATA) {
+                throw new IllegalStateException("failed to lock the data directory of " + doiSuffix);
+            }
+        }
+
+        if (status == Status.REGISTERING) {
+            // an interrupted registration, registering the metadata and the landing page
+            // with DataCite again replaces them
+            minter.register(doiContainerNode);
+        } else {
+            minter.mint(doiContainerNode, alternativeConfiguration);
+        }
+        status = getStatus(doiContainerNode);
+        log.debug("doi " + doiSuffix + " status: " + status);
+        return status == Status.MINTED || status == Status.COMPLETED;
+    }
+
+    private static Status getStatus(ContainerNode doiContainerNode) {
+        return Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
+    }
+}
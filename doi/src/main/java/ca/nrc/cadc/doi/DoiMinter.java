@@ -0,0 +1,490 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.registrar.DataCiteClient;
+import ca.nrc.cadc.doi.registrar.DoiRegistrar;
+import ca.nrc.cadc.doi.registrar.MdsClient;
+import ca.nrc.cadc.doi.registrar.RestClient;
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.uws.ExecutionPhase;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.log4j.Logger;
+import org.opencadc.gms.GroupURI;
+import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.DataNode;
+import org.opencadc.vospace.NodeNotFoundException;
+import org.opencadc.vospace.NodeProperty;
+import org.opencadc.vospace.VOSURI;
+import org.opencadc.vospace.client.ClientAbortThread;
+import org.opencadc.vospace.client.async.RecursiveSetNode;
+
+/**
+ * Performs the steps of minting a DOI: locking the data directory, registering the DOI
+ * metadata with DataCite and making the DOI findable. The status of the DOI container
+ * node records the progress, so minting can be continued by a later request or by the
+ * mint job queue. The steps use the credentials of the current Subject, which must be
+ * the DOI admin. The steps that write the DOI container node are done by the owner of
+ * the DOI, see acquire().
+ */
+public class DoiMinter {
+    private static final Logger log = Logger.getLogger(DoiMinter.class);
+
+    private static DataCiteClient registrar;
+
+    // the lock of each DOI with a minter that owns it, removed when it is released
+    private static final Map<String, ReentrantLock> OWNERS = new ConcurrentHashMap<>();
+
+    private final DoiConfig doiConfig;
+    private final VospaceDoiClient vospaceDoiClient;
+    private final String doiSuffix;
+    private final String accountPrefix;
+
+    /**
+     * Constructor.
+     *
+     * @param doiConfig doi configuration
+     * @param vospaceDoiClient client of the DOI parent node in VOSpace
+     * @param doiSuffix suffix of the DOI to mint
+     */
+    public DoiMinter(DoiConfig doiConfig, VospaceDoiClient vospaceDoiClient, String doiSuffix) {
+        this.doiConfig = doiConfig;
+        this.vospaceDoiClient = vospaceDoiClient;
+        this.doiSuffix = doiSuffix;
+        this.accountPrefix = doiConfig.getAccountPrefix();
+    }
+
+    public String getDoiSuffix() {
+        return doiSuffix;
+    }
+
+    /**
+     * Become the owner of the DOI, waiting for the current owner to release it. The DOI
+     * container node is only written by its owner, so the node must be read after this
+     * returns and the steps done before release() is called.
+     */
+    public void acquire() {
+        while (true) {
+            ReentrantLock lock = OWNERS.computeIfAbsent(doiSuffix, k -> new ReentrantLock());
+            lock.lock();
+            if (OWNERS.get(doiSuffix) == lock) {
+                return;
+            }
+            // released and removed by the previous owner meanwhile
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Become the owner of the DOI if it has no owner.
+     *
+     * @return true if this is the owner, false if a mint of the DOI is in progress
+     */
+    public boolean tryAcquire() {
+        ReentrantLock lock = OWNERS.computeIfAbsent(doiSuffix, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            return false;
+        }
+        if (OWNERS.get(doiSuffix) == lock) {
+            return true;
+        }
+        lock.unlock();
+        return false;
+    }
+
+    /**
+     * Release the ownership of the DOI acquired by this thread.
+     */
+    public void release() {
+        ReentrantLock lock = OWNERS.get(doiSuffix);
+        if (lock.getHoldCount() == 1 && !lock.hasQueuedThreads()) {
+            OWNERS.remove(doiSuffix, lock);
+        }
+        lock.unlock();
+    }
+
+    public ContainerNode getContainerNode() throws NodeNotFoundException {
+        return vospaceDoiClient.getContainerNode(doiSuffix);
+    }
+
+    /**
+     * Check that minting can be started or continued for a DOI with this status.
+     *
+     * @param status current status of the DOI
+     * @param alternativeConfiguration true if the service uses the alternative (publisher) configuration
+     * @throws IllegalArgumentException if the DOI cannot be minted
+     */
+    public static void checkMintable(Status status, boolean alternativeConfiguration) {
+        switch (status) {
+            case DRAFT:
+                if (alternativeConfiguration) {
+                    throw new IllegalArgumentException("Cannot publish an 'in progress' DOI for an alternative configuration");
+                }
+                break;
+            case REVIEW_READY:
+            case REJECTED:
+                throw new IllegalArgumentException("Cannot publish a DOI with status '" + status + "'");
+            default:
+                // mintable, or minting in progress or done
+        }
+    }
+
+    /**
+     * Start or continue minting based on the current status of the DOI: lock the data
+     * directory, or register the DOI when the data directory is locked. Nothing is done
+     * while a step is in progress or when the DOI has been minted.
+     *
+     * @param doiContainerNode DOI container node
+     * @param alternativeConfiguration true if the service uses the alternative (publisher) configuration
+     * @throws Exception if the DOI cannot be minted or the step failed
+     */
+    public void mint(ContainerNode doiContainerNode, boolean alternativeConfiguration) throws Exception {
+        Status mintingStatus = Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
+        checkMintable(mintingStatus, alternativeConfiguration);
+        switch (mintingStatus) {
+            case DRAFT:
+            case IN_REVIEW:
+            case APPROVED:
+            case ERROR_LOCKING_DATA:
+                lockData(doiContainerNode);
+                break;
+            case LOCKED_DATA:
+            case ERROR_REGISTERING:
+                register(doiContainerNode);
+                break;
+            default:
+                // in progress (LOCKING_DATA, REGISTERING) or finished (MINTED, COMPLETED), do nothing
+                log.debug("doi " + doiSuffix + " status: " + mintingStatus);
+        }
+    }
+
+    /**
+     * Update the status of the DOI from the phase of its pending data locking job. The
+     * job URL is removed from the node and the status updated when the job is finished.
+     *
+     * @param doiContainerNode DOI container node
+     * @param status current status of the DOI
+     * @param waitSeconds maximum time to wait for the job phase
+     * @return the updated status, the current status if there is no pending job or it is still running
+     * @throws Exception if the job phase cannot be read or the node cannot be updated
+     */
+    public String updateJobStatus(ContainerNode doiContainerNode, String status, int waitSeconds)
+            throws Exception {
+        // update status based on the result of the minting service
+        String localStatus = status;
+        String jobURLString = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
+        if (jobURLString != null) {
+            URL jobURL = new URL(jobURLString);
+            VOSURI vosuri = getVOSURI(doiContainerNode.getName());
+            ExecutionPhase phase;
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                phase = getJobPhase(jobURL, doiContainerNode, waitSeconds);
+                success = true;
+            } finally {
+                DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getJobPhase", System.nanoTime() - start, success);
+            }
+            switch (phase) {
+                case COMPLETED:
+                case ARCHIVED:
+                    // job finished, set corresponding status
+                    if (status.equals(Status.LOCKING_DATA.getValue())) {
+                        localStatus = Status.LOCKED_DATA.getValue();
+                    } else if (status.equals(Status.REGISTERING.getValue())) {
+                        localStatus = Status.MINTED.getValue();
+                    }
+                    // delete jobURL property
+                    doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
+                    doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(localStatus);
+                    vospaceDoiClient.setDoiContainerNode(vosuri, doiContainerNode);
+                    break;
+                case ERROR:
+                case ABORTED:
+                case UNKNOWN:
+                case SUSPENDED:
+                case HELD:
+                    // assume job resulted in error, set corresponding status
+                    if (status.equals(Status.LOCKING_DATA.getValue())) {
+                        localStatus = Status.ERROR_LOCKING_DATA.getValue();
+                    } else if (status.equals(Status.REGISTERING.getValue())) {
+                        localStatus = Status.ERROR_REGISTERING.getValue();
+                    }
+                    // delete jobURL property
+                    doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
+                    doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(localStatus);
+                    vospaceDoiClient.setDoiContainerNode(vosuri, doiContainerNode);
+                    break;
+                case PENDING:
+                case QUEUED:
+                case EXECUTING:
+                    // job is in progress, do nothing
+                    break;
+                default:
+                    // do nothing
+            }
+        }
+        return localStatus;
+    }
+
+    /**
+     * Lock the data directory of the DOI and make it public. The data directory is
+     * locked by an asynchronous VOSpace job, the URL of the job is saved in the DOI
+     * container node and the status is LOCKING_DATA until the job is finished.
+     *
+     * @param doiContainerNode DOI container node
+     * @throws Exception if the job cannot be started, the status is then ERROR_LOCKING_DATA
+     */
+    public void lockData(ContainerNode doiContainerNode) throws Exception {
+        String doiDataPath = doiSuffix + "/data";
+        VOSURI containerVOSURI = getVOSURI(doiSuffix);
+        VOSURI dataVOSURI = getVOSURI(doiDataPath);
+        try {
+            // update status
+            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.LOCKING_DATA.getValue());
+            vospaceDoiClient.setDoiContainerNode(containerVOSURI, doiContainerNode);
+
+            // lock data directory and subdirectories, make them public
+            ContainerNode dataContainerNode = vospaceDoiClient.getContainerNode(doiDataPath);
+            dataContainerNode.isPublic = true;
+            dataContainerNode.clearReadOnlyGroups = true;
+            dataContainerNode.getReadOnlyGroup().clear();
+            dataContainerNode.clearReadWriteGroups = true;
+            dataContainerNode.getReadWriteGroup().clear();
+            dataContainerNode.isLocked = true;
+
+            // clear all children in the dataContainerNode, otherwise the XML file may be
+            // too long resulting in (413) Request Entity Too Large
+            dataContainerNode.getNodes().clear();
+            vospaceDoiClient.setNode(dataVOSURI, dataContainerNode);
+
+            // get the job URL
+            URL jobURL;
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                jobURL = startRecursiveSetNode(dataVOSURI, dataContainerNode);
+                success = true;
+            } finally {
+                DoiMetrics.recordCall(DoiMetrics.VOSPACE, "recursiveSetNode", System.nanoTime() - start, success);
+            }
+            log.debug("invoked async call to recursively set the properties in the data directory " + doiDataPath);
+
+            // save job URL
+            NodeProperty jobURLProp = new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY, jobURL.toExternalForm());
+            doiContainerNode.getProperties().add(jobURLProp);
+            vospaceDoiClient.setDoiContainerNode(containerVOSURI, doiContainerNode);
+            DoiJobReconciler.track(doiSuffix);
+        } catch (Exception ex) {
+            // update status
+            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.ERROR_LOCKING_DATA.getValue());
+            String jobURLString = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
+            if (jobURLString != null) {
+                doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
+            }
+
+            vospaceDoiClient.setDoiContainerNode(containerVOSURI, doiContainerNode);
+            throw ex;
+        }
+    }
+
+    /**
+     * Register the DOI metadata with DataCite, make the DOI findable and make the DOI
+     * container node and metadata file public. The status is MINTED when this returns.
+     *
+     * @param doiContainerNode DOI container node
+     * @throws Exception if registration failed, the status is then ERROR_REGISTERING
+     */
+    public void register(ContainerNode doiContainerNode) throws Exception {
+        Set<GroupURI> groupRead = new TreeSet<>();
+        Set<GroupURI> groupWrite = new TreeSet<>();
+        String xmlFilename = doiSuffix + "/" + getDoiFilename(doiSuffix);
+        DataNode xmlFile = null;
+
+        VOSURI doiURI = getVOSURI(doiContainerNode.getName());
+        VOSURI xmlURI = getVOSURI(xmlFilename);
+
+        try {
+            // update status
+            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.REGISTERING.getValue());
+            vospaceDoiClient.setDoiContainerNode(doiURI, doiContainerNode);
+
+            // register DOI to DataCite and add landing page to the DOI instance
+            Resource resource = vospaceDoiClient.getResource(doiSuffix, getDoiFilename(doiSuffix));
+            String landingURL = String.format("%s?doi=%s", doiConfig.getLandingURL(), doiSuffix);
+            getRegistrar(doiConfig).register(accountPrefix + "/" + doiSuffix, resource, landingURL);
+
+            // completed minting, update status and node properties
+            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.MINTED.getValue());
+
+            // make parent container and XML file public, remove group properties.
+            // this is required for the landing page to be available to doi.org for
+            // anonymous access
+            xmlFile = vospaceDoiClient.getDataNode(xmlFilename);
+            xmlFile.isPublic = true;
+            xmlFile.clearReadOnlyGroups = true;
+            xmlFile.getReadOnlyGroup().clear();
+            xmlFile.clearReadWriteGroups = true;
+            xmlFile.getReadWriteGroup().clear();
+            vospaceDoiClient.setNode(xmlURI, xmlFile);
+
+            groupRead.addAll(doiContainerNode.getReadOnlyGroup());
+            groupWrite.addAll(doiContainerNode.getReadWriteGroup());
+            doiContainerNode.isPublic = true;
+            doiContainerNode.clearReadOnlyGroups = true;
+            doiContainerNode.getReadOnlyGroup().clear();
+            doiContainerNode.clearReadWriteGroups = true;
+            doiContainerNode.getReadWriteGroup().clear();
+            vospaceDoiClient.setDoiContainerNode(doiURI, doiContainerNode);
+
+            // the cached documents are cached again as minted
+            DoiDocumentCache.invalidate(doiSuffix);
+        } catch (Exception ex) {
+            // update status to flag error state, and original properties of
+            // container node and xml file
+
+            if (xmlFile != null) {
+                xmlFile.isPublic = false;
+                xmlFile.getReadOnlyGroup().addAll(groupRead);
+                xmlFile.getReadWriteGroup().addAll(groupWrite);
+                vospaceDoiClient.setNode(xmlURI, xmlFile);
+            }
+
+            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.ERROR_REGISTERING.getValue());
+            doiContainerNode.isPublic = false;
+            doiContainerNode.getReadOnlyGroup().addAll(groupRead);
+            doiContainerNode.getReadWriteGroup().addAll(groupWrite);
+
+            // update both nodes
+            // This will work unless vospace is failing
+            vospaceDoiClient.setDoiContainerNode(doiURI, doiContainerNode);
+
+            // documents cached while registering must not be kept as minted
+            DoiDocumentCache.invalidate(doiSuffix);
+            throw ex;
+        }
+    }
+
+    // start the asynchronous job that sets the data directory node and its children
+    URL startRecursiveSetNode(VOSURI dataVOSURI, ContainerNode dataContainerNode) throws Exception {
+        RecursiveSetNode recSetNode = vospaceDoiClient.getVOSpaceClient()
+                .createRecursiveSetNode(dataVOSURI, dataContainerNode);
+        URL jobURL = recSetNode.getJobURL();
+
+        // this is an async operation
+        Thread abortThread = new ClientAbortThread(jobURL);
+        Runtime.getRuntime().addShutdownHook(abortThread);
+        recSetNode.setMonitor(false);
+        recSetNode.run();
+        Runtime.getRuntime().removeShutdownHook(abortThread);
+        return jobURL;
+    }
+
+    // the phase of a recursive set node job, waiting at most waitSeconds for it to finish
+    ExecutionPhase getJobPhase(URL jobURL, ContainerNode doiContainerNode, int waitSeconds) throws Exception {
+        RecursiveSetNode recursiveSetNode = new RecursiveSetNode(jobURL, doiContainerNode);
+        recursiveSetNode.setSchemaValidation(false);
+        return recursiveSetNode.getPhase(waitSeconds);
+    }
+
+    private String getDoiFilename(String suffix) {
+        return String.format("%s%s.xml", doiConfig.getMetadataPrefix(), suffix);
+    }
+
+    private VOSURI getVOSURI(String path) {
+        return new VOSURI(doiConfig.getVaultResourceID(), String.format("%s/%s", doiConfig.getParentPath(), path));
+    }
+
+    /**
+     * The DataCite client of the configured API and account. The client is shared by all
+     * mints, so its connections are reused, and replaced when the configuration changes.
+     *
+     * @param config doi configuration
+     * @return DataCite client
+     */
+    static synchronized DoiRegistrar getRegistrar(DoiConfig config) {
+        boolean rest = DoiConfig.DATACITE_API_REST.equals(config.getDataCiteApi());
+        URL url = rest ? config.getDataCiteRestURL() : config.getDataCiteMdsURL();
+        String username = config.getDataCiteUsername();
+        String password = config.getDataCitePassword();
+        if (registrar == null || (registrar instanceof RestClient) != rest
+                || !registrar.matches(url, username, password)) {
+            registrar = rest ? new RestClient(url, username, password) : new MdsClient(url, username, password);
+            log.info("DataCite client: " + url);
+        }
+        return registrar;
+    }
+}
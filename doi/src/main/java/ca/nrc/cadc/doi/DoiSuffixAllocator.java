@@ -0,0 +1,239 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Properties;
+import org.apache.log4j.Logger;
+
+/**
+ * Allocates the numbers of new DOIs. DOI suffixes have the form YY.NNNN, where YY is
+ * the current year and NNNN is incremented for each DOI created in the year.
+ *
+ * <p>The allocator is seeded once with the names of the existing DOIs and then hands out
+ * numbers without listing VOSpace. The last allocated number is saved in the state file,
+ * if a directory is configured, so a restarted service does not need to be seeded again.
+ * A number can still be taken by another instance of the service: the caller detects that
+ * when it creates the DOI and allocates another number.</p>
+ */
+public class DoiSuffixAllocator {
+    private static final Logger log = Logger.getLogger(DoiSuffixAllocator.class);
+
+    static final String STATE_FILE = "doi-suffix.properties";
+
+    private static final String YEAR = "year";
+    private static final String LAST = "last";
+    private static final DateTimeFormatter YEAR_FORMAT = DateTimeFormatter.ofPattern("yy");
+
+    private static volatile DoiSuffixAllocator instance;
+
+    private final File stateFile;
+    private final Clock clock;
+    private String year;
+    private int last;
+    private boolean seeded;
+
+    /**
+     * Constructor. The last allocated number is loaded from the state file in the
+     * directory, if there is one.
+     *
+     * @param dir directory of the state file, null to keep the state in memory only
+     */
+    public DoiSuffixAllocator(File dir) {
+        this(dir, Clock.systemDefaultZone());
+    }
+
+    DoiSuffixAllocator(File dir, Clock clock) {
+        this.stateFile = dir == null ? null : new File(dir, STATE_FILE);
+        this.clock = clock;
+        this.year = getCurrentYear();
+        load();
+    }
+
+    public static DoiSuffixAllocator getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(DoiSuffixAllocator allocator) {
+        instance = allocator;
+    }
+
+    /**
+     * @return true if the allocator has been seeded or its state has been loaded
+     */
+    public synchronized boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Seed the allocator with the names of existing DOIs. Names that do not have the form
+     * prefix + YY.NNNN are ignored. The next number allocated is greater than the numbers
+     * of the current year in the names.
+     *
+     * @param names names of the DOI nodes
+     * @param prefix DOI identifier prefix of the names
+     */
+    public synchronized void seed(Collection<String> names, String prefix) {
+        rollover();
+        int max = last;
+        for (String name : names) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            String[] nameParts = name.substring(prefix.length()).split("\\.");
+            if (nameParts.length == 2 && nameParts[0].equals(year)) {
+                try {
+                    max = Math.max(max, Integer.parseInt(nameParts[1]));
+                } catch (NumberFormatException ex) {
+                    log.debug("ignoring DOI name: " + name);
+                }
+            }
+        }
+        last = max;
+        seeded = true;
+        save();
+        log.debug(String.format("seeded with %d names: %s.%04d", names.size(), year, last));
+    }
+
+    /**
+     * Allocate the next DOI suffix.
+     *
+     * @return DOI suffix YY.NNNN, without the DOI identifier prefix
+     */
+    public synchronized String next() {
+        rollover();
+        last++;
+        save();
+        return String.format("%s.%04d", year, last);
+    }
+
+    // numbers start again at 1 in a new year
+    private void rollover() {
+        String currentYear = getCurrentYear();
+        if (!currentYear.equals(year)) {
+            year = currentYear;
+            last = 0;
+        }
+    }
+
+    private String getCurrentYear() {
+        return LocalDate.now(clock).format(YEAR_FORMAT);
+    }
+
+    private void load() {
+        if (stateFile == null || !stateFile.exists()) {
+            return;
+        }
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(stateFile)) {
+            props.load(in);
+            String savedYear = props.getProperty(YEAR);
+            int savedLast = Integer.parseInt(props.getProperty(LAST));
+            if (year.equals(savedYear)) {
+                last = savedLast;
+            }
+            seeded = true;
+            log.info(String.format("loaded %s: %s.%04d", stateFile, savedYear, savedLast));
+        } catch (IOException | RuntimeException ex) {
+            log.warn(String.format("ignoring invalid DOI suffix state %s: %s", stateFile, ex));
+        }
+    }
+
+    private void save() {
+        if (stateFile == null) {
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty(YEAR, year);
+        props.setProperty(LAST, Integer.toString(last));
+        File tmp = new File(stateFile.getParentFile(), STATE_FILE + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                props.store(out, null);
+                // the content must be on disk before the rename makes it the state file
+                out.getFD().sync();
+            }
+            Files.move(tmp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // the state in memory is still current, only a restart needs to seed again
+            log.error("failed to save " + stateFile, ex);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import java.lang.reflect.Method;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+
+/**
+ * Process-wide executor used to run independent per-DOI lookups (VOSpace node
+ * requests, minting job polling) concurrently. The number of lookups running at
+ * the same time is bounded by the configured number of threads. Virtual threads are
+ * used when the runtime supports them and they are enabled, otherwise a fixed size
+ * pool of platform threads is used.
+ *
+ * <p>Tasks are run as the Subject given when they are submitted.</p>
+ */
+public class DoiTaskExecutor {
+    private static final Logger log = Logger.getLogger(DoiTaskExecutor.class);
+
+    static final int DEFAULT_THREADS = 8;
+    static final long DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private static volatile DoiTaskExecutor instance;
+    private static volatile DoiTaskExecutor mintInstance;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int threads;
+    private final long timeoutMillis;
+    private final boolean useVirtualThreads;
+
+    DoiTaskExecutor(int threads, long timeoutMillis, boolean useVirtualThreads) {
+        this.threads = threads;
+        this.timeoutMillis = timeoutMillis;
+        this.useVirtualThreads = useVirtualThreads;
+
+        ExecutorService virtualExecutor = null;
+        if (useVirtualThreads) {
+            virtualExecutor = createVirtualThreadExecutor();
+        }
+        if (virtualExecutor != null) {
+            // virtual threads are not pooled, bound the concurrency with permits instead
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(threads);
+            log.info("DoiTaskExecutor: virtual threads, max concurrent tasks: " + threads);
+        } else {
+            this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+            ((ThreadPoolExecutor) this.executor).allowCoreThreadTimeOut(true);
+            this.permits = null;
+            log.info("DoiTaskExecutor: thread pool, size: " + threads);
+        }
+    }
+
+    /**
+     * Get the process-wide executor of the DOI lookups. The executor is created on first
+     * use; afterwards this is a volatile read, the executor is replaced by reconfigure.
+     *
+     * @param config doi configuration, used if the executor has not been created
+     * @return the shared executor
+     */
+    public static DoiTaskExecutor getInstance(DoiConfig config) {
+        DoiTaskExecutor ret = instance;
+        if (ret == null) {
+            reconfigure(config);
+            ret = instance;
+        }
+        return ret;
+    }
+
+    /**
+     * Get the process-wide executor of the bulk mints. The mints are not run with the
+     * lookups, which a bulk mint waiting for data locking jobs would otherwise hold up;
+     * at most mintThreads DOIs of the bulk mints are minted at the same time.
+     *
+     * @param config doi configuration, used if the executor has not been created
+     * @return the shared executor of the bulk mints
+     */
+    public static DoiTaskExecutor getMintInstance(DoiConfig config) {
+        DoiTaskExecutor ret = mintInstance;
+        if (ret == null) {
+            reconfigure(config);
+            ret = mintInstance;
+        }
+        return ret;
+    }
+
+    /**
+     * Create the shared executors, or replace those whose settings have changed in a
+     * reloaded configuration; the tasks submitted to a replaced executor are completed.
+     *
+     * @param config doi configuration
+     */
+    static synchronized void reconfigure(DoiConfig config) {
+        instance = getExecutor(instance, config.getTaskThreads(),
+                TimeUnit.SECONDS.toMillis(config.getTaskTimeout()), config.useVirtualThreads());
+        mintInstance = getExecutor(mintInstance, config.getMintThreads(),
+                TimeUnit.SECONDS.toMillis(config.getBulkMintTimeout()), config.useVirtualThreads());
+    }
+
+    // the current executor, or a new one when the settings have changed
+    private static DoiTaskExecutor getExecutor(DoiTaskExecutor current, int threads, long timeoutMillis,
+                                               boolean useVirtualThreads) {
+        if (current != null && current.threads == threads && current.timeoutMillis == timeoutMillis
+                && current.useVirtualThreads == useVirtualThreads) {
+            return current;
+        }
+        if (current != null) {
+            log.info("DoiTaskExecutor: configuration changed, replacing the executor");
+            current.executor.shutdown();
+        }
+        return new DoiTaskExecutor(threads, timeoutMillis, useVirtualThreads);
+    }
+
+    /**
+     * Shut down the shared executors, if they have been created.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+        if (mintInstance != null) {
+            mintInstance.executor.shutdownNow();
+            mintInstance = null;
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the deadline, in milliseconds since the epoch, for a request starting now.
+     */
+    public long getDeadline() {
+        return System.currentTimeMillis() + timeoutMillis;
+    }
+
+    /**
+     * Submit a task to be run as the given subject.
+     *
+     * @param subject the subject to run the task as, may be null
+     * @param task the task
+     * @param <T> task result type
+     * @return Future for the task result
+     */
+    public <T> Future<T> submit(final Subject subject, final Callable<T> task) {
+        return executor.submit(() -> {
+            if (permits != null) {
+                permits.acquire();
+            }
+            try {
+                return Subject.doAs(subject, (PrivilegedExceptionAction<T>) task::call);
+            } catch (PrivilegedActionException e) {
+                throw e.getException();
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait for the result of a task until the deadline. The task is cancelled
+     * if it is not completed by the deadline.
+     *
+     * @param future Future for the task result
+     * @param deadline deadline in milliseconds since the epoch
+     * @param <T> task result type
+     * @return the task result
+     * @throws TimeoutException if the deadline has passed before the task completed
+     * @throws Exception the exception thrown by the task
+     */
+    public static <T> T await(Future<T> future, long deadline) throws Exception {
+        try {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            return future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (CancellationException e) {
+            throw new TimeoutException("task cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is available in Java 21+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.debug("virtual threads not supported: " + e);
+            return null;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "doi-task-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
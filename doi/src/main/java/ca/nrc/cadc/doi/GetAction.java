@@ -68,21 +68,36 @@
 package ca.nrc.cadc.doi;
 
 import ca.nrc.cadc.cred.client.CredUtil;
+import ca.nrc.cadc.date.DateUtil;
 import ca.nrc.cadc.doi.datacite.Resource;
 import ca.nrc.cadc.doi.io.DoiJsonWriter;
 import ca.nrc.cadc.doi.io.DoiXmlWriter;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.mint.MintJob;
+import ca.nrc.cadc.doi.mint.MintQueue;
 import ca.nrc.cadc.doi.status.DoiStatus;
 import ca.nrc.cadc.doi.status.DoiStatusJsonWriter;
 import ca.nrc.cadc.doi.status.DoiStatusXmlWriter;
-
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.net.ResourceNotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.Date;
 import org.apache.log4j.Logger;
+import org.json.JSONObject;
 import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.DataNode;
+import org.opencadc.vospace.NodeNotFoundException;
 
 
 public class GetAction extends DoiAction {
 
     private static final Logger log = Logger.getLogger(GetAction.class);
 
+    // pretty=false requests the compact document
+    static final String PRETTY_PARAM = "pretty";
+
     public GetAction() {
         super();
     }
@@ -97,7 +112,7 @@ public class GetAction extends DoiAction {
 
         if (super.doiSuffix == null) {
             // get the DoiStatus of all DOI instances for the calling user
-            getStatusList(getAccessibleDOIs());
+            getStatusList(getAccessibleDOIs(), getPage());
         } else if (super.doiAction != null) {
             // perform the action on the DOI
             performDoiAction();
@@ -107,30 +122,97 @@ public class GetAction extends DoiAction {
     }
     
     private void getDoi() throws Exception {
-        Resource resource = vospaceDoiClient.getResource(doiSuffix, getDoiFilename(doiSuffix));
         String docFormat = this.syncInput.getHeader("Accept");
         log.debug("'Accept' value in header is " + docFormat);
-        if (docFormat != null && docFormat.contains("application/json")) {
-            // json document
-            syncOutput.setHeader("Content-Type", "application/json");
-            DoiJsonWriter writer = new DoiJsonWriter();
-            writer.write(resource, syncOutput.getOutputStream());
+        boolean json = docFormat != null && docFormat.contains("application/json");
+        boolean prettyPrint = !"false".equalsIgnoreCase(syncInput.getParameter(PRETTY_PARAM));
+        String format = (json ? "json" : "xml") + (prettyPrint ? "" : "-compact");
+
+        // the document of a minted DOI is public and no longer changes
+        DoiDocumentCache.Document document = DoiDocumentCache.getMinted(doiSuffix, format);
+        String eTag = null;
+        Date lastModified = null;
+        DataNode docNode = null;
+        String version = null;
+        if (document != null) {
+            eTag = document.getETag();
+            lastModified = document.getLastModified();
         } else {
-            // xml document
-            syncOutput.setHeader("Content-Type", "text/xml");
-            DoiXmlWriter writer = new DoiXmlWriter();
-            writer.write(resource, syncOutput.getOutputStream());
+            // reading the metadata file node as the caller checks the caller has access
+            try {
+                docNode = vospaceDoiClient.getDataNode(doiSuffix + "/" + getDoiFilename(doiSuffix));
+            } catch (NodeNotFoundException ex) {
+                throw new ResourceNotFoundException(ex.getMessage());
+            }
+            version = DoiDocumentCache.getVersion(docNode);
+            if (version != null) {
+                eTag = DoiDocumentCache.getETag(version, format);
+            }
+            lastModified = getLastModified(docNode);
+        }
+
+        if (isNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        if (document == null) {
+            document = DoiDocumentCache.get(doiSuffix, format, version);
+        }
+        if (document == null) {
+            Resource resource = vospaceDoiClient.getResource(doiSuffix, getDoiFilename(doiSuffix));
+            long start = System.nanoTime();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            String contentType;
+            if (json) {
+                // json document
+                contentType = "application/json";
+                DoiJsonWriter writer = new DoiJsonWriter(prettyPrint);
+                writer.write(resource, out);
+            } else {
+                // xml document
+                contentType = "text/xml";
+                DoiXmlWriter writer = new DoiXmlWriter(prettyPrint);
+                writer.write(resource, out);
+            }
+            // only the documents of a DOI that is minted are kept longer, a public
+            // metadata file is not enough as the DOI may still fail to register
+            String status = vospaceDoiClient.getContainerNode(doiSuffix)
+                    .getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+            boolean minted = Status.MINTED.getValue().equals(status) || Status.COMPLETED.getValue().equals(status);
+            document = new DoiDocumentCache.Document(version, eTag, lastModified, contentType, out.toByteArray(),
+                    minted);
+            DoiDocumentCache.put(doiSuffix, format, document);
+            recordPhase(DoiMetrics.WRITE, start);
         }
+
+        syncOutput.setHeader("Content-Type", document.getContentType());
+        syncOutput.setHeader("Content-Length", document.getContent().length);
+        syncOutput.getOutputStream().write(document.getContent());
     }
     
     private void performDoiAction() throws Exception {
         if (doiAction.equals(DoiAction.STATUS_ACTION)) {
             ContainerNode doiContainerNode = vospaceDoiClient.getContainerNode(doiSuffix);
-            DoiStatus doiStatus = getDoiStatus(doiSuffix, doiContainerNode, true);
+            checkReadAccess(doiSuffix, doiContainerNode);
 
             String docFormat = this.syncInput.getHeader("Accept");
             log.debug("'Accept' value in header is " + docFormat);
-            if (docFormat != null && docFormat.contains("application/json")) {
+            boolean json = docFormat != null && docFormat.contains("application/json");
+
+            // the status is generated from the node only
+            String eTag = new DoiETag()
+                    .add(json ? "json" : "xml")
+                    .add(accountPrefix)
+                    .add(parentPath)
+                    .addStatus(doiContainerNode)
+                    .getValue();
+            if (isNotModified(eTag)) {
+                return;
+            }
+
+            DoiStatus doiStatus = getDoiStatus(doiSuffix, doiContainerNode, false);
+            long start = System.nanoTime();
+            if (json) {
                 // json document
                 syncOutput.setHeader("Content-Type", "application/json");
                 DoiStatusJsonWriter writer = new DoiStatusJsonWriter();
@@ -141,9 +223,47 @@ public class GetAction extends DoiAction {
                 DoiStatusXmlWriter writer = new DoiStatusXmlWriter();
                 writer.write(doiStatus, syncOutput.getOutputStream());
             }
+            recordPhase(DoiMetrics.WRITE, start);
+        } else if (doiAction.equals(DoiAction.MINT_ACTION)) {
+            getMintJob();
         } else {
             throw new UnsupportedOperationException("DOI action not implemented: " + doiAction);
         }
     }
 
+    // the latest mint job of the DOI
+    private void getMintJob() throws Exception {
+        MintQueue mintQueue = MintQueue.getInstance();
+        if (mintQueue == null) {
+            throw new UnsupportedOperationException("DOI action not implemented: " + doiAction);
+        }
+        ContainerNode doiContainerNode = vospaceDoiClient.getContainerNode(doiSuffix);
+        checkReadAccess(doiSuffix, doiContainerNode);
+
+        MintJob job = mintQueue.getLatest(doiSuffix);
+        if (job == null) {
+            throw new ResourceNotFoundException("no mint job for " + doiSuffix);
+        }
+
+        DateFormat df = DateUtil.getDateFormat(DateUtil.IVOA_DATE_FORMAT, DateUtil.UTC);
+        JSONObject json = new JSONObject();
+        json.put("id", job.getID());
+        json.put("doi", accountPrefix + "/" + doiSuffix);
+        json.put("phase", job.getPhase().name());
+        json.put("attempts", job.getAttempts());
+        json.put("created", df.format(job.getCreated()));
+        json.put("updated", df.format(job.getUpdated()));
+        if (!job.getPhase().isFinal()) {
+            json.put("nextAttempt", df.format(job.getNextAttempt()));
+        }
+        if (job.getError() != null) {
+            json.put("error", job.getError());
+        }
+
+        byte[] content = json.toString(2).getBytes(StandardCharsets.UTF_8);
+        syncOutput.setHeader("Content-Type", "application/json");
+        syncOutput.setHeader("Content-Length", content.length);
+        syncOutput.getOutputStream().write(content);
+    }
+
 }
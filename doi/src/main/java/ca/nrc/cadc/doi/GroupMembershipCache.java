@@ -0,0 +1,189 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.ac.client.GMSClient;
+import ca.nrc.cadc.doi.cache.ExpiringCache;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import java.net.URI;
+import java.security.Principal;
+import java.security.PrivilegedExceptionAction;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.Subject;
+import org.apache.log4j.Logger;
+import org.opencadc.gms.GroupURI;
+
+/**
+ * Process-wide cache of GMS group membership checks, keyed by the identity of the
+ * caller and the group. Only the publisher group is checked through this cache; it is
+ * not changed by this service, and entries expire after a short time so membership
+ * changes are picked up.
+ */
+public class GroupMembershipCache {
+    private static final Logger log = Logger.getLogger(GroupMembershipCache.class);
+
+    static final long TTL_SECONDS = 60;
+    static final int MAX_SIZE = 10000;
+
+    private static final ExpiringCache<MembershipKey, Boolean> CACHE =
+            new ExpiringCache<>("GroupMembershipCache", TTL_SECONDS, TimeUnit.SECONDS, MAX_SIZE);
+
+    private GroupMembershipCache() {
+    }
+
+    /**
+     * Check if the caller is a member of the group. The GMS service is called as the
+     * caller when the membership is not cached.
+     *
+     * @param caller the calling subject
+     * @param gmsResourceID resourceID of the GMS service
+     * @param groupURI the group
+     * @return true if the caller is a member of the group
+     * @throws Exception if the membership check failed
+     */
+    public static boolean isMember(Subject caller, URI gmsResourceID, GroupURI groupURI) throws Exception {
+        MembershipKey key = new MembershipKey(getIdentity(caller), groupURI.getURI());
+        return CACHE.get(key, () -> {
+            log.debug("GMS isMember: " + key);
+            GMSClient gmsClient = new GMSClient(gmsResourceID);
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                boolean member = Subject.doAs(caller,
+                        (PrivilegedExceptionAction<Boolean>) () -> gmsClient.isMember(groupURI));
+                success = true;
+                return member;
+            } finally {
+                DoiMetrics.recordCall(DoiMetrics.GMS, "isMember", System.nanoTime() - start, success);
+            }
+        });
+    }
+
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    public static long getHits() {
+        return CACHE.getHits();
+    }
+
+    public static long getMisses() {
+        return CACHE.getMisses();
+    }
+
+    public static ExpiringCache<?, ?> getCache() {
+        return CACHE;
+    }
+
+    // a stable identity string built from the principals of the subject
+    static String getIdentity(Subject subject) {
+        if (subject == null || subject.getPrincipals().isEmpty()) {
+            return "anon";
+        }
+        Set<String> names = new TreeSet<>();
+        for (Principal p : subject.getPrincipals()) {
+            names.add(p.getClass().getSimpleName() + "=" + p.getName());
+        }
+        return String.join(",", names);
+    }
+
+    private static class MembershipKey {
+        private final String identity;
+        private final URI groupURI;
+
+        MembershipKey(String identity, URI groupURI) {
+            this.identity = identity;
+            this.groupURI = groupURI;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MembershipKey)) {
+                return false;
+            }
+            MembershipKey that = (MembershipKey) o;
+            return identity.equals(that.identity) && groupURI.equals(that.groupURI);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identity, groupURI);
+        }
+
+        @Override
+        public String toString() {
+            return identity + " in " + groupURI;
+        }
+    }
+}
@@ -71,41 +71,33 @@ import ca.nrc.cadc.ac.Group;
 import ca.nrc.cadc.ac.GroupAlreadyExistsException;
 import ca.nrc.cadc.ac.User;
 import ca.nrc.cadc.ac.UserNotFoundException;
-import ca.nrc.cadc.ac.client.GMSClient;
 import ca.nrc.cadc.doi.datacite.Date;
 import ca.nrc.cadc.doi.datacite.DateType;
 import ca.nrc.cadc.doi.datacite.Identifier;
 import ca.nrc.cadc.doi.datacite.Resource;
 import ca.nrc.cadc.doi.datacite.ResourceType;
 import ca.nrc.cadc.doi.datacite.Title;
-import ca.nrc.cadc.doi.io.DoiXmlWriter;
+import ca.nrc.cadc.doi.index.DoiIndex;
+import ca.nrc.cadc.doi.index.DoiIndexEntry;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.mint.MintJob;
+import ca.nrc.cadc.doi.mint.MintQueue;
 import ca.nrc.cadc.doi.status.Status;
-import ca.nrc.cadc.net.FileContent;
-import ca.nrc.cadc.net.HttpPost;
-import ca.nrc.cadc.net.HttpTransfer;
-import ca.nrc.cadc.net.HttpUpload;
-import ca.nrc.cadc.util.Base64;
+import ca.nrc.cadc.net.ResourceAlreadyExistsException;
 import ca.nrc.cadc.util.StringUtil;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.net.URI;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.security.AccessControlException;
 import java.security.PrivilegedExceptionAction;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.security.auth.Subject;
 
 import org.apache.log4j.Logger;
@@ -117,12 +109,13 @@ import org.opencadc.vospace.Node;
 import org.opencadc.vospace.NodeNotFoundException;
 import org.opencadc.vospace.NodeProperty;
 import org.opencadc.vospace.VOSURI;
-import org.opencadc.vospace.client.ClientAbortThread;
-import org.opencadc.vospace.client.async.RecursiveSetNode;
 
 public class PostAction extends DoiAction {
     private static final Logger log = Logger.getLogger(PostAction.class);
 
+    // attempts to create a DOI with a suffix that is not taken
+    static final int MAX_CREATE_ATTEMPTS = 5;
+
     public PostAction() {
         super();
     }
@@ -138,16 +131,21 @@ public class PostAction extends DoiAction {
         }
 
         // Do DOI work as doi admin
-        Subject.doAs(getAdminSubject(), (PrivilegedExceptionAction<Object>) () -> {
-            if (doiAction != null) {
-                performDOIAction();
-            } else if (doiSuffix == null) {
-                createDOI();
-            } else {
-                updateDOI();
-            }
-            return null;
-        });
+        long start = System.nanoTime();
+        try {
+            Subject.doAs(getAdminSubject(), (PrivilegedExceptionAction<Object>) () -> {
+                if (doiAction != null) {
+                    performDOIAction();
+                } else if (doiSuffix == null) {
+                    createDOI();
+                } else {
+                    updateDOI();
+                }
+                return null;
+            });
+        } finally {
+            recordPhase(DoiMetrics.EXECUTE, start);
+        }
     }
 
     private void authorizeResourceAccess() throws NodeNotFoundException {
@@ -157,12 +155,13 @@ public class PostAction extends DoiAction {
         }
 
         // if this is a mint action for an alt configuration
-        boolean isRequester = isCallingUserRequester(vospaceDoiClient.getContainerNode(doiSuffix));
+        ContainerNode doiNode = vospaceDoiClient.getContainerNode(doiSuffix);
+        boolean isRequester = isCallingUserRequester(doiNode);
         boolean isPublisher = isCallingUserPublisher();
         if (DoiAction.MINT_ACTION.equals(doiAction) && isAlternativeConfiguration()) {
             // in alt configuration the request to mint a DOI can only made by a member of the publisher group
             // that does not own the doi
-            if (isPublisher && !isRequester) {
+            if (canMint(doiNode, false, isPublisher)) {
                 return;
             } else {
                 throw new AccessControlException("Not authorized to Mint this resource: " + doiSuffix);
@@ -177,12 +176,6 @@ public class PostAction extends DoiAction {
         throw new AccessControlException("Not authorized to update this resource: " + doiSuffix);
     }
 
-    private String getDataciteCredentials() {
-        return String.format("%s:%s",
-                config.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_USERNAME_KEY),
-                config.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_PASSWORD_KEY));
-    }
-
     //
     // CREATE a DOI
     //
@@ -195,21 +188,50 @@ public class PostAction extends DoiAction {
         JSONObject doiNodeData = (JSONObject) syncInput.getContent(DoiInlineContentHandler.NODE_DATA_KEY);
         Map<URI, String> nodePropertyMap = getNodeProperties(doiNodeData);
 
-        boolean randomTestID = Boolean.parseBoolean(config.getFirstPropertyValue(DoiInitAction.RANDOM_TEST_ID_KEY));
-        String doiIdentifierPrefix = DoiInitAction.getDoiIdentifierPrefix(config);
-        String nextDoiSuffix;
+        boolean randomTestID = doiConfig.isRandomTestID();
+        String doiIdentifierPrefix = doiConfig.getDoiIdentifierPrefix();
+        String title = getTitle(doiMetaData).getValue();
+
+        // Create the group that is able to administer the DOI process and the VOSpace area
+        // for DOI work. If another instance of the service has taken the suffix, the group
+        // or the folder already exists and the DOI is created with another suffix.
+        String nextDoiSuffix = null;
+        GroupURI guri = null;
+        ContainerNode doiFolder = null;
+        for (int attempt = 1; doiFolder == null; attempt++) {
+            if (attempt > MAX_CREATE_ATTEMPTS) {
+                throw new IllegalStateException("failed to allocate a DOI suffix, last tried: " + nextDoiSuffix);
+            }
+            if (randomTestID) {
+                nextDoiSuffix = doiIdentifierPrefix + getRandomDOISuffix();
+                log.warn("Random DOI suffix: " + nextDoiSuffix);
+            } else {
+                // Determine next DOI ID
+                // Note: The generated DOI ID is the suffix which should be case insensitive.
+                //       Since we are using a number, it does not matter. However if we decide
+                //       to use a String, we should only generate either a lowercase or an
+                //       uppercase String. (refer to https://support.datacite.org/docs/doi-basics)
+                // After the first collision the allocator is seeded again from VOSpace.
+                nextDoiSuffix = doiIdentifierPrefix + getNextDOISuffix(attempt == 2);
+                log.debug("Next DOI suffix: " + nextDoiSuffix);
+            }
+
+            String groupName = doiGroupPrefix + nextDoiSuffix;
+            try {
+                guri = createDoiGroup(groupName);
+                log.debug("Created DOI group: " + guri);
+            } catch (GroupAlreadyExistsException ex) {
+                log.warn("DOI suffix already taken, group exists: " + groupName);
+                continue;
+            }
 
-        if (randomTestID) {
-            nextDoiSuffix = doiIdentifierPrefix + getRandomDOISuffix();
-            log.warn("Random DOI suffix: " + nextDoiSuffix);
-        } else {
-            // Determine next DOI ID
-            // Note: The generated DOI ID is the suffix which should be case insensitive.
-            //       Since we are using a number, it does not matter. However if we decide
-            //       to use a String, we should only generate either a lowercase or an
-            //       uppercase String. (refer to https://support.datacite.org/docs/doi-basics)
-            nextDoiSuffix = doiIdentifierPrefix + getNextDOISuffix(vospaceDoiClient.getDoiBaseVOSURI());
-            log.debug("Next DOI suffix: " + nextDoiSuffix);
+            try {
+                doiFolder = createDOIDirectory(guri, nextDoiSuffix, title, nodePropertyMap);
+                log.debug("Created DOI folder: " + doiFolder);
+            } catch (ResourceAlreadyExistsException ex) {
+                log.warn("DOI suffix already taken, folder exists: " + nextDoiSuffix);
+                deleteGroup(groupName);
+            }
         }
 
         // Update the resource with the DOI ID
@@ -223,20 +245,11 @@ public class PostAction extends DoiAction {
         doiMetaData.dates = new java.util.ArrayList<>();
         doiMetaData.dates.add(doiDate);
 
-        // Create the group that is able to administer the DOI process
-        String groupName = doiGroupPrefix + nextDoiSuffix;
-        GroupURI guri = createDoiGroup(groupName);
-        log.debug("Created DOI group: " + guri);
-
-        // Create the VOSpace area for DOI work
-        ContainerNode doiFolder = createDOIDirectory(guri, nextDoiSuffix, getTitle(doiMetaData).getValue(), nodePropertyMap);
-        log.debug("Created DOI folder: " + doiFolder);
-
         // create VOSpace data node to house XML doc using doi filename and upload the document
         String docName = getDoiFilename(nextDoiSuffix);
         DataNode doiDocNode = new DataNode(docName);
         VOSURI doiDocVOSURI = getVOSURI(nextDoiSuffix + "/" + docName);
-        vospaceDoiClient.getVOSpaceClient().createNode(doiDocVOSURI, doiDocNode);
+        vospaceDoiClient.createNode(doiDocVOSURI, doiDocNode);
         uploadDOIDocument(doiMetaData, doiDocVOSURI);
         log.debug("Created DOI metadata document: " + doiDocVOSURI);
 
@@ -244,7 +257,7 @@ public class PostAction extends DoiAction {
         VOSURI dataVOSURI = getVOSURI(nextDoiSuffix + "/data");
         ContainerNode newDataFolder = new ContainerNode("data");
         setPermissions(newDataFolder, guri);
-        vospaceDoiClient.getVOSpaceClient().createNode(dataVOSURI, newDataFolder);
+        vospaceDoiClient.createNode(dataVOSURI, newDataFolder);
         log.debug("Created DOI data folder: " + dataVOSURI);
 
         // Done, send redirect to GET for the XML file just made
@@ -256,13 +269,12 @@ public class PostAction extends DoiAction {
     private String getRandomDOISuffix() {
         String allowed = "abcdefghjkmnpqrstuvwxyz1234567890";
         StringBuilder sb = new StringBuilder();
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         while (sb.length() < 11) {
             if (sb.length() == 5) {
                 sb.append("-");
             } else {
-                int index = (int) (random.nextFloat() * allowed.length());
-                sb.append(allowed.charAt(index));
+                sb.append(allowed.charAt(random.nextInt(allowed.length())));
             }
         }
         sb.append(".test");
@@ -270,34 +282,32 @@ public class PostAction extends DoiAction {
     }
 
     /**
-     * child nodes of baseNode should have name structure YY.XXXX
-     * go through list of child nodes
-     * extract XXXX
-     * track largest
-     * add 1
-     * reconstruct YY.XXXX structure and return
+     * The allocator is seeded with the names of the existing DOIs once, from the
+     * DOI index if it is ready or from a listing of the DOI parent folder, and then
+     * allocates suffixes of the form YY.XXXX without listing the DOIs.
      */
-    private String getNextDOISuffix(VOSURI baseDoiURI) throws Exception {
-        ContainerNode baseNode = (ContainerNode) vospaceDoiClient.getVOSpaceClient().getNode(baseDoiURI.getPath());
-        DateFormat df = new SimpleDateFormat("yy");
-        String currentYear = df.format(Calendar.getInstance().getTime());
+    private String getNextDOISuffix(boolean reseed) throws Exception {
+        DoiSuffixAllocator allocator = DoiSuffixAllocator.getInstance();
+        if (reseed || !allocator.isSeeded()) {
+            allocator.seed(getDoiNames(reseed), doiConfig.getDoiIdentifierPrefix());
+        }
+        return allocator.next();
+    }
 
-        int maxDoi = 0;
-        if (!baseNode.getNodes().isEmpty()) {
+    private List<String> getDoiNames(boolean fromVOSpace) throws Exception {
+        List<String> names = new ArrayList<>();
+        DoiIndex index = DoiIndex.getInstance();
+        if (!fromVOSpace && index != null && index.isReady()) {
+            for (DoiIndexEntry entry : index.getAll()) {
+                names.add(entry.getSuffix());
+            }
+        } else {
+            ContainerNode baseNode = vospaceDoiClient.getContainerNode("");
             for (Node childNode : baseNode.getNodes()) {
-                String[] nameParts = childNode.getName().split("\\.");
-                if (nameParts[0].equals(currentYear)) {
-                    int curDoiNum = Integer.parseInt(nameParts[1]);
-                    if (curDoiNum > maxDoi) {
-                        maxDoi = curDoiNum;
-                    }
-                }
+                names.add(childNode.getName());
             }
         }
-
-        maxDoi++;
-        String formattedDOI = String.format("%04d", maxDoi);
-        return currentYear + "." + formattedDOI;
+        return names;
     }
 
     // methods to assign to private field in Identity
@@ -313,6 +323,7 @@ public class PostAction extends DoiAction {
         }
     }
 
+    // throws GroupAlreadyExistsException if the group exists
     private GroupURI createDoiGroup(String groupName) throws Exception {
         GroupURI guri = createGroupURI(groupName);
         log.debug("creating group: " + guri);
@@ -324,17 +335,15 @@ public class PostAction extends DoiAction {
         doiRWGroup.getUserAdmins().add(member);
 
         try {
-            GMSClient gmsClient = getGMSClient();
-            gmsClient.createGroup(doiRWGroup);
-        } catch (
-                GroupAlreadyExistsException |
-                UserNotFoundException gaeex) {
-            throw new RuntimeException(gaeex);
+            createGroup(doiRWGroup);
+        } catch (UserNotFoundException ex) {
+            throw new RuntimeException(ex);
         }
         log.debug("doi group created: " + guri);
         return guri;
     }
 
+    // throws ResourceAlreadyExistsException if the folder exists
     private ContainerNode createDOIDirectory(GroupURI guri, String folderName, String title, Map<URI, String> nodeProperties) throws Exception {
         Set<NodeProperty> properties = new TreeSet<>();
 
@@ -358,7 +367,8 @@ public class PostAction extends DoiAction {
         setPermissions(newFolder, guri);
 
         newFolder.getProperties().addAll(properties);
-        vospaceDoiClient.getVOSpaceClient().createNode(newVOSURI, newFolder);
+        vospaceDoiClient.createNode(newVOSURI, newFolder);
+        updateIndex(newFolder);
         return newFolder;
     }
 
@@ -415,6 +425,7 @@ public class PostAction extends DoiAction {
             uploadDOIDocument(mergedResource, docVOSURI);
             return null;
         });
+        DoiDocumentCache.invalidate(doiSuffix);
     }
 
     private Resource merge(Resource sourceResource, Resource targetResource) {
@@ -541,7 +552,7 @@ public class PostAction extends DoiAction {
         if (updatedStatus != null && isAlternativeConfiguration()) {
             updatePermissions(doiNode, currentStatus, updatedStatus);
         }
-        vospaceDoiClient.getVOSpaceClient().setNode(vosuri, doiNode);
+        setDoiContainerNode(vosuri, doiNode);
     }
 
     private void updatePermissions(Node doiNode, Status current, Status updated) throws Exception {
@@ -653,14 +664,14 @@ public class PostAction extends DoiAction {
         VOSURI metadataVOSURI = getVOSURI(metadataPath);
         DataNode metadataNode = vospaceDoiClient.getDataNode(metadataPath);
         updateNodePermissions(metadataNode, readGroups, writeGroups);
-        vospaceDoiClient.getVOSpaceClient().setNode(metadataVOSURI, metadataNode);
+        vospaceDoiClient.setNode(metadataVOSURI, metadataNode);
 
         // update data folder permissions
         String dataPath = String.format("%s/data", doiSuffix);
         VOSURI dataURI = getVOSURI(dataPath);
         ContainerNode dataFolderNode = vospaceDoiClient.getContainerNode(dataPath);
         updateNodePermissions(dataFolderNode, readGroups, writeGroups);
-        vospaceDoiClient.getVOSpaceClient().setNode(dataURI, dataFolderNode);
+        vospaceDoiClient.setNode(dataURI, dataFolderNode);
     }
 
     private Map<URI, String> getNodeProperties(JSONObject nodeData) {
@@ -696,45 +707,28 @@ public class PostAction extends DoiAction {
 
             // in alt configuration, a member of the publisher group cannot mint
             // process DOI based on current minting status
-            ContainerNode doiContainerNode = vospaceDoiClient.getContainerNode(doiSuffix);
-            Status mintingStatus = Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
-            switch (mintingStatus) {
-                case DRAFT:
-                    if (isAlternativeConfiguration()) {
-                        throw new IllegalArgumentException("Cannot publish an 'in progress' DOI for an alternative configuration");
-                    }
-                    lockData(doiContainerNode);
-                    break;
-                case REVIEW_READY:
-                case REJECTED:
-                    throw new IllegalArgumentException("Cannot publish a DOI with status '" + mintingStatus + "'");
-                case IN_REVIEW:
-                case APPROVED:
-                case ERROR_LOCKING_DATA:
-                    lockData(doiContainerNode);
-                    break;
-                case LOCKING_DATA:
-                    // locking data directory in progress, do nothing
-                    log.debug("doi " + doiSuffix + " status: " + Status.LOCKING_DATA);
-                    break;
-                case LOCKED_DATA:
-                case ERROR_REGISTERING:
-                    register(doiContainerNode);
-                    break;
-                case REGISTERING:
-                    // registering doi to DataCite, do nothing
-                    log.debug("doi " + doiSuffix + " status: " + Status.REGISTERING);
-                    break;
-                case MINTED:
-                    // minting finished, do nothing
-                    log.debug("doi " + doiSuffix + " status: " + Status.MINTED);
-                    break;
-                case COMPLETED:
-                    // minting service should not have been called in this status, ignore
-                    log.debug("doi " + doiSuffix + " status: " + Status.COMPLETED);
-                    break;
-                default:
-                    // do nothing
+            DoiMinter minter = new DoiMinter(doiConfig, vospaceDoiClient, doiSuffix);
+            ContainerNode doiContainerNode = minter.getContainerNode();
+            MintQueue mintQueue = MintQueue.getInstance();
+            if (mintQueue != null) {
+                // validate now, the minting is done by the mint queue
+                Status status = Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
+                DoiMinter.checkMintable(status, isAlternativeConfiguration());
+                if (status != Status.MINTED && status != Status.COMPLETED) {
+                    MintJob job = mintQueue.submit(doiSuffix);
+                    log.debug("mint job " + job.getID() + " for " + doiSuffix + ": " + job.getPhase());
+                    syncOutput.setHeader("Location", syncInput.getRequestURI());
+                    syncOutput.setCode(202);
+                    return;
+                }
+            } else {
+                // the node is read again by the owner of the DOI, no other step writes it meanwhile
+                minter.acquire();
+                try {
+                    minter.mint(minter.getContainerNode(), isAlternativeConfiguration());
+                } finally {
+                    minter.release();
+                }
             }
 
             // Done, send redirect to GET for the XML file just minted
@@ -748,199 +742,4 @@ public class PostAction extends DoiAction {
         }
     }
 
-    private void lockData(ContainerNode doiContainerNode) throws Exception {
-        String doiDataPath = doiSuffix + "/data";
-        VOSURI containerVOSURI = getVOSURI(doiSuffix);
-        VOSURI dataVOSURI = getVOSURI(doiDataPath);
-        try {
-            // update status
-            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.LOCKING_DATA.getValue());
-            vospaceDoiClient.getVOSpaceClient().setNode(containerVOSURI, doiContainerNode);
-
-            // lock data directory and subdirectories, make them public
-            ContainerNode dataContainerNode = vospaceDoiClient.getContainerNode(doiDataPath);
-            dataContainerNode.isPublic = true;
-            dataContainerNode.clearReadOnlyGroups = true;
-            dataContainerNode.getReadOnlyGroup().clear();
-            dataContainerNode.clearReadWriteGroups = true;
-            dataContainerNode.getReadWriteGroup().clear();
-            dataContainerNode.isLocked = true;
-
-            // clear all children in the dataContainerNode, otherwise the XML file may be
-            // too long resulting in (413) Request Entity Too Large
-            dataContainerNode.getNodes().clear();
-            vospaceDoiClient.getVOSpaceClient().setNode(dataVOSURI, dataContainerNode);
-
-            // get the job URL
-            RecursiveSetNode recSetNode = vospaceDoiClient.getVOSpaceClient().createRecursiveSetNode(dataVOSURI, dataContainerNode);
-            URL jobURL = recSetNode.getJobURL();
-
-            // this is an async operation
-            Thread abortThread = new ClientAbortThread(jobURL);
-            Runtime.getRuntime().addShutdownHook(abortThread);
-            recSetNode.setMonitor(false);
-            recSetNode.run();
-            Runtime.getRuntime().removeShutdownHook(abortThread);
-            log.debug("invoked async call to recursively set the properties in the data directory " + doiDataPath);
-
-            // save job URL
-            NodeProperty jobURLProp = new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY, jobURL.toExternalForm());
-            doiContainerNode.getProperties().add(jobURLProp);
-            vospaceDoiClient.getVOSpaceClient().setNode(containerVOSURI, doiContainerNode);
-        } catch (Exception ex) {
-            // update status
-            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.ERROR_LOCKING_DATA.getValue());
-            String jobURLString = doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
-            if (jobURLString != null) {
-                doiContainerNode.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY));
-            }
-
-            vospaceDoiClient.getVOSpaceClient().setNode(containerVOSURI, doiContainerNode);
-            throw ex;
-        }
-    }
-
-    private void register(ContainerNode doiContainerNode) throws Exception {
-        Set<GroupURI> groupRead = new TreeSet<>();
-        Set<GroupURI> groupWrite = new TreeSet<>();
-        String xmlFilename = doiSuffix + "/" + getDoiFilename(doiSuffix);
-        DataNode xmlFile = null;
-
-        VOSURI doiURI = getVOSURI(doiContainerNode.getName());
-        VOSURI xmlURI = getVOSURI(xmlFilename);
-
-        try {
-            // update status
-            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.REGISTERING.getValue());
-            vospaceDoiClient.getVOSpaceClient().setNode(doiURI, doiContainerNode);
-
-            // register DOI to DataCite
-            String dataCiteUrl = config.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_URL_KEY);
-            URL registerURL = new URL(String.format("%s/metadata/%s/%s", dataCiteUrl, accountPrefix, doiSuffix));
-            String content = getDOIContent();
-            String contentType = "application/xml;charset=UTF-8";
-            FileContent fileContent = new FileContent(content, contentType, StandardCharsets.UTF_8);
-            registerDOI(registerURL, fileContent);
-
-            // success, add landing page to the DOI instance
-            makeDOIFindable();
-
-            // completed minting, update status and node properties
-            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.MINTED.getValue());
-
-            // make parent container and XML file public, remove group properties.
-            // this is required for the landing page to be available to doi.org for
-            // anonymous access
-            xmlFile = vospaceDoiClient.getDataNode(xmlFilename);
-            xmlFile.isPublic = true;
-            xmlFile.clearReadOnlyGroups = true;
-            xmlFile.getReadOnlyGroup().clear();
-            xmlFile.clearReadWriteGroups = true;
-            xmlFile.getReadWriteGroup().clear();
-            vospaceDoiClient.getVOSpaceClient().setNode(xmlURI, xmlFile);
-
-            groupRead.addAll(doiContainerNode.getReadOnlyGroup());
-            groupWrite.addAll(doiContainerNode.getReadWriteGroup());
-            doiContainerNode.isPublic = true;
-            doiContainerNode.clearReadOnlyGroups = true;
-            doiContainerNode.getReadOnlyGroup().clear();
-            doiContainerNode.clearReadWriteGroups = true;
-            doiContainerNode.getReadWriteGroup().clear();
-            vospaceDoiClient.getVOSpaceClient().setNode(doiURI, doiContainerNode);
-
-        } catch (Exception ex) {
-            // update status to flag error state, and original properties of
-            // container node and xml file
-
-            if (xmlFile != null) {
-                xmlFile.isPublic = false;
-                xmlFile.getReadOnlyGroup().addAll(groupRead);
-                xmlFile.getReadWriteGroup().addAll(groupWrite);
-                vospaceDoiClient.getVOSpaceClient().setNode(xmlURI, xmlFile);
-            }
-
-            doiContainerNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY).setValue(Status.ERROR_REGISTERING.getValue());
-            doiContainerNode.isPublic = false;
-            doiContainerNode.getReadOnlyGroup().addAll(groupRead);
-            doiContainerNode.getReadWriteGroup().addAll(groupWrite);
-
-            // update both nodes
-            // This will work unless vospace is failing
-            vospaceDoiClient.getVOSpaceClient().setNode(doiURI, doiContainerNode);
-
-            throw ex;
-        }
-    }
-
-    private String getDOIContent() throws Exception  {
-        Resource resource = vospaceDoiClient.getResource(doiSuffix, getDoiFilename(doiSuffix));
-        StringBuilder builder = new StringBuilder();
-        DoiXmlWriter writer = new DoiXmlWriter();
-        writer.write(resource, builder);
-        return builder.toString();
-    }
-
-    private void registerDOI(URL postURL, FileContent fileContent)
-            throws Exception {
-        log.debug("post to DataCite URL: " + postURL);
-        log.debug("contentType: " + fileContent.getContentType());
-
-        // post to DataCite
-        HttpPost postToDataCite = new HttpPost(postURL, fileContent, true);
-        postToDataCite.setRequestProperty("Authorization", "Basic " + Base64.encodeString(getDataciteCredentials()));
-        postToDataCite.prepare();
-
-        // process response
-        String msg = "Successfully registered DOI " + doiSuffix;
-        processResponse(postToDataCite.getThrowable(), postToDataCite.getResponseCode(), postToDataCite.getInputStream(), msg);
-    }
-
-    private void makeDOIFindable()
-            throws Exception {
-        // form the upload endpoint
-        String dataCiteUrl = config.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_URL_KEY);
-        String path = String.format("%s/doi/%s/%s", dataCiteUrl, accountPrefix, doiSuffix);
-        URL doiURL = new URL(path);
-        log.debug("makeFindable endpoint: " + doiURL);
-
-        // add the landing page URL
-        String landingPageUrl = config.getFirstPropertyValue(DoiInitAction.LANDING_URL_KEY);
-        String content = String.format("doi=%s/%s\nurl=%s?doi=%s", accountPrefix, doiSuffix, landingPageUrl, doiSuffix);
-        log.debug("content: " + content);
-        InputStream inputStream = new ByteArrayInputStream(content.getBytes());
-
-        // upload
-        HttpUpload put = new HttpUpload(inputStream, doiURL);
-        put.setRequestProperty("Authorization", "Basic " + Base64.encodeString(getDataciteCredentials()));
-        put.setBufferSize(64 * 1024);
-        put.setRequestProperty(HttpTransfer.CONTENT_TYPE, "text/plain;charset=UTF-8");
-        put.prepare();
-
-        // process response
-        String msg = "Successfully made DOI " + doiSuffix + " findable";
-        processResponse(put.getThrowable(), put.getResponseCode(), put.getInputStream(), msg);
-    }
-
-    private void processResponse(Throwable throwable, int responseCode, InputStream inputStream, String msg)
-            throws IOException {
-        log.debug("response code from DataCite: " + responseCode);
-        String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-
-        // check if an exception was thrown
-        if (throwable != null) {
-            if ((responseCode == 401) || (responseCode == 403)) {
-                throw new AccessControlException(throwable.getMessage());
-            } else {
-                throw new RuntimeException(body + ", " + throwable);
-            }
-        }
-        
-        // no exception thrown, check response code
-        if (responseCode == 200 || responseCode == 201) {
-            log.debug(msg);
-        } else {
-            throw new IOException("HttpResponse (" + responseCode + ") - " + body);
-        }
-    }
-
 }
@@ -69,14 +69,27 @@
 
 package ca.nrc.cadc.doi;
 
+import ca.nrc.cadc.doi.index.DoiIndex;
+import ca.nrc.cadc.doi.index.DoiIndexEntry;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.doi.search.DoiPage;
 import ca.nrc.cadc.doi.search.DoiSearchFilter;
 import ca.nrc.cadc.doi.search.Role;
+import ca.nrc.cadc.doi.status.DoiStatus;
 import ca.nrc.cadc.doi.status.Status;
 import ca.nrc.cadc.rest.InlineContentHandler;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -87,7 +100,9 @@ import org.opencadc.vospace.NodeProperty;
 public class SearchAction extends DoiAction {
     private static final Logger log = Logger.getLogger(SearchAction.class);
     
-    private static final List<String>  VALID_KEYS = List.of("role", "status");
+    private static final List<String>  VALID_KEYS = List.of("role", "status",
+            DoiPage.LIMIT_PARAM, DoiPage.OFFSET_PARAM, DoiPage.SORT_PARAM, DoiPage.ORDER_PARAM,
+            DoiBatch.DOIS_KEY);
 
     public SearchAction() {
         super();
@@ -122,6 +137,15 @@ public class SearchAction extends DoiAction {
         log.info("jsonObject: " + jsonObject.toString(2));
         validateKeys(keys);
 
+        // the status of a list of DOIs
+        if (keys.contains(DoiBatch.DOIS_KEY)) {
+            if (keys.size() > 1) {
+                throw new IllegalArgumentException("Cannot combine " + DoiBatch.DOIS_KEY + " with: " + keys);
+            }
+            getStatuses(DoiBatch.getSuffixes(jsonObject));
+            return;
+        }
+
         DoiSearchFilter searchFilter = new DoiSearchFilter();
         if (keys.contains("role")) {
             if (!isCallingUserDOIAdmin()) {
@@ -141,11 +165,12 @@ public class SearchAction extends DoiAction {
             searchFilter.prepareStatusList(statusList);
         }
 
+        DoiPage page = getPage(jsonObject);
         if ((searchFilter.getRole() == null && searchFilter.getStatusList().isEmpty())
                 || callersNumericId == null) {
-            getStatusList(getAccessibleDOIs());
+            getStatusList(getAccessibleDOIs(), page);
         } else {
-            getStatusList(getFilteredDOIs(searchFilter));
+            getStatusList(getFilteredDOIs(searchFilter), page);
         }
     }
 
@@ -161,6 +186,77 @@ public class SearchAction extends DoiAction {
         return new SearchInlineContentHandler();
     }
 
+    // a search is a POST request, the status list is not conditional
+    @Override
+    protected boolean isConditional() {
+        return false;
+    }
+
+    /**
+     * Write the status of the listed DOIs. The DOIs are looked up concurrently on the
+     * DoiTaskExecutor as the caller, with the access checks of
+     * <code>GET /instances/{doi}/status</code>, from the DOI index when it is ready.
+     * Each status is written as soon as it is resolved, so the statuses are in the order
+     * they are resolved. A DOI that is not found, not accessible or not resolved before
+     * the deadline is left out, and the number of DOIs left out is written after the
+     * statuses.
+     */
+    private void getStatuses(List<String> suffixes) throws Exception {
+        String docFormat = this.syncInput.getHeader("Accept");
+        boolean json = docFormat != null && docFormat.contains("application/json");
+
+        DoiTaskExecutor executor = DoiTaskExecutor.getInstance(doiConfig);
+        final DoiIndex index = DoiIndex.getInstance();
+        DoiBatch.Task<DoiStatus> task = suffix -> getDoiStatus(suffix, getContainerNode(index, suffix), true);
+        final AtomicInteger omitted = new AtomicInteger();
+        try (DoiBatch<DoiStatus> batch = DoiBatch.submit(executor, callingSubject, suffixes, task,
+                executor.getDeadline())) {
+            Iterator<DoiStatus> doiStatuses = StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(batch, Spliterator.ORDERED), false)
+                    .map(result -> toStatus(result, omitted))
+                    .filter(Objects::nonNull)
+                    .iterator();
+            writeStatusList(doiStatuses, omitted::get, json);
+        }
+    }
+
+    // returns null, and counts the DOI as omitted, if the status of the DOI was not resolved
+    private DoiStatus toStatus(DoiBatch.Result<DoiStatus> result, AtomicInteger omitted) {
+        if (result.getError() != null) {
+            log.debug(String.format("omitting %s because %s (%d)", result.getDoiSuffix(),
+                    result.getError(), getBatchErrorCode(result.getError())));
+            omitted.incrementAndGet();
+        }
+        return result.getValue();
+    }
+
+    // the node of a DOI built from the index when it is ready and has the DOI,
+    // otherwise read from VOSpace
+    private ContainerNode getContainerNode(DoiIndex index, String suffix) throws Exception {
+        if (index != null && index.isReady()) {
+            DoiIndexEntry entry = index.get(suffix);
+            if (entry != null) {
+                return DoiIndexReconciler.toNode(entry);
+            }
+        }
+        return vospaceDoiClient.getContainerNode(suffix);
+    }
+
+    // page keys in the search document, or the query parameters
+    private DoiPage getPage(JSONObject jsonObject) {
+        return DoiPage.parse(getPageValue(jsonObject, DoiPage.LIMIT_PARAM),
+                getPageValue(jsonObject, DoiPage.OFFSET_PARAM),
+                getPageValue(jsonObject, DoiPage.SORT_PARAM),
+                getPageValue(jsonObject, DoiPage.ORDER_PARAM));
+    }
+
+    private String getPageValue(JSONObject jsonObject, String key) {
+        if (jsonObject.has(key) && !jsonObject.isNull(key)) {
+            return jsonObject.get(key).toString();
+        }
+        return syncInput.getParameter(key);
+    }
+
     private void validateKeys(Set<String> keys) {
         List<String> invalidKeys = new ArrayList<>();
         for (String key : keys) {
@@ -174,8 +270,16 @@ public class SearchAction extends DoiAction {
     }
     
     private List<Node> getFilteredDOIs(DoiSearchFilter doiSearchFilter) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return listFilteredDOIs(doiSearchFilter);
+        } finally {
+            recordPhase(DoiMetrics.LIST, start);
+        }
+    }
+
+    private List<Node> listFilteredDOIs(DoiSearchFilter doiSearchFilter) throws Exception {
         List<Node> filteredNodes = new ArrayList<>();
-        ContainerNode doiRootNode = vospaceDoiClient.getContainerNode("");
         boolean callingUserPublisher = isCallingUserPublisher();
         boolean callingUserDOIAdmin = isCallingUserDOIAdmin();
 
@@ -185,53 +289,83 @@ public class SearchAction extends DoiAction {
             return filteredNodes;
         }
 
-        if (doiRootNode != null) {
-            for (Node childNode : doiRootNode.getNodes()) {
-                NodeProperty requester = childNode.getProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY);
-                if (requester == null || requester.getValue() == null) {
-                    continue; // Skip nodes without a valid requester
-                }
+        for (Node childNode : getFilteredDOICandidates(doiSearchFilter, callingUserDOIAdmin || callingUserPublisher)) {
+            NodeProperty requester = childNode.getProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY);
+            if (requester == null || requester.getValue() == null) {
+                continue; // Skip nodes without a valid requester
+            }
 
-                // Check status filter
-                if (!doiSearchFilter.getStatusList().isEmpty()) {
-                    NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
-                    if (statusProp == null || !doiSearchFilter.getStatusList()
-                            .contains(Status.toValue(statusProp.getValue()))) {
-                        continue; // Skip nodes that don't match the status filter
-                    }
+            // Check status filter
+            if (!doiSearchFilter.getStatusList().isEmpty()) {
+                NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+                if (statusProp == null || !doiSearchFilter.getStatusList()
+                        .contains(Status.toValue(statusProp.getValue()))) {
+                    continue; // Skip nodes that don't match the status filter
                 }
+            }
 
-                // Check role filter
-                if (doiSearchFilter.getRole() != null) {
-                    if (doiSearchFilter.getRole().equals(Role.OWNER)) {
-                        if (!isCallingUserRequester(childNode)) {
-                            continue; // Skip nodes where the caller is not the owner OR DOI Admin
-                        }
-                    } else if (doiSearchFilter.getRole().equals(Role.PUBLISHER)) {
-                        if (isCallingUserRequester(childNode)) {
-                            continue; // Skip nodes where the caller is a publisher as well as the owner
-                        }
-
-                        NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
-                        if (statusProp.getValue().equals("minted") && !doiSearchFilter.getStatusList().contains(Status.MINTED)) {
-                            continue; // Skip nodes where the status is minted and the caller is a publisher
-                        }
+            // Check role filter
+            if (doiSearchFilter.getRole() != null) {
+                if (doiSearchFilter.getRole().equals(Role.OWNER)) {
+                    if (!isCallingUserRequester(childNode)) {
+                        continue; // Skip nodes where the caller is not the owner OR DOI Admin
+                    }
+                } else if (doiSearchFilter.getRole().equals(Role.PUBLISHER)) {
+                    if (isCallingUserRequester(childNode)) {
+                        continue; // Skip nodes where the caller is a publisher as well as the owner
                     }
-                } else {
-                    NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
 
-                    // Check if the user is DOI Admin, publisher, or matches the requester
-                    if (!statusProp.getValue().equals("minted") && !callingUserDOIAdmin && !callingUserPublisher
-                            && !isCallingUserRequester(childNode)) {
-                        continue;
+                    NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
+                    if (statusProp.getValue().equals("minted") && !doiSearchFilter.getStatusList().contains(Status.MINTED)) {
+                        continue; // Skip nodes where the status is minted and the caller is a publisher
                     }
                 }
+            } else {
+                NodeProperty statusProp = childNode.getProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY);
 
-                // Add the node to the filtered list if all conditions are met
-                filteredNodes.add(childNode);
+                // Check if the user is DOI Admin, publisher, or matches the requester
+                if (!statusProp.getValue().equals("minted") && !callingUserDOIAdmin && !callingUserPublisher
+                        && !isCallingUserRequester(childNode)) {
+                    continue;
+                }
             }
+
+            // Add the node to the filtered list if all conditions are met
+            filteredNodes.add(childNode);
         }
         return filteredNodes;
     }
 
+    // the DOIs that may match the filter: from the index when it is ready, otherwise
+    // all DOIs in VOSpace
+    private List<Node> getFilteredDOICandidates(DoiSearchFilter doiSearchFilter, boolean readsAll)
+            throws Exception {
+        DoiIndex index = DoiIndex.getInstance();
+        if (index == null || !index.isReady()) {
+            return listDOINodes();
+        }
+
+        List<DoiIndexEntry> entries;
+        if (Role.OWNER.equals(doiSearchFilter.getRole())) {
+            entries = index.getByRequester(callersNumericId.toString());
+        } else if (!doiSearchFilter.getStatusList().isEmpty()) {
+            List<String> statuses = new ArrayList<>();
+            for (Status status : doiSearchFilter.getStatusList()) {
+                statuses.add(status.getValue());
+            }
+            entries = index.getByStatus(statuses);
+        } else if (doiSearchFilter.getRole() != null || readsAll) {
+            entries = index.getAll();
+        } else {
+            // without a filter other callers only see minted DOIs and their own
+            Map<String, DoiIndexEntry> candidates = new TreeMap<>();
+            addEntries(candidates, index.getByStatus(List.of(Status.MINTED.getValue())));
+            if (callersNumericId != null) {
+                addEntries(candidates, index.getByRequester(callersNumericId.toString()));
+            }
+            return toNodes(candidates.values());
+        }
+        return toNodes(entries);
+    }
+
 }
@@ -72,7 +72,6 @@ import ca.nrc.cadc.net.HttpGet;
 import ca.nrc.cadc.reg.Standards;
 import ca.nrc.cadc.reg.client.LocalAuthority;
 import ca.nrc.cadc.reg.client.RegistryClient;
-import ca.nrc.cadc.util.MultiValuedProperties;
 import ca.nrc.cadc.vosi.Availability;
 import ca.nrc.cadc.vosi.AvailabilityPlugin;
 import ca.nrc.cadc.vosi.avail.CheckCertificate;
@@ -111,8 +110,8 @@ public class ServiceAvailability implements AvailabilityPlugin {
         boolean isGood = true;
         String note = "service is accepting requests";
         try {
-            MultiValuedProperties config = DoiInitAction.getConfig();
-            URI vaultResourceID = DoiInitAction.getParentVOSURI(config).getServiceURI();
+            DoiConfig config = DoiConfig.getInstance();
+            URI vaultResourceID = config.getVaultResourceID();
             log.debug("vault resourceID: " + vaultResourceID);
 
             // check other services we depend on (vault, gms, datacite)
@@ -202,9 +201,9 @@ public class ServiceAvailability implements AvailabilityPlugin {
                 }
             }
 
-            // check that datacite is available
-            String dataCiteUrl = config.getFirstPropertyValue(DoiInitAction.DATACITE_MDS_URL_KEY);
-            URL docURL = new URL(dataCiteUrl);
+            // check that the datacite API used to register the DOIs is available
+            URL docURL = DoiConfig.DATACITE_API_REST.equals(config.getDataCiteApi())
+                    ? config.getDataCiteRestURL() : config.getDataCiteMdsURL();
             HttpGet get = new HttpGet(docURL, true);
             get.setHeadOnly(true);
             get.setConnectionTimeout(9000);
@@ -216,7 +215,7 @@ public class ServiceAvailability implements AvailabilityPlugin {
                     + ": " + get.getThrowable().getMessage());
             }
             if (responseCode != 200) {
-                throw new RuntimeException("response code from " + dataCiteUrl + ": " + responseCode);
+                throw new RuntimeException("response code from " + docURL + ": " + responseCode);
             }
         } catch (CheckException ce) {
             // tests determined that the resource is not working
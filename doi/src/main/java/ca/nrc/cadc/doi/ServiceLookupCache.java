@@ -0,0 +1,155 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.reg.client.LocalAuthority;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.log4j.Logger;
+
+/**
+ * Process-wide cache of the local resourceIDs of the services this service depends on.
+ * A lookup is repeated when it is older than the refresh interval; if the refresh fails
+ * the previous result is used until the next attempt.
+ */
+public class ServiceLookupCache {
+    private static final Logger log = Logger.getLogger(ServiceLookupCache.class);
+
+    static final long REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Map<URI, Lookup> LOOKUPS = new ConcurrentHashMap<>();
+
+    private ServiceLookupCache() {
+    }
+
+    /**
+     * Get the resourceIDs of the local services that implement a standard.
+     *
+     * @param standardID the standard
+     * @return unmodifiable set of resourceIDs, possibly empty
+     */
+    public static Set<URI> getResourceIDs(URI standardID) {
+        return getResourceIDs(standardID, id -> new LocalAuthority().getResourceIDs(id), System.currentTimeMillis());
+    }
+
+    static Set<URI> getResourceIDs(URI standardID, Function<URI, Set<URI>> lookupFunction, long now) {
+        Lookup lookup = LOOKUPS.get(standardID);
+        if (lookup != null && now < lookup.expires) {
+            return lookup.resourceIDs;
+        }
+
+        synchronized (LOOKUPS) {
+            lookup = LOOKUPS.get(standardID);
+            if (lookup != null && now < lookup.expires) {
+                // refreshed by another thread
+                return lookup.resourceIDs;
+            }
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                Set<URI> resourceIDs = Collections.unmodifiableSet(
+                        new LinkedHashSet<>(lookupFunction.apply(standardID)));
+                success = true;
+                LOOKUPS.put(standardID, new Lookup(resourceIDs, now + REFRESH_MILLIS));
+                log.debug(String.format("resourceIDs for %s: %s", standardID, resourceIDs));
+                return resourceIDs;
+            } catch (RuntimeException ex) {
+                if (lookup == null) {
+                    throw ex;
+                }
+                log.error(String.format("failed to refresh resourceIDs for %s, using previous: %s",
+                        standardID, lookup.resourceIDs), ex);
+                LOOKUPS.put(standardID, new Lookup(lookup.resourceIDs, now + REFRESH_MILLIS));
+                return lookup.resourceIDs;
+            } finally {
+                DoiMetrics.recordCall(DoiMetrics.REGISTRY, "getResourceIDs", System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    public static void invalidateAll() {
+        LOOKUPS.clear();
+    }
+
+    private static class Lookup {
+        private final Set<URI> resourceIDs;
+        private final long expires;
+
+        Lookup(Set<URI> resourceIDs, long expires) {
+            this.resourceIDs = resourceIDs;
+            this.expires = expires;
+        }
+    }
+}
@@ -67,12 +67,12 @@
 
 package ca.nrc.cadc.doi;
 
-import ca.nrc.cadc.ac.ACIdentityManager;
-import ca.nrc.cadc.ac.client.GMSClient;
 import ca.nrc.cadc.auth.AuthenticationUtil;
 import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.index.DoiIndex;
 import ca.nrc.cadc.doi.io.DoiParsingException;
 import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
 import ca.nrc.cadc.net.InputStreamWrapper;
 import ca.nrc.cadc.net.ResourceNotFoundException;
 import ca.nrc.cadc.util.StringUtil;
@@ -98,29 +98,59 @@ import org.opencadc.vospace.transfer.Direction;
 import org.opencadc.vospace.transfer.Protocol;
 import org.opencadc.vospace.transfer.Transfer;
 
+/**
+ * Client for the DOI nodes in VOSpace. The client holds no caller state and is shared by
+ * all requests: VOSpace calls are made as the subject of the calling thread, and caller
+ * specific values are passed to the methods that need them.
+ */
 public class VospaceDoiClient {
 
     private static final Logger log = Logger.getLogger(VospaceDoiClient.class);
 
-    private final Long callersNumericId;
-    private VOSpaceClient vosClient = null;
-    private VOSURI baseDataURI = null;
-    private String xmlFilename = "";
-    private boolean includePublicNodes = false;
-    private GroupURI publisherGroupURI = null;
-    private URI gmsResourceID = null;
+    private static volatile VospaceDoiClient instance;
 
-    public VospaceDoiClient(URI resourceID, String doiParentPath, Subject callingSubject,
-                            Boolean includePublicNodes, GroupURI publisherGroupURI, URI gmsResourceID) {
+    private final DoiConfig config;
+    private final VOSpaceClient vosClient;
+    private final VOSURI baseDataURI;
+    private final GroupURI publisherGroupURI;
+    private final URI gmsResourceID;
+
+    public VospaceDoiClient(URI resourceID, String doiParentPath,
+                            GroupURI publisherGroupURI, URI gmsResourceID) {
+        this(null, resourceID, doiParentPath, publisherGroupURI, gmsResourceID);
+    }
+
+    private VospaceDoiClient(DoiConfig config, URI resourceID, String doiParentPath,
+                             GroupURI publisherGroupURI, URI gmsResourceID) {
+        this.config = config;
         this.baseDataURI = new VOSURI(resourceID, doiParentPath);
         this.vosClient = new VOSpaceClient(baseDataURI.getServiceURI());
         this.publisherGroupURI = publisherGroupURI;
         this.gmsResourceID = gmsResourceID;
+    }
 
-        ACIdentityManager acIdentMgr = new ACIdentityManager();
-        this.callersNumericId = (Long) acIdentMgr.toOwner(callingSubject);
-        if (includePublicNodes != null) {
-            this.includePublicNodes = includePublicNodes;
+    /**
+     * Get the shared client for the given configuration. A new client is created when
+     * the configuration has been reloaded or the GMS service has changed.
+     *
+     * @param config doi configuration
+     * @param gmsResourceID resourceID of the GMS service
+     * @return the shared client
+     */
+    public static VospaceDoiClient getInstance(DoiConfig config, URI gmsResourceID) {
+        VospaceDoiClient client = instance;
+        if (client != null && client.config == config && client.gmsResourceID.equals(gmsResourceID)) {
+            return client;
+        }
+        synchronized (VospaceDoiClient.class) {
+            client = instance;
+            if (client == null || client.config != config || !client.gmsResourceID.equals(gmsResourceID)) {
+                client = new VospaceDoiClient(config, config.getVaultResourceID(), config.getParentPath(),
+                        config.getPublisherGroupURI(), gmsResourceID);
+                instance = client;
+                log.debug("created VospaceDoiClient: " + client.baseDataURI);
+            }
+            return client;
         }
     }
 
@@ -140,14 +170,19 @@ public class VospaceDoiClient {
         }
         ContainerNode requestedNode = null;
 
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             requestedNode = (ContainerNode) vosClient.getNode(nodePath);
+            success = true;
         } catch (AccessControlException ef) {
             throw ef;
         } catch (ResourceNotFoundException e) {
             throw new NodeNotFoundException(e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage());
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getNode", System.nanoTime() - start, success);
         }
 
         return requestedNode;
@@ -161,14 +196,19 @@ public class VospaceDoiClient {
         }
         DataNode requestedNode = null;
 
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             requestedNode = (DataNode) vosClient.getNode(nodePath);
+            success = true;
         } catch (AccessControlException ef) {
             throw ef;
         } catch (ResourceNotFoundException e) {
             throw new NodeNotFoundException(e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage());
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getNode", System.nanoTime() - start, success);
         }
 
         return requestedNode;
@@ -178,18 +218,104 @@ public class VospaceDoiClient {
             throws Exception {
         VOSURI docDataURI = new VOSURI(baseDataURI.toString() + "/" + doiSuffixString + "/" + doiFilename);
 
-        return getDoiDocFromVOSpace(docDataURI);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Resource resource = getDoiDocFromVOSpace(docDataURI);
+            success = true;
+            return resource;
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getDocument", System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Create a node in VOSpace.
+     *
+     * @param vosuri URI of the node
+     * @param node the node
+     * @throws Exception if the node cannot be created
+     */
+    public void createNode(VOSURI vosuri, Node node) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            vosClient.createNode(vosuri, node);
+            success = true;
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "createNode", System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Update the properties and permissions of a node in VOSpace.
+     *
+     * @param vosuri URI of the node
+     * @param node the node
+     * @throws Exception if the node cannot be updated
+     */
+    public void setNode(VOSURI vosuri, Node node) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            vosClient.setNode(vosuri, node);
+            success = true;
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "setNode", System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Update a DOI container node in VOSpace and in the DOI index. All the writes of a
+     * DOI container node go through here, so the index follows VOSpace.
+     *
+     * @param vosuri URI of the DOI container node
+     * @param doiContainerNode the updated node
+     * @throws Exception if the node cannot be updated
+     */
+    public void setDoiContainerNode(VOSURI vosuri, ContainerNode doiContainerNode) throws Exception {
+        setNode(vosuri, doiContainerNode);
+        updateIndex(doiContainerNode);
+    }
+
+    /**
+     * Put the properties of a DOI container node in the DOI index, if it is configured.
+     *
+     * @param doiContainerNode the DOI container node
+     */
+    public void updateIndex(ContainerNode doiContainerNode) {
+        DoiIndex index = DoiIndex.getInstance();
+        if (index != null) {
+            index.put(DoiIndexReconciler.toEntry(doiContainerNode));
+        }
+    }
+
+    /**
+     * Remove a DOI from the DOI index, if it is configured.
+     *
+     * @param doiSuffix DOI suffix
+     */
+    public void removeFromIndex(String doiSuffix) {
+        DoiIndex index = DoiIndex.getInstance();
+        if (index != null) {
+            index.remove(doiSuffix);
+        }
     }
 
     //  doi admin should have access as well
-    public boolean hasCallerReadDOIAccess(Node node, Subject adminSubject) {
-        if (this.includePublicNodes && node.isPublic != null && node.isPublic) {
+    public boolean hasCallerReadDOIAccess(Node node, Long callersNumericId, boolean includePublicNodes,
+                                          Subject adminSubject) {
+        if (includePublicNodes && node.isPublic != null && node.isPublic) {
             return true;
         } else if (publisherGroupURI != null) {
-            GMSClient gmsClient = new GMSClient(gmsResourceID);
-
-            if (gmsClient.isMember(publisherGroupURI)) {
-                return true;
+            try {
+                if (GroupMembershipCache.isMember(AuthenticationUtil.getCurrentSubject(), gmsResourceID, publisherGroupURI)) {
+                    return true;
+                }
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new RuntimeException("failed to check membership of " + publisherGroupURI, ex);
             }
         }
 
@@ -218,9 +344,8 @@ public class VospaceDoiClient {
         //put.setSecurityMethod(Standards.SECURITY_METHOD_CERT);
         transfer.getProtocols().add(put);
         
-        xmlFilename = dataNode.getPath();
         ClientTransfer clientTransfer = vosClient.createTransfer(transfer);
-        DoiInputStream doiStream = new DoiInputStream();
+        DoiInputStream doiStream = new DoiInputStream(dataNode.getPath());
         clientTransfer.setInputStreamWrapper(doiStream);
         clientTransfer.run();
 
@@ -241,10 +366,12 @@ public class VospaceDoiClient {
         return doiStream.getResource();
     }
 
-    private class DoiInputStream implements InputStreamWrapper {
+    private static class DoiInputStream implements InputStreamWrapper {
+        private final String xmlFilename;
         private Resource resource;
 
-        public DoiInputStream() {
+        public DoiInputStream(String xmlFilename) {
+            this.xmlFilename = xmlFilename;
         }
 
         public void read(InputStream in) throws IOException {
@@ -262,6 +389,8 @@ public class VospaceDoiClient {
     }
 
     public void deleteNode(String doiSuffix) {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             VOSURI nodeUri = new VOSURI(baseDataURI.toString() + "/" + doiSuffix);
             log.debug("recursiveDeleteNode: " + nodeUri);
@@ -269,10 +398,13 @@ public class VospaceDoiClient {
             RecursiveDeleteNode recursiveDeleteNode = getVOSpaceClient().createRecursiveDelete(nodeUri);
             recursiveDeleteNode.setMonitor(true);
             recursiveDeleteNode.run();
+            success = true;
         } catch (AccessControlException e) {
             log.error("unexpected AccessControlException: ", e);
         } catch (Exception e) {
             log.error("unexpected exception", e);
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.VOSPACE, "deleteNode", System.nanoTime() - start, success);
         }
     }
 }
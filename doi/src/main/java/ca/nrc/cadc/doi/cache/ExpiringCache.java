@@ -0,0 +1,328 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.cache;
+
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.apache.log4j.Logger;
+
+/**
+ * A thread-safe cache of values that expire after a fixed time to live. The number of
+ * entries is bounded: the entries are also kept in order of expiry, so that expired
+ * entries and, when the cache is full, the entries closest to expiry are removed from
+ * the head of that order without scanning the cache.
+ *
+ * <p>Concurrent lookups of the same missing key are coalesced: the value is loaded once by
+ * the first caller and the other callers wait for that result. A failed load is not cached.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ExpiringCache<K, V> {
+    private static final Logger log = Logger.getLogger(ExpiringCache.class);
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry<K, V>> expiryOrder = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name name of the cache, used in log messages
+     * @param ttl time to live of an entry
+     * @param unit time unit of ttl
+     * @param maxSize maximum number of entries
+     */
+    public ExpiringCache(String name, long ttl, TimeUnit unit, int maxSize) {
+        if (ttl <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("ttl and maxSize must be greater than 0");
+        }
+        this.name = name;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the value for the key, loading it if it is not cached or has expired.
+     *
+     * @param key the key
+     * @param loader loads the value when it is not in the cache
+     * @return the cached or loaded value
+     * @throws Exception the exception thrown by the loader
+     */
+    public V get(K key, Callable<V> loader) throws Exception {
+        while (true) {
+            long now = System.nanoTime();
+            Entry<K, V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                // cached, or being loaded by another thread
+                hits.incrementAndGet();
+                return entry.getValue();
+            }
+
+            Entry<K, V> newEntry = newEntry(key, now + ttlNanos);
+            boolean installed;
+            if (entry == null) {
+                installed = entries.putIfAbsent(key, newEntry) == null;
+            } else {
+                installed = entries.replace(key, entry, newEntry);
+            }
+
+            if (installed) {
+                misses.incrementAndGet();
+                expiryOrder.add(newEntry);
+                if (entry != null) {
+                    expiryOrder.remove(entry);
+                }
+                try {
+                    V value = loader.call();
+                    newEntry.future.complete(value);
+                    evict();
+                    return value;
+                } catch (Throwable ex) {
+                    // also complete the waiting callers when the loader throws an Error
+                    remove(key, newEntry);
+                    newEntry.future.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+            // another thread changed the entry, try again
+        }
+    }
+
+    /**
+     * Get the cached value for the key without loading it.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not cached, has expired or is being loaded
+     */
+    public V getIfPresent(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && entry.future.isDone() && !entry.future.isCompletedExceptionally()
+                && !entry.isExpired(System.nanoTime())) {
+            hits.incrementAndGet();
+            return entry.future.getNow(null);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Put a value in the cache, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Put a value in the cache with its own time to live, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value
+     * @param ttl time to live of the entry
+     * @param unit time unit of ttl
+     */
+    public void put(K key, V value, long ttl, TimeUnit unit) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be greater than 0");
+        }
+        Entry<K, V> entry = newEntry(key, System.nanoTime() + unit.toNanos(ttl));
+        entry.future.complete(value);
+        expiryOrder.add(entry);
+        Entry<K, V> previous = entries.put(key, entry);
+        if (previous != null) {
+            expiryOrder.remove(previous);
+        }
+        evict();
+    }
+
+    public void invalidate(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry != null) {
+            expiryOrder.remove(entry);
+        }
+    }
+
+    /**
+     * Remove all entries with a key matching the predicate.
+     *
+     * @param predicate selects the keys to remove
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        for (Entry<K, V> entry : entries.values()) {
+            if (predicate.test(entry.key)) {
+                remove(entry.key, entry);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (Entry<K, V> entry : entries.values()) {
+            remove(entry.key, entry);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Entry<K, V> newEntry(K key, long expires) {
+        return new Entry<>(key, expires, sequence.incrementAndGet());
+    }
+
+    private void remove(K key, Entry<K, V> entry) {
+        entries.remove(key, entry);
+        expiryOrder.remove(entry);
+    }
+
+    // remove the expired entries and, if the cache is full, the entries closest to expiry
+    private void evict() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Entry<K, V> first : expiryOrder) {
+            if (!first.isExpired(now) && entries.size() <= maxSize) {
+                break;
+            }
+            // an entry that has been replaced or removed is only removed from the order
+            if (expiryOrder.remove(first) && entries.remove(first.key, first)) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug(String.format("%s: evicted %d entries, size: %d", name, evicted, entries.size()));
+        }
+    }
+
+    private static class Entry<K, V> implements Comparable<Entry<K, V>> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final K key;
+        private final long expires;
+        private final long sequence;
+
+        Entry(K key, long expires, long sequence) {
+            this.key = key;
+            this.expires = expires;
+            this.sequence = sequence;
+        }
+
+        boolean isExpired(long now) {
+            return now - expires > 0;
+        }
+
+        V getValue() throws Exception {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        // by expiry, entries with the same expiry in the order they were created
+        @Override
+        public int compareTo(Entry<K, V> other) {
+            int c = Long.compare(expires - other.expires, 0);
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,472 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.Logger;
+
+/**
+ * In-memory index of the DOI container node properties, keyed by DOI suffix, with
+ * secondary indexes by requester, by status and of the public DOIs. Lookups return
+ * entries sorted by suffix and cost in proportion to the size of the result.
+ *
+ * <p>When a directory is given the index is kept in a file in that directory: updates
+ * are appended to the file as they are made, and the file is rewritten after each
+ * reconciliation with VOSpace.</p>
+ *
+ * <p>Updates are serialized, lookups do not lock.</p>
+ */
+public class DoiIndex {
+    private static final Logger log = Logger.getLogger(DoiIndex.class);
+
+    static final String INDEX_FILENAME = "doi-index.dat";
+    private static final int MAGIC = 0x444f4931;
+    private static final byte PUT = 'P';
+    private static final byte REMOVE = 'R';
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    private static final Comparator<DoiIndexEntry> BY_SUFFIX = Comparator.comparing(DoiIndexEntry::getSuffix);
+
+    private static volatile DoiIndex instance;
+
+    private final File indexFile;
+    private final Map<String, DoiIndexEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byRequester = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byStatus = new ConcurrentHashMap<>();
+    private final Set<String> publicSuffixes = ConcurrentHashMap.newKeySet();
+
+    // when the entries were put in the index by this service, used to order local updates
+    // and reconciliation; entries loaded from file have no time
+    private final Map<String, Long> indexed = new HashMap<>();
+
+    // suffixes removed since the last reconciliation, and when
+    private final Map<String, Long> removed = new HashMap<>();
+
+    private DataOutputStream journal;
+    private volatile boolean ready = false;
+
+    /**
+     * @param dir directory for the index file, null for an index that is not saved
+     */
+    public DoiIndex(File dir) {
+        this.indexFile = dir == null ? null : new File(dir, INDEX_FILENAME);
+    }
+
+    public static DoiIndex getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(DoiIndex index) {
+        instance = index;
+    }
+
+    /**
+     * @return true if the index has been loaded from file or reconciled with VOSpace
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public DoiIndexEntry get(String suffix) {
+        return entries.get(suffix);
+    }
+
+    public List<DoiIndexEntry> getAll() {
+        List<DoiIndexEntry> ret = new ArrayList<>(entries.values());
+        ret.sort(BY_SUFFIX);
+        return ret;
+    }
+
+    public List<DoiIndexEntry> getByRequester(String requester) {
+        List<DoiIndexEntry> ret = new ArrayList<>();
+        for (String suffix : byRequester.getOrDefault(requester, Set.of())) {
+            DoiIndexEntry entry = entries.get(suffix);
+            if (entry != null && requester.equals(entry.getRequester())) {
+                ret.add(entry);
+            }
+        }
+        ret.sort(BY_SUFFIX);
+        return ret;
+    }
+
+    public List<DoiIndexEntry> getByStatus(Collection<String> statuses) {
+        List<DoiIndexEntry> ret = new ArrayList<>();
+        for (String status : new HashSet<>(statuses)) {
+            for (String suffix : byStatus.getOrDefault(status, Set.of())) {
+                DoiIndexEntry entry = entries.get(suffix);
+                if (entry != null && status.equals(entry.getStatus())) {
+                    ret.add(entry);
+                }
+            }
+        }
+        ret.sort(BY_SUFFIX);
+        return ret;
+    }
+
+    public List<DoiIndexEntry> getPublic() {
+        List<DoiIndexEntry> ret = new ArrayList<>();
+        for (String suffix : publicSuffixes) {
+            DoiIndexEntry entry = entries.get(suffix);
+            if (entry != null && entry.isPublic()) {
+                ret.add(entry);
+            }
+        }
+        ret.sort(BY_SUFFIX);
+        return ret;
+    }
+
+    /**
+     * Add or replace the entry for a DOI.
+     *
+     * @param entry the current properties of the DOI
+     */
+    public synchronized void put(DoiIndexEntry entry) {
+        indexed.put(entry.getSuffix(), System.currentTimeMillis());
+        removed.remove(entry.getSuffix());
+        putEntry(entry);
+        append(entry, null);
+    }
+
+    /**
+     * Remove the entry for a deleted DOI.
+     *
+     * @param suffix the DOI suffix
+     */
+    public synchronized void remove(String suffix) {
+        removed.put(suffix, System.currentTimeMillis());
+        if (removeEntry(suffix) != null) {
+            append(null, suffix);
+        }
+    }
+
+    /**
+     * Bring the index in line with a listing of the DOI nodes. Entries updated or removed
+     * by this service after the listing started are kept as they are.
+     *
+     * @param listed entries for all DOI nodes in VOSpace
+     * @param listedAt time, in milliseconds since the epoch, the listing was started
+     * @return number of entries added, changed or removed
+     */
+    public synchronized int reconcile(Collection<DoiIndexEntry> listed, long listedAt) {
+        int changes = 0;
+        Set<String> listedSuffixes = new HashSet<>();
+        for (DoiIndexEntry entry : listed) {
+            listedSuffixes.add(entry.getSuffix());
+            DoiIndexEntry current = entries.get(entry.getSuffix());
+            if (current == null) {
+                Long removedAt = removed.get(entry.getSuffix());
+                if (removedAt != null && removedAt >= listedAt) {
+                    continue;
+                }
+            } else if (getIndexed(current) >= listedAt || current.sameProperties(entry)) {
+                continue;
+            }
+            log.debug("reconcile put: " + entry);
+            indexed.put(entry.getSuffix(), listedAt);
+            putEntry(entry);
+            changes++;
+        }
+
+        for (DoiIndexEntry current : new ArrayList<>(entries.values())) {
+            if (!listedSuffixes.contains(current.getSuffix()) && getIndexed(current) < listedAt) {
+                log.debug("reconcile remove: " + current);
+                removeEntry(current.getSuffix());
+                changes++;
+            }
+        }
+
+        removed.values().removeIf(removedAt -> removedAt < listedAt);
+        ready = true;
+        save();
+        return changes;
+    }
+
+    /**
+     * Load the index from file, if there is one.
+     *
+     * @return true if the index was loaded
+     */
+    public synchronized boolean load() {
+        if (indexFile == null || !indexFile.exists()) {
+            return false;
+        }
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("ignoring unrecognized index file: " + indexFile);
+                return false;
+            }
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException ex) {
+                    break;
+                }
+                if (op == PUT) {
+                    DoiIndexEntry entry = readEntry(in);
+                    putEntry(entry);
+                } else if (op == REMOVE) {
+                    removeEntry(readString(in));
+                } else {
+                    throw new IOException("invalid record type: " + op);
+                }
+                count++;
+            }
+        } catch (IOException ex) {
+            // a truncated last record is expected after a crash, keep what was read
+            log.warn(String.format("index file %s read up to record %d: %s", indexFile, count, ex));
+        }
+        log.info(String.format("loaded index %s: %d entries", indexFile, entries.size()));
+        ready = true;
+        save();
+        return true;
+    }
+
+    /**
+     * Close the index file.
+     */
+    public synchronized void close() {
+        closeJournal();
+    }
+
+    private void putEntry(DoiIndexEntry entry) {
+        DoiIndexEntry previous = entries.put(entry.getSuffix(), entry);
+        if (previous != null) {
+            removeSecondary(previous);
+        }
+        if (entry.getRequester() != null) {
+            byRequester.computeIfAbsent(entry.getRequester(), k -> ConcurrentHashMap.newKeySet()).add(entry.getSuffix());
+        }
+        if (entry.getStatus() != null) {
+            byStatus.computeIfAbsent(entry.getStatus(), k -> ConcurrentHashMap.newKeySet()).add(entry.getSuffix());
+        }
+        if (entry.isPublic()) {
+            publicSuffixes.add(entry.getSuffix());
+        }
+    }
+
+    private long getIndexed(DoiIndexEntry entry) {
+        Long time = indexed.get(entry.getSuffix());
+        return time == null ? 0L : time;
+    }
+
+    private DoiIndexEntry removeEntry(String suffix) {
+        indexed.remove(suffix);
+        DoiIndexEntry previous = entries.remove(suffix);
+        if (previous != null) {
+            removeSecondary(previous);
+        }
+        return previous;
+    }
+
+    private void removeSecondary(DoiIndexEntry entry) {
+        if (entry.getRequester() != null) {
+            removeFrom(byRequester, entry.getRequester(), entry.getSuffix());
+        }
+        if (entry.getStatus() != null) {
+            removeFrom(byStatus, entry.getStatus(), entry.getSuffix());
+        }
+        publicSuffixes.remove(entry.getSuffix());
+    }
+
+    private static void removeFrom(Map<String, Set<String>> index, String key, String suffix) {
+        Set<String> suffixes = index.get(key);
+        if (suffixes != null) {
+            suffixes.remove(suffix);
+            if (suffixes.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    // append an update to the index file
+    private void append(DoiIndexEntry entry, String removedSuffix) {
+        if (indexFile == null || !ready) {
+            return;
+        }
+        try {
+            if (journal == null) {
+                journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+            }
+            if (entry != null) {
+                journal.writeByte(PUT);
+                writeEntry(journal, entry);
+            } else {
+                journal.writeByte(REMOVE);
+                writeString(journal, removedSuffix);
+            }
+            journal.flush();
+        } catch (IOException ex) {
+            // the file is rewritten at the next reconciliation
+            log.error("failed to update index file " + indexFile, ex);
+            closeJournal();
+        }
+    }
+
+    // rewrite the index file with the current entries
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+        closeJournal();
+        File tmp = new File(indexFile.getParentFile(), INDEX_FILENAME + ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(MAGIC);
+                for (DoiIndexEntry entry : entries.values()) {
+                    out.writeByte(PUT);
+                    writeEntry(out, entry);
+                }
+                out.flush();
+                fos.getFD().sync();
+            }
+            Files.move(tmp.toPath(), indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug(String.format("saved index %s: %d entries", indexFile, entries.size()));
+        } catch (IOException ex) {
+            log.error("failed to save index file " + indexFile, ex);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException ex) {
+                log.debug("failed to close index file: " + ex);
+            }
+            journal = null;
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, DoiIndexEntry entry) throws IOException {
+        writeString(out, entry.getSuffix());
+        writeString(out, entry.getRequester());
+        writeString(out, entry.getStatus());
+        writeString(out, entry.getTitle());
+        writeString(out, entry.getJournalRef());
+        writeString(out, entry.getReviewer());
+        writeString(out, entry.getJobURL());
+        out.writeBoolean(entry.isPublic());
+        out.writeLong(entry.getLastModified());
+    }
+
+    private static DoiIndexEntry readEntry(DataInputStream in) throws IOException {
+        return new DoiIndexEntry(readString(in), readString(in), readString(in), readString(in),
+                readString(in), readString(in), readString(in), in.readBoolean(), in.readLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.index;
+
+import java.util.Objects;
+
+/**
+ * Immutable copy of the DOI properties of one DOI container node.
+ */
+public class DoiIndexEntry {
+    private final String suffix;
+    private final String requester;
+    private final String status;
+    private final String title;
+    private final String journalRef;
+    private final String reviewer;
+    private final String jobURL;
+    private final boolean isPublic;
+    private final long lastModified;
+
+    public DoiIndexEntry(String suffix, String requester, String status, String title, String journalRef,
+                         String reviewer, String jobURL, boolean isPublic, long lastModified) {
+        if (suffix == null) {
+            throw new IllegalArgumentException("suffix cannot be null");
+        }
+        this.suffix = suffix;
+        this.requester = requester;
+        this.status = status;
+        this.title = title;
+        this.journalRef = journalRef;
+        this.reviewer = reviewer;
+        this.jobURL = jobURL;
+        this.isPublic = isPublic;
+        this.lastModified = lastModified;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public String getRequester() {
+        return requester;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getJournalRef() {
+        return journalRef;
+    }
+
+    public String getReviewer() {
+        return reviewer;
+    }
+
+    public String getJobURL() {
+        return jobURL;
+    }
+
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    /**
+     * @return last modification time in milliseconds since the epoch, 0 if unknown
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Compare the DOI properties of two entries, ignoring the last modification time.
+     *
+     * @param other entry to compare with
+     * @return true if the properties are the same
+     */
+    public boolean sameProperties(DoiIndexEntry other) {
+        return suffix.equals(other.suffix)
+                && Objects.equals(requester, other.requester)
+                && Objects.equals(status, other.status)
+                && Objects.equals(title, other.title)
+                && Objects.equals(journalRef, other.journalRef)
+                && Objects.equals(reviewer, other.reviewer)
+                && Objects.equals(jobURL, other.jobURL)
+                && isPublic == other.isPublic;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DoiIndexEntry[%s, requester=%s, status=%s, public=%s]",
+                suffix, requester, status, isPublic);
+    }
+}
@@ -70,27 +70,54 @@
 package ca.nrc.cadc.doi.io;
 
 import ca.nrc.cadc.doi.datacite.Resource;
-import ca.nrc.cadc.xml.JsonInputter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
-import org.json.JSONException;
 
 /**
- * Constructs a DoiMetadata from a JSON source. This class is not thread safe
- * but it is re-usable so it can safely be used to sequentially parse multiple
- * JSON node documents.
+ * Constructs a DoiMetadata from a JSON source. The JSON is read in a single pass
+ * straight into the Resource, without buffering the document, and a document
+ * larger than the maximum size is rejected as soon as the maximum is exceeded.
+ * This class is thread safe.
  *
  * @author yeunga
  */
 public class DoiJsonReader extends DoiReader {
 
     /**
-     * Constructor. XML Schema validation is enabled by default.
+     * Default maximum size of a JSON document, in characters.
+     */
+    public static final long DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private final long maxSize;
+
+    /**
+     * Constructor. Documents are limited to DEFAULT_MAX_SIZE characters.
      */
     public DoiJsonReader() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize maximum size of a JSON document, in characters.
+     */
+    public DoiJsonReader(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the maximum size of a JSON document, in characters.
+     */
+    public long getMaxSize() {
+        return maxSize;
     }
 
     /**
@@ -105,13 +132,7 @@ public class DoiJsonReader extends DoiReader {
             throw new IllegalArgumentException("JSON must not be null");
         }
 
-        try {
-            JsonInputter inputter = new JsonInputter();
-            return this.buildResource(inputter.input(json));
-        } catch (JSONException e) {
-            String error = "JSON parsing error: " + e.getMessage();
-            throw new DoiParsingException(error, e);
-        }
+        return read(new StringReader(json));
     }
 
     /**
@@ -142,21 +163,11 @@ public class DoiJsonReader extends DoiReader {
         }
 
         try {
-            return read(convert(reader));
+            return new JsonResourceBuilder(new JsonTokenizer(reader, maxSize)).build();
         } catch (IOException e) {
             String error = "Error reading JSON: " + e.getMessage();
             throw new DoiParsingException(error, e);
         }
     }
 
-    private String convert(Reader reader) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        char[] buffer = new char[8192];
-        int charsRead;
-        while ((charsRead = reader.read(buffer)) != -1) {
-            sb.append(buffer, 0, charsRead);
-        }
-        return sb.toString();
-    }
-
 }
@@ -71,18 +71,18 @@ package ca.nrc.cadc.doi.io;
 
 import ca.nrc.cadc.doi.datacite.Resource;
 import ca.nrc.cadc.util.StringBuilderWriter;
-import ca.nrc.cadc.xml.JsonOutputter;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import org.apache.log4j.Logger;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.output.Format;
 
 /**
+ * Writes a Resource instance as JSON (BadgerFish convention) to an output. The JSON
+ * is written directly from the Resource, without building a document, either pretty
+ * printed or compact.
  *
  * @author yeunga
  */
@@ -107,8 +107,7 @@ public class DoiJsonWriter extends DoiWriter {
      * @throws IOException if the writer fails to write.
      */
     public void write(Resource resource, OutputStream out) throws IOException {
-        OutputStreamWriter outWriter;
-        outWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Writer outWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
         write(resource, outWriter);
     }
 
@@ -132,38 +131,9 @@ public class DoiJsonWriter extends DoiWriter {
      */
     public void write(Resource resource, Writer writer) throws IOException {
         long start = System.currentTimeMillis();
-        Element root = this.getRootElement(resource);
-        write(root, writer);
+        new JsonResourceSerializer(writer, prettyPrint).write(resource);
+        writer.flush();
         long end = System.currentTimeMillis();
         log.debug("Write elapsed time: " + (end - start) + "ms");
     }
-
-    /**
-     * Write a Document instance by providing the root element to a writer.
-     *
-     * @param root  Root element to write.
-     * @param writer  Writer to write to.
-     * @throws IOException if the writer fails to write.
-     */
-    protected void write(Element root, Writer writer) throws IOException {
-        JsonOutputter outputter = new JsonOutputter();
-        outputter.getListElementNames().add("creators");
-        outputter.getListElementNames().add("creators");
-        outputter.getListElementNames().add("titles");
-        outputter.getListElementNames().add("contributors");
-        outputter.getListElementNames().add("dates");
-        outputter.getListElementNames().add("sizes");
-        outputter.getListElementNames().add("rightsList");
-        outputter.getListElementNames().add("descriptions");
-        outputter.getListElementNames().add("relatedIdentifiers");
-
-        Format fmt = null;
-        if (prettyPrint) {
-            fmt = Format.getPrettyFormat();
-            fmt.setIndent("  "); // 2 spaces
-        }
-        outputter.setFormat(fmt);
-        outputter.output(new Document(root), writer);
-    }
-
 }
@@ -77,17 +77,26 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.ValidatorHandler;
 import org.apache.log4j.Logger;
-import org.jdom2.Document;
-import org.jdom2.JDOMException;
 
 /**
- * Constructs a DoiMetadata from an XML source. This class is not thread safe
- * but it is re-usable so it can safely be used to sequentially parse multiple
- * XML node documents.
+ * Constructs a DoiMetadata from an XML source. The document is read in a single pass
+ * with a StAX stream reader and the Resource is built as the elements are read, without
+ * an intermediate document. When validation is enabled the document is validated while
+ * it is read, against the DataCite schema compiled once per process.
+ *
+ * <p>This class is thread safe: an instance can be shared and used to parse multiple
+ * XML documents concurrently.</p>
  *
  * @author yeunga
  */
@@ -97,7 +106,12 @@ public class DoiXmlReader extends DoiReader {
     static final String DATACITE_NAMESPACE = "http://datacite.org/schema/kernel-4";
     static final String DATACITE_SCHEMA = "datacite-metadata-4.5.xsd";
 
-    protected Map<String, String> schemaMap;
+    private static final XMLInputFactory inputFactory = createInputFactory();
+
+    // the DataCite schema is compiled once and shared by the pooled validators
+    private static volatile ParserPool<ValidatorHandler> validators;
+
+    private final boolean validate;
 
     /**
      * Constructor. XML Schema validation is enabled by default.
@@ -114,6 +128,7 @@ public class DoiXmlReader extends DoiReader {
      * @param enableSchemaValidation enable XML schema validation of the document.
      */
     public DoiXmlReader(boolean enableSchemaValidation) {
+        this.validate = enableSchemaValidation;
         if (enableSchemaValidation) {
             String dataCiteSchemaUrl = XmlUtil.getResourceUrlString(DATACITE_SCHEMA, DoiXmlReader.class);
             log.debug("dataciteSchemaUrl: " + dataCiteSchemaUrl);
@@ -122,8 +137,7 @@ public class DoiXmlReader extends DoiReader {
                 throw new RuntimeException("failed to load " + DATACITE_SCHEMA + " from classpath");
             }
 
-            schemaMap = new HashMap<String, String>();
-            schemaMap.put(DATACITE_NAMESPACE, dataCiteSchemaUrl);
+            getValidators(dataCiteSchemaUrl);
             log.debug("schema validation enabled");
         } else {
             log.debug("schema validation disabled");
@@ -131,7 +145,7 @@ public class DoiXmlReader extends DoiReader {
     }
 
     /**
-     * Construct a DOM document from an XML String source.
+     * Construct a Resource from an XML String source.
      *
      * @param xml String of the XML.
      * @return Resource object containing all doi metadata.
@@ -151,7 +165,7 @@ public class DoiXmlReader extends DoiReader {
     }
 
     /**
-     * Construct a DOM document from a InputStream.
+     * Construct a Resource from a InputStream.
      *
      * @param in InputStream.
      * @return Resource object containing all doi metadata.
@@ -171,7 +185,7 @@ public class DoiXmlReader extends DoiReader {
     }
 
     /**
-     * Construct a DOM document from a Reader.
+     * Construct a Resource from a Reader.
      *
      * @param reader Reader.
      * @return Resource object containing all doi metadata.
@@ -183,17 +197,84 @@ public class DoiXmlReader extends DoiReader {
             throw new IllegalArgumentException("reader must not be null");
         }
 
-        // Create a JDOM Document from the XML
-        Document document;
+        XMLStreamReader streamReader = null;
+        ParserPool.Pooled<ValidatorHandler> validator = null;
         try {
-            // TODO: investigate creating a SAXBuilder once and re-using it
-            // as long as we can detect concurrent access (a la java collections)
-            document = XmlUtil.buildDocument(reader, schemaMap);
-        } catch (JDOMException jde) {
-            String error = "XML failed schema validation: " + jde.getMessage();
-            throw new DoiParsingException(error, jde);
+            streamReader = inputFactory.createXMLStreamReader(reader);
+            if (validate) {
+                validator = validators.borrow();
+                streamReader = new ValidatingStreamReader(streamReader, validator.parser);
+            }
+            return new ResourceStreamBuilder(streamReader).build();
+        } catch (XMLStreamException ex) {
+            if (ex.getNestedException() instanceof IOException) {
+                throw (IOException) ex.getNestedException();
+            }
+            String error = "XML failed schema validation: " + getErrorMessage(ex);
+            throw new DoiParsingException(error, ex);
+        } finally {
+            if (validator != null) {
+                // the locator refers to this document, do not keep it reachable from the pool
+                validator.parser.setDocumentLocator(null);
+                validators.release(validator);
+            }
+            if (streamReader != null) {
+                try {
+                    streamReader.close();
+                } catch (XMLStreamException ex) {
+                    log.debug("failed to close stream reader: " + ex);
+                }
+            }
+        }
+    }
+
+    // same format as the messages of the SAX parse errors reported by JDOM
+    private static String getErrorMessage(XMLStreamException ex) {
+        String message;
+        if (ex.getNestedException() != null && ex.getNestedException().getMessage() != null) {
+            message = ex.getNestedException().getMessage();
+        } else {
+            // strip the location prefix added by XMLStreamException
+            message = ex.getMessage();
+            int i = message.indexOf("Message: ");
+            if (i >= 0) {
+                message = message.substring(i + "Message: ".length());
+            }
         }
-        return this.buildResource(document);
+        Location location = ex.getLocation();
+        if (location != null && location.getLineNumber() >= 0) {
+            return "Error on line " + location.getLineNumber() + ": " + message;
+        }
+        return message;
     }
 
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        // DataCite documents do not have a DTD, do not resolve external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    private static ParserPool<ValidatorHandler> getValidators(String dataCiteSchemaUrl) {
+        if (validators == null) {
+            synchronized (DoiXmlReader.class) {
+                if (validators == null) {
+                    long start = System.currentTimeMillis();
+                    try {
+                        // included and imported schema documents are resolved relative to the URL
+                        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+                        Schema schema = schemaFactory.newSchema(new URL(dataCiteSchemaUrl));
+                        validators = new ParserPool<>(schema::newValidatorHandler);
+                    } catch (Exception ex) {
+                        throw new RuntimeException("failed to load " + DATACITE_SCHEMA + ": " + ex.getMessage(), ex);
+                    }
+                    log.debug("compiled " + DATACITE_SCHEMA + " in " + (System.currentTimeMillis() - start) + "ms");
+                }
+            }
+        }
+        return validators;
+    }
 }
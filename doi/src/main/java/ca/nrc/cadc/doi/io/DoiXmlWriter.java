@@ -71,28 +71,34 @@ package ca.nrc.cadc.doi.io;
 
 import ca.nrc.cadc.doi.datacite.Resource;
 import ca.nrc.cadc.util.StringBuilderWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 
 import java.nio.charset.StandardCharsets;
 import org.apache.log4j.Logger;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
 
 /**
- * Writes a Resource instance as XML to an output.
+ * Writes a Resource instance as XML to an output. The XML is written directly from
+ * the Resource, without building a document. The pretty printed output is the same
+ * as the output of the JDOM XMLOutputter with the pretty format, the compact output
+ * has no white space between elements.
  * 
  * @author yeunga
  */
 public class DoiXmlWriter extends DoiWriter {
     private static final Logger log = Logger.getLogger(DoiXmlWriter.class);
 
+    private final boolean prettyPrint;
+
     public DoiXmlWriter() {
+        this(true);
+    }
+
+    public DoiXmlWriter(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
     }
 
     /**
@@ -103,8 +109,7 @@ public class DoiXmlWriter extends DoiWriter {
      * @throws IOException if the writer fails to write.
      */
     public void write(Resource resource, OutputStream out) throws IOException {
-        OutputStreamWriter outWriter;
-        outWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Writer outWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
         write(resource, outWriter);
     }
 
@@ -128,23 +133,9 @@ public class DoiXmlWriter extends DoiWriter {
      */
     public void write(Resource resource, Writer writer) throws IOException {
         long start = System.currentTimeMillis();
-        Element root = this.getRootElement(resource);
-        write(root, writer);
+        new XmlResourceSerializer(writer, prettyPrint).write(resource);
+        writer.flush();
         long end = System.currentTimeMillis();
         log.debug("Write elapsed time: " + (end - start) + "ms");
     }
-
-    /**
-     * Write a Document instance by providing the root element to a writer.
-     *
-     * @param root Root element to write.
-     * @param writer Writer to write to.
-     * @throws IOException if the writer fails to write.
-     */
-    protected void write(Element root, Writer writer) throws IOException {
-        XMLOutputter outputter = new XMLOutputter();
-        outputter.setFormat(Format.getPrettyFormat());
-        outputter.output(new Document(root), writer);
-    }
-
 }
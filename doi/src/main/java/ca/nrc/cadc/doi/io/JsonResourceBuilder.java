@@ -0,0 +1,288 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.ResourceAssembler.Leaf;
+import ca.nrc.cadc.doi.io.ResourceAssembler.SectionList;
+import java.io.IOException;
+import org.jdom2.Namespace;
+
+/**
+ * Builds a Resource from a JSON document in a single pass, without an intermediate
+ * document. The JSON is the Badgerfish-style form written by DoiJsonWriter and read
+ * by JsonInputter: an element is an object, its attributes are members named
+ * &#64;name, its text is the $ member and its child elements are members named
+ * after them or, for the lists of the resource, the objects in a $ array. The
+ * namespace of the resource is the &#64;xmlns member of the resource element.
+ *
+ * <p>As for the XML documents, the first element of each supported name is used,
+ * other members are skipped, and errors are reported in the order ResourceAssembler
+ * checks the elements.</p>
+ */
+class JsonResourceBuilder {
+
+    private static final String ATTRIBUTE_PREFIX = "@";
+    private static final String TEXT = "$";
+    private static final String XMLNS = "@xmlns";
+
+    private final JsonTokenizer tokenizer;
+    private final ResourceAssembler assembler = new ResourceAssembler();
+
+    JsonResourceBuilder(JsonTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Read the document and build the Resource.
+     *
+     * @return the resource
+     * @throws DoiParsingException if the document is not valid JSON or the resource is invalid
+     * @throws IOException if the document cannot be read
+     */
+    Resource build() throws DoiParsingException, IOException {
+        if (tokenizer.peek() != JsonTokenizer.Type.OBJECT) {
+            throw new DoiParsingException("JSON parsing error: document must be an object");
+        }
+
+        // the document object has a single member, the resource element
+        Namespace ns = null;
+        tokenizer.beginObject();
+        for (String name = tokenizer.nextName(); name != null; name = tokenizer.nextName()) {
+            if (ns != null || name.startsWith(ATTRIBUTE_PREFIX)
+                    || tokenizer.peek() != JsonTokenizer.Type.OBJECT) {
+                tokenizer.skipValue();
+            } else {
+                ns = readResource();
+            }
+        }
+        tokenizer.endDocument();
+        if (ns == null) {
+            throw new DoiParsingException("JSON parsing error: resource element not found");
+        }
+        return assembler.build(ns);
+    }
+
+    private Namespace readResource() throws DoiParsingException, IOException {
+        Namespace ns = Namespace.NO_NAMESPACE;
+        tokenizer.beginObject();
+        for (String name = tokenizer.nextName(); name != null; name = tokenizer.nextName()) {
+            if (XMLNS.equals(name) && isScalar()) {
+                String uri = tokenizer.nextScalar();
+                if (uri != null) {
+                    ns = Namespace.getNamespace(uri);
+                }
+            } else if (TEXT.equals(name) && tokenizer.peek() == JsonTokenizer.Type.ARRAY) {
+                // child elements as the objects of a $ array
+                tokenizer.beginArray();
+                while (tokenizer.nextItem()) {
+                    readMembers(this::readSection);
+                }
+            } else if (name.startsWith(ATTRIBUTE_PREFIX) || TEXT.equals(name)) {
+                tokenizer.skipValue();
+            } else {
+                readRepeated(name, this::readSection);
+            }
+        }
+        return ns;
+    }
+
+    // a top level element of the resource
+    private void readSection(String name) throws DoiParsingException, IOException {
+        ResourceAssembler.Section section = ResourceAssembler.getSection(name);
+        if (section == null || assembler.hasSection(name)) {
+            tokenizer.skipValue();
+        } else if (section == ResourceAssembler.Section.LEAF) {
+            assembler.addLeaf(name, readLeaf(false));
+        } else {
+            // creators and contributors have leaf child elements
+            boolean withChildren = section == ResourceAssembler.Section.NAMED_LIST;
+            SectionList list = assembler.startList(name);
+            ElementHandler item = itemName -> list.add(readLeaf(withChildren));
+            if (tokenizer.peek() == JsonTokenizer.Type.OBJECT) {
+                tokenizer.beginObject();
+                for (String member = tokenizer.nextName(); member != null; member = tokenizer.nextName()) {
+                    if (TEXT.equals(member) && tokenizer.peek() == JsonTokenizer.Type.ARRAY) {
+                        tokenizer.beginArray();
+                        while (tokenizer.nextItem()) {
+                            readMembers(item);
+                        }
+                    } else if (member.startsWith(ATTRIBUTE_PREFIX) || TEXT.equals(member)) {
+                        tokenizer.skipValue();
+                    } else {
+                        readRepeated(member, item);
+                    }
+                }
+            } else {
+                tokenizer.skipValue();
+            }
+            list.end();
+        }
+    }
+
+    /**
+     * Read an element: its attributes, its text and, if withChildren is true, the
+     * first child element of each name.
+     */
+    private Leaf readLeaf(boolean withChildren) throws DoiParsingException, IOException {
+        Leaf leaf = new Leaf();
+        leaf.text = "";
+        if (tokenizer.peek() != JsonTokenizer.Type.OBJECT) {
+            // an element with text content only
+            readText(leaf);
+            return leaf;
+        }
+
+        ElementHandler child = childName -> {
+            if (withChildren && !leaf.hasChild(childName)) {
+                leaf.addChild(childName, readLeaf(false));
+            } else {
+                tokenizer.skipValue();
+            }
+        };
+        tokenizer.beginObject();
+        for (String name = tokenizer.nextName(); name != null; name = tokenizer.nextName()) {
+            if (TEXT.equals(name)) {
+                if (tokenizer.peek() == JsonTokenizer.Type.ARRAY) {
+                    tokenizer.beginArray();
+                    while (tokenizer.nextItem()) {
+                        readMembers(child);
+                    }
+                } else {
+                    readText(leaf);
+                }
+            } else if (name.startsWith(XMLNS)) {
+                tokenizer.skipValue();
+            } else if (name.startsWith(ATTRIBUTE_PREFIX)) {
+                String attribute = name.substring(ATTRIBUTE_PREFIX.length());
+                // attributes in no namespace, or in the XML namespace
+                if (isScalar() && (attribute.indexOf(':') < 0 || attribute.startsWith(ResourceAssembler.XML_PREFIX))) {
+                    String value = tokenizer.nextScalar();
+                    if (value != null) {
+                        leaf.attributes.put(attribute, value);
+                    }
+                } else {
+                    tokenizer.skipValue();
+                }
+            } else {
+                readRepeated(name, child);
+            }
+        }
+        return leaf;
+    }
+
+    private void readText(Leaf leaf) throws DoiParsingException, IOException {
+        if (isScalar()) {
+            String text = tokenizer.nextScalar();
+            if (text != null) {
+                leaf.text = text;
+            }
+        } else {
+            tokenizer.skipValue();
+        }
+    }
+
+    // the members of an object in a $ array are child elements
+    private void readMembers(ElementHandler handler) throws DoiParsingException, IOException {
+        if (tokenizer.peek() != JsonTokenizer.Type.OBJECT) {
+            tokenizer.skipValue();
+            return;
+        }
+        tokenizer.beginObject();
+        for (String name = tokenizer.nextName(); name != null; name = tokenizer.nextName()) {
+            if (name.startsWith(ATTRIBUTE_PREFIX) || TEXT.equals(name)) {
+                tokenizer.skipValue();
+            } else {
+                readRepeated(name, handler);
+            }
+        }
+    }
+
+    // an element, or an array of elements with the same name
+    private void readRepeated(String name, ElementHandler handler) throws DoiParsingException, IOException {
+        if (tokenizer.peek() == JsonTokenizer.Type.ARRAY) {
+            tokenizer.beginArray();
+            while (tokenizer.nextItem()) {
+                handler.element(name);
+            }
+        } else {
+            handler.element(name);
+        }
+    }
+
+    private boolean isScalar() throws DoiParsingException, IOException {
+        JsonTokenizer.Type type = tokenizer.peek();
+        return type != JsonTokenizer.Type.OBJECT && type != JsonTokenizer.Type.ARRAY;
+    }
+
+    // reads the value of an element with the given name
+    private interface ElementHandler {
+        void element(String name) throws DoiParsingException, IOException;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import org.jdom2.Namespace;
+
+/**
+ * Writes Resource element events as JSON, using the BadgerFish convention of
+ * DoiJsonWriter: an element is an object, its attributes are members named
+ * &#64;name and its text is the $ member. The child elements of a list element
+ * are the objects of a $ array, each object having the child element as its only
+ * member.
+ */
+class JsonResourceSerializer extends ResourceSerializer {
+
+    static final Set<String> LIST_ELEMENT_NAMES = new HashSet<>(Arrays.asList(
+            DoiReader.CREATORS, DoiReader.TITLES, DoiReader.CONTRIBUTORS, DoiReader.DATES,
+            DoiReader.SIZES, DoiReader.RIGHTS_LIST, DoiReader.DESCRIPTIONS, DoiReader.RELATED_IDENTIFIERS));
+
+    private final Writer writer;
+    private final boolean prettyPrint;
+
+    private Namespace namespace;
+    private final Deque<Frame> elements = new ArrayDeque<>();
+
+    // an open element: level is the indentation of the element name
+    private static class Frame {
+        final int level;
+        final boolean list;
+        final boolean listItem;
+        int members;
+
+        Frame(int level, boolean list, boolean listItem) {
+            this.level = level;
+            this.list = list;
+            this.listItem = listItem;
+        }
+    }
+
+    JsonResourceSerializer(Writer writer, boolean prettyPrint) {
+        this.writer = writer;
+        this.prettyPrint = prettyPrint;
+    }
+
+    @Override
+    protected void startDocument(Namespace ns) throws IOException {
+        this.namespace = ns;
+        writer.write("{");
+    }
+
+    @Override
+    protected void endDocument() throws IOException {
+        writeIndent(0);
+        writer.write("}");
+    }
+
+    @Override
+    protected void startElement(String name) throws IOException {
+        Frame parent = elements.peek();
+        int level;
+        boolean listItem = false;
+        if (parent == null) {
+            level = 1;
+        } else {
+            separator(parent);
+            if (parent.list) {
+                // a list item is an object with the element as its only member
+                writeIndent(parent.level + 2);
+                writer.write("{");
+                level = parent.level + 3;
+                listItem = true;
+            } else {
+                level = parent.level + 1;
+            }
+        }
+        writeName(level, name);
+        writer.write("{");
+
+        boolean list = LIST_ELEMENT_NAMES.contains(name);
+        Frame current = new Frame(level, list, listItem);
+        elements.push(current);
+        if (list) {
+            writeName(level + 1, "$");
+            writer.write("[");
+        } else if (parent == null && !namespace.getURI().isEmpty()) {
+            String xmlns = namespace.getPrefix().isEmpty() ? "@xmlns" : "@xmlns:" + namespace.getPrefix();
+            writeMember(current, xmlns, namespace.getURI());
+        }
+    }
+
+    @Override
+    protected void attribute(String name, String value) throws IOException {
+        if (value != null) {
+            writeMember(elements.peek(), "@" + name, value);
+        }
+    }
+
+    @Override
+    protected void text(String text) throws IOException {
+        writeMember(elements.peek(), "$", text == null ? "" : text);
+    }
+
+    @Override
+    protected void endElement() throws IOException {
+        Frame current = elements.pop();
+        if (current.list) {
+            writeIndent(current.level + 1);
+            writer.write("]");
+        }
+        writeIndent(current.level);
+        writer.write("}");
+        if (current.listItem) {
+            writeIndent(current.level - 1);
+            writer.write("}");
+        }
+    }
+
+    private void writeMember(Frame frame, String name, String value) throws IOException {
+        separator(frame);
+        writeName(frame.level + 1, name);
+        writeString(value);
+    }
+
+    private void separator(Frame frame) throws IOException {
+        if (frame.members > 0) {
+            writer.write(",");
+        }
+        frame.members++;
+    }
+
+    private void writeName(int level, String name) throws IOException {
+        writeIndent(level);
+        writeString(name);
+        writer.write(prettyPrint ? " : " : ":");
+    }
+
+    private void writeIndent(int level) throws IOException {
+        if (prettyPrint) {
+            writer.write("\n");
+            for (int i = 0; i < level; i++) {
+                writer.write("  ");
+            }
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
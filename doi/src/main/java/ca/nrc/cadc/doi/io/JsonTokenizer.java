@@ -0,0 +1,390 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pull tokenizer for a JSON document read from a Reader. Only the current token is
+ * held in memory, and the number of characters read from the Reader is limited so
+ * that an oversized document fails as soon as the limit is passed. As with the
+ * org.json parser, duplicate names in an object are rejected.
+ *
+ * <p>Values are read with beginObject/nextName, beginArray/nextItem, nextScalar or
+ * skipValue, according to the type returned by peek.</p>
+ */
+class JsonTokenizer {
+
+    static final int MAX_DEPTH = 64;
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
+
+    enum Type {
+        OBJECT, ARRAY, STRING, NUMBER, LITERAL
+    }
+
+    private final Reader reader;
+    private final long maxSize;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    private long offset;
+
+    // names read in each open object, null for an array
+    private final List<Set<String>> containers = new ArrayList<>();
+    // whether a value has been read in each open container
+    private final boolean[] started = new boolean[MAX_DEPTH];
+
+    private final StringBuilder token = new StringBuilder();
+
+    /**
+     * @param reader the JSON source
+     * @param maxSize maximum number of characters to read
+     */
+    JsonTokenizer(Reader reader, long maxSize) {
+        this.reader = reader;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the type of the next value
+     */
+    Type peek() throws DoiParsingException, IOException {
+        int c = peekChar();
+        switch (c) {
+            case '{':
+                return Type.OBJECT;
+            case '[':
+                return Type.ARRAY;
+            case '"':
+                return Type.STRING;
+            case 't':
+            case 'f':
+            case 'n':
+                return Type.LITERAL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Type.NUMBER;
+                }
+                throw syntaxError(c == -1 ? "unexpected end of document" : "unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Consume the start of an object.
+     */
+    void beginObject() throws DoiParsingException, IOException {
+        expect('{');
+        push(new HashSet<>());
+    }
+
+    /**
+     * Read the name of the next member of the current object, the member value is
+     * read next.
+     *
+     * @return the name, or null after the end of the object has been consumed
+     */
+    String nextName() throws DoiParsingException, IOException {
+        if (!nextMember('}')) {
+            return null;
+        }
+        if (peekChar() != '"') {
+            throw syntaxError("expected a name");
+        }
+        pos++;
+        String name = readString();
+        if (!containers.get(containers.size() - 1).add(name)) {
+            throw syntaxError("duplicate key \"" + name + "\"");
+        }
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Consume the start of an array.
+     */
+    void beginArray() throws DoiParsingException, IOException {
+        expect('[');
+        push(null);
+    }
+
+    /**
+     * Move to the next item of the current array, the item is read next.
+     *
+     * @return false after the end of the array has been consumed
+     */
+    boolean nextItem() throws DoiParsingException, IOException {
+        return nextMember(']');
+    }
+
+    /**
+     * Read a string, number or literal value.
+     *
+     * @return the string, the number or literal as it appears in the document, or null for null
+     */
+    String nextScalar() throws DoiParsingException, IOException {
+        Type type = peek();
+        if (type == Type.STRING) {
+            pos++;
+            return readString();
+        }
+        if (type == Type.OBJECT || type == Type.ARRAY) {
+            throw syntaxError("expected a value");
+        }
+        token.setLength(0);
+        int c = peekRaw();
+        while (c != -1 && (Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.')) {
+            token.append((char) c);
+            pos++;
+            c = peekRaw();
+        }
+        String value = token.toString();
+        if (type == Type.LITERAL) {
+            if ("null".equals(value)) {
+                return null;
+            }
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw syntaxError("invalid value " + value);
+            }
+        } else if (!NUMBER_PATTERN.matcher(value).matches()) {
+            throw syntaxError("invalid number " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Read and discard the next value.
+     */
+    void skipValue() throws DoiParsingException, IOException {
+        switch (peek()) {
+            case OBJECT:
+                beginObject();
+                while (nextName() != null) {
+                    skipValue();
+                }
+                break;
+            case ARRAY:
+                beginArray();
+                while (nextItem()) {
+                    skipValue();
+                }
+                break;
+            default:
+                nextScalar();
+        }
+    }
+
+    /**
+     * Check that nothing but white space follows the value that has been read.
+     */
+    void endDocument() throws DoiParsingException, IOException {
+        int c = peekChar();
+        if (c != -1) {
+            throw syntaxError("unexpected character '" + (char) c + "' after the end of the document");
+        }
+    }
+
+    private void push(Set<String> names) throws DoiParsingException {
+        if (containers.size() == MAX_DEPTH) {
+            throw syntaxError("maximum depth of " + MAX_DEPTH + " exceeded");
+        }
+        started[containers.size()] = false;
+        containers.add(names);
+    }
+
+    // consume the separator before the next member of the current container, or the end
+    private boolean nextMember(char end) throws DoiParsingException, IOException {
+        int depth = containers.size() - 1;
+        int c = peekChar();
+        if (c == end) {
+            pos++;
+            containers.remove(depth);
+            return false;
+        }
+        if (started[depth]) {
+            if (c != ',') {
+                throw syntaxError("expected ',' or '" + end + "'");
+            }
+            pos++;
+        }
+        started[depth] = true;
+        return true;
+    }
+
+    // read the rest of a string, after the opening quote
+    private String readString() throws DoiParsingException, IOException {
+        token.setLength(0);
+        while (true) {
+            int c = readRaw();
+            if (c == '"') {
+                return token.toString();
+            }
+            if (c == -1) {
+                throw syntaxError("unterminated string");
+            }
+            if (c < 0x20) {
+                throw syntaxError("control character in string");
+            }
+            if (c == '\\') {
+                c = readRaw();
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        token.append((char) c);
+                        break;
+                    case 'b':
+                        token.append('\b');
+                        break;
+                    case 'f':
+                        token.append('\f');
+                        break;
+                    case 'n':
+                        token.append('\n');
+                        break;
+                    case 'r':
+                        token.append('\r');
+                        break;
+                    case 't':
+                        token.append('\t');
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(readRaw(), 16);
+                            if (digit < 0) {
+                                throw syntaxError("invalid unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        token.append((char) code);
+                        break;
+                    default:
+                        throw syntaxError("invalid escape sequence");
+                }
+            } else {
+                token.append((char) c);
+            }
+        }
+    }
+
+    private void expect(char expected) throws DoiParsingException, IOException {
+        if (peekChar() != expected) {
+            throw syntaxError("expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    // the next character that is not white space, without consuming it
+    private int peekChar() throws DoiParsingException, IOException {
+        while (true) {
+            int c = peekRaw();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            pos++;
+        }
+    }
+
+    private int readRaw() throws DoiParsingException, IOException {
+        int c = peekRaw();
+        if (c != -1) {
+            pos++;
+        }
+        return c;
+    }
+
+    private int peekRaw() throws DoiParsingException, IOException {
+        if (pos == limit) {
+            offset += limit;
+            pos = 0;
+            limit = reader.read(buffer);
+            if (limit == -1) {
+                limit = 0;
+                return -1;
+            }
+            if (offset + limit > maxSize) {
+                throw new DoiParsingException(String.format(
+                        "JSON document exceeds the maximum size of %d characters", maxSize));
+            }
+        }
+        return buffer[pos];
+    }
+
+    private DoiParsingException syntaxError(String message) {
+        return new DoiParsingException(String.format("JSON parsing error: %s at character %d",
+                message, offset + pos + 1));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import java.util.ConcurrentModificationException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Pool of parser instances (e.g. ValidatorHandler) that are expensive to create and
+ * must not be used by more than one thread at a time. The pool hands out one parser
+ * per document and keeps up to MAX_IDLE parsers for re-use. Each pooled parser records
+ * the thread using it, and a parser that is borrowed while in use, or released by
+ * another thread, fails fast with a ConcurrentModificationException instead of
+ * corrupting a parse.
+ *
+ * @param <T> parser type
+ */
+class ParserPool<T> {
+
+    static final int MAX_IDLE = 16;
+
+    private final Supplier<T> factory;
+    private final Queue<Pooled<T>> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    ParserPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    Pooled<T> borrow() {
+        Pooled<T> pooled = idle.poll();
+        if (pooled == null) {
+            pooled = new Pooled<>(factory.get());
+        } else {
+            idleCount.decrementAndGet();
+        }
+        pooled.acquire();
+        return pooled;
+    }
+
+    void release(Pooled<T> pooled) {
+        pooled.release();
+        if (idleCount.incrementAndGet() <= MAX_IDLE) {
+            idle.offer(pooled);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    int getIdleCount() {
+        return idleCount.get();
+    }
+
+    static class Pooled<T> {
+        final T parser;
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+
+        Pooled(T parser) {
+            this.parser = parser;
+        }
+
+        void acquire() {
+            Thread current = Thread.currentThread();
+            if (!owner.compareAndSet(null, current)) {
+                throw new ConcurrentModificationException("parser already in use by " + owner.get());
+            }
+        }
+
+        void release() {
+            Thread current = Thread.currentThread();
+            if (!owner.compareAndSet(current, null)) {
+                throw new ConcurrentModificationException("parser not in use by " + current);
+            }
+        }
+    }
+}
@@ -0,0 +1,624 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.doi.datacite.Affiliation;
+import ca.nrc.cadc.doi.datacite.Contributor;
+import ca.nrc.cadc.doi.datacite.ContributorName;
+import ca.nrc.cadc.doi.datacite.ContributorType;
+import ca.nrc.cadc.doi.datacite.Creator;
+import ca.nrc.cadc.doi.datacite.CreatorName;
+import ca.nrc.cadc.doi.datacite.DataCiteResourceType;
+import ca.nrc.cadc.doi.datacite.Date;
+import ca.nrc.cadc.doi.datacite.DateType;
+import ca.nrc.cadc.doi.datacite.Description;
+import ca.nrc.cadc.doi.datacite.DescriptionType;
+import ca.nrc.cadc.doi.datacite.Identifier;
+import ca.nrc.cadc.doi.datacite.Language;
+import ca.nrc.cadc.doi.datacite.NameIdentifier;
+import ca.nrc.cadc.doi.datacite.NameType;
+import ca.nrc.cadc.doi.datacite.PublicationYear;
+import ca.nrc.cadc.doi.datacite.Publisher;
+import ca.nrc.cadc.doi.datacite.RelatedIdentifier;
+import ca.nrc.cadc.doi.datacite.RelatedIdentifierType;
+import ca.nrc.cadc.doi.datacite.RelationType;
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.datacite.ResourceType;
+import ca.nrc.cadc.doi.datacite.Rights;
+import ca.nrc.cadc.doi.datacite.Size;
+import ca.nrc.cadc.doi.datacite.Title;
+import ca.nrc.cadc.doi.datacite.TitleType;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import org.jdom2.Namespace;
+
+/**
+ * Assembles a Resource from the elements of a resource document, as they are read
+ * by a streaming parser. The first element of each supported name is used, and the
+ * DoiParsingException thrown for an invalid resource is for the first error in a fixed
+ * order: identifier, creators, titles, publisher, publicationYear, resourceType, then
+ * the optional elements, regardless of the order of the elements in the document.
+ * Model objects are created as soon as the element they come from has been read.
+ */
+class ResourceAssembler {
+
+    static final String XML_PREFIX = XMLConstants.XML_NS_PREFIX + ":";
+
+    /**
+     * The kinds of top level element of a resource.
+     */
+    enum Section {
+        // element with text content
+        LEAF,
+        // list of elements with leaf child elements: creators, contributors
+        NAMED_LIST,
+        // list of elements with text content
+        LEAF_LIST
+    }
+
+    // parsed top level elements: the model object(s) or the exception thrown building them
+    private final Map<String, Object> sections = new HashMap<>();
+
+    /**
+     * Get the kind of a top level element.
+     *
+     * @param name element name
+     * @return the kind of element, null if the element is not supported
+     */
+    static Section getSection(String name) {
+        switch (name) {
+            case Identifier.NAME:
+            case Publisher.NAME:
+            case PublicationYear.NAME:
+            case ResourceType.NAME:
+            case Language.NAME:
+                return Section.LEAF;
+            case DoiReader.CREATORS:
+            case DoiReader.CONTRIBUTORS:
+                return Section.NAMED_LIST;
+            case DoiReader.TITLES:
+            case DoiReader.RIGHTS_LIST:
+            case DoiReader.DATES:
+            case DoiReader.DESCRIPTIONS:
+            case DoiReader.SIZES:
+            case DoiReader.RELATED_IDENTIFIERS:
+                return Section.LEAF_LIST;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param name element name
+     * @return true if an element with the name has already been added
+     */
+    boolean hasSection(String name) {
+        return sections.containsKey(name);
+    }
+
+    /**
+     * Add a top level element with text content.
+     *
+     * @param name element name
+     * @param leaf the element
+     */
+    void addLeaf(String name, Leaf leaf) {
+        sections.put(name, buildLeaf(name, leaf));
+    }
+
+    /**
+     * Start a top level list element. The list is added when it is ended.
+     *
+     * @param name element name
+     * @return the list to add the child elements to
+     */
+    SectionList startList(String name) {
+        return new SectionList(name);
+    }
+
+    /**
+     * Build the Resource from the elements that have been added.
+     *
+     * @param ns namespace of the resource element
+     * @return the resource
+     * @throws DoiParsingException if the resource is invalid
+     */
+    Resource build(Namespace ns) throws DoiParsingException {
+        // report errors in the fixed order of the elements
+        Identifier id = getRequired(Identifier.NAME,
+                String.format("required element '%s' not found", Identifier.NAME));
+        List<Creator> creators = getRequired(DoiReader.CREATORS, "required 'creators' element not found");
+        List<Title> titles = getRequired(DoiReader.TITLES, "required 'titles' element not found");
+        Publisher publisher = getRequired(Publisher.NAME,
+                String.format("required '%s' element not found", Publisher.NAME));
+        PublicationYear publicationYear = getRequired(PublicationYear.NAME,
+                String.format("required '%s' element not found", PublicationYear.NAME));
+        ResourceType resourceType = getRequired(ResourceType.NAME,
+                String.format("required '%s' element not found", ResourceType.NAME));
+
+        Resource resource = new Resource(ns, id, creators, titles, publisher, publicationYear, resourceType);
+
+        resource.contributors = getOptional(DoiReader.CONTRIBUTORS);
+        resource.rightsList = getOptional(DoiReader.RIGHTS_LIST);
+        resource.dates = getOptional(DoiReader.DATES);
+        resource.descriptions = getOptional(DoiReader.DESCRIPTIONS);
+        resource.sizes = getOptional(DoiReader.SIZES);
+        resource.language = getOptional(Language.NAME);
+        resource.relatedIdentifiers = getOptional(DoiReader.RELATED_IDENTIFIERS);
+        return resource;
+    }
+
+    private <T> T getRequired(String name, String missingMessage) throws DoiParsingException {
+        if (!sections.containsKey(name)) {
+            throw new DoiParsingException(missingMessage);
+        }
+        return getOptional(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getOptional(String name) throws DoiParsingException {
+        Object section = sections.get(name);
+        if (section instanceof DoiParsingException) {
+            throw (DoiParsingException) section;
+        }
+        if (section instanceof RuntimeException) {
+            throw (RuntimeException) section;
+        }
+        return (T) section;
+    }
+
+    // top level elements with text content
+    private Object buildLeaf(String name, Leaf leaf) {
+        try {
+            switch (name) {
+                case Identifier.NAME:
+                    return buildIdentifier(leaf);
+                case Publisher.NAME:
+                    return buildPublisher(leaf);
+                case PublicationYear.NAME:
+                    return buildPublicationYear(leaf);
+                case ResourceType.NAME:
+                    return buildResourceType(leaf);
+                default:
+                    return buildLanguage(leaf);
+            }
+        } catch (DoiParsingException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * The child elements of a top level list element. Only the first error is kept,
+     * the child elements after it are not converted.
+     */
+    class SectionList {
+        private final String name;
+        private final List<Object> items = new ArrayList<>();
+        private Exception failure;
+
+        private SectionList(String name) {
+            this.name = name;
+        }
+
+        void add(Leaf leaf) {
+            if (failure == null) {
+                try {
+                    items.add(buildListItem(name, leaf));
+                } catch (DoiParsingException | RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        void end() {
+            if (failure != null) {
+                sections.put(name, failure);
+            } else if (DoiReader.CREATORS.equals(name) && items.isEmpty()) {
+                sections.put(name, new DoiParsingException(String.format(
+                        "%s must have at least one %s child element", DoiReader.CREATORS, Creator.NAME)));
+            } else if (DoiReader.TITLES.equals(name) && items.isEmpty()) {
+                sections.put(name, new DoiParsingException(String.format(
+                        "%s must have at least one '%s' child element", DoiReader.TITLES, Title.NAME)));
+            } else {
+                sections.put(name, items);
+            }
+        }
+    }
+
+    private Object buildListItem(String name, Leaf leaf) throws DoiParsingException {
+        switch (name) {
+            case DoiReader.CREATORS:
+                return buildCreator(leaf);
+            case DoiReader.CONTRIBUTORS:
+                return wrap(() -> buildContributor(leaf));
+            case DoiReader.TITLES:
+                return buildTitle(leaf);
+            case DoiReader.RIGHTS_LIST:
+                return wrap(() -> buildRights(leaf));
+            case DoiReader.DATES:
+                return wrap(() -> buildDate(leaf));
+            case DoiReader.DESCRIPTIONS:
+                return wrap(() -> buildDescription(leaf));
+            case DoiReader.SIZES:
+                return wrap(() -> new Size(leaf.text));
+            default:
+                return wrap(() -> buildRelatedIdentifier(leaf));
+        }
+    }
+
+    // an invalid value of a list item is reported as a DoiParsingException
+    private static <T> T wrap(Builder<T> builder) throws DoiParsingException {
+        try {
+            return builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+    }
+
+    private interface Builder<T> {
+        T build() throws DoiParsingException;
+    }
+
+    private Identifier buildIdentifier(Leaf leaf) throws DoiParsingException {
+        try {
+            return new Identifier(leaf.text, leaf.getAttribute(Identifier.IDENTIFIER_TYPE));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+    }
+
+    private Creator buildCreator(Leaf element) throws DoiParsingException {
+        Leaf creatorNameElement = element.getChild(CreatorName.NAME);
+        if (creatorNameElement == null) {
+            throw new DoiParsingException("required 'CreatorName' element not found");
+        }
+        CreatorName creatorName = new CreatorName(creatorNameElement.text);
+        String nameType = creatorNameElement.getAttribute(CreatorName.NAME_TYPE);
+        if (nameType != null) {
+            creatorName.nameType = NameType.toValue(nameType);
+        }
+        creatorName.lang = creatorNameElement.getAttribute(XML_PREFIX + CreatorName.LANG);
+
+        Creator creator = new Creator(creatorName);
+
+        // optional elements
+        Leaf givenNameElement = element.getChild(Creator.GIVEN_NAME);
+        if (givenNameElement != null) {
+            creator.givenName = givenNameElement.text;
+        }
+        Leaf familyNameElement = element.getChild(Creator.FAMILY_NAME);
+        if (familyNameElement != null) {
+            creator.familyName = familyNameElement.text;
+        }
+        creator.nameIdentifier = buildNameIdentifier(element);
+        creator.affiliation = buildAffiliation(element);
+        return creator;
+    }
+
+    private Title buildTitle(Leaf element) throws DoiParsingException {
+        Title title;
+        try {
+            title = new Title(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional
+        String titleType = element.getAttribute(Title.TITLE_TYPE);
+        if (titleType != null) {
+            title.titleType = TitleType.toValue(titleType);
+        }
+        title.lang = element.getAttribute(XML_PREFIX + Title.LANG);
+        return title;
+    }
+
+    private Publisher buildPublisher(Leaf element) throws DoiParsingException {
+        Publisher publisher;
+        try {
+            publisher = new Publisher(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attributes
+        publisher.publisherIdentifier = element.getAttribute(Publisher.PUBLISHER_IDENTIFIER);
+        publisher.publisherIdentifierScheme = element.getAttribute(Publisher.PUBLISHER_IDENTIFIER_SCHEME);
+        publisher.lang = element.getAttribute(XML_PREFIX + Publisher.LANG);
+        String schemeUri = element.getAttribute(Publisher.SCHEME_URI);
+        if (schemeUri != null) {
+            publisher.schemeURI = URI.create(schemeUri);
+        }
+        return publisher;
+    }
+
+    private PublicationYear buildPublicationYear(Leaf element) throws DoiParsingException {
+        try {
+            return new PublicationYear(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+    }
+
+    private ResourceType buildResourceType(Leaf element) throws DoiParsingException {
+        String resourceTypeGeneral = element.getAttribute(ResourceType.RESOURCE_TYPE_GENERAL);
+        ResourceType resourceType;
+        try {
+            resourceType = new ResourceType(DataCiteResourceType.toValue(resourceTypeGeneral));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+        resourceType.value = element.text;
+        return resourceType;
+    }
+
+    private Contributor buildContributor(Leaf element) throws DoiParsingException {
+        ContributorName contributorName = null;
+        Leaf contributorNameElement = element.getChild(ContributorName.NAME);
+        if (contributorNameElement != null) {
+            try {
+                contributorName = new ContributorName(contributorNameElement.text);
+            } catch (IllegalArgumentException e) {
+                throw new DoiParsingException(e.getMessage());
+            }
+            String nameType = contributorNameElement.getAttribute(ContributorName.NAME_TYPE);
+            if (nameType != null) {
+                contributorName.nameType = NameType.toValue(nameType);
+            }
+            // the language is taken from the contributor element
+            contributorName.lang = element.getAttribute(XML_PREFIX + ContributorName.LANG);
+        }
+
+        Contributor contributor;
+        try {
+            contributor = new Contributor(contributorName,
+                    ContributorType.toValue(element.getAttribute(ContributorType.NAME)));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional elements
+        Leaf givenNameElement = element.getChild(Contributor.GIVEN_NAME);
+        if (givenNameElement != null) {
+            contributor.givenName = givenNameElement.text;
+        }
+        Leaf familyNameElement = element.getChild(Contributor.FAMILY_NAME);
+        if (familyNameElement != null) {
+            contributor.familyName = familyNameElement.text;
+        }
+        contributor.nameIdentifier = buildNameIdentifier(element);
+        contributor.affiliation = buildAffiliation(element);
+        return contributor;
+    }
+
+    private Rights buildRights(Leaf element) throws DoiParsingException {
+        Rights rights;
+        try {
+            rights = new Rights(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attributes
+        String rightUri = element.getAttribute(Rights.RIGHTS_URI);
+        if (rightUri != null) {
+            rights.rightsURI = URI.create(rightUri);
+        }
+        String schemeUri = element.getAttribute(Rights.SCHEME_URI);
+        if (schemeUri != null) {
+            rights.schemeURI = URI.create(schemeUri);
+        }
+        rights.rightsIdentifier = element.getAttribute(Rights.RIGHTS_IDENTIFIER);
+        rights.rightsIdentifierScheme = element.getAttribute(Rights.RIGHTS_IDENTIFIER_SCHEME);
+        rights.lang = element.getAttribute(XML_PREFIX + Rights.LANG);
+        return rights;
+    }
+
+    private Date buildDate(Leaf element) throws DoiParsingException {
+        Date date;
+        try {
+            date = new Date(element.text, DateType.toValue(element.getAttribute(Date.DATE_TYPE)));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attribute
+        date.dateInformation = element.getAttribute(Date.DATE_INFORMATION);
+        return date;
+    }
+
+    private Description buildDescription(Leaf element) throws DoiParsingException {
+        Description description;
+        String type = element.getAttribute(Description.DESCRIPTION_TYPE);
+        try {
+            description = new Description(element.text, DescriptionType.toValue(type));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attribute
+        description.lang = element.getAttribute(XML_PREFIX + Description.LANG);
+        return description;
+    }
+
+    private Language buildLanguage(Leaf element) throws DoiParsingException {
+        try {
+            return new Language(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+    }
+
+    private RelatedIdentifier buildRelatedIdentifier(Leaf element) throws DoiParsingException {
+        RelatedIdentifier relatedIdentifier;
+        String identType = element.getAttribute(RelatedIdentifier.RELATED_IDENTIFIER_TYPE);
+        String relType = element.getAttribute(RelatedIdentifier.RELATION_TYPE);
+        try {
+            relatedIdentifier = new RelatedIdentifier(element.text,
+                    RelatedIdentifierType.toValue(identType), RelationType.toValue(relType));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attributes
+        String resourceTypeGeneral = element.getAttribute(RelatedIdentifier.RESOURCE_TYPE_GENERAL);
+        if (resourceTypeGeneral != null) {
+            relatedIdentifier.resourceTypeGeneral = DataCiteResourceType.toValue(resourceTypeGeneral);
+        }
+        String schemeURI = element.getAttribute(RelatedIdentifier.SCHEME_URI);
+        if (schemeURI != null) {
+            relatedIdentifier.schemeURI = URI.create(schemeURI);
+        }
+        relatedIdentifier.relatedMetadataScheme = element.getAttribute(RelatedIdentifier.RELATED_METADATA_SCHEME);
+        relatedIdentifier.schemeType = element.getAttribute(RelatedIdentifier.SCHEME_TYPE);
+        return relatedIdentifier;
+    }
+
+    private NameIdentifier buildNameIdentifier(Leaf parentElement) throws DoiParsingException {
+        Leaf element = parentElement.getChild(NameIdentifier.NAME);
+        if (element == null) {
+            return null;
+        }
+
+        NameIdentifier nameIdentifier;
+        try {
+            nameIdentifier = new NameIdentifier(element.text,
+                    element.getAttribute(NameIdentifier.NAME_IDENTIFIER_SCHEME));
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attribute
+        String schemeUri = element.getAttribute(NameIdentifier.SCHEME_URI);
+        if (schemeUri != null) {
+            nameIdentifier.schemeURI = URI.create(schemeUri);
+        }
+        return nameIdentifier;
+    }
+
+    private Affiliation buildAffiliation(Leaf parentElement) throws DoiParsingException {
+        Leaf element = parentElement.getChild(Affiliation.NAME);
+        if (element == null) {
+            return null;
+        }
+
+        Affiliation affiliation;
+        try {
+            affiliation = new Affiliation(element.text);
+        } catch (IllegalArgumentException e) {
+            throw new DoiParsingException(e.getMessage());
+        }
+
+        // optional attributes
+        String affiliationIdentifier = element.getAttribute(Affiliation.AFFILIATION_IDENTIFIER);
+        if (affiliationIdentifier != null) {
+            affiliation.affiliationIdentifier = affiliationIdentifier;
+        }
+        String affiliationIdentifierScheme = element.getAttribute(Affiliation.AFFILIATION_IDENTIFIER_SCHEME);
+        if (affiliationIdentifierScheme != null) {
+            affiliation.affiliationIdentifierScheme = affiliationIdentifierScheme;
+        }
+        String schemeUri = element.getAttribute(Affiliation.SCHEME_URI);
+        if (schemeUri != null) {
+            affiliation.schemeURI = URI.create(schemeUri);
+        }
+        return affiliation;
+    }
+
+    /**
+     * Attributes, text and first child elements of an element. Attributes in no
+     * namespace are keyed by local name, attributes in the XML namespace by xml:name.
+     */
+    static class Leaf {
+        final Map<String, String> attributes = new HashMap<>();
+        String text;
+        Map<String, Leaf> children;
+
+        String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        Leaf getChild(String name) {
+            return children == null ? null : children.get(name);
+        }
+
+        boolean hasChild(String name) {
+            return children != null && children.containsKey(name);
+        }
+
+        void addChild(String name, Leaf child) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            children.put(name, child);
+        }
+    }
+}
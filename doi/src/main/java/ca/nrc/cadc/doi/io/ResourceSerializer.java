@@ -0,0 +1,348 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.doi.datacite.Affiliation;
+import ca.nrc.cadc.doi.datacite.Contributor;
+import ca.nrc.cadc.doi.datacite.ContributorName;
+import ca.nrc.cadc.doi.datacite.ContributorType;
+import ca.nrc.cadc.doi.datacite.Creator;
+import ca.nrc.cadc.doi.datacite.CreatorName;
+import ca.nrc.cadc.doi.datacite.Date;
+import ca.nrc.cadc.doi.datacite.Description;
+import ca.nrc.cadc.doi.datacite.Identifier;
+import ca.nrc.cadc.doi.datacite.Language;
+import ca.nrc.cadc.doi.datacite.NameIdentifier;
+import ca.nrc.cadc.doi.datacite.PublicationYear;
+import ca.nrc.cadc.doi.datacite.Publisher;
+import ca.nrc.cadc.doi.datacite.RelatedIdentifier;
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.datacite.ResourceType;
+import ca.nrc.cadc.doi.datacite.Rights;
+import ca.nrc.cadc.doi.datacite.Size;
+import ca.nrc.cadc.doi.datacite.Title;
+import ca.nrc.cadc.util.StringUtil;
+import java.io.IOException;
+import java.net.URI;
+import org.jdom2.Namespace;
+
+/**
+ * Writes a Resource as a sequence of element events, without building a document.
+ * The elements, and the attributes of each element, are in the order of the DataCite
+ * schema used by the service documents. Subclasses write the events to an output.
+ */
+abstract class ResourceSerializer {
+
+    static final String XML_PREFIX = ResourceAssembler.XML_PREFIX;
+
+    /**
+     * Start the document.
+     *
+     * @param ns namespace of the resource elements
+     */
+    protected abstract void startDocument(Namespace ns) throws IOException;
+
+    protected abstract void endDocument() throws IOException;
+
+    /**
+     * Start an element. The attributes of the element are written before its text
+     * or child elements.
+     *
+     * @param name element name
+     */
+    protected abstract void startElement(String name) throws IOException;
+
+    /**
+     * Write an attribute of the current element, attributes in the XML namespace
+     * are named xml:name.
+     *
+     * @param name attribute name
+     * @param value attribute value, the attribute is not written if null
+     */
+    protected abstract void attribute(String name, String value) throws IOException;
+
+    protected abstract void text(String text) throws IOException;
+
+    protected abstract void endElement() throws IOException;
+
+    void write(Resource resource) throws IOException {
+        startDocument(resource.getNamespace());
+        startElement(Resource.NAME);
+
+        // required elements
+        writeIdentifier(resource.getIdentifier());
+        startElement(DoiReader.CREATORS);
+        for (Creator creator : resource.getCreators()) {
+            writeCreator(creator);
+        }
+        endElement();
+        startElement(DoiReader.TITLES);
+        for (Title title : resource.getTitles()) {
+            writeTitle(title);
+        }
+        endElement();
+        writePublisher(resource.getPublisher());
+        writeElement(PublicationYear.NAME, String.valueOf(resource.getPublicationYear().getValue()));
+        writeResourceType(resource.getResourceType());
+
+        // optional elements
+        if (resource.contributors != null) {
+            startElement(DoiReader.CONTRIBUTORS);
+            for (Contributor contributor : resource.contributors) {
+                writeContributor(contributor);
+            }
+            endElement();
+        }
+        if (resource.rightsList != null) {
+            startElement(DoiReader.RIGHTS_LIST);
+            for (Rights rights : resource.rightsList) {
+                writeRights(rights);
+            }
+            endElement();
+        }
+        if (resource.dates != null) {
+            startElement(DoiReader.DATES);
+            for (Date date : resource.dates) {
+                startElement(Date.NAME);
+                attribute(Date.DATE_TYPE, date.getDateType().getValue());
+                attribute(Date.DATE_INFORMATION, date.dateInformation);
+                text(date.getValue());
+                endElement();
+            }
+            endElement();
+        }
+        if (resource.descriptions != null) {
+            startElement(DoiReader.DESCRIPTIONS);
+            for (Description description : resource.descriptions) {
+                startElement(Description.NAME);
+                attribute(Description.DESCRIPTION_TYPE, description.getDescriptionType().getValue());
+                attribute(XML_PREFIX + Description.LANG, description.lang);
+                text(description.getValue());
+                endElement();
+            }
+            endElement();
+        }
+        if (resource.sizes != null) {
+            startElement(DoiReader.SIZES);
+            for (Size size : resource.sizes) {
+                writeElement(Size.NAME, size.getValue());
+            }
+            endElement();
+        }
+        if (resource.language != null) {
+            writeElement(Language.NAME, resource.language.getValue());
+        }
+        if (resource.relatedIdentifiers != null) {
+            startElement(DoiReader.RELATED_IDENTIFIERS);
+            for (RelatedIdentifier relatedIdentifier : resource.relatedIdentifiers) {
+                writeRelatedIdentifier(relatedIdentifier);
+            }
+            endElement();
+        }
+
+        endElement();
+        endDocument();
+    }
+
+    private void writeIdentifier(Identifier identifier) throws IOException {
+        startElement(Identifier.NAME);
+        attribute(Identifier.IDENTIFIER_TYPE, identifier.getIdentifierType());
+        text(identifier.getValue());
+        endElement();
+    }
+
+    private void writeCreator(Creator creator) throws IOException {
+        startElement(Creator.NAME);
+        CreatorName creatorName = creator.getCreatorName();
+        startElement(CreatorName.NAME);
+        attribute(CreatorName.NAME_TYPE, creatorName.nameType == null ? null : creatorName.nameType.getValue());
+        attribute(XML_PREFIX + CreatorName.LANG, creatorName.lang);
+        text(creatorName.getValue());
+        endElement();
+        if (creator.givenName != null) {
+            writeElement(Creator.GIVEN_NAME, creator.givenName);
+        }
+        if (creator.familyName != null) {
+            writeElement(Creator.FAMILY_NAME, creator.familyName);
+        }
+        if (creator.nameIdentifier != null) {
+            writeNameIdentifier(creator.nameIdentifier);
+        }
+        if (creator.affiliation != null) {
+            writeAffiliation(creator.affiliation);
+        }
+        endElement();
+    }
+
+    private void writeNameIdentifier(NameIdentifier nameIdentifier) throws IOException {
+        startElement(NameIdentifier.NAME);
+        attribute(NameIdentifier.NAME_IDENTIFIER_SCHEME, nameIdentifier.getNameIdentifierScheme());
+        attribute(NameIdentifier.SCHEME_URI, toString(nameIdentifier.schemeURI));
+        text(nameIdentifier.getValue());
+        endElement();
+    }
+
+    private void writeAffiliation(Affiliation affiliation) throws IOException {
+        startElement(Affiliation.NAME);
+        attribute(Affiliation.AFFILIATION_IDENTIFIER, affiliation.affiliationIdentifier);
+        attribute(Affiliation.AFFILIATION_IDENTIFIER_SCHEME, affiliation.affiliationIdentifierScheme);
+        attribute(Affiliation.SCHEME_URI, toString(affiliation.schemeURI));
+        text(affiliation.getValue());
+        endElement();
+    }
+
+    private void writeTitle(Title title) throws IOException {
+        startElement(Title.NAME);
+        attribute(Title.TITLE_TYPE, title.titleType == null ? null : title.titleType.getValue());
+        attribute(XML_PREFIX + Title.LANG, title.lang);
+        text(title.getValue());
+        endElement();
+    }
+
+    private void writePublisher(Publisher publisher) throws IOException {
+        startElement(Publisher.NAME);
+        attribute(Publisher.PUBLISHER_IDENTIFIER, publisher.publisherIdentifier);
+        attribute(Publisher.PUBLISHER_IDENTIFIER_SCHEME, publisher.publisherIdentifierScheme);
+        attribute(Publisher.SCHEME_URI, toString(publisher.schemeURI));
+        attribute(XML_PREFIX + Publisher.LANG, publisher.lang);
+        text(publisher.getValue());
+        endElement();
+    }
+
+    private void writeResourceType(ResourceType resourceType) throws IOException {
+        startElement(ResourceType.NAME);
+        attribute(ResourceType.RESOURCE_TYPE_GENERAL, resourceType.getResourceTypeGeneral().getValue());
+        text(resourceType.value);
+        endElement();
+    }
+
+    private void writeContributor(Contributor contributor) throws IOException {
+        startElement(Contributor.NAME);
+        attribute(ContributorType.NAME, contributor.getContributorType().getValue());
+        ContributorName contributorName = contributor.getContributorName();
+        startElement(ContributorName.NAME);
+        attribute(ContributorName.NAME_TYPE,
+                contributorName.nameType == null ? null : contributorName.nameType.getValue());
+        attribute(XML_PREFIX + ContributorName.LANG, contributorName.lang);
+        text(contributorName.getValue());
+        endElement();
+        if (contributor.givenName != null) {
+            writeElement(Contributor.GIVEN_NAME, contributor.givenName);
+        }
+        if (contributor.familyName != null) {
+            writeElement(Contributor.FAMILY_NAME, contributor.familyName);
+        }
+        if (contributor.nameIdentifier != null) {
+            writeNameIdentifier(contributor.nameIdentifier);
+        }
+        if (contributor.affiliation != null) {
+            writeAffiliation(contributor.affiliation);
+        }
+        endElement();
+    }
+
+    private void writeRights(Rights rights) throws IOException {
+        startElement(Rights.NAME);
+        attribute(Rights.RIGHTS_URI, toString(rights.rightsURI));
+        attribute(Rights.RIGHTS_IDENTIFIER, rights.rightsIdentifier);
+        attribute(Rights.RIGHTS_IDENTIFIER_SCHEME, rights.rightsIdentifierScheme);
+        attribute(Rights.SCHEME_URI, toString(rights.schemeURI));
+        attribute(XML_PREFIX + Rights.LANG, rights.lang);
+        text(rights.getValue());
+        endElement();
+    }
+
+    private void writeRelatedIdentifier(RelatedIdentifier relatedIdentifier) throws IOException {
+        startElement(RelatedIdentifier.NAME);
+        attribute(RelatedIdentifier.RELATED_IDENTIFIER_TYPE, relatedIdentifier.getRelatedIdentifierType().getValue());
+        attribute(RelatedIdentifier.RELATION_TYPE, relatedIdentifier.getRelationType().getValue());
+        if (relatedIdentifier.resourceTypeGeneral != null) {
+            attribute(RelatedIdentifier.RESOURCE_TYPE_GENERAL, relatedIdentifier.resourceTypeGeneral.getValue());
+        }
+        if (StringUtil.hasText(relatedIdentifier.relatedMetadataScheme)) {
+            attribute(RelatedIdentifier.RELATED_METADATA_SCHEME, relatedIdentifier.relatedMetadataScheme);
+        }
+        attribute(RelatedIdentifier.SCHEME_URI, toString(relatedIdentifier.schemeURI));
+        if (StringUtil.hasText(relatedIdentifier.schemeType)) {
+            attribute(RelatedIdentifier.SCHEME_TYPE, relatedIdentifier.schemeType);
+        }
+        text(relatedIdentifier.getValue());
+        endElement();
+    }
+
+    private void writeElement(String name, String text) throws IOException {
+        startElement(name);
+        text(text);
+        endElement();
+    }
+
+    private static String toString(URI uri) {
+        return uri == null ? null : uri.toString();
+    }
+}
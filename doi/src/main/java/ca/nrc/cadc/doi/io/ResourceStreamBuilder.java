@@ -0,0 +1,225 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.ResourceAssembler.Leaf;
+import ca.nrc.cadc.doi.io.ResourceAssembler.SectionList;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.jdom2.Namespace;
+
+/**
+ * Builds a Resource from an XMLStreamReader in a single pass, without an intermediate
+ * document. The result, and the DoiParsingException thrown for an invalid resource,
+ * are those of ResourceAssembler: the first element of each supported name in the
+ * resource namespace is used, other elements are skipped, and errors are reported in
+ * the order ResourceAssembler checks the elements, regardless of the order of the
+ * elements in the document. Model objects are created as soon as the element they
+ * come from has been read; only the leaf elements of a creator or contributor are
+ * held until the creator or contributor element ends.
+ */
+class ResourceStreamBuilder {
+
+    private final XMLStreamReader reader;
+    private final ResourceAssembler assembler = new ResourceAssembler();
+
+    ResourceStreamBuilder(XMLStreamReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the document and build the Resource.
+     *
+     * @return the resource
+     * @throws DoiParsingException if the resource is invalid
+     * @throws XMLStreamException if the document is not well-formed or fails validation
+     */
+    Resource build() throws DoiParsingException, XMLStreamException {
+        while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+            // skip prolog
+        }
+        String nsURI = nonNull(reader.getNamespaceURI());
+        Namespace ns = Namespace.getNamespace(nonNull(reader.getPrefix()), nsURI);
+
+        while (nextChild()) {
+            String name = reader.getLocalName();
+            ResourceAssembler.Section section = ResourceAssembler.getSection(name);
+            if (section == null || !nsURI.equals(nonNull(reader.getNamespaceURI()))
+                    || assembler.hasSection(name)) {
+                skipElement();
+                continue;
+            }
+            if (section == ResourceAssembler.Section.LEAF) {
+                assembler.addLeaf(name, readLeaf(null));
+            } else {
+                // creators and contributors have leaf child elements
+                String childNamespace = section == ResourceAssembler.Section.NAMED_LIST ? nsURI : null;
+                SectionList list = assembler.startList(name);
+                while (nextChild()) {
+                    list.add(readLeaf(childNamespace));
+                }
+                list.end();
+            }
+        }
+
+        // consume the rest of the document
+        while (reader.hasNext()) {
+            reader.next();
+        }
+        return assembler.build(ns);
+    }
+    /**
+     * Advance to the start of the next child element of the current element.
+     *
+     * @return false when the end of the current element is reached
+     */
+    private boolean nextChild() throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Read the current element: its attributes, its own text (the text of child elements
+     * is not included) and, if childNamespace is not null, the first child element of
+     * each name in that namespace.
+     */
+    private Leaf readLeaf(String childNamespace) throws XMLStreamException {
+        Leaf leaf = new Leaf();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            String localName = reader.getAttributeLocalName(i);
+            if (namespace == null || namespace.isEmpty()) {
+                leaf.attributes.put(localName, reader.getAttributeValue(i));
+            } else if (XMLConstants.XML_NS_URI.equals(namespace)) {
+                leaf.attributes.put(ResourceAssembler.XML_PREFIX + localName, reader.getAttributeValue(i));
+            }
+        }
+
+        StringBuilder text = null;
+        String single = "";
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    // most elements have a single text event, avoid copying it
+                    if (text != null) {
+                        text.append(reader.getText());
+                    } else if (single.isEmpty()) {
+                        single = reader.getText();
+                    } else {
+                        text = new StringBuilder(single).append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    String name = reader.getLocalName();
+                    if (childNamespace != null && childNamespace.equals(nonNull(reader.getNamespaceURI()))
+                            && !leaf.hasChild(name)) {
+                        leaf.addChild(name, readLeaf(null));
+                    } else {
+                        skipElement();
+                    }
+                    break;
+                default:
+                    // comments and processing instructions
+            }
+        }
+        leaf.text = text == null ? single : text.toString();
+        return leaf;
+    }
+
+    private static String nonNull(String s) {
+        return s == null ? "" : s;
+    }
+}
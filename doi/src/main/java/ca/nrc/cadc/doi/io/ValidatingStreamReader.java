@@ -0,0 +1,255 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.ValidatorHandler;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * XMLStreamReader that validates the document while it is being read: every event
+ * pulled with next() is also passed to a schema ValidatorHandler, and a validation
+ * error is thrown from next() as an XMLStreamException. The document is read once.
+ *
+ * <p>Only next() forwards events, so callers must not use the convenience methods
+ * that advance the reader (nextTag, getElementText).</p>
+ */
+class ValidatingStreamReader extends StreamReaderDelegate {
+
+    private final ValidatorHandler validator;
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    /**
+     * @param reader the reader, positioned at the start of the document
+     * @param validator the validator, may be re-used for another document once this one is read
+     * @throws XMLStreamException if the validator fails to start
+     */
+    ValidatingStreamReader(XMLStreamReader reader, ValidatorHandler validator) throws XMLStreamException {
+        super(reader);
+        this.validator = validator;
+        validator.setErrorHandler(new FailingErrorHandler());
+        validator.setContentHandler(null);
+        validator.setDocumentLocator(new StreamLocator());
+        try {
+            validator.startDocument();
+        } catch (SAXException ex) {
+            throw toStreamException(ex);
+        }
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        try {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    validator.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    validator.endDocument();
+                    break;
+                default:
+                    // comments and processing instructions are not validated
+            }
+        } catch (SAXException ex) {
+            throw toStreamException(ex);
+        }
+        return event;
+    }
+
+    private void startElement() throws SAXException {
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validator.startPrefixMapping(nonNull(getNamespacePrefix(i)), nonNull(getNamespaceURI(i)));
+        }
+        attributes.clear();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            String prefix = getAttributePrefix(i);
+            String localName = getAttributeLocalName(i);
+            String qname = prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+            attributes.addAttribute(nonNull(getAttributeNamespace(i)), localName, qname,
+                    getAttributeType(i), getAttributeValue(i));
+        }
+        validator.startElement(nonNull(getNamespaceURI()), getLocalName(), getQName(), attributes);
+    }
+
+    private void endElement() throws SAXException {
+        validator.endElement(nonNull(getNamespaceURI()), getLocalName(), getQName());
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validator.endPrefixMapping(nonNull(getNamespacePrefix(i)));
+        }
+    }
+
+    private String getQName() {
+        String prefix = getPrefix();
+        return prefix == null || prefix.isEmpty() ? getLocalName() : prefix + ":" + getLocalName();
+    }
+
+    private static String nonNull(String s) {
+        return s == null ? XMLConstants.NULL_NS_URI : s;
+    }
+
+    private XMLStreamException toStreamException(SAXException ex) {
+        if (ex instanceof SAXParseException) {
+            SAXParseException pe = (SAXParseException) ex;
+            return new XMLStreamException(ex.getMessage(),
+                    new ErrorLocation(pe.getLineNumber(), pe.getColumnNumber()), ex);
+        }
+        return new XMLStreamException(ex.getMessage(), getLocation(), ex);
+    }
+
+    private static class FailingErrorHandler implements ErrorHandler {
+        @Override
+        public void warning(SAXParseException exception) {
+            // ignore
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    }
+
+    private class StreamLocator implements Locator {
+        @Override
+        public String getPublicId() {
+            return getLocation().getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            return getLocation().getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            return getLocation().getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return getLocation().getColumnNumber();
+        }
+    }
+
+    private static class ErrorLocation implements Location {
+        private final int line;
+        private final int column;
+
+        ErrorLocation(int line, int column) {
+            this.line = line;
+            this.column = column;
+        }
+
+        @Override
+        public int getLineNumber() {
+            return line;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return column;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        @Override
+        public String getPublicId() {
+            return null;
+        }
+
+        @Override
+        public String getSystemId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.jdom2.Namespace;
+
+/**
+ * Writes Resource element events as XML. The pretty output is the same as the output
+ * of the JDOM XMLOutputter with the pretty format: 2 space indentation, CRLF line
+ * separators, trimmed text and empty elements written as &lt;name /&gt;. The compact
+ * output has no indentation or line separators between elements.
+ */
+class XmlResourceSerializer extends ResourceSerializer {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final String INDENT = "  ";
+
+    private final Writer writer;
+    private final boolean prettyPrint;
+
+    private String prefix;
+    private Namespace namespace;
+    private final Deque<Frame> elements = new ArrayDeque<>();
+
+    // an open element
+    private static class Frame {
+        final String name;
+        boolean startTagOpen = true;
+        boolean hasText;
+        boolean hasChildren;
+
+        Frame(String name) {
+            this.name = name;
+        }
+    }
+
+    XmlResourceSerializer(Writer writer, boolean prettyPrint) {
+        this.writer = writer;
+        this.prettyPrint = prettyPrint;
+    }
+
+    @Override
+    protected void startDocument(Namespace ns) throws IOException {
+        this.namespace = ns;
+        this.prefix = ns.getPrefix().isEmpty() ? "" : ns.getPrefix() + ":";
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    protected void endDocument() throws IOException {
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    protected void startElement(String name) throws IOException {
+        Frame parent = elements.peek();
+        if (parent != null) {
+            closeStartTag(parent);
+            parent.hasChildren = true;
+            writeIndent(elements.size());
+        }
+        String qualifiedName = prefix + name;
+        writer.write('<');
+        writer.write(qualifiedName);
+        if (parent == null && !namespace.getURI().isEmpty()) {
+            writer.write(prefix.isEmpty() ? " xmlns" : " xmlns:" + namespace.getPrefix());
+            writer.write("=\"");
+            writeEscaped(namespace.getURI(), true);
+            writer.write('"');
+        }
+        elements.push(new Frame(qualifiedName));
+    }
+
+    @Override
+    protected void attribute(String name, String value) throws IOException {
+        if (value != null) {
+            writer.write(' ');
+            writer.write(name);
+            writer.write("=\"");
+            writeEscaped(value, true);
+            writer.write('"');
+        }
+    }
+
+    @Override
+    protected void text(String text) throws IOException {
+        String trimmed = trim(text);
+        if (!trimmed.isEmpty()) {
+            Frame current = elements.peek();
+            closeStartTag(current);
+            current.hasText = true;
+            writeEscaped(trimmed, false);
+        }
+    }
+
+    @Override
+    protected void endElement() throws IOException {
+        Frame current = elements.pop();
+        if (current.startTagOpen) {
+            writer.write(" />");
+            return;
+        }
+        if (current.hasChildren && !current.hasText) {
+            writeIndent(elements.size());
+        }
+        writer.write("</");
+        writer.write(current.name);
+        writer.write('>');
+    }
+
+    private void closeStartTag(Frame frame) throws IOException {
+        if (frame.startTagOpen) {
+            writer.write('>');
+            frame.startTagOpen = false;
+        }
+    }
+
+    private void writeIndent(int level) throws IOException {
+        if (prettyPrint) {
+            writer.write(LINE_SEPARATOR);
+            for (int i = 0; i < level; i++) {
+                writer.write(INDENT);
+            }
+        }
+    }
+
+    // trim XML white space from both ends
+    private static String trim(String text) {
+        if (text == null) {
+            return "";
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    // escape as the JDOM outputter does for UTF-8 output
+    private void writeEscaped(String s, boolean attribute) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '\r':
+                    writer.write("&#xD;");
+                    break;
+                case '"':
+                    writer.write(attribute ? "&quot;" : "\"");
+                    break;
+                case '\t':
+                    writer.write(attribute ? "&#x9;" : "\t");
+                    break;
+                case '\n':
+                    writer.write(attribute ? "&#xA;" : LINE_SEPARATOR);
+                    break;
+                default:
+                    if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                            && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        writer.write("&#x" + Integer.toHexString(Character.toCodePoint(c, s.charAt(++i))) + ";");
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide latency histograms and counters of the service: the time spent in each
+ * phase of the actions, and the time and outcome of the calls to other services by
+ * target (vospace, gms, ac, registry, datacite) and operation. The metrics are kept
+ * from the start of the service and written in the Prometheus text format.
+ */
+public class DoiMetrics {
+
+    // targets of the outbound calls
+    public static final String VOSPACE = "vospace";
+    public static final String GMS = "gms";
+    public static final String AC = "ac";
+    public static final String REGISTRY = "registry";
+    public static final String DATACITE = "datacite";
+
+    // phases of the actions
+    public static final String INIT = "init";
+    public static final String AUTHORIZE = "authorize";
+    public static final String LIST = "list";
+    public static final String RESOLVE = "resolve";
+    public static final String EXECUTE = "execute";
+    public static final String WRITE = "write";
+
+    static final String PHASE_METRIC = "doi_action_phase_seconds";
+    static final String CALL_METRIC = "doi_outbound_call_seconds";
+    static final String FAILURE_METRIC = "doi_outbound_call_failures_total";
+    static final String RETRY_METRIC = "doi_outbound_call_retries_total";
+
+    // upper bounds of the exported histogram buckets, in seconds
+    static final double[] BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0,
+        30.0, 60.0, 300.0};
+    private static final long[] BUCKET_MICROS = new long[BUCKETS.length];
+
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKET_MICROS[i] = Math.round(BUCKETS[i] * 1e6);
+        }
+    }
+
+    private static final ConcurrentMap<Labels, Histogram> PHASES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Labels, Histogram> CALLS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Labels, LongAdder> FAILURES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Labels, LongAdder> RETRIES = new ConcurrentHashMap<>();
+
+    private DoiMetrics() {
+    }
+
+    /**
+     * Record the time spent in a phase of an action.
+     *
+     * @param action name of the action
+     * @param phase phase of the action
+     * @param nanos duration in nanoseconds
+     */
+    public static void recordPhase(String action, String phase, long nanos) {
+        PHASES.computeIfAbsent(new Labels("action", action, "phase", phase), k -> new Histogram())
+                .record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Record a call to another service.
+     *
+     * @param target the service called
+     * @param operation the operation called
+     * @param nanos duration in nanoseconds, including retries
+     * @param success false if the call failed
+     */
+    public static void recordCall(String target, String operation, long nanos, boolean success) {
+        Labels labels = new Labels("target", target, "operation", operation);
+        CALLS.computeIfAbsent(labels, k -> new Histogram()).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (!success) {
+            FAILURES.computeIfAbsent(labels, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Record the retry of a call to another service.
+     *
+     * @param target the service called
+     * @param operation the operation called
+     */
+    public static void recordRetry(String target, String operation) {
+        RETRIES.computeIfAbsent(new Labels("target", target, "operation", operation), k -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * @param target the service called
+     * @param operation the operation called
+     * @return the number of calls recorded
+     */
+    public static long getCallCount(String target, String operation) {
+        Histogram histogram = CALLS.get(new Labels("target", target, "operation", operation));
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * @param target the service called
+     * @param operation the operation called
+     * @return the number of failed calls recorded
+     */
+    public static long getFailureCount(String target, String operation) {
+        return getCount(FAILURES, new Labels("target", target, "operation", operation));
+    }
+
+    /**
+     * @param target the service called
+     * @param operation the operation called
+     * @return the number of retries recorded
+     */
+    public static long getRetryCount(String target, String operation) {
+        return getCount(RETRIES, new Labels("target", target, "operation", operation));
+    }
+
+    private static long getCount(Map<Labels, LongAdder> counters, Labels labels) {
+        LongAdder counter = counters.get(labels);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Write the metrics in the Prometheus text exposition format.
+     *
+     * @param writer writer to write to
+     * @throws IOException if the writer fails to write
+     */
+    public static void write(Writer writer) throws IOException {
+        writeHistogram(writer, PHASE_METRIC, "Time spent in the phases of the service actions.", PHASES);
+        writeHistogram(writer, CALL_METRIC, "Time of the calls to other services, including retries.", CALLS);
+        writeCounter(writer, FAILURE_METRIC, "Failed calls to other services.", FAILURES);
+        writeCounter(writer, RETRY_METRIC, "Retried calls to other services.", RETRIES);
+        writer.flush();
+    }
+
+    // forget all the metrics
+    static void reset() {
+        PHASES.clear();
+        CALLS.clear();
+        FAILURES.clear();
+        RETRIES.clear();
+    }
+
+    // cumulative buckets, sum and count of each histogram; the +Inf bucket and the
+    // count are taken from the same snapshot of the buckets
+    private static void writeHistogram(Writer writer, String name, String help, Map<Labels, Histogram> histograms)
+            throws IOException {
+        writer.write(String.format("# HELP %s %s\n# TYPE %s histogram\n", name, help, name));
+        for (Map.Entry<Labels, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long[] counts = histogram.getCumulativeCounts(BUCKET_MICROS);
+            for (int i = 0; i < BUCKETS.length; i++) {
+                writeSample(writer, name + "_bucket", entry.getKey().format("le", Double.toString(BUCKETS[i])),
+                        Long.toString(counts[i]));
+            }
+            long count = counts[BUCKETS.length];
+            writeSample(writer, name + "_bucket", entry.getKey().format("le", "+Inf"), Long.toString(count));
+            writeSample(writer, name + "_sum", entry.getKey().format(), toSeconds(histogram.getSum()));
+            writeSample(writer, name + "_count", entry.getKey().format(), Long.toString(count));
+        }
+    }
+
+    private static void writeCounter(Writer writer, String name, String help, Map<Labels, LongAdder> counters)
+            throws IOException {
+        writer.write(String.format("# HELP %s %s\n# TYPE %s counter\n", name, help, name));
+        for (Map.Entry<Labels, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            writeSample(writer, name, entry.getKey().format(), Long.toString(entry.getValue().sum()));
+        }
+    }
+
+    private static void writeSample(Writer writer, String name, String labels, String value) throws IOException {
+        writer.write(name);
+        writer.write(labels);
+        writer.write(' ');
+        writer.write(value);
+        writer.write('\n');
+    }
+
+    private static String toSeconds(long micros) {
+        return Double.toString(micros / 1e6);
+    }
+
+    // label names and values of a metric, in order
+    static class Labels implements Comparable<Labels> {
+        private final List<String> values = new ArrayList<>();
+
+        Labels(String... namesAndValues) {
+            for (String s : namesAndValues) {
+                values.add(String.valueOf(s));
+            }
+        }
+
+        // {name1="value1",name2="value2"[,extraName="extraValue"]}
+        String format(String... extra) {
+            StringBuilder sb = new StringBuilder("{");
+            append(sb, values);
+            if (extra.length > 0) {
+                sb.append(',');
+                append(sb, List.of(extra));
+            }
+            return sb.append('}').toString();
+        }
+
+        private static void append(StringBuilder sb, List<String> namesAndValues) {
+            for (int i = 0; i < namesAndValues.size(); i += 2) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(namesAndValues.get(i)).append("=\"");
+                for (char c : namesAndValues.get(i + 1).toCharArray()) {
+                    if (c == '\\' || c == '"') {
+                        sb.append('\\').append(c);
+                    } else if (c == '\n') {
+                        sb.append("\\n");
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                sb.append('"');
+            }
+        }
+
+        @Override
+        public int compareTo(Labels other) {
+            for (int i = 0; i < Math.min(values.size(), other.values.size()); i++) {
+                int c = values.get(i).compareTo(other.values.get(i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(values.size(), other.values.size());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Labels && values.equals(((Labels) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(values);
+        }
+    }
+}
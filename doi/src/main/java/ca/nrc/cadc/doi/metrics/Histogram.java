@@ -0,0 +1,208 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in microseconds with buckets in the style of HdrHistogram:
+ * each power of two range is divided into 32 buckets of equal width, so a value is
+ * counted in a bucket at most about 3% wider than the value, and values below 64
+ * are counted exactly. Values above about 71 minutes are counted in the last bucket.
+ * Recording a value is lock free and does not allocate; the histogram is updated
+ * concurrently by the request threads.
+ */
+public class Histogram {
+
+    // number of bits of a value kept in its bucket index: 32 buckets per power of two
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest value counted in its own bucket.
+     */
+    public static final long MAX_VALUE = (1L << 32) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(getIndex(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram() {
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value duration in microseconds, negative values are recorded as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(getIndex(Math.min(v, MAX_VALUE)));
+        count.increment();
+        sum.add(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the value at a quantile: the highest value of the bucket that holds the
+     * value at this rank, but not more than the highest recorded value.
+     *
+     * @param quantile quantile between 0 and 1
+     * @return value at the quantile, 0 if no value has been recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(getHighestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Count the values at or below each bound from one snapshot of the buckets. The
+     * buckets are counted whole: a bucket is counted at the first bound that is not
+     * below its highest value, so a value in the bucket that holds a bound may be
+     * counted at the next bound.
+     *
+     * @param bounds increasing values
+     * @return the number of values at or below each bound, followed by the number of values
+     */
+    public long[] getCumulativeCounts(long... bounds) {
+        long[] cumulative = new long[bounds.length + 1];
+        int bound = 0;
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long n = counts.get(i);
+            if (n == 0) {
+                continue;
+            }
+            while (bound < bounds.length && getHighestValue(i) > bounds[bound]) {
+                cumulative[bound++] = total;
+            }
+            total += n;
+        }
+        while (bound < bounds.length) {
+            cumulative[bound++] = total;
+        }
+        cumulative[bounds.length] = total;
+        return cumulative;
+    }
+
+    // values below 2 * SUB_BUCKET_COUNT have their own bucket, larger values keep
+    // their SUB_BUCKET_BITS + 1 highest bits
+    static int getIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (int) (shift * SUB_BUCKET_COUNT + (value >> shift));
+    }
+
+    static long getLowestValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (index - shift * SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long getHighestValue(int index) {
+        return getLowestValue(index + 1) - 1;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import java.util.Date;
+
+/**
+ * A request to mint a DOI, run by the MintQueue. The job records the attempts made and
+ * when the next attempt is due, so it can be resumed after a restart.
+ */
+public class MintJob {
+
+    public enum Phase {
+        // waiting for the first or the next attempt
+        QUEUED,
+        // an attempt is running
+        EXECUTING,
+        // the DOI was minted
+        COMPLETED,
+        // minting failed and is not retried
+        ERROR;
+
+        public boolean isFinal() {
+            return this == COMPLETED || this == ERROR;
+        }
+    }
+
+    private final String id;
+    private final String doiSuffix;
+    private final long created;
+    private volatile Phase phase;
+    private volatile int attempts;
+    private volatile long updated;
+    private volatile long nextAttempt;
+    private volatile String error;
+
+    /**
+     * Constructor.
+     *
+     * @param id job ID
+     * @param doiSuffix suffix of the DOI to mint
+     * @param created creation time in milliseconds since the epoch
+     */
+    public MintJob(String id, String doiSuffix, long created) {
+        if (id == null || doiSuffix == null) {
+            throw new IllegalArgumentException("id and doiSuffix are required");
+        }
+        this.id = id;
+        this.doiSuffix = doiSuffix;
+        this.created = created;
+        this.phase = Phase.QUEUED;
+        this.updated = created;
+        this.nextAttempt = created;
+    }
+
+    public String getID() {
+        return id;
+    }
+
+    public String getDoiSuffix() {
+        return doiSuffix;
+    }
+
+    public Date getCreated() {
+        return new Date(created);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Date getUpdated() {
+        return new Date(updated);
+    }
+
+    public Date getNextAttempt() {
+        return new Date(nextAttempt);
+    }
+
+    /**
+     * @return the error of the last failed attempt, null if there is none
+     */
+    public String getError() {
+        return error;
+    }
+
+    long getCreatedMillis() {
+        return created;
+    }
+
+    long getUpdatedMillis() {
+        return updated;
+    }
+
+    long getNextAttemptMillis() {
+        return nextAttempt;
+    }
+
+    void setPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    void setNextAttempt(long nextAttempt) {
+        this.nextAttempt = nextAttempt;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MintJob[%s, %s, %s, attempts=%d]", id, doiSuffix, phase, attempts);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.Logger;
+
+/**
+ * Durable store of mint jobs. Each job is saved in its own file in the store directory,
+ * written to a temporary file and renamed so a crash leaves either the previous or the
+ * new state of the job.
+ */
+public class MintJobStore {
+    private static final Logger log = Logger.getLogger(MintJobStore.class);
+
+    static final String JOB_FILE_EXTENSION = ".job";
+    static final String INVALID_FILE_EXTENSION = ".invalid";
+
+    private static final String ID = "id";
+    private static final String DOI_SUFFIX = "doiSuffix";
+    private static final String PHASE = "phase";
+    private static final String ATTEMPTS = "attempts";
+    private static final String CREATED = "created";
+    private static final String UPDATED = "updated";
+    private static final String NEXT_ATTEMPT = "nextAttempt";
+    private static final String ERROR = "error";
+
+    private final File dir;
+    private final Map<String, MintJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param dir directory of the job files, created if it does not exist
+     */
+    public MintJobStore(File dir) {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("cannot create mint job directory: " + dir);
+        }
+        this.dir = dir;
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Load the jobs saved in the store directory. A file that cannot be read is renamed
+     * with the INVALID_FILE_EXTENSION, so it is kept for inspection and not loaded again.
+     *
+     * @return the loaded jobs, oldest first
+     */
+    public synchronized List<MintJob> load() {
+        jobs.clear();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(JOB_FILE_EXTENSION));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    MintJob job = read(file);
+                    jobs.put(job.getID(), job);
+                } catch (IOException | RuntimeException ex) {
+                    quarantine(file, ex);
+                }
+            }
+        }
+        log.info(String.format("loaded mint jobs from %s: %d", dir, jobs.size()));
+        return getAll();
+    }
+
+    /**
+     * Save the current state of a job.
+     *
+     * @param job the job
+     * @throws IOException if the job file cannot be written
+     */
+    public void save(MintJob job) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(ID, job.getID());
+        props.setProperty(DOI_SUFFIX, job.getDoiSuffix());
+        props.setProperty(PHASE, job.getPhase().name());
+        props.setProperty(ATTEMPTS, Integer.toString(job.getAttempts()));
+        props.setProperty(CREATED, Long.toString(job.getCreatedMillis()));
+        props.setProperty(UPDATED, Long.toString(job.getUpdatedMillis()));
+        props.setProperty(NEXT_ATTEMPT, Long.toString(job.getNextAttemptMillis()));
+        if (job.getError() != null) {
+            props.setProperty(ERROR, job.getError());
+        }
+
+        File file = getFile(job.getID());
+        File tmp = new File(dir, job.getID() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            props.store(out, null);
+            // the content must be on disk before the rename makes it the job file
+            out.getFD().sync();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        jobs.put(job.getID(), job);
+        log.debug("saved " + job);
+    }
+
+    public MintJob get(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * @param doiSuffix suffix of a DOI
+     * @return the most recently created job for the DOI, null if there is none
+     */
+    public MintJob getLatest(String doiSuffix) {
+        MintJob latest = null;
+        for (MintJob job : jobs.values()) {
+            if (job.getDoiSuffix().equals(doiSuffix)
+                    && (latest == null || job.getCreatedMillis() > latest.getCreatedMillis())) {
+                latest = job;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @return all jobs, oldest first
+     */
+    public List<MintJob> getAll() {
+        List<MintJob> ret = new ArrayList<>(jobs.values());
+        ret.sort(Comparator.comparingLong(MintJob::getCreatedMillis));
+        return ret;
+    }
+
+    /**
+     * Remove a job and its file.
+     *
+     * @param id job ID
+     */
+    public void remove(String id) {
+        jobs.remove(id);
+        File file = getFile(id);
+        if (file.exists() && !file.delete()) {
+            log.warn("failed to delete mint job file: " + file);
+        }
+    }
+
+    // move an unreadable job file out of the way, the DOI of the job is not minted
+    private void quarantine(File file, Exception cause) {
+        File invalid = new File(dir, file.getName() + INVALID_FILE_EXTENSION);
+        try {
+            Files.move(file.toPath(), invalid.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            log.error(String.format("invalid mint job file %s moved to %s", file, invalid), cause);
+        } catch (IOException ex) {
+            log.error(String.format("invalid mint job file %s, failed to move it: %s", file, ex), cause);
+        }
+    }
+
+    private File getFile(String id) {
+        return new File(dir, id + JOB_FILE_EXTENSION);
+    }
+
+    private static MintJob read(File file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+        MintJob job = new MintJob(props.getProperty(ID), props.getProperty(DOI_SUFFIX),
+                Long.parseLong(props.getProperty(CREATED)));
+        job.setPhase(MintJob.Phase.valueOf(props.getProperty(PHASE)));
+        job.setAttempts(Integer.parseInt(props.getProperty(ATTEMPTS, "0")));
+        job.setUpdated(Long.parseLong(props.getProperty(UPDATED, props.getProperty(CREATED))));
+        job.setNextAttempt(Long.parseLong(props.getProperty(NEXT_ATTEMPT, props.getProperty(CREATED))));
+        job.setError(props.getProperty(ERROR));
+        return job;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Logger;
+
+/**
+ * Runs mint jobs in the background with a bounded number of worker threads. A job is
+ * run until the MintHandler reports the DOI is minted: while a step is in progress the
+ * job is run again after a short delay, and a failed attempt is retried with an
+ * exponential backoff until the maximum number of attempts is reached.
+ *
+ * <p>Jobs are saved in a MintJobStore before they are accepted, and unfinished jobs are
+ * resumed when the queue is started, so minting survives a restart.</p>
+ */
+public class MintQueue {
+    private static final Logger log = Logger.getLogger(MintQueue.class);
+
+    static final long POLL_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    static final long MAX_JOB_AGE_MILLIS = TimeUnit.DAYS.toMillis(2);
+    static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static volatile MintQueue instance;
+
+    private final MintJobStore store;
+    private final MintHandler handler;
+    private final long pollDelayMillis;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final ScheduledThreadPoolExecutor workers;
+    private volatile int maxAttempts;
+    private volatile boolean draining;
+
+    /**
+     * Constructor.
+     *
+     * @param store durable job store
+     * @param handler performs the minting steps
+     * @param threads maximum number of jobs run at the same time
+     * @param maxAttempts maximum number of failed attempts of a job
+     */
+    public MintQueue(MintJobStore store, MintHandler handler, int threads, int maxAttempts) {
+        this(store, handler, threads, maxAttempts, POLL_DELAY_MILLIS, RETRY_DELAY_MILLIS, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    MintQueue(MintJobStore store, MintHandler handler, int threads, int maxAttempts,
+              long pollDelayMillis, long retryDelayMillis, long maxRetryDelayMillis) {
+        if (threads <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("threads and maxAttempts must be greater than 0");
+        }
+        this.store = store;
+        this.handler = handler;
+        this.maxAttempts = maxAttempts;
+        this.pollDelayMillis = pollDelayMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+
+        AtomicInteger count = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread thread = new Thread(r, "doi-mint-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.workers = executor;
+    }
+
+    /**
+     * Change the number of worker threads and the maximum number of failed attempts.
+     * Running attempts are not affected.
+     *
+     * @param threads maximum number of jobs run at the same time
+     * @param maxAttempts maximum number of failed attempts of a job
+     */
+    public void configure(int threads, int maxAttempts) {
+        if (threads <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("threads and maxAttempts must be greater than 0");
+        }
+        workers.setCorePoolSize(threads);
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getThreads() {
+        return workers.getCorePoolSize();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public MintJobStore getStore() {
+        return store;
+    }
+
+    public static MintQueue getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(MintQueue queue) {
+        instance = queue;
+    }
+
+    /**
+     * Load the saved jobs, remove finished jobs older than the retention time and
+     * schedule the unfinished jobs.
+     */
+    public void start() {
+        long now = System.currentTimeMillis();
+        int resumed = 0;
+        for (MintJob job : store.load()) {
+            if (job.getPhase().isFinal()) {
+                if (now - job.getUpdatedMillis() > RETENTION_MILLIS) {
+                    store.remove(job.getID());
+                }
+            } else {
+                // an attempt interrupted by a shutdown is run again, the handler continues
+                // from the status of the DOI
+                job.setPhase(MintJob.Phase.QUEUED);
+                schedule(job, job.getNextAttemptMillis() - now);
+                resumed++;
+            }
+        }
+        log.info(String.format("MintQueue: dir=%s resumed jobs=%d max attempts=%d",
+                store.getDir(), resumed, maxAttempts));
+    }
+
+    /**
+     * Stop the workers. Running attempts are interrupted, unfinished jobs are resumed
+     * when the queue is started again.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Stop the workers without interrupting them. Running attempts complete, jobs that are
+     * waiting for their next attempt are resumed when a queue on the same store is started.
+     */
+    public void drain() {
+        draining = true;
+        workers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        workers.shutdown();
+    }
+
+    /**
+     * Submit a job to mint a DOI. If there is an unfinished job for the DOI, that job is
+     * returned instead of a new one.
+     *
+     * @param doiSuffix suffix of the DOI
+     * @return the job
+     * @throws IOException if the job cannot be saved
+     */
+    public synchronized MintJob submit(String doiSuffix) throws IOException {
+        MintJob job = store.getLatest(doiSuffix);
+        if (job != null && !job.getPhase().isFinal()) {
+            log.debug("existing " + job);
+            return job;
+        }
+
+        job = new MintJob(UUID.randomUUID().toString(), doiSuffix, System.currentTimeMillis());
+        store.save(job);
+        schedule(job, 0L);
+        log.info("submitted " + job);
+        return job;
+    }
+
+    public MintJob get(String id) {
+        return store.get(id);
+    }
+
+    /**
+     * @param doiSuffix suffix of a DOI
+     * @return the most recent job for the DOI, null if there is none
+     */
+    public MintJob getLatest(String doiSuffix) {
+        return store.getLatest(doiSuffix);
+    }
+
+    private void schedule(MintJob job, long delayMillis) {
+        workers.schedule(() -> run(job), Math.max(0L, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    // one attempt of a job
+    void run(MintJob job) {
+        if (draining) {
+            // left queued for the next queue on the store
+            return;
+        }
+        long start = System.currentTimeMillis();
+        update(job, MintJob.Phase.EXECUTING, start);
+
+        long delay;
+        try {
+            if (handler.mint(job.getDoiSuffix())) {
+                job.setError(null);
+                update(job, MintJob.Phase.COMPLETED, System.currentTimeMillis());
+                log.info(String.format("%s completed in %dms", job, System.currentTimeMillis() - start));
+                return;
+            }
+            // a step is in progress, check it again later
+            if (start - job.getCreatedMillis() > MAX_JOB_AGE_MILLIS) {
+                fail(job, "minting did not finish in " + TimeUnit.MILLISECONDS.toHours(MAX_JOB_AGE_MILLIS) + " hours");
+                return;
+            }
+            delay = pollDelayMillis;
+        } catch (IllegalArgumentException ex) {
+            fail(job, ex.getMessage());
+            return;
+        } catch (Exception ex) {
+            int attempts = job.getAttempts() + 1;
+            job.setAttempts(attempts);
+            job.setError(ex.getMessage() == null ? ex.toString() : ex.getMessage());
+            if (attempts >= maxAttempts) {
+                log.error(String.format("%s failed, giving up", job), ex);
+                update(job, MintJob.Phase.ERROR, System.currentTimeMillis());
+                return;
+            }
+            delay = getRetryDelay(attempts);
+            log.warn(String.format("%s failed, retry in %dms: %s", job, delay, job.getError()));
+        }
+
+        long now = System.currentTimeMillis();
+        job.setNextAttempt(now + delay);
+        update(job, MintJob.Phase.QUEUED, now);
+        if (!workers.isShutdown()) {
+            schedule(job, delay);
+        }
+    }
+
+    /**
+     * The delay before the next attempt: doubled after each failed attempt up to the
+     * maximum delay, with random jitter so jobs that failed together are not retried together.
+     *
+     * @param attempts number of failed attempts
+     * @return delay in milliseconds
+     */
+    long getRetryDelay(int attempts) {
+        long delay = retryDelayMillis << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, maxRetryDelayMillis);
+        // between half and all of the delay
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void fail(MintJob job, String error) {
+        job.setError(error);
+        log.error(String.format("%s failed: %s", job, error));
+        update(job, MintJob.Phase.ERROR, System.currentTimeMillis());
+    }
+
+    private void update(MintJob job, MintJob.Phase phase, long now) {
+        job.setPhase(phase);
+        job.setUpdated(now);
+        try {
+            store.save(job);
+        } catch (IOException ex) {
+            // the job state in memory is still current, only a restart loses it
+            log.error("failed to save " + job, ex);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+
+/**
+ * Tracks the DOIs with a pending asynchronous VOSpace job and checks each job in the
+ * background until it is finished. A job is checked soon after it is tracked and then
+ * with a delay that doubles after each check, up to the maximum delay, so short jobs
+ * are picked up quickly and long jobs are not polled more than necessary.
+ */
+public class PendingJobTracker {
+    private static final Logger log = Logger.getLogger(PendingJobTracker.class);
+
+    static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(2);
+
+    /**
+     * Checks the pending job of a DOI and updates the DOI when the job is finished.
+     */
+    public interface JobCheck {
+
+        /**
+         * @param doiSuffix suffix of the DOI
+         * @return true if the DOI has no pending job any more
+         * @throws Exception if the job or the DOI cannot be read, the job is checked again later
+         */
+        boolean check(String doiSuffix) throws Exception;
+    }
+
+    private final JobCheck jobCheck;
+    private final long minDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxAgeMillis;
+    private final Map<String, Long> tracked = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> untracked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param jobCheck checks the job of a DOI
+     * @param minDelayMillis delay before the first check of a job
+     * @param maxDelayMillis maximum delay between two checks of a job
+     */
+    public PendingJobTracker(JobCheck jobCheck, long minDelayMillis, long maxDelayMillis) {
+        this(jobCheck, minDelayMillis, maxDelayMillis, MAX_AGE_MILLIS);
+    }
+
+    PendingJobTracker(JobCheck jobCheck, long minDelayMillis, long maxDelayMillis, long maxAgeMillis) {
+        if (minDelayMillis <= 0 || maxDelayMillis < minDelayMillis) {
+            throw new IllegalArgumentException("invalid delays: " + minDelayMillis + " " + maxDelayMillis);
+        }
+        this.jobCheck = jobCheck;
+        this.minDelayMillis = minDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "doi-job-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Track the pending job of a DOI. Nothing is done if the DOI is already tracked.
+     *
+     * @param doiSuffix suffix of the DOI
+     * @return true if the DOI was not tracked
+     */
+    public boolean track(String doiSuffix) {
+        if (tracked.putIfAbsent(doiSuffix, System.currentTimeMillis()) != null
+                || scheduler.isShutdown()) {
+            return false;
+        }
+        log.debug("tracking job of " + doiSuffix);
+        schedule(doiSuffix, minDelayMillis);
+        return true;
+    }
+
+    /**
+     * Track the pending job of a DOI, if it is not tracked, and get notified when the DOI
+     * is no longer tracked: its job is finished, it has been tracked for too long or the
+     * tracker is shut down. The status of the DOI tells whether its job is finished.
+     *
+     * @param doiSuffix suffix of the DOI
+     * @return completed when the DOI is no longer tracked
+     */
+    public CompletableFuture<Void> whenUntracked(String doiSuffix) {
+        CompletableFuture<Void> future = untracked.computeIfAbsent(doiSuffix, k -> new CompletableFuture<>());
+        if (!track(doiSuffix) && (scheduler.isShutdown() || !tracked.containsKey(doiSuffix))) {
+            complete(doiSuffix);
+        }
+        return future;
+    }
+
+    public boolean isTracked(String doiSuffix) {
+        return tracked.containsKey(doiSuffix);
+    }
+
+    public int size() {
+        return tracked.size();
+    }
+
+    /**
+     * Stop checking jobs.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        tracked.clear();
+        for (String doiSuffix : untracked.keySet()) {
+            complete(doiSuffix);
+        }
+    }
+
+    private void complete(String doiSuffix) {
+        CompletableFuture<Void> future = untracked.remove(doiSuffix);
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    private void schedule(String doiSuffix, long delayMillis) {
+        scheduler.schedule(() -> check(doiSuffix, delayMillis), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void check(String doiSuffix, long delayMillis) {
+        Long since = tracked.get(doiSuffix);
+        if (since == null) {
+            return;
+        }
+        boolean done;
+        try {
+            done = jobCheck.check(doiSuffix);
+        } catch (Exception ex) {
+            log.warn(String.format("job check for %s failed: %s", doiSuffix, ex));
+            done = false;
+        }
+
+        if (done) {
+            tracked.remove(doiSuffix);
+            complete(doiSuffix);
+            log.debug(String.format("job of %s finished after %dms", doiSuffix, System.currentTimeMillis() - since));
+        } else if (System.currentTimeMillis() - since > maxAgeMillis) {
+            // a newer job of the DOI is tracked again when it is seen
+            tracked.remove(doiSuffix);
+            complete(doiSuffix);
+            log.warn(String.format("job of %s not finished after %d hours, no longer tracked",
+                    doiSuffix, TimeUnit.MILLISECONDS.toHours(maxAgeMillis)));
+        } else if (!scheduler.isShutdown()) {
+            schedule(doiSuffix, Math.min(delayMillis * 2, maxDelayMillis));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.registrar;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiXmlWriter;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessControlException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+
+/**
+ * Base class of the DataCite API clients. A client keeps a pool of persistent connections
+ * to the service and is safe to share between threads; it is created once for a DataCite
+ * account and reused for every DOI.
+ *
+ * <p>The DataCite calls made by the clients store the state of a DOI, so repeating a call
+ * has the same result. A call that fails with a connection error, a timeout or a 5xx or
+ * 429 response is retried after a jittered, increasing delay.</p>
+ */
+public abstract class DataCiteClient implements DoiRegistrar {
+    private static final Logger log = Logger.getLogger(DataCiteClient.class);
+
+    static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    static final long REQUEST_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final int MAX_ATTEMPTS = 3;
+    static final long RETRY_DELAY_MILLIS = 500L;
+
+    private final String baseURL;
+    private final String username;
+    private final String authorization;
+    private final long requestTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final HttpClient httpClient;
+
+    protected DataCiteClient(URL baseURL, String username, String password,
+                             long requestTimeoutMillis, int maxAttempts, long retryDelayMillis) {
+        this.baseURL = normalize(baseURL);
+        this.username = username;
+        this.authorization = getAuthorization(username, password);
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(Math.min(CONNECT_TIMEOUT_MILLIS, requestTimeoutMillis)))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * @param baseURL URL of the DataCite service
+     * @param username DataCite account username
+     * @param password DataCite account password
+     * @return true if this client calls the service with the account
+     */
+    public boolean matches(URL baseURL, String username, String password) {
+        return this.baseURL.equals(normalize(baseURL)) && this.authorization.equals(getAuthorization(username, password));
+    }
+
+    protected HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseURL + path))
+                .timeout(Duration.ofMillis(requestTimeoutMillis))
+                .header("Authorization", authorization);
+    }
+
+    /**
+     * Send a request, retrying it after a connection error, a timeout or a 5xx or 429 response.
+     *
+     * @param request the request
+     * @param operation operation of the request in the service metrics
+     * @throws AccessControlException if DataCite rejects the credentials
+     * @throws IOException if the call failed
+     * @throws InterruptedException if interrupted while waiting to retry
+     */
+    protected void send(HttpRequest request, String operation) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                log.debug(request.method() + " " + request.uri());
+                HttpResponse<String> response;
+                try {
+                    response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    // connection error or timeout
+                    if (attempt >= maxAttempts) {
+                        throw ex;
+                    }
+                    waitToRetry(request, attempt, ex.toString(), operation);
+                    continue;
+                }
+
+                int code = response.statusCode();
+                log.debug("response code from DataCite: " + code);
+                if (code == 200 || code == 201) {
+                    success = true;
+                    return;
+                }
+                String msg = "HttpResponse (" + code + ") - " + response.body();
+                if (code == 401 || code == 403) {
+                    throw new AccessControlException("DataCite " + username + ": " + msg);
+                }
+                if ((code < 500 && code != 429) || attempt >= maxAttempts) {
+                    throw new IOException(msg);
+                }
+                waitToRetry(request, attempt, msg, operation);
+            }
+        } finally {
+            DoiMetrics.recordCall(DoiMetrics.DATACITE, operation, System.nanoTime() - start, success);
+        }
+    }
+
+    private void waitToRetry(HttpRequest request, int attempt, String error, String operation)
+            throws InterruptedException {
+        long delay = getRetryDelay(attempt);
+        DoiMetrics.recordRetry(DoiMetrics.DATACITE, operation);
+        log.warn(String.format("%s %s failed, retry in %dms: %s", request.method(), request.uri(), delay, error));
+        Thread.sleep(delay);
+    }
+
+    // doubled after each attempt, between half and all of the delay
+    long getRetryDelay(int attempt) {
+        long delay = retryDelayMillis << Math.min(attempt - 1, 10);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * @param resource DOI metadata
+     * @return the DataCite XML document of the metadata, without indentation
+     * @throws IOException if the metadata cannot be written
+     */
+    protected static String toXml(Resource resource) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DoiXmlWriter(false).write(resource, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String normalize(URL url) {
+        String ret = url.toExternalForm();
+        return ret.endsWith("/") ? ret.substring(0, ret.length() - 1) : ret;
+    }
+
+    // the Basic authorization header, computed once per client
+    private static String getAuthorization(String username, String password) {
+        String credentials = String.format("%s:%s", username, password);
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
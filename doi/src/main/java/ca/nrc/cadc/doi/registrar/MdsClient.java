@@ -0,0 +1,147 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.registrar;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import java.io.IOException;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import org.apache.log4j.Logger;
+
+/**
+ * Client of the DataCite MDS API. A DOI is registered with two calls: one that stores
+ * its metadata and one that sets its landing page URL.
+ */
+public class MdsClient extends DataCiteClient {
+    private static final Logger log = Logger.getLogger(MdsClient.class);
+
+    // operations of the DataCite calls in the service metrics
+    static final String METADATA_OPERATION = "mds.metadata";
+    static final String DOI_OPERATION = "mds.doi";
+
+    /**
+     * Constructor.
+     *
+     * @param mdsURL URL of the DataCite MDS service
+     * @param username DataCite account username
+     * @param password DataCite account password
+     */
+    public MdsClient(URL mdsURL, String username, String password) {
+        this(mdsURL, username, password, REQUEST_TIMEOUT_MILLIS, MAX_ATTEMPTS, RETRY_DELAY_MILLIS);
+    }
+
+    MdsClient(URL mdsURL, String username, String password,
+              long requestTimeoutMillis, int maxAttempts, long retryDelayMillis) {
+        super(mdsURL, username, password, requestTimeoutMillis, maxAttempts, retryDelayMillis);
+    }
+
+    @Override
+    public void register(String doi, Resource resource, String url) throws IOException, InterruptedException {
+        registerMetadata(doi, toXml(resource));
+        registerURL(doi, url);
+    }
+
+    /**
+     * Register or update the metadata of a DOI.
+     *
+     * @param doi the DOI, prefix/suffix
+     * @param xml DataCite metadata document
+     * @throws java.security.AccessControlException if DataCite rejects the credentials
+     * @throws IOException if the call failed
+     * @throws InterruptedException if interrupted while waiting to retry
+     */
+    public void registerMetadata(String doi, String xml) throws IOException, InterruptedException {
+        HttpRequest request = newRequest("/metadata/" + doi)
+                .header("Content-Type", "application/xml;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(xml, StandardCharsets.UTF_8))
+                .build();
+        send(request, METADATA_OPERATION);
+        log.debug("Successfully registered DOI " + doi);
+    }
+
+    /**
+     * Set the landing page URL of a DOI, which makes a DOI with metadata findable.
+     *
+     * @param doi the DOI, prefix/suffix
+     * @param url landing page URL
+     * @throws java.security.AccessControlException if DataCite rejects the credentials
+     * @throws IOException if the call failed
+     * @throws InterruptedException if interrupted while waiting to retry
+     */
+    public void registerURL(String doi, String url) throws IOException, InterruptedException {
+        String content = String.format("doi=%s\nurl=%s", doi, url);
+        HttpRequest request = newRequest("/doi/" + doi)
+                .header("Content-Type", "text/plain;charset=UTF-8")
+                .PUT(HttpRequest.BodyPublishers.ofString(content, StandardCharsets.UTF_8))
+                .build();
+        send(request, DOI_OPERATION);
+        log.debug("Successfully made DOI " + doi + " findable");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.registrar;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import java.io.IOException;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * Client of the DataCite REST API. A DOI is registered with a single JSON:API
+ * PUT /dois/{doi} request that sets its metadata and landing page URL and publishes it.
+ */
+public class RestClient extends DataCiteClient {
+    private static final Logger log = Logger.getLogger(RestClient.class);
+
+    static final String CONTENT_TYPE = "application/vnd.api+json";
+
+    // operation of the DataCite calls in the service metrics
+    static final String DOIS_OPERATION = "rest.dois";
+
+    /**
+     * Constructor.
+     *
+     * @param restURL URL of the DataCite REST API
+     * @param username DataCite repository account username
+     * @param password DataCite repository account password
+     */
+    public RestClient(URL restURL, String username, String password) {
+        this(restURL, username, password, REQUEST_TIMEOUT_MILLIS, MAX_ATTEMPTS, RETRY_DELAY_MILLIS);
+    }
+
+    RestClient(URL restURL, String username, String password,
+               long requestTimeoutMillis, int maxAttempts, long retryDelayMillis) {
+        super(restURL, username, password, requestTimeoutMillis, maxAttempts, retryDelayMillis);
+    }
+
+    @Override
+    public void register(String doi, Resource resource, String url) throws IOException, InterruptedException {
+        HttpRequest request = newRequest("/dois/" + doi)
+                .header("Content-Type", CONTENT_TYPE)
+                .header("Accept", CONTENT_TYPE)
+                .PUT(HttpRequest.BodyPublishers.ofString(toDocument(doi, resource, url), StandardCharsets.UTF_8))
+                .build();
+        send(request, DOIS_OPERATION);
+        log.debug("Successfully registered and published DOI " + doi);
+    }
+
+    // the JSON:API document that sets the metadata and the URL of the DOI and publishes it,
+    // the metadata is sent as the base64 encoded DataCite XML document
+    static String toDocument(String doi, Resource resource, String url) throws IOException {
+        String xml = Base64.getEncoder().encodeToString(toXml(resource).getBytes(StandardCharsets.UTF_8));
+        JSONObject attributes = new JSONObject();
+        attributes.put("doi", doi);
+        attributes.put("event", "publish");
+        attributes.put("url", url);
+        attributes.put("xml", xml);
+
+        JSONObject data = new JSONObject();
+        data.put("id", doi);
+        data.put("type", "dois");
+        data.put("attributes", attributes);
+
+        JSONObject document = new JSONObject();
+        document.put("data", data);
+        return document.toString();
+    }
+}
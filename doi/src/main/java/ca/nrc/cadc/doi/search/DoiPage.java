@@ -0,0 +1,108 @@
+package ca.nrc.cadc.doi.search;
+
+import java.util.List;
+
+/**
+ * The requested page of a DOI list: sort key and direction, offset of the first
+ * entry and maximum number of entries. Without a limit all entries from the offset
+ * are returned.
+ */
+public class DoiPage {
+    public static final String LIMIT_PARAM = "limit";
+    public static final String OFFSET_PARAM = "offset";
+    public static final String SORT_PARAM = "sort";
+    public static final String ORDER_PARAM = "order";
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final Integer limit;
+    private final int offset;
+    private final SortKey sortKey;
+    private final boolean descending;
+
+    public DoiPage(Integer limit, int offset, SortKey sortKey, boolean descending) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset: " + offset);
+        }
+        this.limit = limit;
+        this.offset = offset;
+        this.sortKey = sortKey;
+        this.descending = descending;
+    }
+
+    /**
+     * Create a page from request parameter values, any of which may be null.
+     *
+     * @param limit maximum number of entries
+     * @param offset offset of the first entry
+     * @param sort sort key: suffix, status or title, suffix if not set
+     * @param order asc or desc
+     * @return the page
+     */
+    public static DoiPage parse(String limit, String offset, String sort, String order) {
+        Integer limitValue = null;
+        if (limit != null) {
+            limitValue = parseInt(LIMIT_PARAM, limit);
+        }
+        int offsetValue = 0;
+        if (offset != null) {
+            offsetValue = parseInt(OFFSET_PARAM, offset);
+        }
+        SortKey sortKey = SortKey.SUFFIX;
+        if (sort != null) {
+            sortKey = SortKey.toValue(sort.trim());
+        }
+        boolean descending = false;
+        if (order != null) {
+            if ("desc".equalsIgnoreCase(order.trim())) {
+                descending = true;
+            } else if (!"asc".equalsIgnoreCase(order.trim())) {
+                throw new IllegalArgumentException("Invalid order: " + order);
+            }
+        }
+        return new DoiPage(limitValue, offsetValue, sortKey, descending);
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Get the entries of this page from a sorted list.
+     *
+     * @param sorted all entries, in page order
+     * @param <T> entry type
+     * @return the entries in this page
+     */
+    public <T> List<T> apply(List<T> sorted) {
+        int from = Math.min(offset, sorted.size());
+        int to = sorted.size();
+        if (limit != null) {
+            to = (int) Math.min((long) from + limit, sorted.size());
+        }
+        return sorted.subList(from, to);
+    }
+}
@@ -0,0 +1,27 @@
+package ca.nrc.cadc.doi.search;
+
+public enum SortKey {
+
+    SUFFIX("suffix"),
+    STATUS("status"),
+    TITLE("title");
+
+    private final String value;
+
+    SortKey(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static SortKey toValue(String value) {
+        for (SortKey sortKey : SortKey.values()) {
+            if (sortKey.getValue().equalsIgnoreCase(value)) {
+                return sortKey;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort: " + value);
+    }
+}
@@ -69,21 +69,24 @@
 
 package ca.nrc.cadc.doi.status;
 
+import ca.nrc.cadc.doi.datacite.Identifier;
+import ca.nrc.cadc.doi.datacite.Title;
 import ca.nrc.cadc.util.StringBuilderWriter;
-import ca.nrc.cadc.xml.JsonOutputter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntSupplier;
 
 import org.apache.log4j.Logger;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.output.Format;
 
 /**
+ * Writes a list of DoiStatus instances as JSON (BadgerFish convention) to an output.
+ * The document is generated directly: each DoiStatus is written and flushed as it is
+ * taken from the iterator.
  *
  * @author yeunga
  */
@@ -111,13 +114,38 @@ public class DoiStatusListJsonWriter extends DoiStatusListWriter {
      *             if the writer fails to write.
      */
     public void write(List<DoiStatus> doiStatusList, OutputStream out) throws IOException {
+        write(doiStatusList.iterator(), out);
+    }
+
+    /**
+     * Write DoiStatus instances to an OutputStream using UTF-8 encoding, flushing
+     * the output after each instance.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param out OutputStream to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, OutputStream out) throws IOException {
+        write(doiStatuses, null, out);
+    }
+
+    /**
+     * Write DoiStatus instances to an OutputStream using UTF-8 encoding, flushing
+     * the output after each instance, followed by the number of DOIs left out.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param omitted number of DOIs left out of the list, taken after the last instance, or null.
+     * @param out OutputStream to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, IntSupplier omitted, OutputStream out) throws IOException {
         OutputStreamWriter outWriter;
         try {
             outWriter = new OutputStreamWriter(out, "UTF-8");
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException("UTF-8 encoding not supported", e);
         }
-        write(doiStatusList, outWriter);
+        write(doiStatuses, omitted, outWriter);
     }
 
     /**
@@ -139,30 +167,167 @@ public class DoiStatusListJsonWriter extends DoiStatusListWriter {
      * @throws IOException if the writer fails to write.
      */
     public void write(List<DoiStatus> doiStatusList, Writer writer) throws IOException {
-        long start = System.currentTimeMillis();
-        Element root = this.getRootElement(doiStatusList);
-        write(root, writer);
-        long end = System.currentTimeMillis();
-        log.debug("Write elapsed time: " + (end - start) + "ms");
+        write(doiStatusList.iterator(), writer);
     }
 
     /**
-     * Write a Document instance by providing the root element to a writer.
+     * Write DoiStatus instances to a writer, flushing the writer after each instance.
      *
-     * @param root Root element to write.
+     * @param doiStatuses DoiStatus instances to write.
      * @param writer Writer to write to.
      * @throws IOException if the writer fails to write.
      */
-    protected void write(Element root, Writer writer) throws IOException {
-        JsonOutputter outputter = new JsonOutputter();
-        outputter.getListElementNames().add("doiStatuses");
+    public void write(Iterator<DoiStatus> doiStatuses, Writer writer) throws IOException {
+        write(doiStatuses, null, writer);
+    }
+
+    /**
+     * Write DoiStatus instances to a writer, flushing the writer after each instance,
+     * followed by the number of DOIs left out.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param omitted number of DOIs left out of the list, taken after the last instance, or null.
+     * @param writer Writer to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, IntSupplier omitted, Writer writer) throws IOException {
+        long start = System.currentTimeMillis();
+        writer.write("{");
+        writeName(writer, 1, "doiStatuses");
+        writer.write("{");
+        writeName(writer, 2, "$");
+        writer.write("[");
+        int count = 0;
+        while (doiStatuses.hasNext()) {
+            if (count > 0) {
+                writer.write(",");
+            }
+            writeDoiStatus(writer, 3, doiStatuses.next());
+            writer.flush();
+            count++;
+        }
+        writeIndent(writer, 2);
+        writer.write("]");
+        if (omitted != null) {
+            writer.write(",");
+            writeElement(writer, 2, OMITTED, Integer.toString(omitted.getAsInt()));
+        }
+        writeIndent(writer, 1);
+        writer.write("}");
+        writeIndent(writer, 0);
+        writer.write("}");
+        writer.flush();
+        long end = System.currentTimeMillis();
+        log.debug("Write elapsed time: " + (end - start) + "ms, entries: " + count);
+    }
+
+    private void writeDoiStatus(Writer writer, int level, DoiStatus doiStatus) throws IOException {
+        writeIndent(writer, level);
+        writer.write("{");
+        writeName(writer, level + 1, "doistatus");
+        writer.write("{");
+
+        int fields = level + 2;
+        Identifier identifier = doiStatus.getIdentifier();
+        writeElement(writer, fields, Identifier.NAME, identifier.getValue(),
+                "@" + Identifier.IDENTIFIER_TYPE, identifier.getIdentifierType());
+
+        Title title = doiStatus.getTitle();
+        if (title != null) {
+            writer.write(",");
+            writeElement(writer, fields, Title.NAME, title.getValue(),
+                    "@" + Title.TITLE_TYPE, title.titleType == null ? null : title.titleType.getValue(),
+                    "@xml:" + Title.LANG, title.lang);
+        }
+
+        writer.write(",");
+        writeElement(writer, fields, "status", doiStatus.getStatus().getValue());
+        if (doiStatus.getDataDirectory() != null) {
+            writer.write(",");
+            writeElement(writer, fields, "dataDirectory", doiStatus.getDataDirectory());
+        }
+        if (doiStatus.journalRef != null) {
+            writer.write(",");
+            writeElement(writer, fields, "journalRef", doiStatus.journalRef);
+        }
+        if (doiStatus.reviewer != null) {
+            writer.write(",");
+            writeElement(writer, fields, "reviewer", doiStatus.reviewer);
+        }
+
+        writeIndent(writer, level + 1);
+        writer.write("}");
+        writeIndent(writer, level);
+        writer.write("}");
+    }
+
+    // attributes are name, value pairs, attributes with a null value are not written
+    private void writeElement(Writer writer, int level, String name, String text, String... attributes)
+        throws IOException {
+        writeName(writer, level, name);
+        writer.write("{");
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i + 1] != null) {
+                writeName(writer, level + 1, attributes[i]);
+                writeString(writer, attributes[i + 1]);
+                writer.write(",");
+            }
+        }
+        writeName(writer, level + 1, "$");
+        writeString(writer, text == null ? "" : text);
+        writeIndent(writer, level);
+        writer.write("}");
+    }
 
-        Format fmt = null;
+    private void writeName(Writer writer, int level, String name) throws IOException {
+        writeIndent(writer, level);
+        writeString(writer, name);
+        writer.write(prettyPrint ? " : " : ":");
+    }
+
+    private void writeIndent(Writer writer, int level) throws IOException {
         if (prettyPrint) {
-            fmt = Format.getPrettyFormat();
-            fmt.setIndent("  "); // 2 spaces
+            writer.write("\n");
+            for (int i = 0; i < level; i++) {
+                writer.write("  ");
+            }
+        }
+    }
+
+    private static void writeString(Writer writer, String s) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
         }
-        outputter.setFormat(fmt);
-        outputter.output(new Document(root), writer);
+        writer.write('"');
     }
 }
@@ -97,6 +97,10 @@ public class DoiStatusListReader {
         Element root = doc.getRootElement();
         List<Element> childrenElements = root.getChildren();
         for (Element childElement : childrenElements) {
+            if (DoiStatusListWriter.OMITTED.equals(childElement.getName())) {
+                // number of DOIs left out of the list, not a status
+                continue;
+            }
             DoiStatus doiStatus = doiStatusReader.buildStatus(childElement);
             doiStatusList.add(doiStatus);
         }
@@ -69,10 +69,7 @@
 
 package ca.nrc.cadc.doi.status;
 
-import java.util.List;
-
 import org.apache.log4j.Logger;
-import org.jdom2.Element;
 
 /**
  * Writes a DoiStatus instance to an output.
@@ -82,16 +79,11 @@ import org.jdom2.Element;
 public class DoiStatusListWriter {
     private static Logger log = Logger.getLogger(DoiStatusListWriter.class);
 
-    public DoiStatusListWriter() {
-    }
+    /**
+     * Element written after the statuses with the number of DOIs left out of the list.
+     */
+    public static final String OMITTED = "omitted";
 
-    protected Element getRootElement(List<DoiStatus> doiStatusList) {
-        DoiStatusWriter doiStatusWriter = new DoiStatusWriter();
-        Element root = new Element("doiStatuses");
-        for (DoiStatus doiStatus : doiStatusList) {
-            Element statusElement = doiStatusWriter.getDoiStatusElement(doiStatus);
-            root.addContent(statusElement);
-        }
-        return root;
+    public DoiStatusListWriter() {
     }
 }
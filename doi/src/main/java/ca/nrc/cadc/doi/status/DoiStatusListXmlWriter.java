@@ -69,28 +69,36 @@
 
 package ca.nrc.cadc.doi.status;
 
+import ca.nrc.cadc.doi.datacite.Identifier;
+import ca.nrc.cadc.doi.datacite.Title;
 import ca.nrc.cadc.util.StringBuilderWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntSupplier;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.log4j.Logger;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
 
 /**
- * Writes a list of DoiStatus instances as XML to an output.
+ * Writes a list of DoiStatus instances as XML to an output. The document is streamed:
+ * each DoiStatus is written and flushed as it is taken from the iterator.
  * 
  * @author yeunga
  */
 public class DoiStatusListXmlWriter extends DoiStatusListWriter {
     private static Logger log = Logger.getLogger(DoiStatusListXmlWriter.class);
 
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final String NEWLINE = "\n";
+
     public DoiStatusListXmlWriter() {
     }
 
@@ -102,13 +110,38 @@ public class DoiStatusListXmlWriter extends DoiStatusListWriter {
      * @throws IOException if the writer fails to write.
      */
     public void write(List<DoiStatus> doiStatusList, OutputStream out) throws IOException {
+        write(doiStatusList.iterator(), out);
+    }
+
+    /**
+     * Write DoiStatus instances to an OutputStream using UTF-8 encoding, flushing
+     * the output after each instance.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param out OutputStream to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, OutputStream out) throws IOException {
+        write(doiStatuses, null, out);
+    }
+
+    /**
+     * Write DoiStatus instances to an OutputStream using UTF-8 encoding, flushing
+     * the output after each instance, followed by the number of DOIs left out.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param omitted number of DOIs left out of the list, taken after the last instance, or null.
+     * @param out OutputStream to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, IntSupplier omitted, OutputStream out) throws IOException {
         OutputStreamWriter outWriter;
         try {
             outWriter = new OutputStreamWriter(out, "UTF-8");
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException("UTF-8 encoding not supported", e);
         }
-        write(doiStatusList, outWriter);
+        write(doiStatuses, omitted, outWriter);
     }
 
     /**
@@ -130,23 +163,105 @@ public class DoiStatusListXmlWriter extends DoiStatusListWriter {
      * @throws IOException if the writer fails to write.
      */
     public void write(List<DoiStatus> doiStatusList, Writer writer) throws IOException {
-        long start = System.currentTimeMillis();
-        Element root = this.getRootElement(doiStatusList);
-        write(root, writer);
-        long end = System.currentTimeMillis();
-        log.debug("Write elapsed time: " + (end - start) + "ms");
+        write(doiStatusList.iterator(), writer);
+    }
+
+    /**
+     * Write DoiStatus instances to a writer, flushing the writer after each instance.
+     *
+     * @param doiStatuses DoiStatus instances to write.
+     * @param writer Writer to write to.
+     * @throws IOException if the writer fails to write.
+     */
+    public void write(Iterator<DoiStatus> doiStatuses, Writer writer) throws IOException {
+        write(doiStatuses, null, writer);
     }
 
     /**
-     * Write a Document instance by providing the root element to a writer.
+     * Write DoiStatus instances to a writer, flushing the writer after each instance,
+     * followed by the number of DOIs left out.
      *
-     * @param root Root element to write.
+     * @param doiStatuses DoiStatus instances to write.
+     * @param omitted number of DOIs left out of the list, taken after the last instance, or null.
      * @param writer Writer to write to.
      * @throws IOException if the writer fails to write.
      */
-    protected void write(Element root, Writer writer) throws IOException {
-        XMLOutputter outputter = new XMLOutputter();
-        outputter.setFormat(Format.getPrettyFormat());
-        outputter.output(new Document(root), writer);
+    public void write(Iterator<DoiStatus> doiStatuses, IntSupplier omitted, Writer writer) throws IOException {
+        long start = System.currentTimeMillis();
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(writer);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters(NEWLINE);
+            xml.writeStartElement("doiStatuses");
+            int count = 0;
+            while (doiStatuses.hasNext()) {
+                writeDoiStatus(xml, doiStatuses.next());
+                xml.flush();
+                writer.flush();
+                count++;
+            }
+            if (omitted != null) {
+                xml.writeCharacters(NEWLINE + "  ");
+                xml.writeStartElement(OMITTED);
+                xml.writeCharacters(Integer.toString(omitted.getAsInt()));
+                xml.writeEndElement();
+            }
+            xml.writeCharacters(NEWLINE);
+            xml.writeEndElement();
+            xml.writeCharacters(NEWLINE);
+            xml.writeEndDocument();
+            xml.flush();
+            writer.flush();
+            long end = System.currentTimeMillis();
+            log.debug("Write elapsed time: " + (end - start) + "ms, entries: " + count);
+        } catch (XMLStreamException ex) {
+            throw new IOException("failed to write DOI status list: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void writeDoiStatus(XMLStreamWriter xml, DoiStatus doiStatus) throws XMLStreamException {
+        xml.writeCharacters(NEWLINE + "  ");
+        xml.writeStartElement("doistatus");
+
+        writeIndent(xml);
+        xml.writeStartElement(Identifier.NAME);
+        xml.writeAttribute(Identifier.IDENTIFIER_TYPE, doiStatus.getIdentifier().getIdentifierType());
+        xml.writeCharacters(doiStatus.getIdentifier().getValue());
+        xml.writeEndElement();
+
+        Title title = doiStatus.getTitle();
+        if (title != null) {
+            writeIndent(xml);
+            xml.writeStartElement(Title.NAME);
+            if (title.titleType != null) {
+                xml.writeAttribute(Title.TITLE_TYPE, title.titleType.getValue());
+            }
+            if (title.lang != null) {
+                xml.writeAttribute(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI, Title.LANG, title.lang);
+            }
+            xml.writeCharacters(title.getValue());
+            xml.writeEndElement();
+        }
+
+        writeTextElement(xml, "status", doiStatus.getStatus().getValue());
+        writeTextElement(xml, "dataDirectory", doiStatus.getDataDirectory());
+        writeTextElement(xml, "journalRef", doiStatus.journalRef);
+        writeTextElement(xml, "reviewer", doiStatus.reviewer);
+
+        xml.writeCharacters(NEWLINE + "  ");
+        xml.writeEndElement();
+    }
+
+    private void writeTextElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        if (text != null) {
+            writeIndent(xml);
+            xml.writeStartElement(name);
+            xml.writeCharacters(text);
+            xml.writeEndElement();
+        }
+    }
+
+    private void writeIndent(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeCharacters(NEWLINE + "    ");
     }
 }
@@ -0,0 +1,184 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.security.auth.Subject;
+import org.apache.log4j.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiAdminCredentialsTest {
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    // loads a new, empty subject from the file or fails when the file contains "fail"
+    private static class TestCredentials extends DoiAdminCredentials {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        TestCredentials(File pemFile, long checkIntervalMillis) {
+            super(pemFile, checkIntervalMillis);
+        }
+
+        @Override
+        Subject load(File file) {
+            loads.incrementAndGet();
+            try {
+                if (new String(Files.readAllBytes(file.toPath())).contains("fail")) {
+                    throw new IllegalStateException("failed to read " + file);
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("failed to read " + file, ex);
+            }
+            return new Subject();
+        }
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        File pemFile = File.createTempFile("doiadmin", ".pem");
+        try {
+            Files.write(pemFile.toPath(), "cert".getBytes());
+            TestCredentials credentials = new TestCredentials(pemFile, 60000L);
+
+            // the same subject is returned until the next check
+            Subject subject = credentials.get();
+            Assert.assertSame(subject, credentials.get());
+            Assert.assertSame(subject, credentials.get());
+            Assert.assertEquals(1, credentials.loads.get());
+
+            // a modified file is not read before the next check
+            Files.write(pemFile.toPath(), "new cert".getBytes());
+            Assert.assertTrue(pemFile.setLastModified(pemFile.lastModified() + 10000L));
+            Assert.assertSame(subject, credentials.get());
+            Assert.assertEquals(1, credentials.loads.get());
+        } finally {
+            Files.deleteIfExists(pemFile.toPath());
+        }
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        File pemFile = File.createTempFile("doiadmin", ".pem");
+        try {
+            Files.write(pemFile.toPath(), "cert".getBytes());
+            TestCredentials credentials = new TestCredentials(pemFile, 0L);
+
+            // an unchanged file is not read again
+            Subject subject = credentials.get();
+            Assert.assertSame(subject, credentials.get());
+            Assert.assertEquals(1, credentials.loads.get());
+
+            // a modified file is read into a new subject
+            Files.write(pemFile.toPath(), "new cert".getBytes());
+            Assert.assertTrue(pemFile.setLastModified(pemFile.lastModified() + 10000L));
+            Subject reloaded = credentials.get();
+            Assert.assertNotSame(subject, reloaded);
+            Assert.assertEquals(2, credentials.loads.get());
+
+            // the loaded subject is kept when the file cannot be read
+            Files.write(pemFile.toPath(), "fail".getBytes());
+            Assert.assertTrue(pemFile.setLastModified(pemFile.lastModified() + 20000L));
+            Assert.assertSame(reloaded, credentials.get());
+            Assert.assertEquals(3, credentials.loads.get());
+        } finally {
+            Files.deleteIfExists(pemFile.toPath());
+        }
+    }
+
+    @Test
+    public void testLoadFailure() throws Exception {
+        File pemFile = File.createTempFile("doiadmin", ".pem");
+        try {
+            Files.write(pemFile.toPath(), "fail".getBytes());
+            TestCredentials credentials = new TestCredentials(pemFile, 60000L);
+
+            // without loaded credentials the failure is thrown to the caller
+            try {
+                credentials.get();
+                Assert.fail("expected IllegalStateException");
+            } catch (IllegalStateException expected) {
+                Assert.assertTrue(expected.getMessage().startsWith("failed to read"));
+            }
+
+            // and the file is read again by the next caller
+            Files.write(pemFile.toPath(), "cert".getBytes());
+            Assert.assertNotNull(credentials.get());
+            Assert.assertEquals(2, credentials.loads.get());
+        } finally {
+            Files.deleteIfExists(pemFile.toPath());
+        }
+    }
+}
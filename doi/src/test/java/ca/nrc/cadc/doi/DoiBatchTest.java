@@ -0,0 +1,324 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiBatchTest {
+    private static final Logger log = Logger.getLogger(DoiBatchTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @Test
+    public void testGetSuffixes() throws Exception {
+        List<String> suffixes = DoiBatch.getSuffixes(new JSONObject("{\"dois\": [\"25.0002\", \" 25.0001 \", \"25.0002\"]}"));
+        Assert.assertEquals(List.of("25.0002", "25.0001"), suffixes);
+
+        String[] invalid = {
+            "{}",
+            "{\"dois\": \"25.0001\"}",
+            "{\"dois\": []}",
+            "{\"dois\": [\"\"]}",
+            "{\"dois\": [\"25.0001/mint\"]}",
+            "{\"dois\": [25]}"
+        };
+        for (String document : invalid) {
+            try {
+                DoiBatch.getSuffixes(new JSONObject(document));
+                Assert.fail("expected IllegalArgumentException: " + document);
+            } catch (IllegalArgumentException expected) {
+                log.debug("caught expected: " + expected);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder("{\"dois\": [");
+        for (int i = 0; i <= DoiBatch.MAX_DOIS; i++) {
+            sb.append(i == 0 ? "" : ",").append("\"25.").append(i).append("\"");
+        }
+        sb.append("]}");
+        try {
+            DoiBatch.getSuffixes(new JSONObject(sb.toString()));
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            log.debug("caught expected: " + expected);
+        }
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(2, 1000L, false);
+        List<String> suffixes = List.of("25.0001", "25.0002", "25.0003", "25.0004", "25.0005", "25.0006");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, Object> results = new ConcurrentHashMap<>();
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+
+        long deadline = System.currentTimeMillis() + 10000L;
+        DoiBatch.run(executor, null, suffixes, suffix -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20L);
+                if (suffix.equals("25.0003")) {
+                    throw new IllegalArgumentException("invalid: " + suffix);
+                }
+                return "done " + suffix;
+            } finally {
+                running.decrementAndGet();
+            }
+        }, deadline, (suffix, result, error) -> {
+            handled.add(suffix);
+            results.put(suffix, error != null ? error : result);
+        });
+
+        // every DOI is handled once, at most 2 at a time
+        Assert.assertEquals(suffixes.size(), handled.size());
+        Assert.assertEquals(suffixes.size(), results.size());
+        Assert.assertTrue("max running: " + maxRunning.get(), maxRunning.get() <= 2);
+        Assert.assertEquals("done 25.0001", results.get("25.0001"));
+        Assert.assertTrue(results.get("25.0003") instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(2, 1000L, false);
+        CountDownLatch fastHandled = new CountDownLatch(1);
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+
+        // the slow DOI only completes after the result of the fast DOI has been handled
+        long deadline = System.currentTimeMillis() + 10000L;
+        DoiBatch.run(executor, null, List.of("slow", "fast"), suffix -> {
+            if (suffix.equals("slow") && !fastHandled.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("fast result not handled");
+            }
+            return suffix;
+        }, deadline, (suffix, result, error) -> {
+            Assert.assertNull(error);
+            handled.add(result);
+            if (suffix.equals("fast")) {
+                fastHandled.countDown();
+            }
+        });
+        Assert.assertEquals(List.of("fast", "slow"), handled);
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(1, 1000L, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicBoolean notStartedRan = new AtomicBoolean();
+        Map<String, Object> results = new ConcurrentHashMap<>();
+
+        // one thread: 25.0002 is still running at the deadline and 25.0003 has not started
+        long start = System.currentTimeMillis();
+        DoiBatch.run(executor, null, List.of("25.0001", "25.0002", "25.0003"), suffix -> {
+            if (suffix.equals("25.0002")) {
+                started.countDown();
+                Assert.assertTrue(release.await(10, TimeUnit.SECONDS));
+                completed.countDown();
+            } else if (suffix.equals("25.0003")) {
+                notStartedRan.set(true);
+            }
+            return suffix;
+        }, start + 200L, (suffix, result, error) -> results.put(suffix, error != null ? error : result));
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("25.0001", results.get("25.0001"));
+        Assert.assertTrue(results.get("25.0002") instanceof DoiBatch.InProgressException);
+        Assert.assertTrue(results.get("25.0003") instanceof TimeoutException);
+        Assert.assertFalse(results.get("25.0003") instanceof DoiBatch.InProgressException);
+
+        // the task running at the deadline is not interrupted and completes, the other never runs
+        release.countDown();
+        Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100L);
+        Assert.assertFalse(notStartedRan.get());
+    }
+
+    @Test
+    public void testReady() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(1, 1000L, false);
+        Map<String, CompletableFuture<Void>> ready = new ConcurrentHashMap<>();
+        for (String suffix : List.of("25.0001", "25.0002", "25.0003")) {
+            ready.put(suffix, new CompletableFuture<>());
+        }
+        AtomicBoolean notReadyRan = new AtomicBoolean();
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Object> results = new ConcurrentHashMap<>();
+
+        // the tasks run in the order the DOIs are ready, whether normally or not, and
+        // 25.0003 is not ready by the deadline
+        long start = System.currentTimeMillis();
+        CompletableFuture.runAsync(() -> ready.get("25.0002").completeExceptionally(new IllegalStateException()));
+        DoiBatch.run(executor, null, List.of("25.0001", "25.0002", "25.0003"), ready::get, suffix -> {
+            if (suffix.equals("25.0002")) {
+                ready.get("25.0001").complete(null);
+            } else if (suffix.equals("25.0003")) {
+                notReadyRan.set(true);
+            }
+            return suffix;
+        }, start + 300L, (suffix, result, error) -> {
+            handled.add(suffix);
+            results.put(suffix, error != null ? error : result);
+        });
+
+        Assert.assertEquals(List.of("25.0002", "25.0001", "25.0003"), handled);
+        Assert.assertEquals("25.0001", results.get("25.0001"));
+        Assert.assertEquals("25.0002", results.get("25.0002"));
+        Assert.assertTrue(results.get("25.0003") instanceof TimeoutException);
+        Assert.assertFalse(results.get("25.0003") instanceof DoiBatch.InProgressException);
+
+        // a DOI ready after the deadline is not run
+        ready.get("25.0003").complete(null);
+        Thread.sleep(100L);
+        Assert.assertFalse(notReadyRan.get());
+    }
+
+    @Test
+    public void testCompletedAtDeadline() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(2, 1000L, false);
+        CountDownLatch done = new CountDownLatch(2);
+
+        // the tasks complete before the deadline, their results are taken after it
+        long deadline = System.currentTimeMillis() + 200L;
+        try (DoiBatch<String> batch = DoiBatch.submit(executor, null, List.of("25.0001", "25.0002"), suffix -> {
+            done.countDown();
+            return suffix;
+        }, deadline)) {
+            Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(Math.max(0L, deadline - System.currentTimeMillis()) + 100L);
+            List<String> values = new ArrayList<>();
+            while (batch.hasNext()) {
+                DoiBatch.Result<String> result = batch.next();
+                Assert.assertNull(result.getError());
+                values.add(result.getValue());
+            }
+            Collections.sort(values);
+            Assert.assertEquals(List.of("25.0001", "25.0002"), values);
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(1, 1000L, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicBoolean notStartedRan = new AtomicBoolean();
+
+        DoiBatch<String> batch = DoiBatch.submit(executor, null, List.of("25.0001", "25.0002", "25.0003"), suffix -> {
+            if (suffix.equals("25.0002")) {
+                started.countDown();
+                Assert.assertTrue(release.await(10, TimeUnit.SECONDS));
+                completed.countDown();
+            } else if (suffix.equals("25.0003")) {
+                notStartedRan.set(true);
+            }
+            return suffix;
+        }, System.currentTimeMillis() + 10000L);
+        try {
+            Assert.assertTrue(batch.hasNext());
+            DoiBatch.Result<String> result = batch.next();
+            Assert.assertEquals("25.0001", result.getDoiSuffix());
+            Assert.assertEquals("25.0001", result.getValue());
+            Assert.assertNull(result.getError());
+            Assert.assertTrue(batch.hasNext());
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        } finally {
+            batch.close();
+        }
+
+        // the task not started is cancelled, the running task is not interrupted
+        Assert.assertFalse(batch.hasNext());
+        release.countDown();
+        Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100L);
+        Assert.assertFalse(notStartedRan.get());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import org.apache.log4j.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiConfigTest {
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static MultiValuedProperties getProperties() {
+        MultiValuedProperties props = getRequiredProperties("vos://cadc.nrc.ca~vault/AstroDataCitationDOI");
+        props.addProperty(DoiInitAction.TASK_THREADS_KEY, "4");
+        return props;
+    }
+
+    // the required properties of a valid configuration
+    static MultiValuedProperties getRequiredProperties(String parentUri) {
+        MultiValuedProperties props = new MultiValuedProperties();
+        props.addProperty(DoiInitAction.VOSPACE_PARENT_URI_KEY, parentUri);
+        props.addProperty(DoiInitAction.METADATA_PREFIX_KEY, "RAFTS-");
+        props.addProperty(DoiInitAction.DOI_GROUP_PREFIX_KEY, "RAFTS-");
+        props.addProperty(DoiInitAction.LANDING_URL_KEY, "https://www.canfar.net/citation/landing");
+        props.addProperty(DoiInitAction.DATACITE_MDS_URL_KEY, "https://mds.test.datacite.org");
+        props.addProperty(DoiInitAction.DATACITE_MDS_USERNAME_KEY, "user");
+        props.addProperty(DoiInitAction.DATACITE_MDS_PASSWORD_KEY, "secret");
+        props.addProperty(DoiInitAction.DATACITE_ACCOUNT_PREFIX_KEY, "10.80791");
+        return props;
+    }
+
+    @Test
+    public void testProperties() throws Exception {
+        MultiValuedProperties props = getProperties();
+        DoiConfig config = new DoiConfig(props);
+        Assert.assertEquals("10.80791", config.getAccountPrefix());
+
+        // the snapshot is not changed by the properties it was created from
+        props.addProperty(DoiInitAction.MINT_JOB_DIR_KEY, "/tmp/mint");
+        Assert.assertNull(config.getProperties().getFirstPropertyValue(DoiInitAction.MINT_JOB_DIR_KEY));
+
+        // or by the properties it returns
+        MultiValuedProperties copy = config.getProperties();
+        Assert.assertTrue(DoiConfig.isSame(getProperties(), copy));
+        copy.addProperty(DoiInitAction.MINT_JOB_DIR_KEY, "/tmp/mint");
+        Assert.assertNull(config.getProperties().getFirstPropertyValue(DoiInitAction.MINT_JOB_DIR_KEY));
+        Assert.assertFalse(DoiConfig.isSame(copy, config.getProperties()));
+    }
+
+    @Test
+    public void testExecutorSettings() throws Exception {
+        DoiConfig config = new DoiConfig(getProperties());
+        Assert.assertEquals(4, config.getTaskThreads());
+        Assert.assertEquals(DoiTaskExecutor.DEFAULT_TIMEOUT_SECONDS, config.getTaskTimeout());
+        Assert.assertTrue(config.useVirtualThreads());
+        Assert.assertEquals(DoiMintService.DEFAULT_THREADS, config.getMintThreads());
+
+        MultiValuedProperties props = getProperties();
+        props.addProperty(DoiInitAction.TASK_TIMEOUT_KEY, "5");
+        props.addProperty(DoiInitAction.TASK_VIRTUAL_THREADS_KEY, "false");
+        props.addProperty(DoiInitAction.MINT_THREADS_KEY, "3");
+        config = new DoiConfig(props);
+        Assert.assertEquals(5L, config.getTaskTimeout());
+        Assert.assertFalse(config.useVirtualThreads());
+        Assert.assertEquals(3, config.getMintThreads());
+        Assert.assertEquals(DoiConfig.DEFAULT_BULK_MINT_TIMEOUT_SECONDS, config.getBulkMintTimeout());
+
+        // a bulk mint must have time to register the DOIs
+        props = getProperties();
+        props.addProperty(DoiInitAction.BULK_MINT_TIMEOUT_KEY, "20");
+        try {
+            new DoiConfig(props);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains(DoiInitAction.BULK_MINT_TIMEOUT_KEY));
+        }
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        DoiConfig config = DoiConfig.reload(getProperties());
+        if (config == null) {
+            // loaded by another test
+            config = DoiConfig.getInstance();
+        }
+        Assert.assertSame(config, DoiConfig.getInstance());
+
+        // unchanged properties keep the snapshot
+        Assert.assertNull(DoiConfig.reload(getProperties()));
+        Assert.assertSame(config, DoiConfig.getInstance());
+
+        // a modified value replaces it
+        MultiValuedProperties modified = getProperties();
+        modified.addProperty(DoiInitAction.TASK_THREADS_KEY, "8");
+        DoiConfig updated = DoiConfig.reload(modified);
+        Assert.assertNotNull(updated);
+        Assert.assertNotSame(config, updated);
+        Assert.assertSame(updated, DoiConfig.getInstance());
+
+        // as does a removed property
+        Assert.assertNotNull(DoiConfig.reload(getProperties()));
+        MultiValuedProperties removed = new MultiValuedProperties();
+        for (String key : getProperties().keySet()) {
+            if (!DoiInitAction.TASK_THREADS_KEY.equals(key)) {
+                removed.addProperty(key, getProperties().getFirstPropertyValue(key));
+            }
+        }
+        Assert.assertNotNull(DoiConfig.reload(removed));
+    }
+
+    @Test
+    public void testIntValue() throws Exception {
+        MultiValuedProperties props = new MultiValuedProperties();
+        props.addProperty("a", " 3 ");
+        props.addProperty("b", "0");
+        props.addProperty("c", "many");
+        Assert.assertEquals(3, DoiConfig.getIntValue(props, "a", 5));
+        Assert.assertEquals(5, DoiConfig.getIntValue(props, "b", 5));
+        Assert.assertEquals(5, DoiConfig.getIntValue(props, "c", 5));
+        Assert.assertEquals(5, DoiConfig.getIntValue(props, "d", 5));
+    }
+}
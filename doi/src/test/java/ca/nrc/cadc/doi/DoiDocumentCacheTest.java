@@ -0,0 +1,153 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.nio.charset.StandardCharsets;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opencadc.vospace.DataNode;
+import org.opencadc.vospace.NodeProperty;
+import org.opencadc.vospace.VOS;
+
+public class DoiDocumentCacheTest {
+    private static final Logger log = Logger.getLogger(DoiDocumentCacheTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @After
+    public void cleanup() {
+        DoiDocumentCache.invalidateAll();
+    }
+
+    private static DoiDocumentCache.Document newDocument(String version, String format, boolean minted) {
+        byte[] content = ("<resource>" + version + "</resource>").getBytes(StandardCharsets.UTF_8);
+        return new DoiDocumentCache.Document(version, DoiDocumentCache.getETag(version, format),
+                null, "text/xml", content, minted);
+    }
+
+    @Test
+    public void testVersion() throws Exception {
+        DoiDocumentCache.put("24.0001", "xml", newDocument("v1", "xml", false));
+        Assert.assertNotNull(DoiDocumentCache.get("24.0001", "xml", "v1"));
+        Assert.assertNull(DoiDocumentCache.get("24.0001", "xml", "v2"));
+        Assert.assertNull(DoiDocumentCache.get("24.0001", "xml", null));
+        Assert.assertNull(DoiDocumentCache.get("24.0001", "json", "v1"));
+        Assert.assertNull(DoiDocumentCache.getMinted("24.0001", "xml"));
+
+        // a document without a version is not cached
+        DoiDocumentCache.put("24.0002", "xml",
+                new DoiDocumentCache.Document(null, null, null, "text/xml", new byte[0], true));
+        Assert.assertNull(DoiDocumentCache.getMinted("24.0002", "xml"));
+    }
+
+    @Test
+    public void testMinted() throws Exception {
+        DoiDocumentCache.put("24.0001", "xml", newDocument("v1", "xml", true));
+        DoiDocumentCache.put("24.0001", "json", newDocument("v1", "json", true));
+        DoiDocumentCache.put("24.00010", "xml", newDocument("v1", "xml", true));
+        Assert.assertNotNull(DoiDocumentCache.getMinted("24.0001", "xml"));
+
+        DoiDocumentCache.invalidate("24.0001");
+        Assert.assertNull(DoiDocumentCache.getMinted("24.0001", "xml"));
+        Assert.assertNull(DoiDocumentCache.getMinted("24.0001", "json"));
+        Assert.assertNotNull(DoiDocumentCache.getMinted("24.00010", "xml"));
+    }
+
+    @Test
+    public void testGetVersion() throws Exception {
+        DataNode node = new DataNode("24.0001.xml");
+        Assert.assertNull(DoiDocumentCache.getVersion(node));
+        node.getProperties().add(new NodeProperty(VOS.PROPERTY_URI_DATE, "2024-01-01T00:00:00.000"));
+        Assert.assertEquals("2024-01-01T00:00:00.000", DoiDocumentCache.getVersion(node));
+        node.getProperties().add(new NodeProperty(VOS.PROPERTY_URI_CONTENTMD5, "d41d8cd98f00b204e9800998ecf8427e"));
+        Assert.assertEquals("d41d8cd98f00b204e9800998ecf8427e", DoiDocumentCache.getVersion(node));
+    }
+
+    @Test
+    public void testETag() throws Exception {
+        String eTag = DoiDocumentCache.getETag("v1", "xml");
+        log.debug("eTag: " + eTag);
+        Assert.assertEquals(eTag, DoiDocumentCache.getETag("v1", "xml"));
+        Assert.assertNotEquals(eTag, DoiDocumentCache.getETag("v2", "xml"));
+        Assert.assertNotEquals(eTag, DoiDocumentCache.getETag("v1", "json"));
+        Assert.assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+
+        Assert.assertFalse(DoiAction.matchesETag(null, eTag));
+        Assert.assertTrue(DoiAction.matchesETag(eTag, eTag));
+        Assert.assertTrue(DoiAction.matchesETag("\"other\", W/" + eTag, eTag));
+        Assert.assertTrue(DoiAction.matchesETag("*", eTag));
+        Assert.assertFalse(DoiAction.matchesETag("\"other\"", eTag));
+    }
+}
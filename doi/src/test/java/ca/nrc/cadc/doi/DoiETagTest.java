@@ -0,0 +1,133 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.Date;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.NodeProperty;
+
+public class DoiETagTest {
+    private static final Logger log = Logger.getLogger(DoiETagTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static ContainerNode newNode(String status) {
+        ContainerNode node = new ContainerNode("24.0001");
+        node.getProperties().add(new NodeProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY, "123"));
+        node.getProperties().add(new NodeProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY, status));
+        node.getProperties().add(new NodeProperty(DOI.VOSPACE_DOI_TITLE_PROPERTY, "title"));
+        node.isPublic = false;
+        return node;
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        String eTag = new DoiETag().add("ab").add("c").getValue();
+        log.debug("eTag: " + eTag);
+        Assert.assertEquals(34, eTag.length());
+        Assert.assertEquals(eTag, new DoiETag().add("ab").add("c").getValue());
+        Assert.assertNotEquals(eTag, new DoiETag().add("a").add("bc").getValue());
+        Assert.assertNotEquals(new DoiETag().add(null).getValue(), new DoiETag().add("").getValue());
+    }
+
+    @Test
+    public void testStatus() throws Exception {
+        String eTag = new DoiETag().addStatus(newNode(Status.DRAFT.getValue())).getValue();
+        Assert.assertEquals(eTag, new DoiETag().addStatus(newNode(Status.DRAFT.getValue())).getValue());
+        Assert.assertNotEquals(eTag, new DoiETag().addStatus(newNode(Status.IN_REVIEW.getValue())).getValue());
+
+        ContainerNode node = newNode(Status.DRAFT.getValue());
+        node.isPublic = true;
+        Assert.assertNotEquals(eTag, new DoiETag().addStatus(node).getValue());
+
+        // properties that are not in a status do not change the tag
+        node = newNode(Status.DRAFT.getValue());
+        node.getProperties().remove(new NodeProperty(DOI.VOSPACE_DOI_REQUESTER_PROPERTY));
+        Assert.assertEquals(eTag, new DoiETag().addStatus(node).getValue());
+    }
+
+    @Test
+    public void testModifiedSince() throws Exception {
+        Date lastModified = new Date(1700000000123L);
+        Assert.assertTrue(DoiAction.isModifiedSince(null, lastModified));
+        Assert.assertTrue(DoiAction.isModifiedSince("not a date", lastModified));
+        // Tue, 14 Nov 2023 22:13:20 GMT is 1700000000 seconds
+        Assert.assertFalse(DoiAction.isModifiedSince("Tue, 14 Nov 2023 22:13:20 GMT", lastModified));
+        Assert.assertFalse(DoiAction.isModifiedSince("Tue, 14 Nov 2023 22:13:21 GMT", lastModified));
+        Assert.assertTrue(DoiAction.isModifiedSince("Tue, 14 Nov 2023 22:13:19 GMT", lastModified));
+    }
+}
@@ -0,0 +1,361 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.status.Status;
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import ca.nrc.cadc.uws.ExecutionPhase;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opencadc.vospace.ContainerNode;
+import org.opencadc.vospace.DataNode;
+import org.opencadc.vospace.Node;
+import org.opencadc.vospace.NodeNotFoundException;
+import org.opencadc.vospace.NodeProperty;
+import org.opencadc.vospace.VOSURI;
+
+/**
+ * The steps of a mint job, from the status of the DOI container node, with VOSpace kept
+ * in memory and a local stand-in for the DataCite REST API.
+ */
+public class DoiMintServiceTest {
+    private static final Logger log = Logger.getLogger(DoiMintServiceTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final String TEST_FILE = "src/test/resources/xml-4.5/datacite-example-full-v4.5.xml";
+    private static final String SUFFIX = "25.0001";
+    private static final String REGISTER_REQUEST = "PUT /api/dois/10.80791/" + SUFFIX + " application/vnd.api+json";
+    private static final String JOB_URL = "https://example.net/vault/async-setprops/job-1";
+
+    // a local stand-in for the DataCite REST API
+    private DataCiteStub dataCite;
+
+    private DoiConfig config;
+    private InMemoryClient client;
+    private ContainerNode doiContainerNode;
+    private DataNode xmlNode;
+
+    @Before
+    public void setup() throws Exception {
+        dataCite = new DataCiteStub("/api");
+
+        MultiValuedProperties props =
+                DoiConfigTest.getRequiredProperties("vos://cadc.nrc.ca~vault/AstroDataCitationDOI");
+        props.addProperty(DoiInitAction.DATACITE_API_KEY, DoiConfig.DATACITE_API_REST);
+        props.addProperty(DoiInitAction.DATACITE_REST_URL_KEY, dataCite.getURL() + "/");
+        config = new DoiConfig(props);
+
+        Resource resource = new DoiXmlReader(false).read(Files.readString(Paths.get(TEST_FILE)));
+        client = new InMemoryClient(config, resource);
+        doiContainerNode = new ContainerNode(SUFFIX);
+        doiContainerNode.isPublic = false;
+        client.nodes.put(SUFFIX, doiContainerNode);
+        client.nodes.put(SUFFIX + "/data", new ContainerNode("data"));
+        String xmlFilename = config.getMetadataPrefix() + SUFFIX + ".xml";
+        xmlNode = new DataNode(xmlFilename);
+        xmlNode.isPublic = false;
+        client.nodes.put(SUFFIX + "/" + xmlFilename, xmlNode);
+    }
+
+    @After
+    public void cleanup() {
+        dataCite.stop();
+    }
+
+    private void setStatus(Status status) {
+        doiContainerNode.getProperties().add(new NodeProperty(DOI.VOSPACE_DOI_STATUS_PROPERTY, status.getValue()));
+    }
+
+    private Status getStatus() {
+        return Status.toValue(doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_STATUS_PROPERTY));
+    }
+
+    private String getJobURL() {
+        return doiContainerNode.getPropertyValue(DOI.VOSPACE_DOI_JOB_URL_PROPERTY);
+    }
+
+    @Test
+    public void testLockingData() throws Exception {
+        setStatus(Status.DRAFT);
+        TestMinter minter = new TestMinter(config, client);
+
+        // the data locking job is started
+        Assert.assertFalse(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.LOCKING_DATA, getStatus());
+        Assert.assertEquals(JOB_URL, getJobURL());
+        Assert.assertEquals(1, minter.lockJobs);
+        Assert.assertTrue(dataCite.getRequests().isEmpty());
+
+        // and polled until it is finished
+        minter.phase = ExecutionPhase.EXECUTING;
+        Assert.assertFalse(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.LOCKING_DATA, getStatus());
+        Assert.assertTrue(dataCite.getRequests().isEmpty());
+
+        // then the DOI is registered in the same attempt
+        minter.phase = ExecutionPhase.COMPLETED;
+        Assert.assertTrue(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.MINTED, getStatus());
+        Assert.assertNull(getJobURL());
+        Assert.assertEquals(1, minter.lockJobs);
+        Assert.assertEquals(List.of(REGISTER_REQUEST), dataCite.getRequests());
+        Assert.assertTrue(doiContainerNode.isPublic);
+        Assert.assertTrue(xmlNode.isPublic);
+
+        // a minted DOI is not registered again
+        Assert.assertTrue(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(1, dataCite.getRequests().size());
+    }
+
+    @Test
+    public void testErrorLockingData() throws Exception {
+        setStatus(Status.LOCKING_DATA);
+        doiContainerNode.getProperties().add(new NodeProperty(DOI.VOSPACE_DOI_JOB_URL_PROPERTY, JOB_URL));
+        TestMinter minter = new TestMinter(config, client);
+        minter.phase = ExecutionPhase.ERROR;
+
+        // a failed data locking job fails the attempt
+        try {
+            DoiMintService.mintAsAdmin(minter, false);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            log.debug("caught expected: " + expected);
+        }
+        Assert.assertEquals(Status.ERROR_LOCKING_DATA, getStatus());
+        Assert.assertNull(getJobURL());
+        Assert.assertTrue(client.updated.contains(SUFFIX));
+        Assert.assertTrue(dataCite.getRequests().isEmpty());
+
+        // and the retry starts a new data locking job
+        Assert.assertFalse(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.LOCKING_DATA, getStatus());
+        Assert.assertEquals(JOB_URL, getJobURL());
+        Assert.assertEquals(1, minter.lockJobs);
+        Assert.assertTrue(dataCite.getRequests().isEmpty());
+    }
+
+    @Test
+    public void testRegistering() throws Exception {
+        // an interrupted registration is registered again
+        setStatus(Status.REGISTERING);
+        TestMinter minter = new TestMinter(config, client);
+        Assert.assertTrue(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.MINTED, getStatus());
+        Assert.assertEquals(List.of(REGISTER_REQUEST), dataCite.getRequests());
+        Assert.assertEquals(0, minter.lockJobs);
+        Assert.assertTrue(doiContainerNode.isPublic);
+        Assert.assertTrue(xmlNode.isPublic);
+    }
+
+    @Test
+    public void testRetryErrorRegistering() throws Exception {
+        setStatus(Status.LOCKED_DATA);
+        TestMinter minter = new TestMinter(config, client);
+
+        // DataCite rejects the registration
+        dataCite.addResponseCodes(422);
+        try {
+            DoiMintService.mintAsAdmin(minter, false);
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+            log.debug("caught expected: " + expected);
+        }
+        Assert.assertEquals(Status.ERROR_REGISTERING, getStatus());
+        Assert.assertFalse(doiContainerNode.isPublic);
+        Assert.assertFalse(xmlNode.isPublic);
+        Assert.assertEquals(1, dataCite.getRequests().size());
+
+        // the retry registers the DOI
+        Assert.assertTrue(DoiMintService.mintAsAdmin(minter, false));
+        Assert.assertEquals(Status.MINTED, getStatus());
+        Assert.assertEquals(2, dataCite.getRequests().size());
+        Assert.assertEquals(dataCite.getRequests().get(0), dataCite.getRequests().get(1));
+        Assert.assertEquals(0, minter.lockJobs);
+        Assert.assertTrue(doiContainerNode.isPublic);
+        Assert.assertTrue(xmlNode.isPublic);
+    }
+
+    @Test
+    public void testOwner() throws Exception {
+        setStatus(Status.REGISTERING);
+        TestMinter minter = new TestMinter(config, client);
+        TestMinter other = new TestMinter(config, client);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // a mint waits for the owner of the DOI
+            minter.acquire();
+            Future<Boolean> minted = executor.submit(() -> DoiMintService.mintAsAdmin(other, false));
+            Thread.sleep(200L);
+            Assert.assertFalse(minted.isDone());
+            Assert.assertTrue(dataCite.getRequests().isEmpty());
+            Assert.assertFalse(executor.submit(other::tryAcquire).get());
+
+            minter.release();
+            Assert.assertTrue(minted.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, dataCite.getRequests().size());
+
+            // and the DOI has no owner when it is done
+            Assert.assertTrue(executor.submit(() -> {
+                boolean acquired = other.tryAcquire();
+                other.release();
+                return acquired;
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // the DOI nodes in memory
+    private static class InMemoryClient extends VospaceDoiClient {
+        private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+        private final List<String> updated = new CopyOnWriteArrayList<>();
+        private final Resource resource;
+
+        InMemoryClient(DoiConfig config, Resource resource) {
+            super(config.getVaultResourceID(), config.getParentPath(), null, URI.create("ivo://example.net/gms"));
+            this.resource = resource;
+        }
+
+        @Override
+        public ContainerNode getContainerNode(String path) throws NodeNotFoundException {
+            return (ContainerNode) getNode(path);
+        }
+
+        @Override
+        public DataNode getDataNode(String path) throws NodeNotFoundException {
+            return (DataNode) getNode(path);
+        }
+
+        @Override
+        public Resource getResource(String doiSuffixString, String doiFilename) {
+            return resource;
+        }
+
+        @Override
+        public void setNode(VOSURI vosuri, Node node) {
+            String path = vosuri.getPath().substring(getDoiBaseVOSURI().getPath().length() + 1);
+            Assert.assertSame(nodes.get(path), node);
+            updated.add(path);
+        }
+
+        private Node getNode(String path) throws NodeNotFoundException {
+            Node node = nodes.get(path);
+            if (node == null) {
+                throw new NodeNotFoundException(path);
+            }
+            return node;
+        }
+    }
+
+    // the VOSpace jobs of a minter: the data locking job is started and has the given phase
+    private static class TestMinter extends DoiMinter {
+        private volatile ExecutionPhase phase = ExecutionPhase.QUEUED;
+        private int lockJobs = 0;
+
+        TestMinter(DoiConfig config, VospaceDoiClient client) {
+            super(config, client, SUFFIX);
+        }
+
+        @Override
+        URL startRecursiveSetNode(VOSURI dataVOSURI, ContainerNode dataContainerNode) throws Exception {
+            Assert.assertTrue(dataContainerNode.isLocked);
+            lockJobs++;
+            return new URL(JOB_URL);
+        }
+
+        @Override
+        ExecutionPhase getJobPhase(URL jobURL, ContainerNode doiContainerNode, int waitSeconds) {
+            Assert.assertEquals(JOB_URL, jobURL.toExternalForm());
+            return phase;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiSuffixAllocatorTest {
+    private static final Logger log = Logger.getLogger(DoiSuffixAllocatorTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final Clock CLOCK_25 = Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC);
+    private static final Clock CLOCK_26 = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    public void testSeed() {
+        DoiSuffixAllocator allocator = new DoiSuffixAllocator(null, CLOCK_25);
+        Assert.assertFalse(allocator.isSeeded());
+        allocator.seed(List.of("25.0001", "25.0012", "24.0099", "25.0003", "misc", "25.abcd"), "");
+        Assert.assertTrue(allocator.isSeeded());
+        Assert.assertEquals("25.0013", allocator.next());
+        Assert.assertEquals("25.0014", allocator.next());
+
+        // seeding again does not go back
+        allocator.seed(List.of("25.0001"), "");
+        Assert.assertEquals("25.0015", allocator.next());
+
+        // names with a prefix
+        allocator = new DoiSuffixAllocator(null, CLOCK_25);
+        allocator.seed(List.of("RAFT.25.0007", "25.0020", "RAFT.24.0030"), "RAFT.");
+        Assert.assertEquals("25.0008", allocator.next());
+
+        // the first DOI of the year
+        allocator = new DoiSuffixAllocator(null, CLOCK_25);
+        allocator.seed(List.of(), "");
+        Assert.assertEquals("25.0001", allocator.next());
+    }
+
+    @Test
+    public void testState() throws Exception {
+        File dir = Files.createTempDirectory("doi-suffix").toFile();
+        try {
+            DoiSuffixAllocator allocator = new DoiSuffixAllocator(dir, CLOCK_25);
+            allocator.seed(List.of("25.0041"), "");
+            Assert.assertEquals("25.0042", allocator.next());
+
+            // a restarted service continues without seeding
+            allocator = new DoiSuffixAllocator(dir, CLOCK_25);
+            Assert.assertTrue(allocator.isSeeded());
+            Assert.assertEquals("25.0043", allocator.next());
+
+            // numbers start again in a new year
+            allocator = new DoiSuffixAllocator(dir, CLOCK_26);
+            Assert.assertTrue(allocator.isSeeded());
+            Assert.assertEquals("26.0001", allocator.next());
+
+            // invalid state is ignored
+            Files.write(new File(dir, DoiSuffixAllocator.STATE_FILE).toPath(), "last=x".getBytes());
+            allocator = new DoiSuffixAllocator(dir, CLOCK_26);
+            Assert.assertFalse(allocator.isSeeded());
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws Exception {
+        DoiSuffixAllocator allocator = new DoiSuffixAllocator(null, CLOCK_25);
+        allocator.seed(List.of("25.0100"), "");
+        Set<String> suffixes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        suffixes.add(allocator.next());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(800, suffixes.size());
+        Assert.assertEquals("25.0901", allocator.next());
+        log.debug("allocated: " + suffixes.size());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.util.MultiValuedProperties;
+import java.security.AccessController;
+import java.security.Principal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.security.auth.Subject;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiTaskExecutorTest {
+    private static final Logger log = Logger.getLogger(DoiTaskExecutorTest.class);
+
+    private static final String PARENT_URI = "vos://cadc.nrc.ca~vault/AstroDataCitationDOI";
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @After
+    public void cleanup() {
+        DoiTaskExecutor.shutdown();
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(2, 1000L, false);
+        Subject subject = new Subject();
+        Principal principal = () -> "someone";
+        subject.getPrincipals().add(principal);
+
+        // the task runs as the given subject
+        @SuppressWarnings("removal")
+        Future<Subject> future = executor.submit(subject, () -> Subject.getSubject(AccessController.getContext()));
+        Subject taskSubject = DoiTaskExecutor.await(future, System.currentTimeMillis() + 5000L);
+        Assert.assertSame(subject, taskSubject);
+
+        // the exception of the task is thrown as is
+        Future<Object> failed = executor.submit(null, () -> {
+            throw new IllegalStateException("failed");
+        });
+        try {
+            DoiTaskExecutor.await(failed, System.currentTimeMillis() + 5000L);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            Assert.assertEquals("failed", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        DoiTaskExecutor executor = new DoiTaskExecutor(1, 1000L, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<String> slow = executor.submit(null, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60000L);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw ex;
+            }
+            return "slow";
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // a task that is not completed by the deadline is cancelled
+        long start = System.currentTimeMillis();
+        try {
+            DoiTaskExecutor.await(slow, start + 200L);
+            Assert.fail("expected TimeoutException");
+        } catch (TimeoutException expected) {
+            log.debug("caught expected: " + expected);
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+        Assert.assertTrue(slow.isCancelled());
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        // a task that is cancelled before it runs is reported as timed out
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> busy = executor.submit(null, () -> release.await(5, TimeUnit.SECONDS));
+        Future<String> cancelled = executor.submit(null, () -> "cancelled");
+        cancelled.cancel(false);
+        try {
+            DoiTaskExecutor.await(cancelled, System.currentTimeMillis() + 1000L);
+            Assert.fail("expected TimeoutException");
+        } catch (TimeoutException expected) {
+            log.debug("caught expected: " + expected);
+        }
+        release.countDown();
+        Assert.assertTrue(DoiTaskExecutor.await(busy, System.currentTimeMillis() + 5000L));
+
+        // a deadline in the past still returns a completed result
+        Future<String> done = executor.submit(null, () -> "done");
+        Assert.assertEquals("done", DoiTaskExecutor.await(done, System.currentTimeMillis() + 5000L));
+        Assert.assertEquals("done", DoiTaskExecutor.await(done, 0L));
+    }
+
+    private static DoiConfig getConfig(String threads, String timeout) {
+        MultiValuedProperties props = DoiConfigTest.getRequiredProperties(PARENT_URI);
+        props.addProperty(DoiInitAction.TASK_THREADS_KEY, threads);
+        props.addProperty(DoiInitAction.TASK_TIMEOUT_KEY, timeout);
+        props.addProperty(DoiInitAction.TASK_VIRTUAL_THREADS_KEY, "false");
+        return new DoiConfig(props);
+    }
+
+    @Test
+    public void testGetInstance() throws Exception {
+        DoiConfig config = getConfig("3", "5");
+        DoiTaskExecutor executor = DoiTaskExecutor.getInstance(config);
+        Assert.assertEquals(3, executor.getThreads());
+        long deadline = executor.getDeadline() - System.currentTimeMillis();
+        Assert.assertTrue("deadline: " + deadline, deadline > 4000L && deadline <= 5000L);
+        Assert.assertSame(executor, DoiTaskExecutor.getInstance(config));
+
+        // a task submitted before the configuration changed is completed
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> running = executor.submit(null, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "running";
+        });
+
+        // the executor is replaced when the configuration is reloaded, not by a request
+        DoiConfig reloaded = getConfig("4", "5");
+        Assert.assertSame(executor, DoiTaskExecutor.getInstance(reloaded));
+        DoiTaskExecutor.reconfigure(reloaded);
+        DoiTaskExecutor replaced = DoiTaskExecutor.getInstance(reloaded);
+        Assert.assertNotSame(executor, replaced);
+        Assert.assertEquals(4, replaced.getThreads());
+        release.countDown();
+        Assert.assertEquals("running", DoiTaskExecutor.await(running, System.currentTimeMillis() + 5000L));
+
+        // invalid values use the defaults
+        DoiConfig invalid = getConfig("none", "-1");
+        DoiTaskExecutor.reconfigure(invalid);
+        DoiTaskExecutor defaults = DoiTaskExecutor.getInstance(invalid);
+        Assert.assertEquals(DoiTaskExecutor.DEFAULT_THREADS, defaults.getThreads());
+        deadline = defaults.getDeadline() - System.currentTimeMillis();
+        Assert.assertTrue("deadline: " + deadline,
+                deadline > TimeUnit.SECONDS.toMillis(DoiTaskExecutor.DEFAULT_TIMEOUT_SECONDS) - 1000L);
+    }
+}
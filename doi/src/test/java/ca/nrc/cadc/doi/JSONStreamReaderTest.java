@@ -0,0 +1,243 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiJsonReader;
+import ca.nrc.cadc.doi.io.DoiJsonWriter;
+import ca.nrc.cadc.doi.io.DoiParsingException;
+import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.io.JdomResourceReader;
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.xml.JsonInputter;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compare the single pass DoiJsonReader with building the Resource from a JDOM document.
+ */
+public class JSONStreamReaderTest extends TestBase {
+    private static final Logger log = Logger.getLogger(JSONStreamReaderTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final String NS = "\"@xmlns\": \"http://datacite.org/schema/kernel-4\"";
+    private static final String IDENTIFIER = "\"identifier\": {\"@identifierType\": \"DOI\", \"$\": \"10.5072/example\"}";
+    private static final String CREATORS = "\"creators\": {\"$\": [{\"creator\": {\"creatorName\": {\"$\": \"Smith, J.\"}}}]}";
+    private static final String TITLES = "\"titles\": {\"$\": [{\"title\": {\"$\": \"Example\"}}]}";
+    private static final String REQUIRED = IDENTIFIER + ", " + CREATORS + ", " + TITLES
+            + ", \"publisher\": {\"$\": \"Example\"}, \"publicationYear\": {\"$\": \"2024\"}"
+            + ", \"resourceType\": {\"@resourceTypeGeneral\": \"Dataset\", \"$\": \"Dataset\"}";
+
+    // builds the Resource from a JDOM document
+    private static class DocumentReader extends JdomResourceReader {
+        Resource readDocument(String json) throws Exception {
+            return buildResource(new JsonInputter().input(json));
+        }
+    }
+
+    @Test
+    public void testSameResource() throws Exception {
+        DoiXmlReader xmlReader = new DoiXmlReader(false);
+        DoiJsonWriter writer = new DoiJsonWriter();
+        DoiJsonReader reader = new DoiJsonReader();
+        DocumentReader documentReader = new DocumentReader();
+        for (String dir : new String[] {"src/test/resources/xml-4.1", "src/test/resources/xml-4.5"}) {
+            for (Path filePath : getTestFiles(dir)) {
+                log.info("test file: " + filePath);
+                StringBuilder sb = new StringBuilder();
+                writer.write(xmlReader.read(Files.readString(filePath)), sb);
+                String json = sb.toString();
+                compareResource(documentReader.readDocument(json), reader.read(json));
+            }
+        }
+
+        // members in any order, numbers, unsupported members and nested arrays
+        String json = "{\"resource\": {" + NS + ", \"subjects\": {\"$\": [{\"subject\": {\"$\": \"s\"}}]}, "
+                + "\"resourceType\": {\"@resourceTypeGeneral\": \"Software\", \"$\": \"Code\"}, "
+                + "\"titles\": {\"$\": [{\"title\": {\"@xml:lang\": \"en\", \"$\": \"First\"}}, "
+                + "{\"title\": {\"@titleType\": \"Subtitle\", \"$\": \"Sub\\u00e9\"}}]}, "
+                + "\"publicationYear\": {\"$\": 2020}, \"publisher\": {\"$\": \"P\"}, "
+                + "\"creators\": {\"$\": [{\"creator\": {\"affiliation\": {\"$\": \"A\"}, "
+                + "\"creatorName\": {\"@nameType\": \"Personal\", \"$\": \"C\"}, "
+                + "\"givenName\": {\"$\": \"G\"}, \"familyName\": {\"$\": \"F\"}}}]}, "
+                + "\"language\": {\"$\": \"en\"}, " + IDENTIFIER + "}}";
+        compareResource(documentReader.readDocument(json), reader.read(json));
+    }
+
+    @Test
+    public void testSameErrors() throws Exception {
+        DocumentReader documentReader = new DocumentReader();
+        DoiJsonReader reader = new DoiJsonReader();
+        String[] invalid = new String[] {
+            "{\"resource\": {" + NS + "}}",
+            "{\"resource\": {" + NS + ", " + IDENTIFIER + ", \"creators\": {\"$\": []}}}",
+            "{\"resource\": {" + NS + ", " + IDENTIFIER
+                + ", \"creators\": {\"$\": [{\"creator\": {\"givenName\": {\"$\": \"g\"}}}]}}}",
+            // the error for titles is reported before the error for publisher
+            "{\"resource\": {" + NS + ", \"publisher\": {}, " + IDENTIFIER + ", " + CREATORS
+                + ", \"titles\": {\"$\": []}}}",
+            "{\"resource\": {" + NS + ", " + IDENTIFIER + ", " + CREATORS
+                + ", \"titles\": {\"$\": [{\"title\": {\"@titleType\": \"Bogus\", \"$\": \"t\"}}]}}}",
+            "{\"resource\": {" + NS + ", " + REQUIRED
+                + ", \"dates\": {\"$\": [{\"date\": {\"@dateType\": \"Bogus\", \"$\": \"2020\"}}]}}}",
+            "{\"resource\": {" + NS + ", " + REQUIRED + ", \"contributors\": {\"$\": [{\"contributor\": "
+                + "{\"contributorName\": {\"$\": \"c\"}}}]}}}",
+        };
+        for (String json : invalid) {
+            Exception expected = null;
+            try {
+                documentReader.readDocument(json);
+            } catch (Exception ex) {
+                expected = ex;
+            }
+            Assert.assertNotNull("expected failure: " + json, expected);
+            try {
+                reader.read(json);
+                Assert.fail("expected " + expected + " for " + json);
+            } catch (DoiParsingException | IllegalArgumentException actual) {
+                log.debug("expected: " + actual);
+                Assert.assertEquals(json, expected.getClass(), actual.getClass());
+                Assert.assertEquals(json, expected.getMessage(), actual.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidJson() throws Exception {
+        String[] invalid = new String[] {
+            "",
+            "[]",
+            "{\"resource\": {" + NS + ", " + REQUIRED,
+            "{\"resource\": {" + NS + ", " + REQUIRED + ",}}",
+            "{\"resource\": {" + NS + ", " + REQUIRED + ", " + IDENTIFIER + "}}",
+            "{\"resource\": {" + NS + ", " + REQUIRED + ", \"language\": {\"$\": tru}}}",
+            "{\"resource\": {" + NS + ", " + REQUIRED + "}} {}",
+        };
+        DoiJsonReader reader = new DoiJsonReader();
+        for (String json : invalid) {
+            try {
+                reader.read(json);
+                Assert.fail("expected parse failure for " + json);
+            } catch (DoiParsingException expected) {
+                log.debug("expected: " + expected);
+                Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("JSON parsing error: "));
+            }
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        String json = "{\"resource\": {" + NS + ", " + REQUIRED + "}}";
+        Assert.assertNotNull(new DoiJsonReader(json.length()).read(json));
+        try {
+            new DoiJsonReader(json.length() - 1).read(json);
+            Assert.fail("expected max size failure");
+        } catch (DoiParsingException expected) {
+            log.debug("expected: " + expected);
+            Assert.assertEquals("JSON document exceeds the maximum size of " + (json.length() - 1) + " characters",
+                    expected.getMessage());
+        }
+
+        // the document is not read past the maximum size
+        final long[] count = new long[1];
+        Reader endless = new Reader() {
+            @Override
+            public int read(char[] buf, int off, int len) {
+                if (count[0] == 0) {
+                    buf[off] = '{';
+                    len = 1;
+                } else {
+                    Arrays.fill(buf, off, off + len, ' ');
+                }
+                count[0] += len;
+                return len;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            new DoiJsonReader(100000).read(endless);
+            Assert.fail("expected max size failure");
+        } catch (DoiParsingException expected) {
+            log.debug("expected: " + expected);
+            Assert.assertTrue("read " + count[0], count[0] < 200000);
+        }
+    }
+}
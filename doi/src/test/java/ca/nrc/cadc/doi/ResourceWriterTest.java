@@ -0,0 +1,214 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiJsonReader;
+import ca.nrc.cadc.doi.io.DoiJsonWriter;
+import ca.nrc.cadc.doi.io.DoiReader;
+import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.io.DoiXmlWriter;
+import ca.nrc.cadc.doi.io.JdomResourceWriter;
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.util.StringBuilderWriter;
+import ca.nrc.cadc.xml.JsonOutputter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.jdom2.Document;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compare the streaming DoiXmlWriter and DoiJsonWriter with writing a JDOM document
+ * with XMLOutputter and JsonOutputter.
+ */
+public class ResourceWriterTest extends TestBase {
+    private static final Logger log = Logger.getLogger(ResourceWriterTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final String[] TEST_DIRS = new String[] {"src/test/resources/xml-4.1", "src/test/resources/xml-4.5"};
+
+    // the list elements of the JSON document
+    private static final List<String> LIST_ELEMENT_NAMES = List.of(DoiReader.CREATORS, DoiReader.TITLES,
+            DoiReader.CONTRIBUTORS, DoiReader.DATES, DoiReader.SIZES, DoiReader.RIGHTS_LIST, DoiReader.DESCRIPTIONS,
+            DoiReader.RELATED_IDENTIFIERS);
+
+    // writes the JDOM element tree of the resource
+    private static class DocumentWriter extends JdomResourceWriter {
+        // the pretty XML written by XMLOutputter from the JDOM document
+        String writeDocument(Resource resource) throws Exception {
+            XMLOutputter outputter = new XMLOutputter();
+            outputter.setFormat(Format.getPrettyFormat());
+            StringBuilder sb = new StringBuilder();
+            outputter.output(new Document(getRootElement(resource)), new StringBuilderWriter(sb));
+            return sb.toString();
+        }
+
+        // the pretty JSON written by JsonOutputter from the JDOM document
+        String writeJsonDocument(Resource resource) throws Exception {
+            JsonOutputter outputter = new JsonOutputter();
+            outputter.getListElementNames().addAll(LIST_ELEMENT_NAMES);
+            Format fmt = Format.getPrettyFormat();
+            fmt.setIndent("  ");
+            outputter.setFormat(fmt);
+            StringBuilder sb = new StringBuilder();
+            outputter.output(new Document(getRootElement(resource)), new StringBuilderWriter(sb));
+            return sb.toString();
+        }
+    }
+
+    @Test
+    public void testSamePrettyXml() throws Exception {
+        DoiXmlReader reader = new DoiXmlReader(false);
+        DoiXmlWriter writer = new DoiXmlWriter();
+        DocumentWriter documentWriter = new DocumentWriter();
+        for (String dir : TEST_DIRS) {
+            for (Path filePath : getTestFiles(dir)) {
+                log.info("test file: " + filePath);
+                Resource resource = reader.read(Files.readString(filePath));
+                StringBuilder sb = new StringBuilder();
+                writer.write(resource, sb);
+                Assert.assertEquals(filePath.toString(), documentWriter.writeDocument(resource), sb.toString());
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writer.write(resource, out);
+                Assert.assertEquals(filePath.toString(), sb.toString(), out.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testCompactXml() throws Exception {
+        DoiXmlReader reader = new DoiXmlReader(false);
+        DoiXmlWriter writer = new DoiXmlWriter(false);
+        for (String dir : TEST_DIRS) {
+            for (Path filePath : getTestFiles(dir)) {
+                log.info("test file: " + filePath);
+                Resource expected = reader.read(Files.readString(filePath));
+                StringBuilder sb = new StringBuilder();
+                writer.write(expected, sb);
+                String xml = sb.toString();
+                String body = xml.substring(xml.indexOf("<resource")).trim();
+                Assert.assertFalse(filePath.toString(), body.contains(">\r\n<") || body.contains(">\n<"));
+                compareResource(expected, reader.read(xml));
+            }
+        }
+    }
+
+    @Test
+    public void testSamePrettyJson() throws Exception {
+        DoiXmlReader reader = new DoiXmlReader(false);
+        DoiJsonWriter writer = new DoiJsonWriter();
+        DocumentWriter documentWriter = new DocumentWriter();
+        for (String dir : TEST_DIRS) {
+            for (Path filePath : getTestFiles(dir)) {
+                log.info("test file: " + filePath);
+                Resource resource = reader.read(Files.readString(filePath));
+                StringBuilder sb = new StringBuilder();
+                writer.write(resource, sb);
+                Assert.assertEquals(filePath.toString(), documentWriter.writeJsonDocument(resource), sb.toString());
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writer.write(resource, out);
+                Assert.assertEquals(filePath.toString(), sb.toString(), out.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        DoiXmlReader xmlReader = new DoiXmlReader(false);
+        DoiJsonReader reader = new DoiJsonReader();
+        for (boolean prettyPrint : new boolean[] {true, false}) {
+            DoiJsonWriter writer = new DoiJsonWriter(prettyPrint);
+            for (String dir : TEST_DIRS) {
+                for (Path filePath : getTestFiles(dir)) {
+                    log.info("test file: " + filePath + " pretty: " + prettyPrint);
+                    Resource expected = xmlReader.read(Files.readString(filePath));
+                    StringBuilder sb = new StringBuilder();
+                    writer.write(expected, sb);
+                    String json = sb.toString();
+                    Assert.assertEquals(filePath.toString(), prettyPrint, json.contains("\n"));
+                    compareResource(expected, reader.read(json));
+                }
+            }
+        }
+    }
+
+}
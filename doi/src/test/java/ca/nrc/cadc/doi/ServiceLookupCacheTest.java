@@ -0,0 +1,164 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceLookupCacheTest {
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final URI STANDARD = URI.create("ivo://ivoa.net/std/test#search-1.0");
+    private static final URI SERVICE = URI.create("ivo://example.net/service");
+    private static final URI OTHER_SERVICE = URI.create("ivo://example.net/other");
+
+    @After
+    public void cleanup() {
+        ServiceLookupCache.invalidateAll();
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        long now = System.currentTimeMillis();
+
+        Set<URI> ids = ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+            lookups.incrementAndGet();
+            return Set.of(SERVICE);
+        }, now);
+        Assert.assertEquals(Set.of(SERVICE), ids);
+        Assert.assertEquals(1, lookups.get());
+
+        // the lookup is cached until the refresh interval has passed
+        ids = ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+            lookups.incrementAndGet();
+            return Set.of(OTHER_SERVICE);
+        }, now + ServiceLookupCache.REFRESH_MILLIS - 1);
+        Assert.assertEquals(Set.of(SERVICE), ids);
+        Assert.assertEquals(1, lookups.get());
+
+        now += ServiceLookupCache.REFRESH_MILLIS;
+        ids = ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+            lookups.incrementAndGet();
+            return Set.of(OTHER_SERVICE);
+        }, now);
+        Assert.assertEquals(Set.of(OTHER_SERVICE), ids);
+        Assert.assertEquals(2, lookups.get());
+        try {
+            ids.add(SERVICE);
+            Assert.fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            // the cached set is shared
+        }
+    }
+
+    @Test
+    public void testFailedRefresh() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        long now = System.currentTimeMillis();
+
+        // without a previous result the failure is thrown
+        try {
+            ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+                lookups.incrementAndGet();
+                throw new IllegalStateException("registry unavailable");
+            }, now);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            Assert.assertEquals("registry unavailable", expected.getMessage());
+        }
+
+        ServiceLookupCache.getResourceIDs(STANDARD, id -> Set.of(SERVICE), now);
+
+        // a failed refresh keeps the previous result until the next refresh
+        now += ServiceLookupCache.REFRESH_MILLIS;
+        Set<URI> ids = ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+            lookups.incrementAndGet();
+            throw new IllegalStateException("registry unavailable");
+        }, now);
+        Assert.assertEquals(Set.of(SERVICE), ids);
+        Assert.assertEquals(2, lookups.get());
+
+        ids = ServiceLookupCache.getResourceIDs(STANDARD, id -> {
+            lookups.incrementAndGet();
+            return Set.of(OTHER_SERVICE);
+        }, now + 1);
+        Assert.assertEquals(Set.of(SERVICE), ids);
+        Assert.assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.log4j.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VospaceDoiClientTest {
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final URI GMS = URI.create("ivo://example.net/gms");
+    private static final URI OTHER_GMS = URI.create("ivo://example.net/other-gms");
+
+    private static DoiConfig getConfig(String parentUri) {
+        return new DoiConfig(DoiConfigTest.getRequiredProperties(parentUri));
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        DoiConfig config = getConfig("vos://cadc.nrc.ca~vault/AstroDataCitationDOI");
+
+        // requests with the same configuration share one client
+        VospaceDoiClient client = VospaceDoiClient.getInstance(config, GMS);
+        Assert.assertSame(client, VospaceDoiClient.getInstance(config, GMS));
+        Assert.assertEquals(config.getParentVOSURI().getURI(), client.getDoiBaseVOSURI().getURI());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<VospaceDoiClient>> futures = new ArrayList<>();
+            Callable<VospaceDoiClient> task = () -> VospaceDoiClient.getInstance(config, GMS);
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<VospaceDoiClient> future : futures) {
+                Assert.assertSame(client, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReplaced() throws Exception {
+        DoiConfig config = getConfig("vos://cadc.nrc.ca~vault/AstroDataCitationDOI");
+        VospaceDoiClient client = VospaceDoiClient.getInstance(config, GMS);
+
+        // a change of the GMS service replaces the client
+        VospaceDoiClient otherGms = VospaceDoiClient.getInstance(config, OTHER_GMS);
+        Assert.assertNotSame(client, otherGms);
+        Assert.assertSame(otherGms, VospaceDoiClient.getInstance(config, OTHER_GMS));
+
+        // as does a reloaded configuration
+        DoiConfig reloaded = getConfig("vos://cadc.nrc.ca~vault/OtherDOI");
+        VospaceDoiClient replaced = VospaceDoiClient.getInstance(reloaded, OTHER_GMS);
+        Assert.assertNotSame(otherGms, replaced);
+        Assert.assertEquals(reloaded.getParentVOSURI().getURI(), replaced.getDoiBaseVOSURI().getURI());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi;
+
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiParsingException;
+import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.io.JdomResourceReader;
+import ca.nrc.cadc.util.Log4jInit;
+import ca.nrc.cadc.xml.XmlUtil;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.jdom2.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compare the single pass DoiXmlReader with building the Resource from a JDOM document.
+ */
+public class XMLStreamReaderTest extends TestBase {
+    private static final Logger log = Logger.getLogger(XMLStreamReaderTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final String NS = "xmlns=\"http://datacite.org/schema/kernel-4\"";
+    private static final String IDENTIFIER = "<identifier identifierType=\"DOI\">10.5072/example</identifier>";
+    private static final String CREATORS = "<creators><creator><creatorName>Smith, J.</creatorName></creator></creators>";
+    private static final String TITLES = "<titles><title>Example</title></titles>";
+    private static final String REQUIRED = IDENTIFIER + CREATORS + TITLES
+            + "<publisher>Example</publisher><publicationYear>2024</publicationYear>"
+            + "<resourceType resourceTypeGeneral=\"Dataset\">Dataset</resourceType>";
+
+    // builds the Resource from a JDOM document
+    private static class DocumentReader extends JdomResourceReader {
+        Resource readDocument(String xml) throws Exception {
+            Document doc = XmlUtil.buildDocument(new StringReader(xml), null);
+            return buildResource(doc);
+        }
+    }
+
+    @Test
+    public void testSameResource() throws Exception {
+        DoiXmlReader reader = new DoiXmlReader();
+        DocumentReader documentReader = new DocumentReader();
+        for (String dir : new String[] {"src/test/resources/xml-4.1", "src/test/resources/xml-4.5"}) {
+            for (Path filePath : getTestFiles(dir)) {
+                log.info("test file: " + filePath);
+                String xml = Files.readString(filePath);
+                compareResource(documentReader.readDocument(xml), reader.read(xml));
+            }
+        }
+
+        // elements in any order, unsupported elements and duplicates are ignored
+        String xml = "<resource " + NS + "><subjects><subject>s</subject></subjects>"
+                + "<resourceType resourceTypeGeneral=\"Software\">Code</resourceType>"
+                + "<titles><title xml:lang=\"en\">First</title><!-- comment --><title titleType=\"Subtitle\">Sub</title></titles>"
+                + "<publicationYear>2020</publicationYear><publisher>P</publisher>"
+                + "<creators><creator><affiliation>A</affiliation><creatorName nameType=\"Personal\">C</creatorName>"
+                + "<givenName>G</givenName><familyName>F</familyName></creator></creators>"
+                + "<titles><title>Ignored</title></titles>" + IDENTIFIER + "</resource>";
+        compareResource(documentReader.readDocument(xml), new DoiXmlReader(false).read(xml));
+    }
+
+    @Test
+    public void testSameErrors() throws Exception {
+        DocumentReader documentReader = new DocumentReader();
+        DoiXmlReader reader = new DoiXmlReader(false);
+        String[] invalid = new String[] {
+            "<resource " + NS + "/>",
+            "<resource " + NS + ">" + IDENTIFIER + "<creators/>" + "</resource>",
+            "<resource " + NS + ">" + IDENTIFIER + "<creators><creator><givenName>g</givenName></creator></creators></resource>",
+            // the error for titles is reported before the error for publisher
+            "<resource " + NS + "><publisher/>" + IDENTIFIER + CREATORS + "<titles/></resource>",
+            "<resource " + NS + ">" + IDENTIFIER + CREATORS + "<titles><title titleType=\"Bogus\">t</title></titles></resource>",
+            "<resource " + NS + ">" + REQUIRED + "<dates><date dateType=\"Bogus\">2020</date></dates></resource>",
+            "<resource " + NS + ">" + REQUIRED + "<contributors><contributor><contributorName>c</contributorName>"
+                + "</contributor></contributors></resource>",
+        };
+        for (String xml : invalid) {
+            Exception expected = null;
+            try {
+                documentReader.readDocument(xml);
+            } catch (Exception ex) {
+                expected = ex;
+            }
+            Assert.assertNotNull("expected failure: " + xml, expected);
+            try {
+                reader.read(xml);
+                Assert.fail("expected " + expected + " for " + xml);
+            } catch (DoiParsingException | IllegalArgumentException actual) {
+                log.debug("expected: " + actual);
+                Assert.assertEquals(xml, expected.getClass(), actual.getClass());
+                Assert.assertEquals(xml, expected.getMessage(), actual.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidDocument() throws Exception {
+        String xml = "<resource " + NS + ">" + IDENTIFIER + "<creators/></resource>";
+        try {
+            new DoiXmlReader().read(xml);
+            Assert.fail("expected schema validation failure");
+        } catch (DoiParsingException expected) {
+            log.debug("expected: " + expected);
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("XML failed schema validation: Error on line 1: "));
+        }
+
+        try {
+            new DoiXmlReader(false).read("<resource " + NS + ">" + IDENTIFIER);
+            Assert.fail("expected parse failure");
+        } catch (DoiParsingException expected) {
+            log.debug("expected: " + expected);
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("XML failed schema validation: "));
+        }
+    }
+}
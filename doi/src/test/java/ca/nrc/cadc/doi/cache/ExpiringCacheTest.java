@@ -0,0 +1,251 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.cache;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpiringCacheTest {
+    private static final Logger log = Logger.getLogger(ExpiringCacheTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @Test
+    public void testHitAndMiss() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        Assert.assertEquals(1, (int) cache.get("a", loads::incrementAndGet));
+        Assert.assertEquals(1, (int) cache.get("a", loads::incrementAndGet));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        cache.invalidate("a");
+        Assert.assertEquals(2, (int) cache.get("a", loads::incrementAndGet));
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 50, TimeUnit.MILLISECONDS, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", loads::incrementAndGet);
+        Thread.sleep(100L);
+        Assert.assertNull(cache.getIfPresent("a"));
+        cache.get("a", loads::incrementAndGet);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testPutWithTTL() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 50, TimeUnit.MILLISECONDS, 10);
+        cache.put("short", 1);
+        cache.put("long", 2, 1, TimeUnit.MINUTES);
+        Thread.sleep(100L);
+        Assert.assertNull(cache.getIfPresent("short"));
+        Assert.assertEquals(2, (int) cache.getIfPresent("long"));
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 5);
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            cache.get(i, () -> value);
+        }
+        Assert.assertEquals(5, cache.size());
+
+        // the most recently added entries are kept
+        Assert.assertEquals(19, (int) cache.getIfPresent(19));
+        Assert.assertNull(cache.getIfPresent(0));
+    }
+
+    @Test
+    public void testEvictionOrder() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 3);
+        cache.put("late", 1, 3, TimeUnit.MINUTES);
+        cache.put("soon", 2, 1, TimeUnit.MINUTES);
+        cache.put("later", 3, 5, TimeUnit.MINUTES);
+
+        // replacing or removing entries does not take up room in the cache
+        for (int i = 0; i < 100; i++) {
+            cache.put("later", i, 5, TimeUnit.MINUTES);
+            cache.invalidate("soon");
+            cache.put("soon", 2, 1, TimeUnit.MINUTES);
+        }
+        Assert.assertEquals(3, cache.size());
+
+        // the entry closest to expiry is evicted first
+        cache.put("next", 4, 2, TimeUnit.MINUTES);
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(cache.getIfPresent("soon"));
+        Assert.assertEquals(1, (int) cache.getIfPresent("late"));
+        Assert.assertEquals(99, (int) cache.getIfPresent("later"));
+        Assert.assertEquals(4, (int) cache.getIfPresent("next"));
+
+        cache.invalidateIf(key -> key.startsWith("late"));
+        Assert.assertEquals(1, cache.size());
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoaderError() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> loader = executor.submit(() -> cache.get("a", () -> {
+                loading.countDown();
+                release.await();
+                throw new AssertionError("expected");
+            }));
+            loading.await();
+            Future<Integer> waiter = executor.submit(() -> cache.get("a", () -> 1));
+            Thread.sleep(100L);
+            release.countDown();
+
+            // the caller waiting for the load is not left waiting when the loader throws an Error
+            for (Future<Integer> result : List.of(loader, waiter)) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    Assert.fail("expected AssertionError");
+                } catch (ExecutionException expected) {
+                    Assert.assertTrue(expected.getCause() instanceof AssertionError);
+                }
+            }
+            Assert.assertEquals(0, cache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedLoadNotCached() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 10);
+        try {
+            cache.get("a", () -> {
+                throw new IllegalStateException("expected");
+            });
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            log.debug("caught expected exception: " + expected);
+        }
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, (int) cache.get("a", () -> 1));
+    }
+
+    @Test
+    public void testCoalescedLoad() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>("test", 1, TimeUnit.MINUTES, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("a", () -> {
+                loading.countDown();
+                release.await();
+                return loads.incrementAndGet();
+            })));
+            loading.await();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("a", loads::incrementAndGet)));
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(1, (int) result.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, loads.get());
+            Assert.assertEquals(1, cache.getMisses());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.index;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiIndexTest {
+    private static final Logger log = Logger.getLogger(DoiIndexTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static DoiIndexEntry entry(String suffix, String requester, String status, boolean isPublic) {
+        return new DoiIndexEntry(suffix, requester, status, "title " + suffix, null, null, null, isPublic, 0L);
+    }
+
+    @Test
+    public void testSecondaryIndexes() {
+        DoiIndex index = new DoiIndex(null);
+        index.put(entry("25.0002", "1", "in progress", false));
+        index.put(entry("25.0001", "1", "minted", true));
+        index.put(entry("25.0003", "2", "in progress", false));
+
+        Assert.assertEquals(3, index.size());
+        List<DoiIndexEntry> owned = index.getByRequester("1");
+        Assert.assertEquals(2, owned.size());
+        Assert.assertEquals("25.0001", owned.get(0).getSuffix());
+        Assert.assertEquals("25.0002", owned.get(1).getSuffix());
+        Assert.assertEquals(2, index.getByStatus(List.of("in progress")).size());
+        Assert.assertEquals(1, index.getPublic().size());
+
+        // update moves the entry between secondary indexes
+        index.put(entry("25.0002", "1", "minted", true));
+        Assert.assertEquals(1, index.getByStatus(List.of("in progress")).size());
+        Assert.assertEquals(2, index.getByStatus(List.of("minted")).size());
+        Assert.assertEquals(2, index.getPublic().size());
+
+        index.remove("25.0001");
+        Assert.assertNull(index.get("25.0001"));
+        Assert.assertEquals(1, index.getByRequester("1").size());
+        Assert.assertTrue(index.getByRequester("3").isEmpty());
+    }
+
+    @Test
+    public void testReconcile() throws Exception {
+        DoiIndex index = new DoiIndex(null);
+        Assert.assertFalse(index.isReady());
+        index.put(entry("25.0001", "1", "in progress", false));
+        index.put(entry("25.0002", "1", "in progress", false));
+
+        long listedAt = System.currentTimeMillis() + 1000L;
+        int changes = index.reconcile(List.of(
+                entry("25.0001", "1", "review ready", false),
+                entry("25.0003", "2", "in progress", false)), listedAt);
+        Assert.assertTrue(index.isReady());
+        Assert.assertEquals(3, changes);
+        Assert.assertEquals("review ready", index.get("25.0001").getStatus());
+        Assert.assertNull(index.get("25.0002"));
+        Assert.assertNotNull(index.get("25.0003"));
+
+        // local updates and deletes made after the listing started are kept
+        listedAt = System.currentTimeMillis();
+        Thread.sleep(5L);
+        index.put(entry("25.0001", "1", "minted", true));
+        index.put(entry("25.0004", "1", "in progress", false));
+        index.remove("25.0003");
+        changes = index.reconcile(List.of(
+                entry("25.0001", "1", "review ready", false),
+                entry("25.0003", "2", "in progress", false)), listedAt);
+        Assert.assertEquals(0, changes);
+        Assert.assertEquals("minted", index.get("25.0001").getStatus());
+        Assert.assertNotNull(index.get("25.0004"));
+        Assert.assertNull(index.get("25.0003"));
+    }
+
+    @Test
+    public void testLoadSave() throws Exception {
+        File dir = Files.createTempDirectory("doi-index").toFile();
+        try {
+            DoiIndex index = new DoiIndex(dir);
+            Assert.assertFalse(index.load());
+            index.reconcile(List.of(entry("25.0001", "1", "in progress", false)), System.currentTimeMillis());
+            index.put(new DoiIndexEntry("25.0002", "2", "minted", "Titre été", "ApJ 1", "3",
+                    "https://example.net/job/1", true, 1234L));
+            index.put(entry("25.0003", "2", "in progress", false));
+            index.remove("25.0001");
+            index.close();
+
+            DoiIndex loaded = new DoiIndex(dir);
+            Assert.assertTrue(loaded.load());
+            Assert.assertTrue(loaded.isReady());
+            Assert.assertEquals(2, loaded.size());
+            Assert.assertNull(loaded.get("25.0001"));
+            DoiIndexEntry entry = loaded.get("25.0002");
+            Assert.assertEquals("Titre été", entry.getTitle());
+            Assert.assertEquals("ApJ 1", entry.getJournalRef());
+            Assert.assertEquals("3", entry.getReviewer());
+            Assert.assertEquals("https://example.net/job/1", entry.getJobURL());
+            Assert.assertTrue(entry.isPublic());
+            Assert.assertEquals(1234L, entry.getLastModified());
+
+            // a truncated last record is dropped
+            loaded.put(entry("25.0004", "2", "in progress", false));
+            loaded.close();
+            File indexFile = new File(dir, DoiIndex.INDEX_FILENAME);
+            try (RandomAccessFile raf = new RandomAccessFile(indexFile, "rw")) {
+                raf.setLength(raf.length() - 3);
+            }
+            DoiIndex truncated = new DoiIndex(dir);
+            Assert.assertTrue(truncated.load());
+            Assert.assertEquals(2, truncated.size());
+            Assert.assertNull(truncated.get("25.0004"));
+            truncated.close();
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.io;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParserPoolTest {
+    private static final Logger log = Logger.getLogger(ParserPoolTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ParserPool<Integer> pool = new ParserPool<>(created::incrementAndGet);
+
+        ParserPool.Pooled<Integer> first = pool.borrow();
+        Assert.assertEquals(0, pool.getIdleCount());
+        ParserPool.Pooled<Integer> second = pool.borrow();
+        Assert.assertEquals(2, created.get());
+        Assert.assertFalse(first.parser.equals(second.parser));
+        pool.release(second);
+        pool.release(first);
+        Assert.assertEquals(2, pool.getIdleCount());
+
+        // idle parsers are re-used
+        ParserPool.Pooled<Integer> third = pool.borrow();
+        Assert.assertEquals(2, created.get());
+        Assert.assertEquals(1, pool.getIdleCount());
+        pool.release(third);
+
+        // at most MAX_IDLE parsers are kept
+        List<ParserPool.Pooled<Integer>> borrowed = new ArrayList<>();
+        for (int i = 0; i < ParserPool.MAX_IDLE + 2; i++) {
+            borrowed.add(pool.borrow());
+        }
+        for (ParserPool.Pooled<Integer> pooled : borrowed) {
+            pool.release(pooled);
+        }
+        Assert.assertEquals(ParserPool.MAX_IDLE, pool.getIdleCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        ParserPool<Object> pool = new ParserPool<>(Object::new);
+        ParserPool.Pooled<Object> pooled = pool.borrow();
+        try {
+            pooled.acquire();
+            Assert.fail("expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException expected) {
+            log.debug("expected: " + expected);
+        }
+
+        // release by a thread other than the one using the parser
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread t = new Thread(() -> {
+            try {
+                pool.release(pooled);
+            } catch (Exception ex) {
+                failure.set(ex);
+            }
+        });
+        t.start();
+        t.join();
+        Assert.assertTrue(failure.get() instanceof ConcurrentModificationException);
+        Assert.assertEquals(0, pool.getIdleCount());
+
+        pool.release(pooled);
+        Assert.assertEquals(1, pool.getIdleCount());
+    }
+}
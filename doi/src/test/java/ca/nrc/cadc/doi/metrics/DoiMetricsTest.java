@@ -0,0 +1,186 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.metrics;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DoiMetricsTest {
+    private static final Logger log = Logger.getLogger(DoiMetricsTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @Before
+    @After
+    public void reset() {
+        DoiMetrics.reset();
+    }
+
+    private static List<String> write() throws Exception {
+        StringWriter writer = new StringWriter();
+        DoiMetrics.write(writer);
+        log.debug(writer);
+        return Arrays.asList(writer.toString().split("\n"));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        List<String> lines = write();
+        Assert.assertTrue(lines.contains("# TYPE doi_action_phase_seconds histogram"));
+        Assert.assertTrue(lines.contains("# TYPE doi_outbound_call_seconds histogram"));
+        Assert.assertTrue(lines.contains("# TYPE doi_outbound_call_failures_total counter"));
+        Assert.assertTrue(lines.contains("# TYPE doi_outbound_call_retries_total counter"));
+        for (String line : lines) {
+            Assert.assertTrue(line, line.startsWith("#"));
+        }
+    }
+
+    @Test
+    public void testPhases() throws Exception {
+        DoiMetrics.recordPhase("GetAction", DoiMetrics.LIST, TimeUnit.MILLISECONDS.toNanos(2));
+        DoiMetrics.recordPhase("GetAction", DoiMetrics.LIST, TimeUnit.MILLISECONDS.toNanos(4));
+        DoiMetrics.recordPhase("GetAction", DoiMetrics.INIT, TimeUnit.MICROSECONDS.toNanos(50));
+
+        List<String> lines = write();
+        String list = "{action=\"GetAction\",phase=\"list\"";
+        // cumulative buckets
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_bucket" + list + ",le=\"0.001\"} 0"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_bucket" + list + ",le=\"0.0025\"} 1"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_bucket" + list + ",le=\"0.005\"} 2"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_bucket" + list + ",le=\"300.0\"} 2"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_bucket" + list + ",le=\"+Inf\"} 2"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_sum" + list + "} 0.006"));
+        Assert.assertTrue(lines.contains("doi_action_phase_seconds_count" + list + "} 2"));
+        Assert.assertTrue(lines.contains(
+                "doi_action_phase_seconds_bucket{action=\"GetAction\",phase=\"init\",le=\"0.001\"} 1"));
+        Assert.assertTrue(lines.contains(
+                "doi_action_phase_seconds_count{action=\"GetAction\",phase=\"init\"} 1"));
+
+        // samples are sorted by labels
+        int init = lines.indexOf("doi_action_phase_seconds_count{action=\"GetAction\",phase=\"init\"} 1");
+        int list2 = lines.indexOf("doi_action_phase_seconds_count" + list + "} 2");
+        Assert.assertTrue(init < list2);
+    }
+
+    @Test
+    public void testCalls() throws Exception {
+        DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getNode", TimeUnit.MILLISECONDS.toNanos(10), true);
+        DoiMetrics.recordCall(DoiMetrics.VOSPACE, "getNode", TimeUnit.MILLISECONDS.toNanos(20), false);
+        DoiMetrics.recordRetry(DoiMetrics.VOSPACE, "getNode");
+
+        List<String> lines = write();
+        String labels = "{target=\"vospace\",operation=\"getNode\"}";
+        Assert.assertTrue(lines.contains("doi_outbound_call_seconds_count" + labels + " 2"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_seconds_sum" + labels + " 0.03"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_failures_total" + labels + " 1"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_retries_total" + labels + " 1"));
+    }
+
+    @Test
+    public void testCallCounts() throws Exception {
+        Assert.assertEquals(0, DoiMetrics.getCallCount(DoiMetrics.DATACITE, "rest.dois"));
+        DoiMetrics.recordCall(DoiMetrics.DATACITE, "rest.dois", TimeUnit.MILLISECONDS.toNanos(15), true);
+        DoiMetrics.recordCall(DoiMetrics.DATACITE, "rest.dois", TimeUnit.MILLISECONDS.toNanos(25), false);
+        DoiMetrics.recordRetry(DoiMetrics.DATACITE, "rest.dois");
+        Assert.assertEquals(2, DoiMetrics.getCallCount(DoiMetrics.DATACITE, "rest.dois"));
+        Assert.assertEquals(1, DoiMetrics.getFailureCount(DoiMetrics.DATACITE, "rest.dois"));
+        Assert.assertEquals(1, DoiMetrics.getRetryCount(DoiMetrics.DATACITE, "rest.dois"));
+        Assert.assertEquals(0, DoiMetrics.getFailureCount(DoiMetrics.DATACITE, "mds.doi"));
+
+        List<String> lines = write();
+        String labels = "{target=\"datacite\",operation=\"rest.dois\"}";
+        Assert.assertTrue(lines.contains("doi_outbound_call_seconds_count" + labels + " 2"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_seconds_sum" + labels + " 0.04"));
+        String bucket = "doi_outbound_call_seconds_bucket{target=\"datacite\",operation=\"rest.dois\",le=";
+        Assert.assertTrue(lines.contains(bucket + "\"0.01\"} 0"));
+        Assert.assertTrue(lines.contains(bucket + "\"0.05\"} 2"));
+        Assert.assertTrue(lines.contains(bucket + "\"+Inf\"} 2"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_failures_total" + labels + " 1"));
+        Assert.assertTrue(lines.contains("doi_outbound_call_retries_total" + labels + " 1"));
+    }
+
+    @Test
+    public void testLabelEscaping() throws Exception {
+        DoiMetrics.recordCall("a\"b", "c\\d\ne", 1000, true);
+        List<String> lines = write();
+        Assert.assertTrue(lines.contains(
+                "doi_outbound_call_seconds_count{target=\"a\\\"b\",operation=\"c\\\\d\\ne\"} 1"));
+    }
+}
@@ -0,0 +1,205 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.metrics;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+    private static final Logger log = Logger.getLogger(HistogramTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    @Test
+    public void testBuckets() {
+        // the buckets are contiguous and each value is in its bucket
+        int last = Histogram.getIndex(Histogram.MAX_VALUE);
+        for (int i = 0; i < last; i++) {
+            Assert.assertEquals("bucket " + i, Histogram.getHighestValue(i) + 1, Histogram.getLowestValue(i + 1));
+            Assert.assertEquals(i, Histogram.getIndex(Histogram.getLowestValue(i)));
+            Assert.assertEquals(i, Histogram.getIndex(Histogram.getHighestValue(i)));
+        }
+        Assert.assertEquals(Histogram.MAX_VALUE, Histogram.getHighestValue(last));
+
+        // small values are exact, larger values are within ~3%
+        for (long v = 0; v < 2 * Histogram.SUB_BUCKET_COUNT; v++) {
+            int i = Histogram.getIndex(v);
+            Assert.assertEquals(v, Histogram.getLowestValue(i));
+            Assert.assertEquals(v, Histogram.getHighestValue(i));
+        }
+        for (int i = 2 * Histogram.SUB_BUCKET_COUNT; i <= last; i++) {
+            long low = Histogram.getLowestValue(i);
+            long width = Histogram.getHighestValue(i) - low + 1;
+            Assert.assertTrue("bucket " + i, (double) width / low <= 1.0 / Histogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void testQuantiles() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getValueAtQuantile(0.5));
+
+        for (long v = 1; v <= 100000; v++) {
+            histogram.record(v);
+        }
+        Assert.assertEquals(100000, histogram.getCount());
+        Assert.assertEquals(100000L * 100001 / 2, histogram.getSum());
+        Assert.assertEquals(100000, histogram.getMax());
+        for (double q : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long expected = (long) (q * 100000);
+            long actual = histogram.getValueAtQuantile(q);
+            log.debug(q + ": " + actual);
+            Assert.assertTrue(q + ": " + actual, actual >= expected);
+            Assert.assertTrue(q + ": " + actual, actual <= expected * 1.03);
+        }
+        Assert.assertEquals(100000, histogram.getValueAtQuantile(1.0));
+        Assert.assertEquals(1, histogram.getValueAtQuantile(0.0));
+    }
+
+    @Test
+    public void testCumulativeCounts() {
+        Histogram histogram = new Histogram();
+        Assert.assertArrayEquals(new long[] {0, 0, 0}, histogram.getCumulativeCounts(10, 1000));
+
+        for (long v : new long[] {5, 10, 11, 500, 1000, 1020, 5000}) {
+            histogram.record(v);
+        }
+        // 1000 is in the bucket 992-1007, which is counted whole above the bound 1000
+        Assert.assertEquals(1007, Histogram.getHighestValue(Histogram.getIndex(1000)));
+        Assert.assertArrayEquals(new long[] {0, 2, 4, 6, 7, 7}, histogram.getCumulativeCounts(1, 10, 1000, 1023, 6000));
+        Assert.assertArrayEquals(new long[] {7, 7}, histogram.getCumulativeCounts(Histogram.MAX_VALUE));
+    }
+
+    @Test
+    public void testLimits() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        Assert.assertEquals(0, histogram.getValueAtQuantile(1.0));
+        Assert.assertEquals(0, histogram.getSum());
+
+        long large = Histogram.MAX_VALUE * 4;
+        histogram.record(large);
+        Assert.assertEquals(2, histogram.getCount());
+        Assert.assertEquals(large, histogram.getMax());
+        Assert.assertEquals(large, histogram.getSum());
+        Assert.assertEquals(Histogram.MAX_VALUE, histogram.getValueAtQuantile(1.0));
+
+        // a quantile is not more than the highest recorded value
+        histogram = new Histogram();
+        histogram.record(1000);
+        Assert.assertEquals(1000, histogram.getValueAtQuantile(0.5));
+    }
+
+    @Test
+    public void testConcurrentRecord() throws Exception {
+        Histogram histogram = new Histogram();
+        int threads = 8;
+        int values = 100000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    long sum = 0;
+                    for (int i = 0; i < values; i++) {
+                        long v = random.nextInt(1000000);
+                        histogram.record(v);
+                        sum += v;
+                    }
+                    return sum;
+                }));
+            }
+            long sum = 0;
+            for (Future<Long> future : futures) {
+                sum += future.get(60, TimeUnit.SECONDS);
+            }
+            Assert.assertEquals((long) threads * values, histogram.getCount());
+            Assert.assertEquals(sum, histogram.getSum());
+            Assert.assertTrue(histogram.getMax() < 1000000);
+            long median = histogram.getValueAtQuantile(0.5);
+            Assert.assertTrue("median: " + median, median > 480000 && median < 520000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MintQueueTest {
+    private static final Logger log = Logger.getLogger(MintQueueTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private File dir;
+
+    @Before
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("doi-mint").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private MintQueue newQueue(MintHandler handler, int maxAttempts) {
+        return new MintQueue(new MintJobStore(dir), handler, 2, maxAttempts, 10L, 10L, 40L);
+    }
+
+    private static MintJob waitForFinal(MintQueue queue, String id) throws Exception {
+        long end = System.currentTimeMillis() + 10000L;
+        MintJob job = queue.get(id);
+        while (!job.getPhase().isFinal() && System.currentTimeMillis() < end) {
+            Thread.sleep(10L);
+        }
+        return job;
+    }
+
+    @Test
+    public void testStoreRoundTrip() throws Exception {
+        MintJobStore store = new MintJobStore(dir);
+        MintJob job = new MintJob("job-1", "25.0001", 1000L);
+        job.setPhase(MintJob.Phase.QUEUED);
+        job.setAttempts(2);
+        job.setUpdated(2000L);
+        job.setNextAttempt(3000L);
+        job.setError("DataCite unavailable");
+        store.save(job);
+        store.save(new MintJob("job-2", "25.0001", 1500L));
+        Files.write(new File(dir, "broken" + MintJobStore.JOB_FILE_EXTENSION).toPath(), "phase=X".getBytes());
+
+        List<MintJob> jobs = new MintJobStore(dir).load();
+        Assert.assertEquals(2, jobs.size());
+        MintJob actual = jobs.get(0);
+        Assert.assertEquals("job-1", actual.getID());
+        Assert.assertEquals("25.0001", actual.getDoiSuffix());
+        Assert.assertEquals(MintJob.Phase.QUEUED, actual.getPhase());
+        Assert.assertEquals(2, actual.getAttempts());
+        Assert.assertEquals(1000L, actual.getCreated().getTime());
+        Assert.assertEquals(2000L, actual.getUpdated().getTime());
+        Assert.assertEquals(3000L, actual.getNextAttempt().getTime());
+        Assert.assertEquals("DataCite unavailable", actual.getError());
+        Assert.assertEquals("job-2", jobs.get(1).getID());
+
+        // the invalid job file is kept aside and not loaded again
+        File broken = new File(dir, "broken" + MintJobStore.JOB_FILE_EXTENSION);
+        Assert.assertFalse(broken.exists());
+        Assert.assertTrue(new File(dir, broken.getName() + MintJobStore.INVALID_FILE_EXTENSION).exists());
+
+        store.remove("job-1");
+        Assert.assertNull(store.get("job-1"));
+        Assert.assertEquals(1, new MintJobStore(dir).load().size());
+    }
+
+    @Test
+    public void testPollUntilMinted() throws Exception {
+        // two checks while the data locking job runs, then minted
+        AtomicInteger calls = new AtomicInteger();
+        MintQueue queue = newQueue(suffix -> calls.incrementAndGet() >= 3, 3);
+        try {
+            MintJob job = queue.submit("25.0001");
+            job = waitForFinal(queue, job.getID());
+            Assert.assertEquals(MintJob.Phase.COMPLETED, job.getPhase());
+            Assert.assertEquals(3, calls.get());
+            Assert.assertEquals(0, job.getAttempts());
+            Assert.assertNull(job.getError());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MintQueue queue = newQueue(suffix -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RuntimeException("DataCite unavailable");
+            }
+            return true;
+        }, 3);
+        try {
+            MintJob job = waitForFinal(queue, queue.submit("25.0001").getID());
+            Assert.assertEquals(MintJob.Phase.COMPLETED, job.getPhase());
+            Assert.assertEquals(2, job.getAttempts());
+        } finally {
+            queue.shutdown();
+        }
+
+        // gives up after max attempts
+        queue = newQueue(suffix -> {
+            throw new RuntimeException("DataCite unavailable");
+        }, 3);
+        try {
+            MintJob job = waitForFinal(queue, queue.submit("25.0002").getID());
+            Assert.assertEquals(MintJob.Phase.ERROR, job.getPhase());
+            Assert.assertEquals(3, job.getAttempts());
+            Assert.assertEquals("DataCite unavailable", job.getError());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testNotMintable() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MintQueue queue = newQueue(suffix -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Cannot publish a DOI with status 'rejected'");
+        }, 3);
+        try {
+            MintJob job = waitForFinal(queue, queue.submit("25.0001").getID());
+            Assert.assertEquals(MintJob.Phase.ERROR, job.getPhase());
+            Assert.assertEquals(1, calls.get());
+            Assert.assertEquals(0, job.getAttempts());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmitExisting() throws Exception {
+        // handler never finishes, the job stays unfinished
+        MintQueue queue = new MintQueue(new MintJobStore(dir), suffix -> false, 1, 3, 60000L, 10L, 40L);
+        try {
+            MintJob job = queue.submit("25.0001");
+            Assert.assertSame(job, queue.submit("25.0001"));
+            Assert.assertNotSame(job, queue.submit("25.0002"));
+            Assert.assertSame(job, queue.getLatest("25.0001"));
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        // a job left unfinished by a previous instance of the service
+        MintJobStore store = new MintJobStore(dir);
+        MintJob unfinished = new MintJob("job-1", "25.0001", System.currentTimeMillis());
+        unfinished.setPhase(MintJob.Phase.EXECUTING);
+        unfinished.setAttempts(1);
+        store.save(unfinished);
+        MintJob done = new MintJob("job-2", "25.0002", System.currentTimeMillis());
+        done.setPhase(MintJob.Phase.COMPLETED);
+        store.save(done);
+
+        AtomicInteger calls = new AtomicInteger();
+        MintQueue queue = newQueue(suffix -> {
+            log.debug("mint " + suffix);
+            calls.incrementAndGet();
+            return true;
+        }, 3);
+        try {
+            queue.start();
+            MintJob job = waitForFinal(queue, "job-1");
+            Assert.assertEquals(MintJob.Phase.COMPLETED, job.getPhase());
+            Assert.assertEquals(1, job.getAttempts());
+            Assert.assertEquals(1, calls.get());
+            Assert.assertEquals(MintJob.Phase.COMPLETED, queue.get("job-2").getPhase());
+        } finally {
+            queue.shutdown();
+        }
+
+        // the final state is saved
+        store = new MintJobStore(dir);
+        store.load();
+        Assert.assertEquals(MintJob.Phase.COMPLETED, store.get("job-1").getPhase());
+    }
+
+    @Test
+    public void testDrain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        MintQueue queue = new MintQueue(new MintJobStore(dir), suffix -> {
+            if ("25.0001".equals(suffix)) {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+            return true;
+        }, 1, 3, 10L, 10L, 40L);
+        MintJob running;
+        MintJob waiting;
+        try {
+            running = queue.submit("25.0001");
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            waiting = queue.submit("25.0002");
+
+            // the running attempt completes, the waiting job is not started
+            queue.drain();
+            release.countDown();
+            running = waitForFinal(queue, running.getID());
+            Assert.assertEquals(MintJob.Phase.COMPLETED, running.getPhase());
+            Assert.assertFalse(interrupted.get());
+            Thread.sleep(100L);
+            Assert.assertEquals(MintJob.Phase.QUEUED, queue.get(waiting.getID()).getPhase());
+        } finally {
+            queue.shutdown();
+        }
+
+        // and is resumed by a queue on the same store
+        MintQueue resumed = newQueue(suffix -> true, 3);
+        try {
+            resumed.start();
+            Assert.assertEquals(MintJob.Phase.COMPLETED, waitForFinal(resumed, waiting.getID()).getPhase());
+        } finally {
+            resumed.shutdown();
+        }
+    }
+
+    @Test
+    public void testConfigure() throws Exception {
+        MintQueue queue = newQueue(suffix -> true, 3);
+        try {
+            Assert.assertEquals(2, queue.getThreads());
+            Assert.assertEquals(3, queue.getMaxAttempts());
+            queue.configure(4, 5);
+            Assert.assertEquals(4, queue.getThreads());
+            Assert.assertEquals(5, queue.getMaxAttempts());
+            try {
+                queue.configure(0, 5);
+                Assert.fail("expected IllegalArgumentException");
+            } catch (IllegalArgumentException expected) {
+                log.debug("caught expected: " + expected);
+            }
+            Assert.assertEquals(4, queue.getThreads());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetryDelay() {
+        MintQueue queue = new MintQueue(new MintJobStore(dir), suffix -> true, 1, 3, 10L, 1000L, 5000L);
+        try {
+            for (int i = 0; i < 20; i++) {
+                long delay = queue.getRetryDelay(1);
+                Assert.assertTrue(delay >= 500L && delay <= 1000L);
+                delay = queue.getRetryDelay(2);
+                Assert.assertTrue(delay >= 1000L && delay <= 2000L);
+                delay = queue.getRetryDelay(10);
+                Assert.assertTrue(delay >= 2500L && delay <= 5000L);
+            }
+        } finally {
+            queue.shutdown();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.mint;
+
+import ca.nrc.cadc.util.Log4jInit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PendingJobTrackerTest {
+    private static final Logger log = Logger.getLogger(PendingJobTrackerTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static void waitUntilDone(PendingJobTracker tracker, String doiSuffix) throws Exception {
+        long end = System.currentTimeMillis() + 10000L;
+        while (tracker.isTracked(doiSuffix) && System.currentTimeMillis() < end) {
+            Thread.sleep(10L);
+        }
+    }
+
+    @Test
+    public void testBackoff() throws Exception {
+        List<Long> checks = new CopyOnWriteArrayList<>();
+        PendingJobTracker tracker = new PendingJobTracker(suffix -> {
+            checks.add(System.currentTimeMillis());
+            return checks.size() >= 5;
+        }, 20L, 80L);
+        try {
+            long start = System.currentTimeMillis();
+            Assert.assertTrue(tracker.track("25.0001"));
+            Assert.assertFalse(tracker.track("25.0001"));
+            waitUntilDone(tracker, "25.0001");
+            Assert.assertFalse(tracker.isTracked("25.0001"));
+            Assert.assertEquals(5, checks.size());
+
+            // delays 20, 40, 80, 80, 80
+            Assert.assertTrue(checks.get(0) - start >= 20L);
+            Assert.assertTrue(checks.get(1) - checks.get(0) >= 40L);
+            Assert.assertTrue(checks.get(2) - checks.get(1) >= 80L);
+            Assert.assertTrue(checks.get(4) - checks.get(3) >= 80L);
+            log.debug("checks: " + checks);
+        } finally {
+            tracker.shutdown();
+        }
+    }
+
+    @Test
+    public void testCheckFailure() throws Exception {
+        // a failed check is retried
+        AtomicInteger calls = new AtomicInteger();
+        PendingJobTracker tracker = new PendingJobTracker(suffix -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RuntimeException("VOSpace unavailable");
+            }
+            return true;
+        }, 10L, 20L);
+        try {
+            tracker.track("25.0001");
+            waitUntilDone(tracker, "25.0001");
+            Assert.assertFalse(tracker.isTracked("25.0001"));
+            Assert.assertEquals(3, calls.get());
+
+            // tracked again when seen again
+            Assert.assertTrue(tracker.track("25.0001"));
+            waitUntilDone(tracker, "25.0001");
+            Assert.assertEquals(4, calls.get());
+        } finally {
+            tracker.shutdown();
+        }
+    }
+
+    @Test
+    public void testWhenUntracked() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PendingJobTracker tracker = new PendingJobTracker(suffix -> calls.incrementAndGet() >= 3, 10L, 20L);
+        try {
+            // a DOI is tracked, if it is not, and the future completes when its job is finished
+            CompletableFuture<Void> untracked = tracker.whenUntracked("25.0001");
+            Assert.assertTrue(tracker.isTracked("25.0001"));
+            Assert.assertSame(untracked, tracker.whenUntracked("25.0001"));
+            untracked.get(10, TimeUnit.SECONDS);
+            Assert.assertFalse(tracker.isTracked("25.0001"));
+            Assert.assertEquals(3, calls.get());
+
+            // completed by a shutdown
+            untracked = tracker.whenUntracked("25.0002");
+            tracker.shutdown();
+            Assert.assertTrue(untracked.isDone());
+            Assert.assertTrue(tracker.whenUntracked("25.0003").isDone());
+        } finally {
+            tracker.shutdown();
+        }
+    }
+
+    @Test
+    public void testMaxAge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PendingJobTracker tracker = new PendingJobTracker(suffix -> {
+            calls.incrementAndGet();
+            return false;
+        }, 10L, 10L, 50L);
+        try {
+            tracker.track("25.0001");
+            waitUntilDone(tracker, "25.0001");
+            Assert.assertFalse(tracker.isTracked("25.0001"));
+            Assert.assertEquals(0, tracker.size());
+            Assert.assertTrue(calls.get() >= 5);
+        } finally {
+            tracker.shutdown();
+        }
+    }
+}
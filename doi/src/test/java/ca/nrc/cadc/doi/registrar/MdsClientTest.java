@@ -0,0 +1,229 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.registrar;
+
+import ca.nrc.cadc.doi.DataCiteStub;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessControlException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MdsClientTest {
+    private static final Logger log = Logger.getLogger(MdsClientTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    // a local stand-in for the DataCite MDS service
+    private DataCiteStub dataCite;
+    private URL mdsURL;
+
+    @Before
+    public void setup() throws Exception {
+        dataCite = new DataCiteStub("/mds");
+        mdsURL = dataCite.getURL();
+    }
+
+    @After
+    public void cleanup() {
+        dataCite.stop();
+    }
+
+    private MdsClient newClient() {
+        return new MdsClient(mdsURL, "user", "secret", 1000L, 3, 10L);
+    }
+
+    // the DataCite calls, failures and retries recorded in the service metrics
+    private static long getCalls(String operation) {
+        return DoiMetrics.getCallCount(DoiMetrics.DATACITE, operation);
+    }
+
+    private static long getFailures(String operation) {
+        return DoiMetrics.getFailureCount(DoiMetrics.DATACITE, operation);
+    }
+
+    private static long getRetries(String operation) {
+        return DoiMetrics.getRetryCount(DoiMetrics.DATACITE, operation);
+    }
+
+    @Test
+    public void testRegister() throws Exception {
+        MdsClient client = newClient();
+        long metadataCalls = getCalls(MdsClient.METADATA_OPERATION);
+        long metadataFailures = getFailures(MdsClient.METADATA_OPERATION);
+        long doiCalls = getCalls(MdsClient.DOI_OPERATION);
+        client.registerMetadata("10.11570/25.0001", "<resource/>");
+        client.registerURL("10.11570/25.0001", "https://example.net/doi?doi=25.0001");
+
+        List<String> requests = dataCite.getRequests();
+        List<String> bodies = dataCite.getBodies();
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals("POST /mds/metadata/10.11570/25.0001 application/xml;charset=UTF-8", requests.get(0));
+        Assert.assertEquals("<resource/>", bodies.get(0));
+        Assert.assertEquals("PUT /mds/doi/10.11570/25.0001 text/plain;charset=UTF-8", requests.get(1));
+        Assert.assertEquals("doi=10.11570/25.0001\nurl=https://example.net/doi?doi=25.0001", bodies.get(1));
+        String expected = "Basic " + Base64.getEncoder().encodeToString("user:secret".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expected, dataCite.getAuthorizations().get(0));
+        Assert.assertEquals(expected, dataCite.getAuthorizations().get(1));
+
+        Assert.assertEquals(metadataCalls + 1, getCalls(MdsClient.METADATA_OPERATION));
+        Assert.assertEquals(metadataFailures, getFailures(MdsClient.METADATA_OPERATION));
+        Assert.assertEquals(doiCalls + 1, getCalls(MdsClient.DOI_OPERATION));
+
+        Assert.assertTrue(client.matches(new URL(mdsURL + "/"), "user", "secret"));
+        Assert.assertFalse(client.matches(mdsURL, "user", "other"));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        MdsClient client = newClient();
+        long metadataRetries = getRetries(MdsClient.METADATA_OPERATION);
+        long metadataFailures = getFailures(MdsClient.METADATA_OPERATION);
+        long doiFailures = getFailures(MdsClient.DOI_OPERATION);
+        dataCite.addResponseCodes(503, 429);
+        client.registerMetadata("10.11570/25.0001", "<resource/>");
+        Assert.assertEquals(3, dataCite.getRequests().size());
+        Assert.assertEquals(metadataRetries + 2, getRetries(MdsClient.METADATA_OPERATION));
+        Assert.assertEquals(metadataFailures, getFailures(MdsClient.METADATA_OPERATION));
+
+        // gives up after max attempts
+        dataCite.getRequests().clear();
+        dataCite.addResponseCodes(500, 502, 503);
+        try {
+            client.registerURL("10.11570/25.0001", "https://example.net/doi?doi=25.0001");
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+            log.debug("caught expected: " + expected);
+            Assert.assertTrue(expected.getMessage().startsWith("HttpResponse (503)"));
+        }
+        Assert.assertEquals(3, dataCite.getRequests().size());
+        Assert.assertEquals(doiFailures + 1, getFailures(MdsClient.DOI_OPERATION));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        MdsClient client = new MdsClient(mdsURL, "user", "secret", 200L, 3, 10L);
+        long metadataRetries = getRetries(MdsClient.METADATA_OPERATION);
+        dataCite.setResponseDelayMillis(1000L);
+        dataCite.addResponseCodes(0);
+        client.registerMetadata("10.11570/25.0001", "<resource/>");
+        Assert.assertEquals(metadataRetries + 1, getRetries(MdsClient.METADATA_OPERATION));
+    }
+
+    @Test
+    public void testNotRetried() throws Exception {
+        MdsClient client = newClient();
+        long metadataFailures = getFailures(MdsClient.METADATA_OPERATION);
+        dataCite.addResponseCodes(422);
+        try {
+            client.registerMetadata("10.11570/25.0001", "<resource/>");
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+            Assert.assertEquals("HttpResponse (422) - response 422", expected.getMessage());
+        }
+        Assert.assertEquals(1, dataCite.getRequests().size());
+
+        dataCite.getRequests().clear();
+        dataCite.addResponseCodes(401);
+        try {
+            client.registerMetadata("10.11570/25.0001", "<resource/>");
+            Assert.fail("expected AccessControlException");
+        } catch (AccessControlException expected) {
+            log.debug("caught expected: " + expected);
+        }
+        Assert.assertEquals(1, dataCite.getRequests().size());
+        Assert.assertEquals(metadataFailures + 2, getFailures(MdsClient.METADATA_OPERATION));
+    }
+
+    @Test
+    public void testRetryDelay() {
+        MdsClient client = new MdsClient(mdsURL, "user", "secret", 1000L, 3, 100L);
+        List<Long> delays = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long delay = client.getRetryDelay(1);
+            Assert.assertTrue(delay >= 50L && delay <= 100L);
+            delay = client.getRetryDelay(3);
+            Assert.assertTrue(delay >= 200L && delay <= 400L);
+            delays.add(delay);
+        }
+        log.debug("delays: " + delays);
+    }
+}
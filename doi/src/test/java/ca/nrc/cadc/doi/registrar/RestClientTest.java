@@ -0,0 +1,184 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+
+package ca.nrc.cadc.doi.registrar;
+
+import ca.nrc.cadc.doi.DataCiteStub;
+import ca.nrc.cadc.doi.datacite.Resource;
+import ca.nrc.cadc.doi.io.DoiXmlReader;
+import ca.nrc.cadc.doi.metrics.DoiMetrics;
+import ca.nrc.cadc.util.Log4jInit;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Base64;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RestClientTest {
+    private static final Logger log = Logger.getLogger(RestClientTest.class);
+
+    static {
+        Log4jInit.setLevel("ca.nrc.cadc.doi", Level.INFO);
+    }
+
+    private static final String TEST_FILE = "src/test/resources/xml-4.5/datacite-example-full-v4.5.xml";
+
+    // a local stand-in for the DataCite REST API
+    private DataCiteStub dataCite;
+    private URL restURL;
+
+    @Before
+    public void setup() throws Exception {
+        dataCite = new DataCiteStub("/api");
+        restURL = new URL(dataCite.getURL() + "/");
+    }
+
+    @After
+    public void cleanup() {
+        dataCite.stop();
+    }
+
+    private static Resource getResource() throws Exception {
+        return new DoiXmlReader(false).read(Files.readString(Paths.get(TEST_FILE)));
+    }
+
+    // the DataCite calls, failures and retries recorded in the service metrics
+    private static long getCalls(String operation) {
+        return DoiMetrics.getCallCount(DoiMetrics.DATACITE, operation);
+    }
+
+    private static long getFailures(String operation) {
+        return DoiMetrics.getFailureCount(DoiMetrics.DATACITE, operation);
+    }
+
+    private static long getRetries(String operation) {
+        return DoiMetrics.getRetryCount(DoiMetrics.DATACITE, operation);
+    }
+
+    @Test
+    public void testRegister() throws Exception {
+        Resource resource = getResource();
+        RestClient client = new RestClient(restURL, "user", "secret", 1000L, 3, 10L);
+        long calls = getCalls(RestClient.DOIS_OPERATION);
+        long failures = getFailures(RestClient.DOIS_OPERATION);
+        client.register("10.11570/25.0001", resource, "https://example.net/doi?doi=25.0001");
+
+        // one request sets the metadata and the URL and publishes the DOI
+        Assert.assertEquals(1, dataCite.getRequests().size());
+        Assert.assertEquals("PUT /api/dois/10.11570/25.0001 application/vnd.api+json", dataCite.getRequests().get(0));
+        JSONObject data = new JSONObject(dataCite.getBodies().get(0)).getJSONObject("data");
+        Assert.assertEquals("10.11570/25.0001", data.getString("id"));
+        Assert.assertEquals("dois", data.getString("type"));
+        JSONObject attributes = data.getJSONObject("attributes");
+        Assert.assertEquals("10.11570/25.0001", attributes.getString("doi"));
+        Assert.assertEquals("publish", attributes.getString("event"));
+        Assert.assertEquals("https://example.net/doi?doi=25.0001", attributes.getString("url"));
+
+        String xml = new String(Base64.getDecoder().decode(attributes.getString("xml")), StandardCharsets.UTF_8);
+        Assert.assertEquals(DataCiteClient.toXml(resource), xml);
+        Resource actual = new DoiXmlReader(false).read(xml);
+        Assert.assertEquals(resource.getIdentifier().getValue(), actual.getIdentifier().getValue());
+
+        Assert.assertEquals(calls + 1, getCalls(RestClient.DOIS_OPERATION));
+        Assert.assertEquals(failures, getFailures(RestClient.DOIS_OPERATION));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        Resource resource = getResource();
+        RestClient client = new RestClient(restURL, "user", "secret", 1000L, 3, 10L);
+        long retries = getRetries(RestClient.DOIS_OPERATION);
+        long failures = getFailures(RestClient.DOIS_OPERATION);
+        dataCite.addResponseCodes(503);
+        client.register("10.11570/25.0001", resource, "https://example.net/doi?doi=25.0001");
+        Assert.assertEquals(2, dataCite.getRequests().size());
+        Assert.assertEquals(dataCite.getBodies().get(0), dataCite.getBodies().get(1));
+        Assert.assertEquals(retries + 1, getRetries(RestClient.DOIS_OPERATION));
+
+        // invalid metadata is not retried
+        dataCite.getRequests().clear();
+        dataCite.addResponseCodes(422);
+        try {
+            client.register("10.11570/25.0001", resource, "https://example.net/doi?doi=25.0001");
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+            log.debug("caught expected: " + expected);
+            Assert.assertTrue(expected.getMessage().startsWith("HttpResponse (422)"));
+        }
+        Assert.assertEquals(1, dataCite.getRequests().size());
+        Assert.assertEquals(failures + 1, getFailures(RestClient.DOIS_OPERATION));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+************************************************************************
+*******************  CANADIAN ASTRONOMY DATA CENTRE  *******************
+**************  CENTRE CANADIEN DE DONNÉES ASTRONOMIQUES  **************
+*
+*  (c) 2026.                            (c) 2026.
+*  Government of Canada                 Gouvernement du Canada
+*  National Research Council            Conseil national de recherches
+*  Ottawa, Canada, K1A 0R6              Ottawa, Canada, K1A 0R6
+*  All rights reserved                  Tous droits réservés
+*
+*  NRC disclaims any warranties,        Le CNRC dénie toute garantie
+*  expressed, implied, or               énoncée, implicite ou légale,
+*  statutory, of any kind with          de quelque nature que ce
+*  respect to the software,             soit, concernant le logiciel,
+*  including without limitation         y compris sans restriction
+*  any warranty of merchantability      toute garantie de valeur
+*  or fitness for a particular          marchande ou de pertinence
+*  purpose. NRC shall not be            pour un usage particulier.
+*  liable in any event for any          Le CNRC ne pourra en aucun cas
+*  damages, whether direct or           être tenu responsable de tout
+*  indirect, special or general,        dommage, direct ou indirect,
+*  consequential or incidental,         particulier ou général,
+*  arising from the use of the          accessoire ou fortuit, résultant
+*  software.  Neither the name          de l'utilisation du logiciel. Ni
+*  of the National Research             le nom du Conseil National de
+*  Council of Canada nor the            Recherches du Canada ni les noms
+*  names of its contributors may        de ses  participants ne peuvent
+*  be used to endorse or promote        être utilisés pour approuver ou
+*  products derived from this           promouvoir les produits dérivés
+*  software without specific prior      de ce logiciel sans autorisation
+*  written permission.                  préalable et particulière
+*                                       par écrit.
+*
+*  This file is part of the             Ce fichier fait partie du projet
+*  OpenCADC project.                    OpenCADC.
+*
+*  OpenCADC is free software:           OpenCADC est un logiciel libre ;
+*  you can redistribute it and/or       vous pouvez le redistribuer ou le
+*  modify it under the terms of         modifier suivant les termes de
+*  the GNU Affero General Public        la “GNU Affero General Public
+*  License as published by the          License” telle que publiée
+*  Free Software Foundation,            par la Free Software Foundation
+*  either version 3 of the              : soit la version 3 de cette
+*  License, or (at your option)         licence, soit (à votre gré)
+*  any later version.                   toute version ultérieure.
+*
+*  OpenCADC is distributed in the       OpenCADC est distribué
+*  hope that it will be useful,         dans l’espoir qu’il vous
+*  but WITHOUT ANY WARRANTY;            sera utile, mais SANS AUCUNE
+*  without even the implied             GARANTIE : sans même la garantie
+*  warranty of MERCHANTABILITY          implicite de COMMERCIALISABILITÉ
+*  or FITNESS FOR A PARTICULAR          ni d’ADÉQUATION À UN OBJECTIF
+*  PURPOSE.  See the GNU Affero         PARTICULIER. Consultez la Licence
+*  General Public License for           Générale Publique GNU Affero
+*  more details.                        pour plus de détails.
+*
+*  You should have received             Vous devriez avoir reçu une
+*  a copy of the GNU Affero             copie de la Licence Générale
+*  General Public License along         Publique GNU Affero avec
+*  with OpenCADC.  If not, see          OpenCADC ; si ce n’est
+*  <http://www.gnu.org/licenses/>.      pas le cas, consultez :
+*                                       <http://www.gnu.org/licenses/>.
+*
+************************************************************************
+*/
+
+package ca.nrc.cadc.doi.search;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoiPageTest {
+
+    @Test
+    public void testParse() {
+        DoiPage page = DoiPage.parse(null, null, null, null);
+        Assert.assertNull(page.getLimit());
+        Assert.assertEquals(0, page.getOffset());
+        Assert.assertEquals(SortKey.SUFFIX, page.getSortKey());
+        Assert.assertFalse(page.isDescending());
+
+        page = DoiPage.parse("10", "20", "Title", "desc");
+        Assert.assertEquals(Integer.valueOf(10), page.getLimit());
+        Assert.assertEquals(20, page.getOffset());
+        Assert.assertEquals(SortKey.TITLE, page.getSortKey());
+        Assert.assertTrue(page.isDescending());
+
+        String[][] invalid = {{"x", null, null, null}, {"-1", null, null, null}, {null, "-5", null, null},
+            {null, null, "date", null}, {null, null, null, "up"}};
+        for (String[] values : invalid) {
+            try {
+                DoiPage.parse(values[0], values[1], values[2], values[3]);
+                Assert.fail("expected IllegalArgumentException: " + Arrays.toString(values));
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testApply() {
+        List<Integer> all = List.of(0, 1, 2, 3, 4);
+        Assert.assertEquals(all, DoiPage.parse(null, null, null, null).apply(all));
+        Assert.assertEquals(List.of(2, 3), DoiPage.parse("2", "2", null, null).apply(all));
+        Assert.assertEquals(List.of(3, 4), DoiPage.parse(null, "3", null, null).apply(all));
+        Assert.assertEquals(List.of(4), DoiPage.parse("10", "4", null, null).apply(all));
+        Assert.assertTrue(DoiPage.parse("10", "7", null, null).apply(all).isEmpty());
+        Assert.assertTrue(DoiPage.parse("0", null, null, null).apply(all).isEmpty());
+    }
+}
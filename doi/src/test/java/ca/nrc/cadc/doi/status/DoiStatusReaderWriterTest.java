@@ -71,6 +71,7 @@ package ca.nrc.cadc.doi.status;
 
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.util.List;
 
@@ -264,4 +265,48 @@ public class DoiStatusReaderWriterTest {
         }
     }
 
+    @Test
+    public void testStatusesStreamingWriters() {
+        try {
+            log.debug("testStatusesStreamingWriters");
+            DoiStatusListXmlReader xmlReader = new DoiStatusListXmlReader();
+
+            // read test xml file
+            String fileName = "src/test/resources/doi-statuses.xml";
+            FileInputStream fis = new FileInputStream(fileName);
+            List<DoiStatus> doiStatusListFromReader = xmlReader.read(fis);
+            fis.close();
+
+            // write the DoiStatus instances from an iterator in XML format
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new DoiStatusListXmlWriter().write(doiStatusListFromReader.iterator(), out);
+            List<DoiStatus> doiStatusListFromWriter = xmlReader.read(out.toString("UTF-8"));
+            compareDoiStatusList(doiStatusListFromReader, doiStatusListFromWriter);
+
+            // write the DoiStatus instances from an iterator in compact JSON format
+            out = new ByteArrayOutputStream();
+            new DoiStatusListJsonWriter(false).write(doiStatusListFromReader.iterator(), out);
+            String json = out.toString("UTF-8");
+            Assert.assertFalse("compact json", json.contains("\n"));
+            doiStatusListFromWriter = new DoiStatusListJsonReader().read(json);
+            compareDoiStatusList(doiStatusListFromReader, doiStatusListFromWriter);
+
+            // the number of DOIs left out follows the statuses and is skipped by the readers
+            out = new ByteArrayOutputStream();
+            new DoiStatusListXmlWriter().write(doiStatusListFromReader.iterator(), () -> 2, out);
+            String xml = out.toString("UTF-8");
+            Assert.assertTrue(xml, xml.contains("<omitted>2</omitted>\n</doiStatuses>"));
+            compareDoiStatusList(doiStatusListFromReader, xmlReader.read(xml));
+
+            out = new ByteArrayOutputStream();
+            new DoiStatusListJsonWriter(false).write(doiStatusListFromReader.iterator(), () -> 2, out);
+            json = out.toString("UTF-8");
+            Assert.assertTrue(json, json.endsWith("],\"omitted\":{\"$\":\"2\"}}}"));
+            compareDoiStatusList(doiStatusListFromReader, new DoiStatusListJsonReader().read(json));
+        } catch (Exception ex) {
+            log.error(ex);
+            fail(ex.getMessage());
+        }
+    }
+
 }